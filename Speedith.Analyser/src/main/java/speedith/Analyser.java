@@ -1,27 +1,42 @@
 package speedith;
 
 import org.apache.commons.cli.*;
-import speedith.analyser.ProofAnalyserVisitor;
+import speedith.analyser.AnalysisPipeline;
+import speedith.analyser.AnalysisTask;
+import speedith.analyser.ProofScanner;
+import speedith.analyser.ResultCache;
 import speedith.cli.AnalyserOptions;
+import speedith.core.reasoning.io.ProofArchive;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.*;
-import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
- * Command line tool to analyse all proofs within a given directory.
+ * Command line tool to analyse all proofs within a given directory or proof
+ * archive (see {@link ProofConverter}). The directory is scanned and the proofs
+ * are analysed concurrently, and the metrics of the proofs are written as soon as
+ * they are available (see {@link AnalysisPipeline}). The metrics of proof files
+ * are cached between runs, so that only new or changed proofs are analysed again
+ * (see {@link ResultCache}).
  *
  * @author Sven Linker [s.linker@brighton.ac.uk]
  */
 public class Analyser {
 
+    private static final String USAGE = "proof-analyser [-R] <-i input dir or archive> <-o output file> [-t threads] [-c cache file] [-r]";
+
+    private static final String CACHE_EXTENSION = ".cache";
+
     public static void main(String[] args) {
         AnalyserOptions options = new AnalyserOptions();
         CommandLineParser parser = new BasicParser();
         HelpFormatter help = new HelpFormatter();
-        ProofAnalyserVisitor visitor = new ProofAnalyserVisitor();
         boolean recursive ;
 
         try {
@@ -31,20 +46,55 @@ public class Analyser {
                 help.printHelp("proof-analyser", options);
                 return ;
             }
+            int threads = Runtime.getRuntime().availableProcessors();
+            if (line.hasOption(AnalyserOptions.THREADS_SHORT)) {
+                try {
+                    threads = Integer.parseInt(line.getOptionValue(AnalyserOptions.THREADS_SHORT));
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Not a number: " + line.getOptionValue(AnalyserOptions.THREADS_SHORT));
+                }
+                if (threads < 1) {
+                    throw new ParseException("The number of threads must be positive.");
+                }
+            }
             Path input = FileSystems.getDefault().getPath(line.getOptionValue(AnalyserOptions.INPUT_SHORT));
-            int depth = recursive ? Integer.MAX_VALUE : 1;
-            Files.walkFileTree(input, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, visitor);
-            File output = new File(line.getOptionValue(AnalyserOptions.OUTPUT_SHORT));
-            FileWriter writer = new FileWriter(output);
-            writer.write(visitor.getResult());
-            writer.close();
+            Path cacheFile = FileSystems.getDefault().getPath(line.getOptionValue(AnalyserOptions.CACHE_SHORT,
+                    line.getOptionValue(AnalyserOptions.OUTPUT_SHORT) + CACHE_EXTENSION));
+            ResultCache cache = null;
+            List<AnalysisTask> tasks = new ArrayList<>();
+            if (Files.isDirectory(input)) {
+                cache = line.hasOption(AnalyserOptions.REBUILD_SHORT) ? ResultCache.empty() : ResultCache.load(cacheFile);
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    for (Path proof : ProofScanner.scan(input, recursive, pool)) {
+                        tasks.add(AnalysisTask.forFile(proof, cache));
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            } else {
+                // the proofs of an archive are analysed without replaying them, hence they are not cached
+                ProofArchive archive = new ProofArchive(input.toFile());
+                for (int i = 0; i < archive.size(); i++) {
+                    tasks.add(AnalysisTask.forArchive(archive, i));
+                }
+            }
+            try (Writer writer = new BufferedWriter(new FileWriter(line.getOptionValue(AnalyserOptions.OUTPUT_SHORT)))) {
+                new AnalysisPipeline(threads, writer, System.err).run(tasks);
+            }
+            if (cache != null) {
+                System.err.println("Reused the cached metrics of " + cache.getHits() + " proofs.");
+                cache.save(cacheFile);
+            }
         } catch (ParseException e) {
-            help.printHelp("proof-analyser [-R] <-i input dir> <-o output file>", options);
-
+            System.err.println(e.getMessage());
+            help.printHelp(USAGE, options);
         } catch (NoSuchFileException e) {
             System.out.println("No file with this name exists: " + e.getFile());
         } catch (IOException e) {
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
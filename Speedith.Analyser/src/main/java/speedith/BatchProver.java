@@ -0,0 +1,157 @@
+package speedith;
+
+import org.apache.commons.cli.*;
+import speedith.batch.GoalCollector;
+import speedith.batch.ProofRecord;
+import speedith.batch.ProofTask;
+import speedith.batch.RecordFormat;
+import speedith.cli.BatchProverOptions;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Command line tool to prove all goals within a given directory (or listed in a
+ * manifest) with an automatic prover. The goals are proved concurrently by a
+ * fixed number of workers, each goal within its own timeout. One record per
+ * goal is written as soon as the goal is done, and the found proofs are saved,
+ * so that the proofs can be analysed afterwards (see {@link Analyser}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class BatchProver {
+
+    private static final String USAGE = "batch-prover [-R] <-i input dir or manifest> [-o proof dir] [-r results file] [-f json|csv] [-p prover] [-s strategy] [-t threads] [-T timeout]";
+
+    public static void main(String[] args) {
+        BatchProverOptions options = new BatchProverOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(BatchProverOptions.INPUT_SHORT)) {
+                help.printHelp(USAGE, options);
+                return;
+            }
+            String proverName = line.getOptionValue(BatchProverOptions.PROVER_SHORT, BatchProverOptions.DEFAULT_PROVER);
+            if (AutomaticProvers.getProvider(proverName) == null) {
+                throw new ParseException("Unknown prover: " + proverName + ". Known provers: " + AutomaticProvers.getKnownAutomaticProvers());
+            }
+            String strategyName = line.getOptionValue(BatchProverOptions.STRATEGY_SHORT, BatchProverOptions.DEFAULT_STRATEGY);
+            if (Strategies.getProvider(strategyName) == null) {
+                throw new ParseException("Unknown strategy: " + strategyName + ". Known strategies: " + Strategies.getKnownStrategies());
+            }
+            RecordFormat format = RecordFormat.fromName(line.getOptionValue(BatchProverOptions.FORMAT_SHORT, BatchProverOptions.DEFAULT_FORMAT));
+            if (format == null) {
+                throw new ParseException("Unknown format: " + line.getOptionValue(BatchProverOptions.FORMAT_SHORT));
+            }
+            int threads = (int) parseNumber(line, BatchProverOptions.THREADS_SHORT, Runtime.getRuntime().availableProcessors());
+            long timeout = parseNumber(line, BatchProverOptions.TIMEOUT_SHORT, BatchProverOptions.DEFAULT_TIMEOUT_SECONDS);
+            if (threads < 1 || timeout < 0) {
+                throw new ParseException("The number of threads must be positive and the timeout must not be negative.");
+            }
+            SearchLimits limits = timeout == 0 ? SearchLimits.NONE : SearchLimits.NONE.withTimeout(timeout, TimeUnit.SECONDS);
+            Path proofDirectory = FileSystems.getDefault().getPath(line.getOptionValue(BatchProverOptions.PROOFS_SHORT, BatchProverOptions.DEFAULT_PROOFS));
+
+            Path input = FileSystems.getDefault().getPath(line.getOptionValue(BatchProverOptions.INPUT_SHORT));
+            Path base;
+            List<Path> goals;
+            if (Files.isDirectory(input)) {
+                int depth = line.hasOption(BatchProverOptions.RECURSIVE_SHORT) ? Integer.MAX_VALUE : 1;
+                GoalCollector collector = new GoalCollector();
+                Files.walkFileTree(input, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, collector);
+                base = input.toAbsolutePath().normalize();
+                goals = collector.getGoals();
+            } else if (Files.exists(input)) {
+                base = input.toAbsolutePath().normalize().getParent();
+                goals = GoalCollector.readManifest(input);
+            } else {
+                throw new NoSuchFileException(input.toString());
+            }
+
+            PrintWriter results = line.hasOption(BatchProverOptions.RESULTS_SHORT)
+                    ? new PrintWriter(new OutputStreamWriter(new FileOutputStream(line.getOptionValue(BatchProverOptions.RESULTS_SHORT)), StandardCharsets.UTF_8))
+                    : new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            try {
+                proveAll(goals, base, proverName, strategyName, limits, proofDirectory, threads, format, results);
+            } finally {
+                results.flush();
+                if (line.hasOption(BatchProverOptions.RESULTS_SHORT)) {
+                    results.close();
+                }
+            }
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            help.printHelp(USAGE, options);
+        } catch (NoSuchFileException e) {
+            System.out.println("No file with this name exists: " + e.getFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Proves the given goals on a pool of workers and writes the record of each goal
+     * as soon as it is available, i.e., not necessarily in the order of the goals.
+     */
+    private static void proveAll(List<Path> goals, Path base, String proverName, String strategyName, SearchLimits limits,
+                                 Path proofDirectory, int threads, RecordFormat format, PrintWriter results) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<ProofRecord> completion = new ExecutorCompletionService<>(executor);
+        try {
+            for (Path goal : goals) {
+                completion.submit(new ProofTask(goal, goalName(base, goal), proverName, strategyName, limits, proofDirectory));
+            }
+            String header = format.getHeader();
+            if (header != null) {
+                results.println(header);
+            }
+            for (int i = 0; i < goals.size(); i++) {
+                ProofRecord record;
+                try {
+                    record = completion.take().get();
+                } catch (ExecutionException e) {
+                    // cannot happen, since the tasks catch all exceptions themselves
+                    throw new IllegalStateException(e.getCause());
+                }
+                results.println(format.format(record));
+                results.flush();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Names goals by their path relative to the input directory (or the directory of
+     * the manifest), so that goals of different subdirectories can be told apart.
+     */
+    private static String goalName(Path base, Path goal) {
+        Path absolute = goal.toAbsolutePath().normalize();
+        return absolute.startsWith(base) ? base.relativize(absolute).toString() : absolute.getFileName().toString();
+    }
+
+    private static long parseNumber(CommandLine line, String option, long defaultValue) throws ParseException {
+        if (!line.hasOption(option)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(line.getOptionValue(option));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Not a number: " + line.getOptionValue(option));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package speedith;
+
+import org.apache.commons.cli.*;
+import speedith.cli.ProofConverterOptions;
+import speedith.core.reasoning.io.ProofArchiveWriter;
+import speedith.core.reasoning.io.ProofFiles;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Command line tool to convert proof files saved by earlier versions of Speedith
+ * (serialised proofs) into the binary proof format. Files that are in the binary
+ * proof format already are left as they are (or copied, if an output directory is
+ * given). Alternatively, all proofs can be written into a single {@link
+ * speedith.core.reasoning.io.ProofArchive proof archive}, which the {@link
+ * Analyser} reads without replaying the proofs.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofConverter {
+
+    private static final String USAGE = "proof-converter [-R] <-i input file or dir> [-o output dir | -a archive]";
+
+    public static void main(String[] args) {
+        ProofConverterOptions options = new ProofConverterOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(ProofConverterOptions.INPUT_SHORT)) {
+                help.printHelp(USAGE, options);
+                return;
+            }
+            Path input = FileSystems.getDefault().getPath(line.getOptionValue(ProofConverterOptions.INPUT_SHORT));
+            if (!Files.exists(input)) {
+                throw new NoSuchFileException(input.toString());
+            }
+            Path base = Files.isDirectory(input) ? input.toAbsolutePath().normalize() : input.toAbsolutePath().normalize().getParent();
+            Path output = line.hasOption(ProofConverterOptions.OUTPUT_SHORT)
+                    ? FileSystems.getDefault().getPath(line.getOptionValue(ProofConverterOptions.OUTPUT_SHORT))
+                    : base;
+            int depth = line.hasOption(ProofConverterOptions.RECURSIVE_SHORT) ? Integer.MAX_VALUE : 1;
+            List<Path> proofs = collectProofs(input, depth);
+            if (line.hasOption(ProofConverterOptions.ARCHIVE_SHORT)) {
+                archive(proofs, base, new File(line.getOptionValue(ProofConverterOptions.ARCHIVE_SHORT)));
+                return;
+            }
+
+            int converted = 0;
+            for (Path proof : proofs) {
+                Path target = output.resolve(base.relativize(proof.toAbsolutePath().normalize()));
+                try {
+                    Files.createDirectories(target.toAbsolutePath().getParent());
+                    if (ProofFiles.convert(proof.toFile(), target.toFile())) {
+                        converted++;
+                    }
+                } catch (IOException e) {
+                    // a single broken proof must not stop the conversion of the others
+                    System.err.println("Could not convert " + proof + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Converted " + converted + " of " + proofs.size() + " proof files.");
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            help.printHelp(USAGE, options);
+        } catch (NoSuchFileException e) {
+            System.out.println("No file with this name exists: " + e.getFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the given proofs into a single proof archive, named by their paths
+     * relative to the given base directory.
+     */
+    private static void archive(List<Path> proofs, Path base, File archive) throws IOException {
+        try (ProofArchiveWriter writer = new ProofArchiveWriter(archive)) {
+            for (Path proof : proofs) {
+                try {
+                    writer.add(base.relativize(proof.toAbsolutePath().normalize()).toString(), ProofFiles.read(proof.toFile()));
+                } catch (IOException | TacticApplicationException e) {
+                    // a single broken proof must not stop the archiving of the others
+                    System.err.println("Could not archive " + proof + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Archived " + writer.size() + " of " + proofs.size() + " proof files.");
+        }
+    }
+
+    private static List<Path> collectProofs(Path input, int depth) throws IOException {
+        final List<Path> proofs = new ArrayList<>();
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**" + ProofFiles.PROOF_EXTENSION);
+        if (!Files.isDirectory(input)) {
+            proofs.add(input);
+            return proofs;
+        }
+        Files.walkFileTree(input, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && matcher.matches(file)) {
+                    proofs.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return proofs;
+    }
+}
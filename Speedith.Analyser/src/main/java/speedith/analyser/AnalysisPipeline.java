@@ -0,0 +1,98 @@
+package speedith.analyser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Analyses proofs on a fixed number of workers and writes their metrics as CSV.
+ * The rows are written in the order of the tasks, each as soon as it and all
+ * rows before it are available, and the output is flushed after every row. At
+ * most a few tasks per worker are in flight at any time, so that neither the
+ * pending proofs nor the finished rows waiting for their predecessors can pile
+ * up in memory.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class AnalysisPipeline {
+
+    /**
+     * The number of tasks per worker that may be in flight.
+     */
+    private static final int TASKS_PER_WORKER = 4;
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int threads;
+    private final Writer out;
+    private final PrintStream progress;
+
+    /**
+     * @param threads the number of workers.
+     * @param out the writer to write the CSV output to.
+     * @param progress the stream to report progress and failing proofs to.
+     */
+    public AnalysisPipeline(int threads, Writer out, PrintStream progress) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        this.threads = threads;
+        this.out = out;
+        this.progress = progress;
+    }
+
+    /**
+     * Runs the given tasks and writes the header and one row per successfully
+     * analysed proof. Proofs that cannot be analysed are reported and skipped.
+     *
+     * @param tasks the tasks to run.
+     * @return the number of written rows.
+     */
+    public int run(List<? extends AnalysisTask> tasks) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long lastReport = start;
+        int analysed = 0;
+        out.write(ProofMetrics.CSV_HEADER);
+        out.write('\n');
+        out.flush();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<ProofMetrics>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        try {
+            for (int done = 0; done < tasks.size(); done++) {
+                while (submitted < tasks.size() && pending.size() < threads * TASKS_PER_WORKER) {
+                    pending.add(executor.submit(tasks.get(submitted++)));
+                }
+                try {
+                    ProofMetrics metrics = pending.remove().get();
+                    out.write(metrics.toCsv());
+                    out.write('\n');
+                    out.flush();
+                    analysed++;
+                } catch (ExecutionException e) {
+                    progress.println("Could not analyse " + tasks.get(done).getName() + ": " + e.getCause());
+                }
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    progress.println(String.format("Analysed %d of %d proofs (%.1f proofs/s)", done + 1, tasks.size(), throughput(done + 1, start, now)));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long end = System.nanoTime();
+        progress.println(String.format("Analysed %d of %d proofs in %.1f s (%.1f proofs/s)",
+                analysed, tasks.size(), (end - start) / 1e9, throughput(tasks.size(), start, end)));
+        return analysed;
+    }
+
+    private static double throughput(int proofs, long start, long now) {
+        return now > start ? proofs * 1e9 / (now - start) : 0;
+    }
+}
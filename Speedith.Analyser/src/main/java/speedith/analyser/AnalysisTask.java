@@ -0,0 +1,106 @@
+package speedith.analyser;
+
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.io.ProofArchive;
+import speedith.core.reasoning.io.ProofFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Loads and analyses a single proof. Tasks are independent of each other and can
+ * be run concurrently (see {@link AnalysisPipeline}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public abstract class AnalysisTask implements Callable<ProofMetrics> {
+
+    private final String name;
+    private final Path file;
+    private final ResultCache cache;
+    private byte[] contents;
+
+    protected AnalysisTask(String name) {
+        this(name, null, null);
+    }
+
+    /**
+     * @param name the name of the proof.
+     * @param file the file containing the proof, or {@code null} if the proof is
+     *             not loaded from a file of its own.
+     * @param cache the cache of the metrics of proof files, or {@code null} if the
+     *              metrics should not be cached.
+     */
+    private AnalysisTask(String name, Path file, ResultCache cache) {
+        this.name = name;
+        this.file = file;
+        this.cache = file == null ? null : cache;
+    }
+
+    /**
+     * Creates a task that analyses the proof saved in the given file, unless the
+     * given cache contains the metrics of a file with the same contents.
+     */
+    public static AnalysisTask forFile(Path file, ResultCache cache) {
+        return new AnalysisTask(file.getFileName().toString(), file, cache) {
+            @Override
+            protected Proof loadProof() throws IOException {
+                return ProofFiles.read(getContents());
+            }
+        };
+    }
+
+    /**
+     * Creates a task that analyses the proof at the given index of the given
+     * archive.
+     */
+    public static AnalysisTask forArchive(final ProofArchive archive, final int index) throws IOException {
+        return new AnalysisTask(archive.getName(index)) {
+            @Override
+            protected Proof loadProof() throws IOException {
+                return archive.get(index);
+            }
+        };
+    }
+
+    /**
+     * Returns the name of the proof, as it appears in the output of the analyser.
+     */
+    public String getName() {
+        return name;
+    }
+
+    protected abstract Proof loadProof() throws IOException;
+
+    /**
+     * Returns the contents of the file containing the proof. The file is read at
+     * most once, so that the cached metrics and the loaded proof agree.
+     *
+     * @throws IllegalStateException if the proof is not loaded from a file.
+     */
+    protected byte[] getContents() throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("The proof " + name + " is not loaded from a file.");
+        }
+        if (contents == null) {
+            contents = Files.readAllBytes(file);
+        }
+        return contents;
+    }
+
+    @Override
+    public ProofMetrics call() throws Exception {
+        if (cache == null) {
+            return ProofMetrics.of(name, loadProof());
+        }
+        String key = ResultCache.key(getContents());
+        ProofMetrics metrics = cache.get(key, name);
+        if (metrics == null) {
+            metrics = ProofMetrics.of(name, loadProof());
+            cache.put(key, metrics);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,165 @@
+package speedith.analyser;
+
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.metrics.MetricResults;
+import speedith.core.reasoning.metrics.Metrics;
+import speedith.core.reasoning.metrics.ProofMetric;
+import speedith.core.reasoning.metrics.StandardMetrics;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The metrics of a single proof, i.e., one row of the output of the {@link
+ * speedith.Analyser}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofMetrics {
+
+    /**
+     * The version of the metrics. It has to be increased whenever the metrics or
+     * their computation change, so that {@link ResultCache cached metrics} of
+     * earlier versions are not reused.
+     * <p>Version 2: the metrics are computed in a single pass, and the
+     * interaction metrics compare type specifiers null-safely.</p>
+     */
+    public static final int VERSION = 2;
+
+    public static final String CSV_HEADER = "Name, "
+            + "Length, "
+            + "Maximal Clutter, "
+            + "Average Clutter, "
+            + "Number of complex Rules, "
+            + "Average number of complex rules, "
+            + "Interactions, "
+            + "Average number of Interactions, "
+            + "Maximal clutter velocity";
+
+    private final String name;
+    private final int length;
+    private final int maxClutter;
+    private final double avgClutter;
+    private final int complexRules;
+    private final double avgComplexRules;
+    private final int interactions;
+    private final double avgInteractions;
+    private final int maxClutterVelocity;
+
+    public ProofMetrics(String name, int length, int maxClutter, double avgClutter, int complexRules, double avgComplexRules,
+                        int interactions, double avgInteractions, int maxClutterVelocity) {
+        this.name = name;
+        this.length = length;
+        this.maxClutter = maxClutter;
+        this.avgClutter = avgClutter;
+        this.complexRules = complexRules;
+        this.avgComplexRules = avgComplexRules;
+        this.interactions = interactions;
+        this.avgInteractions = avgInteractions;
+        this.maxClutterVelocity = maxClutterVelocity;
+    }
+
+    /**
+     * The metrics of the output, computed in a single pass over the proof.
+     */
+    private static final List<ProofMetric<?>> METRICS = Arrays.<ProofMetric<?>>asList(
+            StandardMetrics.LENGTH,
+            StandardMetrics.MAXIMUM_CLUTTER,
+            StandardMetrics.AVERAGE_CLUTTER,
+            StandardMetrics.COMPLEX_RULE_COUNT,
+            StandardMetrics.AVERAGE_NUMBER_OF_COMPLEX_RULES,
+            StandardMetrics.NUMBER_OF_INTERACTIONS,
+            StandardMetrics.AVERAGE_INTERACTIONS,
+            StandardMetrics.MAXIMAL_CLUTTER_VELOCITY);
+
+    /**
+     * Flattens the given proof and computes its metrics.
+     *
+     * @param name the name of the proof.
+     * @param proof the proof to analyse.
+     * @return the metrics of the proof.
+     * @throws TacticApplicationException if the proof could not be flattened.
+     */
+    public static ProofMetrics of(String name, Proof proof) throws TacticApplicationException {
+        MetricResults results = Metrics.compute(proof.createFlattenedProof(), METRICS);
+        return new ProofMetrics(name,
+                results.get(StandardMetrics.LENGTH),
+                results.get(StandardMetrics.MAXIMUM_CLUTTER),
+                results.get(StandardMetrics.AVERAGE_CLUTTER),
+                results.get(StandardMetrics.COMPLEX_RULE_COUNT),
+                results.get(StandardMetrics.AVERAGE_NUMBER_OF_COMPLEX_RULES),
+                results.get(StandardMetrics.NUMBER_OF_INTERACTIONS),
+                results.get(StandardMetrics.AVERAGE_INTERACTIONS),
+                results.get(StandardMetrics.MAXIMAL_CLUTTER_VELOCITY));
+    }
+
+    /**
+     * Returns these metrics for a proof of the given name.
+     */
+    public ProofMetrics withName(String name) {
+        return new ProofMetrics(name, length, maxClutter, avgClutter, complexRules, avgComplexRules, interactions, avgInteractions, maxClutterVelocity);
+    }
+
+    /**
+     * Encodes the metrics, without the name, for the {@link ResultCache}.
+     */
+    String encode() {
+        return length + "\t" + maxClutter + "\t" + avgClutter + "\t" + complexRules + "\t" + avgComplexRules + "\t"
+                + interactions + "\t" + avgInteractions + "\t" + maxClutterVelocity;
+    }
+
+    /**
+     * Decodes metrics encoded by {@link #encode()}.
+     *
+     * @return the decoded metrics, or {@code null} if the given string is malformed.
+     */
+    static ProofMetrics decode(String name, String encoded) {
+        String[] fields = encoded.split("\t");
+        if (fields.length != 8) {
+            return null;
+        }
+        try {
+            return new ProofMetrics(name,
+                    Integer.parseInt(fields[0]),
+                    Integer.parseInt(fields[1]),
+                    Double.parseDouble(fields[2]),
+                    Integer.parseInt(fields[3]),
+                    Double.parseDouble(fields[4]),
+                    Integer.parseInt(fields[5]),
+                    Double.parseDouble(fields[6]),
+                    Integer.parseInt(fields[7]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the metrics as a line of the output of the {@link speedith.Analyser}
+     * (see {@link #CSV_HEADER}).
+     */
+    public String toCsv() {
+        return name + ", "
+                + length + ", "
+                + maxClutter + ", "
+                + String.format("%.2f", avgClutter) + ", "
+                + complexRules + ", "
+                + String.format("%.2f", avgComplexRules) + ", "
+                + interactions + ", "
+                + String.format("%.2f", avgInteractions) + ", "
+                + maxClutterVelocity;
+    }
+
+    @Override
+    public String toString() {
+        return toCsv();
+    }
+}
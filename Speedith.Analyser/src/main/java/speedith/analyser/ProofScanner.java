@@ -0,0 +1,116 @@
+package speedith.analyser;
+
+import speedith.core.reasoning.io.ProofFiles;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds all proof files within a directory. Subdirectories are scanned
+ * concurrently, but the result is always in the same order: the proofs of a
+ * directory, sorted by name, followed by the proofs of its subdirectories, in
+ * the order of their names. Symbolic links are followed, but directories that
+ * link to one of their ancestors are skipped.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofScanner extends RecursiveTask<List<Path>> {
+
+    private static final long serialVersionUID = -8213649950318625460L;
+
+    private final Path directory;
+    private final int depth;
+    private final Set<Path> ancestors;
+
+    /**
+     * @param directory the directory to scan.
+     * @param depth the maximal depth of the scanned directories; 1 scans the given
+     *              directory only.
+     * @param ancestors the real paths of the directories containing the given one.
+     */
+    private ProofScanner(Path directory, int depth, Set<Path> ancestors) {
+        this.directory = directory;
+        this.depth = depth;
+        this.ancestors = ancestors;
+    }
+
+    /**
+     * Finds all proof files within the given directory, using the given pool to
+     * scan the subdirectories concurrently.
+     *
+     * @param directory the directory to scan.
+     * @param recursive whether the subdirectories should be scanned as well.
+     * @param pool the pool that scans the directories.
+     * @return the proof files.
+     */
+    public static List<Path> scan(Path directory, boolean recursive, ForkJoinPool pool) throws IOException {
+        try {
+            return pool.invoke(new ProofScanner(directory, recursive ? Integer.MAX_VALUE : 1, Collections.<Path>emptySet()));
+        } catch (ScanException e) {
+            // the pool may rethrow a copy of the exception, which wraps the original one
+            Throwable cause = e.getCause();
+            while (cause instanceof ScanException) {
+                cause = cause.getCause();
+            }
+            throw (IOException) cause;
+        }
+    }
+
+    @Override
+    protected List<Path> compute() {
+        List<Path> proofs = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        Set<Path> path = new HashSet<>(ancestors);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            path.add(directory.toRealPath());
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry)) {
+                    directories.add(entry);
+                } else if (Files.isRegularFile(entry) && entry.getFileName().toString().endsWith(ProofFiles.PROOF_EXTENSION)) {
+                    proofs.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new ScanException(e);
+        }
+        Collections.sort(proofs);
+        if (depth > 1) {
+            Collections.sort(directories);
+            List<ProofScanner> scanners = new ArrayList<>();
+            for (Path subdirectory : directories) {
+                if (isLoop(subdirectory, path)) {
+                    continue;
+                }
+                ProofScanner scanner = new ProofScanner(subdirectory, depth - 1, path);
+                scanner.fork();
+                scanners.add(scanner);
+            }
+            for (ProofScanner scanner : scanners) {
+                proofs.addAll(scanner.join());
+            }
+        }
+        return proofs;
+    }
+
+    private static boolean isLoop(Path directory, Set<Path> path) {
+        try {
+            return path.contains(directory.toRealPath());
+        } catch (IOException e) {
+            throw new ScanException(e);
+        }
+    }
+
+    private static class ScanException extends RuntimeException {
+
+        private static final long serialVersionUID = 4419328021687750013L;
+
+        ScanException(IOException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package speedith.analyser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An on-disk cache of the metrics of proof files, keyed by a hash of the contents
+ * of the files. Hence, the metrics of a file are reused regardless of its name or
+ * modification time, as long as its contents do not change. The cache is
+ * discarded as a whole if it has been written by a different version of the
+ * analyser (see {@link ProofMetrics#VERSION}).
+ * <p>Only the entries used during a run are {@link #save(Path) saved}, so that
+ * the entries of deleted or changed proofs do not accumulate.</p>
+ * <p>Instances of this class are thread-safe.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ResultCache {
+
+    private static final String HEADER = "speedith-analyser-cache";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Map<String, ProofMetrics> entries;
+    private final Map<String, ProofMetrics> used = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private ResultCache(Map<String, ProofMetrics> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Creates an empty cache.
+     */
+    public static ResultCache empty() {
+        return new ResultCache(new ConcurrentHashMap<String, ProofMetrics>());
+    }
+
+    /**
+     * Loads the cache from the given file. The cache is empty if the file does not
+     * exist or has been written by a different version of the analyser. Malformed
+     * entries are ignored.
+     *
+     * @param file the file containing the cache.
+     * @return the loaded cache.
+     */
+    public static ResultCache load(Path file) throws IOException {
+        ResultCache cache = empty();
+        if (!Files.exists(file)) {
+            return cache;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!(HEADER + " " + ProofMetrics.VERSION).equals(header)) {
+                return cache;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator < 0) {
+                    continue;
+                }
+                ProofMetrics metrics = ProofMetrics.decode(null, line.substring(separator + 1));
+                if (metrics != null) {
+                    cache.entries.put(line.substring(0, separator), metrics);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Computes the key of a proof file with the given contents.
+     */
+    public static String key(byte[] contents) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(contents);
+            char[] hex = new char[2 * hash.length];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the cached metrics of the proof file with the given key, renamed to
+     * the given name, or {@code null} if there are none.
+     */
+    public ProofMetrics get(String key, String name) {
+        ProofMetrics metrics = entries.get(key);
+        if (metrics == null) {
+            return null;
+        }
+        used.put(key, metrics);
+        hits.incrementAndGet();
+        return metrics.withName(name);
+    }
+
+    /**
+     * Caches the metrics of the proof file with the given key.
+     */
+    public void put(String key, ProofMetrics metrics) {
+        entries.put(key, metrics);
+        used.put(key, metrics);
+    }
+
+    /**
+     * Returns the number of metrics that have been taken from the cache.
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Writes the entries used since the cache has been created or loaded to the
+     * given file. The file is replaced only once the cache has been written
+     * completely.
+     *
+     * @param file the file to write the cache to.
+     */
+    public void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(HEADER + " " + ProofMetrics.VERSION);
+                writer.newLine();
+                for (Map.Entry<String, ProofMetrics> entry : used.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(entry.getValue().encode());
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package speedith.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the goal files (*.sdt) of a directory. Goal files can also be listed
+ * in a manifest (see {@link #readManifest(Path)}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class GoalCollector extends SimpleFileVisitor<Path> {
+
+    private final List<Path> goals;
+    private final PathMatcher matcher;
+
+    public GoalCollector() {
+        goals = new ArrayList<>();
+        matcher = FileSystems.getDefault().getPathMatcher("glob:**.sdt");
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (attrs.isRegularFile() && matcher.matches(file)) {
+            goals.add(file);
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * Returns the collected goal files in lexicographical order.
+     */
+    public List<Path> getGoals() {
+        List<Path> result = new ArrayList<>(goals);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Reads a manifest of goals, i.e., a text file listing one goal file per line.
+     * Relative paths are resolved against the directory of the manifest. Empty lines
+     * and lines starting with {@code #} are ignored.
+     *
+     * @param manifest the manifest file.
+     * @return the listed goal files in the order of the manifest.
+     */
+    public static List<Path> readManifest(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<Path> result = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (!entry.isEmpty() && !entry.startsWith("#")) {
+                result.add(base.resolve(entry));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package speedith.batch;
+
+import speedith.core.reasoning.automatic.SearchStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result of proving a single goal of a batch run (see {@link ProofTask}).
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ProofRecord {
+
+    /**
+     * The status of goals that could not be handled at all, e.g., because the
+     * file could not be read or the goal is not an implication of conjunctions.
+     */
+    public static final String ERROR_STATUS = "ERROR";
+
+    private final String goal;
+    private final String status;
+    private final int proofLength;
+    private final long expandedNodes;
+    private final long createdNodes;
+    private final long peakFrontierSize;
+    private final long elapsedMillis;
+    private final String proofFile;
+    private final String message;
+
+    private ProofRecord(String goal, String status, int proofLength, long expandedNodes, long createdNodes,
+                        long peakFrontierSize, long elapsedMillis, String proofFile, String message) {
+        this.goal = goal;
+        this.status = status;
+        this.proofLength = proofLength;
+        this.expandedNodes = expandedNodes;
+        this.createdNodes = createdNodes;
+        this.peakFrontierSize = peakFrontierSize;
+        this.elapsedMillis = elapsedMillis;
+        this.proofFile = proofFile;
+        this.message = message;
+    }
+
+    /**
+     * Creates the record of a finished search.
+     *
+     * @param goal the name of the goal.
+     * @param statistics the final statistics of the search.
+     * @param proofLength the number of inference steps of the found proof, or -1
+     *                    if no proof has been found.
+     * @param proofFile the file the proof has been saved to, or null.
+     */
+    public static ProofRecord searched(String goal, SearchStatistics statistics, int proofLength, String proofFile) {
+        return new ProofRecord(goal, statistics.getOutcome().name(), proofLength, statistics.getExpandedNodes(),
+                statistics.getCreatedNodes(), statistics.getPeakFrontierSize(),
+                TimeUnit.NANOSECONDS.toMillis(statistics.getElapsedNanos()), proofFile, null);
+    }
+
+    /**
+     * Creates the record of a goal for which no search could be performed.
+     *
+     * @param goal the name of the goal.
+     * @param elapsedMillis the time spent on the goal.
+     * @param message the reason of the failure.
+     */
+    public static ProofRecord failed(String goal, long elapsedMillis, String message) {
+        return new ProofRecord(goal, ERROR_STATUS, -1, 0, 0, 0, elapsedMillis, null, message);
+    }
+
+    public String getGoal() {
+        return goal;
+    }
+
+    /**
+     * The {@link SearchStatistics.Outcome outcome} of the search, or
+     * {@link #ERROR_STATUS}.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * The number of inference steps of the found proof, or -1 if no proof has been found.
+     */
+    public int getProofLength() {
+        return proofLength;
+    }
+
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    public long getCreatedNodes() {
+        return createdNodes;
+    }
+
+    public long getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * The file the proof has been saved to, or null if no proof has been saved.
+     */
+    public String getProofFile() {
+        return proofFile;
+    }
+
+    /**
+     * Describes why the goal could not be handled, or null if there was no error.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
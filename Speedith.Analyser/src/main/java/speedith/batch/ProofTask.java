@@ -0,0 +1,90 @@
+package speedith.batch;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.automatic.AutomaticProver;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.SearchResult;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+import speedith.core.reasoning.io.ProofFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proves a single goal of a batch run. Every task creates its own instance of
+ * the prover, so that tasks can run concurrently. If a proof is found and a
+ * proof directory is given, the proof is saved in the same format as the proofs
+ * saved by the user interface (see {@link ProofFiles}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofTask implements Callable<ProofRecord> {
+
+    private final Path goalFile;
+    private final String goalName;
+    private final String proverName;
+    private final String strategyName;
+    private final SearchLimits limits;
+    private final Path proofDirectory;
+
+    /**
+     * @param goalFile the file containing the goal.
+     * @param goalName the name of the goal in the results. It is also the path of the
+     *                 saved proof, relative to the proof directory.
+     * @param proverName the name of the automatic prover (see {@link AutomaticProvers}).
+     * @param strategyName the name of the strategy (see {@link Strategies}).
+     * @param limits the limits of the search.
+     * @param proofDirectory the directory to save the proof to, or null if the proof
+     *                       should not be saved.
+     */
+    public ProofTask(Path goalFile, String goalName, String proverName, String strategyName, SearchLimits limits, Path proofDirectory) {
+        this.goalFile = goalFile;
+        this.goalName = goalName;
+        this.proverName = proverName;
+        this.strategyName = strategyName;
+        this.limits = limits;
+        this.proofDirectory = proofDirectory;
+    }
+
+    @Override
+    public ProofRecord call() {
+        long start = System.nanoTime();
+        try {
+            SpiderDiagram goal = SpiderDiagramsReader.readSpiderDiagram(goalFile.toFile());
+            if (goal == null || !goal.isValid()) {
+                return ProofRecord.failed(goalName, elapsedMillis(start), "The spider diagram contained in the file is not valid.");
+            }
+            AutomaticProver prover = AutomaticProvers.createAutomaticProver(proverName);
+            prover.setStrategy(Strategies.getStrategy(strategyName));
+            SearchResult result = prover.generateProof(Goals.createGoalsFrom(goal), limits);
+            if (!result.isProofFound()) {
+                return ProofRecord.searched(goalName, result.getStatistics(), -1, null);
+            }
+            Proof proof = result.getProof();
+            String proofFile = proofDirectory == null ? null : save(proof).toString();
+            return ProofRecord.searched(goalName, result.getStatistics(), proof.getInferenceApplicationCount(), proofFile);
+        } catch (Exception e) {
+            // a single failing goal must not stop the whole batch
+            return ProofRecord.failed(goalName, elapsedMillis(start), e.toString());
+        }
+    }
+
+    private Path save(Proof proof) throws IOException {
+        String name = goalName.endsWith(".sdt") ? goalName.substring(0, goalName.length() - 4) : goalName;
+        Path file = proofDirectory.resolve(name + ProofFiles.PROOF_EXTENSION);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        ProofFiles.write(proof, file.toFile());
+        return file;
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
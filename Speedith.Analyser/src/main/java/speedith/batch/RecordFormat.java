@@ -0,0 +1,130 @@
+package speedith.batch;
+
+/**
+ * The machine-readable formats in which the batch prover writes its results.
+ * Every {@link ProofRecord record} is written to a single line, so that the
+ * results can be processed while the batch is still running.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public enum RecordFormat {
+
+    /**
+     * One JSON object per line (JSON Lines).
+     */
+    JSON {
+        @Override
+        public String getHeader() {
+            return null;
+        }
+
+        @Override
+        public String format(ProofRecord record) {
+            StringBuilder sb = new StringBuilder("{");
+            sb.append("\"goal\":").append(jsonString(record.getGoal()))
+                    .append(",\"status\":").append(jsonString(record.getStatus()))
+                    .append(",\"proofLength\":").append(record.getProofLength())
+                    .append(",\"expandedNodes\":").append(record.getExpandedNodes())
+                    .append(",\"createdNodes\":").append(record.getCreatedNodes())
+                    .append(",\"peakFrontier\":").append(record.getPeakFrontierSize())
+                    .append(",\"timeMillis\":").append(record.getElapsedMillis())
+                    .append(",\"proofFile\":").append(jsonString(record.getProofFile()))
+                    .append(",\"message\":").append(jsonString(record.getMessage()))
+                    .append('}');
+            return sb.toString();
+        }
+    },
+
+    /**
+     * Comma separated values with a header line.
+     */
+    CSV {
+        @Override
+        public String getHeader() {
+            return "goal,status,proof_length,expanded_nodes,created_nodes,peak_frontier,time_ms,proof_file,message";
+        }
+
+        @Override
+        public String format(ProofRecord record) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(csvString(record.getGoal())).append(',')
+                    .append(record.getStatus()).append(',')
+                    .append(record.getProofLength()).append(',')
+                    .append(record.getExpandedNodes()).append(',')
+                    .append(record.getCreatedNodes()).append(',')
+                    .append(record.getPeakFrontierSize()).append(',')
+                    .append(record.getElapsedMillis()).append(',')
+                    .append(csvString(record.getProofFile())).append(',')
+                    .append(csvString(record.getMessage()));
+            return sb.toString();
+        }
+    };
+
+    /**
+     * Returns the line to write before the first record, or null if the format
+     * has none.
+     */
+    public abstract String getHeader();
+
+    /**
+     * Formats the given record as a single line (without the line separator).
+     */
+    public abstract String format(ProofRecord record);
+
+    /**
+     * Returns the format of the given name (case insensitive), or null if there is
+     * no such format.
+     */
+    public static RecordFormat fromName(String name) {
+        for (RecordFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csvString(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
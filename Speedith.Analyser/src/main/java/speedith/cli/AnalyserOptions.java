@@ -16,6 +16,12 @@ public class AnalyserOptions extends Options {
     public static final String RECURSIVE_LONG = "recursive";
     public static final String INPUT_LONG = "input";
     public static final String INPUT_SHORT = "i";
+    public static final String THREADS_SHORT = "t";
+    public static final String THREADS_LONG = "threads";
+    public static final String CACHE_SHORT = "c";
+    public static final String CACHE_LONG = "cache";
+    public static final String REBUILD_SHORT = "r";
+    public static final String REBUILD_LONG = "rebuild";
 
     private static final long serialVersionUID = 5121836302517618707L;
 
@@ -28,7 +34,10 @@ public class AnalyserOptions extends Options {
 
         addOption(RECURSIVE_SHORT,RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
         addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the output file");
-        addOption(INPUT_SHORT, INPUT_LONG, true, "the input directory");
+        addOption(INPUT_SHORT, INPUT_LONG, true, "the input directory or proof archive (*.pra)");
+        addOption(THREADS_SHORT, THREADS_LONG, true, "the number of proofs analysed concurrently (optional, defaults to the number of processors)");
+        addOption(CACHE_SHORT, CACHE_LONG, true, "the file caching the metrics of unchanged proofs between runs (optional, defaults to the output file with the extension .cache)");
+        addOption(REBUILD_SHORT, REBUILD_LONG, false, "ignore the cached metrics and analyse all proofs again (optional)");
     }
 
 
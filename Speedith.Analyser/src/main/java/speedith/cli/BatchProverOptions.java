@@ -0,0 +1,58 @@
+package speedith.cli;
+
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of the batch prover (see {@link speedith.BatchProver}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class BatchProverOptions extends Options {
+
+    public static final String INPUT_SHORT = "i";
+    public static final String INPUT_LONG = "input";
+    public static final String RECURSIVE_SHORT = "R";
+    public static final String RECURSIVE_LONG = "recursive";
+    public static final String PROOFS_SHORT = "o";
+    public static final String PROOFS_LONG = "proofs";
+    public static final String RESULTS_SHORT = "r";
+    public static final String RESULTS_LONG = "results";
+    public static final String FORMAT_SHORT = "f";
+    public static final String FORMAT_LONG = "format";
+    public static final String PROVER_SHORT = "p";
+    public static final String PROVER_LONG = "prover";
+    public static final String STRATEGY_SHORT = "s";
+    public static final String STRATEGY_LONG = "strategy";
+    public static final String THREADS_SHORT = "t";
+    public static final String THREADS_LONG = "threads";
+    public static final String TIMEOUT_SHORT = "T";
+    public static final String TIMEOUT_LONG = "timeout";
+
+    public static final String DEFAULT_PROVER = "heuristic";
+    public static final String DEFAULT_STRATEGY = "basic_strategy";
+    public static final String DEFAULT_FORMAT = "json";
+    public static final String DEFAULT_PROOFS = "proofs";
+    public static final long DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private static final long serialVersionUID = -3262458735153187045L;
+
+
+    public BatchProverOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+        addOption(INPUT_SHORT, INPUT_LONG, true, "a directory containing the goals (*.sdt) or a manifest file listing one goal file per line");
+        addOption(RECURSIVE_SHORT, RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
+        addOption(PROOFS_SHORT, PROOFS_LONG, true, "the directory to save the found proofs to (optional, default: " + DEFAULT_PROOFS + ")");
+        addOption(RESULTS_SHORT, RESULTS_LONG, true, "the file to write the results to (optional, default: standard output)");
+        addOption(FORMAT_SHORT, FORMAT_LONG, true, "the format of the results, json or csv (optional, default: " + DEFAULT_FORMAT + ")");
+        addOption(PROVER_SHORT, PROVER_LONG, true, "the automatic prover to use (optional, default: " + DEFAULT_PROVER + ")");
+        addOption(STRATEGY_SHORT, STRATEGY_LONG, true, "the strategy of the prover (optional, default: " + DEFAULT_STRATEGY + ")");
+        addOption(THREADS_SHORT, THREADS_LONG, true, "the number of goals to prove concurrently (optional, default: number of processors)");
+        addOption(TIMEOUT_SHORT, TIMEOUT_LONG, true, "the timeout per goal in seconds, 0 for none (optional, default: " + DEFAULT_TIMEOUT_SECONDS + ")");
+    }
+
+
+}
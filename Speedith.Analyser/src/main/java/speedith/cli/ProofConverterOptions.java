@@ -0,0 +1,37 @@
+package speedith.cli;
+
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of the proof converter (see {@link speedith.ProofConverter}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofConverterOptions extends Options {
+
+    public static final String INPUT_SHORT = "i";
+    public static final String INPUT_LONG = "input";
+    public static final String RECURSIVE_SHORT = "R";
+    public static final String RECURSIVE_LONG = "recursive";
+    public static final String OUTPUT_SHORT = "o";
+    public static final String OUTPUT_LONG = "output";
+    public static final String ARCHIVE_SHORT = "a";
+    public static final String ARCHIVE_LONG = "archive";
+
+    private static final long serialVersionUID = 2816209637452983615L;
+
+
+    public ProofConverterOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+        addOption(INPUT_SHORT, INPUT_LONG, true, "a proof file (*.prf) or a directory containing proof files");
+        addOption(RECURSIVE_SHORT, RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
+        addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the directory to write the converted proofs to (optional, the proofs are converted in place by default)");
+        addOption(ARCHIVE_SHORT, ARCHIVE_LONG, true, "write all proofs into the given proof archive (*.pra) instead, which can be analysed without replaying the proofs (optional)");
+    }
+
+
+}
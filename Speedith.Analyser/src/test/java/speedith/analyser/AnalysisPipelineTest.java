@@ -0,0 +1,142 @@
+package speedith.analyser;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.io.ProofFiles;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class AnalysisPipelineTest {
+
+    private static final SpiderDiagram SD = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final SpiderDiagram TAUTOLOGY = createCompoundSD(Operator.Implication, SD, SD);
+
+    private static Proof createProof() throws Exception {
+        Proof proof = new ProofTrace(Goals.createGoalsFrom(TAUTOLOGY));
+        proof.applyRule(new ImplicationTautology(), new SubDiagramIndexArg(0, 0), RuleApplicationType.INTERACTIVE, null);
+        return proof;
+    }
+
+    /**
+     * A task that loads its proof after the given delay, or fails to load it.
+     */
+    private static AnalysisTask task(final String name, final long delayMillis, final boolean fails) {
+        return new AnalysisTask(name) {
+            @Override
+            protected Proof loadProof() throws IOException {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                if (fails) {
+                    throw new IOException("corrupt proof");
+                }
+                try {
+                    return createProof();
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    private static List<String> rows(StringWriter out) {
+        return Arrays.asList(out.toString().split("\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pipelines_without_workers_should_be_rejected() {
+        new AnalysisPipeline(0, new StringWriter(), new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void rows_should_be_written_in_the_order_of_the_tasks() throws Exception {
+        List<AnalysisTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // the earlier tasks take longer, so that they finish in reverse order
+            tasks.add(task("proof" + i, 5 * (8 - i), false));
+        }
+        StringWriter out = new StringWriter();
+        int written = new AnalysisPipeline(4, out, new PrintStream(new ByteArrayOutputStream())).run(tasks);
+
+        assertEquals(8, written);
+        List<String> rows = rows(out);
+        assertEquals(9, rows.size());
+        assertEquals(ProofMetrics.CSV_HEADER, rows.get(0));
+        for (int i = 0; i < 8; i++) {
+            assertTrue(rows.get(i + 1).startsWith("proof" + i + ", "));
+        }
+    }
+
+    @Test
+    public void failing_proofs_should_be_reported_and_skipped() throws Exception {
+        List<AnalysisTask> tasks = Arrays.asList(
+                task("proof0", 0, false),
+                task("proof1", 10, true),
+                task("proof2", 0, false));
+        StringWriter out = new StringWriter();
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        int written = new AnalysisPipeline(2, out, new PrintStream(progress, true)).run(tasks);
+
+        assertEquals(2, written);
+        List<String> rows = rows(out);
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(1).startsWith("proof0, "));
+        assertTrue(rows.get(2).startsWith("proof2, "));
+        assertTrue(progress.toString().contains("Could not analyse proof1"));
+    }
+
+    @Test
+    public void no_tasks_should_give_the_header_only() throws Exception {
+        StringWriter out = new StringWriter();
+        int written = new AnalysisPipeline(2, out, new PrintStream(new ByteArrayOutputStream())).run(Collections.<AnalysisTask>emptyList());
+
+        assertEquals(0, written);
+        assertEquals(Collections.singletonList(ProofMetrics.CSV_HEADER), rows(out));
+    }
+
+    @Test
+    public void proof_files_with_cached_metrics_should_not_be_analysed_again() throws Exception {
+        File file = File.createTempFile("proof", ProofFiles.PROOF_EXTENSION);
+        file.deleteOnExit();
+        ProofFiles.write(createProof(), file);
+        ResultCache cache = ResultCache.empty();
+
+        ProofMetrics analysed = AnalysisTask.forFile(file.toPath(), cache).call();
+        assertEquals(0, cache.getHits());
+        ProofMetrics cached = AnalysisTask.forFile(file.toPath(), cache).call();
+        assertEquals(1, cache.getHits());
+        assertEquals(analysed.encode(), cached.encode());
+        assertEquals(file.getName(), cached.getName());
+    }
+
+    @Test
+    public void proof_files_should_be_analysed_without_a_cache() throws Exception {
+        File file = File.createTempFile("proof", ProofFiles.PROOF_EXTENSION);
+        file.deleteOnExit();
+        ProofFiles.write(createProof(), file);
+
+        assertEquals(1, AnalysisTask.forFile(file.toPath(), null).call().getLength());
+    }
+}
@@ -0,0 +1,83 @@
+package speedith.analyser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ProofScannerTest {
+
+    private Path root;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("proofs");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Path create(String path) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.createFile(file);
+    }
+
+    @Test
+    public void empty_directories_should_contain_no_proofs() throws IOException {
+        assertEquals(Collections.<Path>emptyList(), ProofScanner.scan(root, true, pool));
+    }
+
+    @Test
+    public void proofs_should_be_ordered_by_directory_and_name() throws IOException {
+        Path b = create("b.prf");
+        Path a = create("a.prf");
+        create("notes.txt");
+        Path nestedB = create("y/b.prf");
+        Path nestedA = create("y/a.prf");
+        Path deeper = create("x/z/c.prf");
+        Path nested = create("x/c.prf");
+
+        List<Path> proofs = ProofScanner.scan(root, true, pool);
+        assertEquals(Arrays.asList(a, b, nested, deeper, nestedA, nestedB), proofs);
+    }
+
+    @Test
+    public void subdirectories_should_only_be_scanned_recursively() throws IOException {
+        Path proof = create("a.prf");
+        create("x/b.prf");
+
+        assertEquals(Collections.singletonList(proof), ProofScanner.scan(root, false, pool));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void missing_directories_should_be_reported() throws IOException {
+        ProofScanner.scan(root.resolve("missing"), true, pool);
+    }
+}
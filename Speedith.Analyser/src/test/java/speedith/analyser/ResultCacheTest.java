@@ -0,0 +1,95 @@
+package speedith.analyser;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+
+    private static final String HEADER = "speedith-analyser-cache " + ProofMetrics.VERSION;
+    private static final ProofMetrics METRICS = new ProofMetrics("proof", 3, 4, 2.5, 1, 0.5, 2, 1.0, 6);
+    private static final String KEY = ResultCache.key("proof".getBytes(StandardCharsets.UTF_8));
+
+    private static Path createTempFile() throws IOException {
+        File file = File.createTempFile("analyser", ".cache");
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    private static Path write(String... lines) throws IOException {
+        Path file = createTempFile();
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void saved_metrics_should_be_found_after_loading() throws IOException {
+        ResultCache cache = ResultCache.empty();
+        cache.put(KEY, METRICS);
+        Path file = createTempFile();
+        cache.save(file);
+
+        ResultCache loaded = ResultCache.load(file);
+        ProofMetrics metrics = loaded.get(KEY, "renamed");
+        assertNotNull(metrics);
+        assertEquals("renamed", metrics.getName());
+        assertEquals(METRICS.encode(), metrics.encode());
+        assertEquals(1, loaded.getHits());
+    }
+
+    @Test
+    public void unknown_proofs_should_not_be_found() throws IOException {
+        ResultCache cache = ResultCache.empty();
+        cache.put(KEY, METRICS);
+        assertNull(cache.get(ResultCache.key("other proof".getBytes(StandardCharsets.UTF_8)), "other"));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void missing_files_should_give_an_empty_cache() throws IOException {
+        Path file = createTempFile();
+        Files.delete(file);
+        assertNull(ResultCache.load(file).get(KEY, "proof"));
+    }
+
+    @Test
+    public void caches_of_other_versions_should_be_discarded() throws IOException {
+        Path file = write("speedith-analyser-cache " + (ProofMetrics.VERSION - 1), KEY + "\t" + METRICS.encode());
+        assertNull(ResultCache.load(file).get(KEY, "proof"));
+    }
+
+    @Test
+    public void corrupt_entries_should_be_ignored() throws IOException {
+        String other = ResultCache.key("other proof".getBytes(StandardCharsets.UTF_8));
+        String truncated = ResultCache.key("truncated proof".getBytes(StandardCharsets.UTF_8));
+        Path file = write(HEADER,
+                "no separator",
+                other + "\tnot\ta\tnumber\t1\t1\t1\t1\t1",
+                truncated + "\t3\t4",
+                KEY + "\t" + METRICS.encode());
+        ResultCache cache = ResultCache.load(file);
+        assertNull(cache.get(other, "other"));
+        assertNull(cache.get(truncated, "truncated"));
+        assertEquals(METRICS.encode(), cache.get(KEY, "proof").encode());
+    }
+
+    @Test
+    public void only_used_entries_should_be_saved() throws IOException {
+        String unused = ResultCache.key("unused proof".getBytes(StandardCharsets.UTF_8));
+        Path file = write(HEADER, KEY + "\t" + METRICS.encode(), unused + "\t" + METRICS.encode());
+        ResultCache cache = ResultCache.load(file);
+        assertNotNull(cache.get(KEY, "proof"));
+        cache.save(file);
+
+        ResultCache saved = ResultCache.load(file);
+        assertNotNull(saved.get(KEY, "proof"));
+        assertNull(saved.get(unused, "unused"));
+    }
+}
@@ -0,0 +1,92 @@
+package speedith.batch;
+
+import org.junit.Test;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.SearchStatistics;
+import speedith.core.reasoning.io.ProofFiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ProofTaskTest {
+
+    private static final SearchLimits LIMITS = SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS);
+
+    /**
+     * Returns the first goal of the given example set, and skips the test if the
+     * examples cannot be found.
+     */
+    private static Path exampleGoal(String exampleSet) {
+        String property = System.getProperty("speedith.examples");
+        File[] candidates = property != null
+                ? new File[]{new File(property)}
+                : new File[]{new File("examples"), new File("../examples")};
+        for (File candidate : candidates) {
+            File goal = new File(new File(candidate, exampleSet), "1.sdt");
+            if (goal.isFile()) {
+                return goal.toPath();
+            }
+        }
+        assumeTrue(false);
+        return null;
+    }
+
+    private static Path createGoalFile(String contents) throws IOException {
+        File file = File.createTempFile("goal", ".sdt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return file.toPath();
+    }
+
+    @Test
+    public void missing_goal_files_should_be_recorded_as_errors() {
+        ProofRecord record = new ProofTask(new File("missing.sdt").toPath(), "missing.sdt", "heuristic", "basic_strategy", LIMITS, null).call();
+        assertEquals(ProofRecord.ERROR_STATUS, record.getStatus());
+        assertEquals("missing.sdt", record.getGoal());
+        assertEquals(-1, record.getProofLength());
+        assertNotNull(record.getMessage());
+    }
+
+    @Test
+    public void unreadable_goals_should_be_recorded_as_errors() throws IOException {
+        ProofRecord record = new ProofTask(createGoalFile("not a spider diagram"), "goal.sdt", "heuristic", "basic_strategy", LIMITS, null).call();
+        assertEquals(ProofRecord.ERROR_STATUS, record.getStatus());
+        assertNotNull(record.getMessage());
+    }
+
+    @Test
+    public void unknown_provers_should_be_recorded_as_errors() {
+        ProofRecord record = new ProofTask(exampleGoal("3_premises"), "1.sdt", "no_such_prover", "basic_strategy", LIMITS, null).call();
+        assertEquals(ProofRecord.ERROR_STATUS, record.getStatus());
+    }
+
+    @Test
+    public void searches_exceeding_the_timeout_should_be_recorded_as_timeouts() {
+        SearchLimits limits = SearchLimits.NONE.withTimeout(1, TimeUnit.NANOSECONDS);
+        ProofRecord record = new ProofTask(exampleGoal("3_premises"), "1.sdt", "breadth_first", "basic_strategy", limits, null).call();
+        assertEquals(SearchStatistics.Outcome.TIMEOUT.name(), record.getStatus());
+        assertEquals(-1, record.getProofLength());
+        assertNull(record.getProofFile());
+    }
+
+    @Test
+    public void found_proofs_should_be_saved() throws IOException {
+        Path directory = Files.createTempDirectory("proofs");
+        directory.toFile().deleteOnExit();
+        ProofRecord record = new ProofTask(exampleGoal("3_premises"), "set/1.sdt", "heuristic", "basic_strategy", LIMITS, directory).call();
+        assertEquals(SearchStatistics.Outcome.PROOF_FOUND.name(), record.getStatus());
+        assertTrue(record.getProofLength() > 0);
+        File proof = directory.resolve("set/1" + ProofFiles.PROOF_EXTENSION).toFile();
+        proof.deleteOnExit();
+        proof.getParentFile().deleteOnExit();
+        assertEquals(proof.toPath().toString(), record.getProofFile());
+        assertEquals(record.getProofLength(), ProofFiles.read(proof).getInferenceApplicationCount());
+    }
+}
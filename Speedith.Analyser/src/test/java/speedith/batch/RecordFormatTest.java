@@ -0,0 +1,57 @@
+package speedith.batch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecordFormatTest {
+
+    private static final String MESSAGE = "line 1, \"quoted\"\nline 2\ttab\\";
+
+    private static ProofRecord failed(String goal, String message) {
+        return ProofRecord.failed(goal, 12, message);
+    }
+
+    @Test
+    public void formats_should_be_found_regardless_of_case() {
+        assertSame(RecordFormat.CSV, RecordFormat.fromName("csv"));
+        assertSame(RecordFormat.JSON, RecordFormat.fromName("Json"));
+        assertNull(RecordFormat.fromName("xml"));
+    }
+
+    @Test
+    public void plain_csv_values_should_not_be_quoted() {
+        assertEquals("a/1.sdt,ERROR,-1,0,0,0,12,,failure", RecordFormat.CSV.format(failed("a/1.sdt", "failure")));
+    }
+
+    @Test
+    public void csv_values_with_separators_should_be_quoted() {
+        String line = RecordFormat.CSV.format(failed("goal,1.sdt", MESSAGE));
+        assertEquals("\"goal,1.sdt\",ERROR,-1,0,0,0,12,,\"line 1, \"\"quoted\"\"\nline 2\ttab\\\"", line);
+    }
+
+    @Test
+    public void csv_values_with_carriage_returns_should_be_quoted() {
+        assertTrue(RecordFormat.CSV.format(failed("goal", "a\rb")).endsWith(",\"a\rb\""));
+    }
+
+    @Test
+    public void csv_header_should_have_a_column_per_value() {
+        String header = RecordFormat.CSV.getHeader();
+        assertEquals(header.split(",").length, RecordFormat.CSV.format(failed("goal", "failure")).split(",").length);
+    }
+
+    @Test
+    public void json_strings_should_be_escaped() {
+        String line = RecordFormat.JSON.format(failed("goal \"1\".sdt", MESSAGE + "\u0001"));
+        assertEquals("{\"goal\":\"goal \\\"1\\\".sdt\",\"status\":\"ERROR\",\"proofLength\":-1,\"expandedNodes\":0,"
+                + "\"createdNodes\":0,\"peakFrontier\":0,\"timeMillis\":12,\"proofFile\":null,"
+                + "\"message\":\"line 1, \\\"quoted\\\"\\nline 2\\ttab\\\\\\u0001\"}", line);
+        assertFalse(line.contains("\n"));
+    }
+
+    @Test
+    public void json_lines_should_have_no_header() {
+        assertNull(RecordFormat.JSON.getHeader());
+    }
+}
@@ -0,0 +1,78 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.automatic.AppliedRules;
+import speedith.core.reasoning.rules.RemoveShading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extends the {@link AppliedRules index of applied rules} of a proof of the
+ * given depth by a number of alternative steps (as a proof search does when it
+ * expands a proof attempt), and checks for each of them whether it repeats an
+ * earlier step.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppliedRulesBenchmark {
+
+    private static final int SUCCESSORS = 32;
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    private AppliedRules prefix;
+    private Goals goals;
+    private List<InferenceApplication> successors;
+    private List<MultipleRuleArgs> successorArgs;
+
+    @Setup
+    public void setUp() {
+        SpiderDiagram diagram = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+        goals = Goals.createGoalsFrom(diagram);
+        Zone zone = new Zone(null, Arrays.asList("A", "B"));
+        prefix = AppliedRules.EMPTY;
+        for (int i = 0; i < depth; i++) {
+            prefix = prefix.extend(removeShading(new MultipleRuleArgs(new ZoneArg(0, i, zone))), goals);
+        }
+        successors = new ArrayList<>(SUCCESSORS);
+        successorArgs = new ArrayList<>(SUCCESSORS);
+        for (int i = 0; i < SUCCESSORS; i++) {
+            MultipleRuleArgs args = new MultipleRuleArgs(new ZoneArg(0, depth - SUCCESSORS / 2 + i, zone));
+            successors.add(removeShading(args));
+            successorArgs.add(args);
+        }
+    }
+
+    @Benchmark
+    public void expand(Blackhole blackhole) {
+        for (int i = 0; i < SUCCESSORS; i++) {
+            AppliedRules successor = prefix.extend(successors.get(i), goals);
+            blackhole.consume(successor.containsApplication(AppliedRules.Kind.REMOVE_SHADING, successorArgs.get(i)));
+            blackhole.consume(prefix.containsApplication(AppliedRules.Kind.REMOVE_SHADING, successorArgs.get(i)));
+        }
+    }
+
+    private static InferenceApplication removeShading(MultipleRuleArgs args) {
+        return new InferenceApplication(new RemoveShading(), args, RuleApplicationType.AUTOMATIC, "benchmark");
+    }
+}
@@ -0,0 +1,159 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.args.ContourArg;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.automatic.AppliedRules;
+import speedith.core.reasoning.automatic.AutomaticProofException;
+import speedith.core.reasoning.automatic.AutomaticProver;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.SearchResult;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks for repeated rule applications on the proofs of the first
+ * {@value #GOALS} goals of an example set, as found by the heuristic prover.
+ * Each application of a proof is looked up in every prefix of that proof, once
+ * with the {@link AppliedRules index of applied rules} ({@code index}) and once
+ * by scanning the inference applications of the prefix, as the possible rule
+ * applications did before the index existed ({@code scan}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppliedRulesExamplesBenchmark {
+
+    private static final int GOALS = 5;
+    private static final int TIMEOUT_SECONDS = 30;
+
+    @Param({"index", "scan"})
+    public String lookup;
+
+    @Param({"3_premises", "4_premises"})
+    public String exampleSet;
+
+    private List<Proof> proofs;
+    /**
+     * The indices of all prefixes of each proof, i.e., {@code prefixes.get(k)[i]}
+     * indexes the first {@code i} applications of the {@code k}-th proof.
+     */
+    private List<AppliedRules[]> prefixes;
+
+    @Setup
+    public void setUp() throws IOException, ReadingException, AutomaticProofException {
+        AutomaticProver prover = AutomaticProvers.createAutomaticProver("heuristic");
+        prover.setStrategy(Strategies.getStrategy("basic_strategy"));
+        SearchLimits limits = SearchLimits.NONE.withTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        List<SpiderDiagram> goals = Examples.readGoals(exampleSet);
+        proofs = new ArrayList<>();
+        prefixes = new ArrayList<>();
+        for (SpiderDiagram goal : goals.subList(0, Math.min(GOALS, goals.size()))) {
+            SearchResult result = prover.generateProof(Goals.createGoalsFrom(goal), limits);
+            if (!result.isProofFound()) {
+                continue;
+            }
+            Proof proof = result.getProof();
+            AppliedRules[] indices = new AppliedRules[proof.getInferenceApplicationCount() + 1];
+            indices[0] = AppliedRules.EMPTY;
+            for (int i = 0; i < proof.getInferenceApplicationCount(); i++) {
+                indices[i + 1] = indices[i].extend(proof.getInferenceApplicationAt(i), proof.getGoalsAt(i + 1));
+            }
+            proofs.add(proof);
+            prefixes.add(indices);
+        }
+        if (proofs.isEmpty()) {
+            throw new IllegalStateException("No proofs found for " + exampleSet);
+        }
+    }
+
+    @Benchmark
+    public void findRepetitions(Blackhole blackhole) {
+        boolean useIndex = "index".equals(lookup);
+        for (int k = 0; k < proofs.size(); k++) {
+            Proof proof = proofs.get(k);
+            AppliedRules[] indices = prefixes.get(k);
+            int count = proof.getInferenceApplicationCount();
+            for (int j = 0; j < count; j++) {
+                InferenceApplication application = proof.getInferenceApplicationAt(j);
+                AppliedRules.Kind kind = AppliedRules.Kind.of(application.getInference());
+                if (kind == null || !(application.getRuleArguments() instanceof MultipleRuleArgs)) {
+                    continue;
+                }
+                MultipleRuleArgs args = (MultipleRuleArgs) application.getRuleArguments();
+                for (int i = 0; i <= count; i++) {
+                    blackhole.consume(useIndex
+                            ? indices[i].containsApplication(kind, args)
+                            : scan(proof, i, kind, args));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether one of the first {@code prefixLength} applications of the
+     * proof repeats the given one, by comparing the arguments of each of them.
+     */
+    private static boolean scan(Proof proof, int prefixLength, AppliedRules.Kind kind, MultipleRuleArgs args) {
+        if (args.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < prefixLength; i++) {
+            InferenceApplication application = proof.getInferenceApplicationAt(i);
+            if (AppliedRules.Kind.of(application.getInference()) != kind
+                    || !(application.getRuleArguments() instanceof MultipleRuleArgs)) {
+                continue;
+            }
+            MultipleRuleArgs earlier = (MultipleRuleArgs) application.getRuleArguments();
+            if (kind == AppliedRules.Kind.REMOVE_SHADING || kind == AppliedRules.Kind.INTRO_SHADED_ZONE
+                    || kind == AppliedRules.Kind.REMOVE_SHADED_ZONE) {
+                if (earlier.getRuleArgs().containsAll(args.getRuleArgs())) {
+                    return true;
+                }
+            } else if (earlier.size() == args.size() && sameTarget(earlier.get(0), args.get(0))
+                    && values(earlier).equals(values(args))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameTarget(RuleArg first, RuleArg second) {
+        if (first instanceof ZoneArg && second instanceof ZoneArg) {
+            ZoneArg a = (ZoneArg) first;
+            ZoneArg b = (ZoneArg) second;
+            return a.getSubgoalIndex() == b.getSubgoalIndex() && a.getSubDiagramIndex() == b.getSubDiagramIndex();
+        }
+        ContourArg a = (ContourArg) first;
+        ContourArg b = (ContourArg) second;
+        return a.getSubgoalIndex() == b.getSubgoalIndex() && a.getSubDiagramIndex() == b.getSubDiagramIndex();
+    }
+
+    private static Set<Object> values(MultipleRuleArgs args) {
+        Set<Object> result = new HashSet<>();
+        for (RuleArg arg : args) {
+            result.add(arg instanceof ZoneArg ? ((ZoneArg) arg).getZone() : ((ContourArg) arg).getContour());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.ProofAnalyser;
+import speedith.core.reasoning.automatic.AutomaticProofException;
+import speedith.core.reasoning.automatic.AutomaticProver;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+import speedith.core.reasoning.rules.util.HeuristicUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proves all goals of an example set with each of the automatic provers, using
+ * the basic heuristic strategy. Every proof search is limited to
+ * {@value #TIMEOUT_SECONDS} seconds, so that provers that do not find a proof
+ * within reasonable time do not stall the benchmark.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutomaticProverBenchmark {
+
+    private static final int TIMEOUT_SECONDS = 30;
+
+    @Param({"depth_first", "breadth_first", "heuristic", "tactical_heuristic", "parallel_heuristic",
+            "iterative_deepening_heuristic", "partial_expansion_heuristic", "portfolio"})
+    public String prover;
+
+    @Param({"3_premises", "4_premises"})
+    public String exampleSet;
+
+    private AutomaticProver automaticProver;
+    private List<SpiderDiagram> goals;
+    private SearchLimits limits;
+
+    @Setup
+    public void setUp() throws IOException, ReadingException, AutomaticProofException {
+        // a fresh instance, so that the registered prover is not changed
+        automaticProver = AutomaticProvers.createAutomaticProver(prover);
+        automaticProver.setStrategy(Strategies.getStrategy("basic_strategy"));
+        goals = Examples.readGoals(exampleSet);
+        limits = SearchLimits.NONE.withTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Clears the memoised heuristic values, so that every iteration starts with the
+     * same (empty) caches instead of profiting from the earlier ones.
+     */
+    @Setup(Level.Iteration)
+    public void clearCaches() {
+        HeuristicUtils.clearCaches();
+        ProofAnalyser.clearCaches();
+    }
+
+    @Benchmark
+    public void prove(Blackhole blackhole) throws AutomaticProofException {
+        for (SpiderDiagram goal : goals) {
+            blackhole.consume(automaticProver.generateProof(Goals.createGoalsFrom(goal), limits));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of Speedith. Accepts the same arguments as the JMH
+ * command line (e.g., a regular expression selecting the benchmarks to run),
+ * but always adds the GC profiler, so that the allocation rate is reported
+ * along with the time of each benchmark.
+ * <p>The example goals are read from the directory given by the system
+ * property {@code speedith.examples} (see {@link Examples}).</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
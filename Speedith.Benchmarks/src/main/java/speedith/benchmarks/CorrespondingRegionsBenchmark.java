@@ -0,0 +1,75 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Region;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.util.unitary.CorrespondingRegions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the region of a destination diagram corresponding to the shaded
+ * region of a source diagram, once on bit masks ({@link
+ * CorrespondingRegions#correspondingRegion(Region)}) and once by expanding the
+ * zones ({@link CorrespondingRegions#correspondingRegionByExpansion(Region)}).
+ * The destination either uses all but one of the source contours, or shares
+ * all but one contour with the source.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorrespondingRegionsBenchmark {
+
+    @Param({"3", "6", "9", "12"})
+    public int contours;
+
+    @Param({"true", "false"})
+    public boolean destinationIsSubset;
+
+    private CorrespondingRegions correspondingRegions;
+    private Region shadedRegion;
+
+    @Setup
+    public void setUp() {
+        String[] sourceContours = new String[contours];
+        for (int i = 0; i < contours; i++) {
+            sourceContours[i] = "C" + i;
+        }
+        String[] destinationContours = Arrays.copyOf(sourceContours, contours - 1);
+        if (!destinationIsSubset) {
+            destinationContours[0] = "D";
+        }
+        List<Zone> sourceZones = Zones.allZonesForContours(sourceContours);
+        List<Zone> shadedZones = new ArrayList<>();
+        for (Zone zone : sourceZones) {
+            if (zone.getInContours().contains(sourceContours[1])) {
+                shadedZones.add(zone);
+            }
+        }
+        PrimarySpiderDiagram source = SpiderDiagrams.createPrimarySD(null, null, shadedZones, sourceZones);
+        PrimarySpiderDiagram destination = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours(destinationContours));
+        correspondingRegions = new CorrespondingRegions(source, destination);
+        shadedRegion = new Region(shadedZones);
+    }
+
+    @Benchmark
+    public Region masks() {
+        return correspondingRegions.correspondingRegion(shadedRegion);
+    }
+
+    @Benchmark
+    public Region expansion() {
+        return correspondingRegions.correspondingRegionByExpansion(shadedRegion);
+    }
+}
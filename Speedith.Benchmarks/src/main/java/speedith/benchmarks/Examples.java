@@ -0,0 +1,105 @@
+package speedith.benchmarks;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gives access to the example goals in the {@code examples} directory of the
+ * repository. The directory can be set with the system property
+ * {@value #EXAMPLES_PROPERTY}; by default, it is looked up relative to the
+ * working directory (either the root of the repository or this module).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class Examples {
+
+    static final String EXAMPLES_PROPERTY = "speedith.examples";
+
+    private static final String SDT_EXTENSION = ".sdt";
+
+    private Examples() {
+    }
+
+    /**
+     * Returns the directory containing the example sets.
+     */
+    static File getExamplesDirectory() throws FileNotFoundException {
+        String property = System.getProperty(EXAMPLES_PROPERTY);
+        File[] candidates = property != null
+                ? new File[]{new File(property)}
+                : new File[]{new File("examples"), new File("../examples")};
+        for (File candidate : candidates) {
+            if (candidate.isDirectory()) {
+                return candidate;
+            }
+        }
+        throw new FileNotFoundException("Could not find the examples. Set the system property " + EXAMPLES_PROPERTY + ".");
+    }
+
+    /**
+     * Returns the files of the given example set (e.g., {@code 3_premises}),
+     * ordered by their number.
+     */
+    static List<File> getFiles(String exampleSet) throws FileNotFoundException {
+        File directory = new File(getExamplesDirectory(), exampleSet);
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new FileNotFoundException(directory.getPath());
+        }
+        List<File> result = new ArrayList<>();
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(SDT_EXTENSION)) {
+                result.add(file);
+            }
+        }
+        Collections.sort(result, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return Integer.compare(number(f1), number(f2));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the contents of the files of the given example set.
+     */
+    static List<String> readTexts(String exampleSet) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (File file : getFiles(exampleSet)) {
+            result.add(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the goals of the given example set.
+     */
+    static List<SpiderDiagram> readGoals(String exampleSet) throws IOException, ReadingException {
+        List<SpiderDiagram> result = new ArrayList<>();
+        for (String text : readTexts(exampleSet)) {
+            result.add(SpiderDiagramsReader.readSpiderDiagram(text));
+        }
+        return result;
+    }
+
+    private static int number(File file) {
+        String name = file.getName();
+        try {
+            return Integer.parseInt(name.substring(0, name.length() - SDT_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
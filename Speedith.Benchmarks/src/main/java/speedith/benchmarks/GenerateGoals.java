@@ -0,0 +1,59 @@
+package speedith.benchmarks;
+
+import org.apache.commons.cli.*;
+import speedith.core.lang.SpiderDiagram;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Command line tool that writes random goals (see {@link GoalGenerator}) in the
+ * SDT format into a directory, one goal per file ({@code 1.sdt}, {@code 2.sdt},
+ * ...), in the same layout as the sets in the {@code examples} directory.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class GenerateGoals {
+
+    public static void main(String[] args) {
+        GoalGeneratorOptions options = new GoalGeneratorOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+        String usage = "generate-goals <-o output dir> [-n count] [-s seed] [-c contours] [-p premises] [-k contours per premise] [-d shading density]";
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(GoalGeneratorOptions.OUTPUT_SHORT)) {
+                help.printHelp(usage, options);
+                return;
+            }
+            GoalGenerator generator = new GoalGenerator(
+                    Integer.parseInt(line.getOptionValue(GoalGeneratorOptions.CONTOURS_SHORT, "4")),
+                    Integer.parseInt(line.getOptionValue(GoalGeneratorOptions.PREMISES_SHORT, "3")),
+                    Integer.parseInt(line.getOptionValue(GoalGeneratorOptions.CONTOURS_PER_PREMISE_SHORT, "3")),
+                    Double.parseDouble(line.getOptionValue(GoalGeneratorOptions.SHADING_SHORT, "0.3")));
+            int count = Integer.parseInt(line.getOptionValue(GoalGeneratorOptions.COUNT_SHORT, "10"));
+            long seed = Long.parseLong(line.getOptionValue(GoalGeneratorOptions.SEED_SHORT, "0"));
+            File output = new File(line.getOptionValue(GoalGeneratorOptions.OUTPUT_SHORT));
+            if (!output.isDirectory() && !output.mkdirs()) {
+                System.out.println("Could not create the output directory: " + output);
+                return;
+            }
+            List<SpiderDiagram> goals = generator.generate(count, seed);
+            for (int i = 0; i < goals.size(); i++) {
+                FileWriter writer = new FileWriter(new File(output, (i + 1) + ".sdt"));
+                try {
+                    writer.write(goals.get(i).toString());
+                } finally {
+                    writer.close();
+                }
+            }
+        } catch (ParseException | IllegalArgumentException | IllegalStateException e) {
+            System.out.println(e.getMessage());
+            help.printHelp(usage, options);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
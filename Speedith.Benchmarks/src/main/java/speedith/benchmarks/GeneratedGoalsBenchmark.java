@@ -0,0 +1,89 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.ProofAnalyser;
+import speedith.core.reasoning.automatic.AutomaticProofException;
+import speedith.core.reasoning.automatic.AutomaticProver;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+import speedith.core.reasoning.rules.util.HeuristicUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proves random goals created by the {@link GoalGenerator}, so that the scaling
+ * of a prover in the number of contours, premises and the shading density can
+ * be measured. The parameters can be overridden on the command line (e.g.,
+ * {@code -p contours=3,4,5,6,7,8 -p prover=heuristic}). The goals only depend on
+ * the parameters and the seed, so runs on different machines are comparable.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratedGoalsBenchmark {
+
+    private static final int TIMEOUT_SECONDS = 30;
+
+    @Param({"heuristic"})
+    public String prover;
+
+    @Param({"basic_strategy"})
+    public String strategy;
+
+    @Param({"3", "4", "5", "6"})
+    public int contours;
+
+    @Param({"2", "3", "4"})
+    public int premises;
+
+    @Param({"3"})
+    public int contoursPerPremise;
+
+    @Param({"0.3"})
+    public double shadingDensity;
+
+    @Param({"5"})
+    public int goalCount;
+
+    @Param({"0"})
+    public long seed;
+
+    private AutomaticProver automaticProver;
+    private List<SpiderDiagram> goals;
+    private SearchLimits limits;
+
+    @Setup
+    public void setUp() throws AutomaticProofException {
+        automaticProver = AutomaticProvers.createAutomaticProver(prover);
+        automaticProver.setStrategy(Strategies.getStrategy(strategy));
+        goals = new GoalGenerator(contours, premises, Math.min(contoursPerPremise, contours), shadingDensity).generate(goalCount, seed);
+        limits = SearchLimits.NONE.withTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Clears the memoised heuristic values, so that every iteration starts with the
+     * same (empty) caches instead of profiting from the earlier ones.
+     */
+    @Setup(Level.Iteration)
+    public void clearCaches() {
+        HeuristicUtils.clearCaches();
+        ProofAnalyser.clearCaches();
+    }
+
+    @Benchmark
+    public void prove(Blackhole blackhole) throws AutomaticProofException {
+        for (SpiderDiagram goal : goals) {
+            blackhole.consume(automaticProver.generateProof(Goals.createGoalsFrom(goal), limits));
+        }
+    }
+}
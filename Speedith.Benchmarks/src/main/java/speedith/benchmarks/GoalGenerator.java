@@ -0,0 +1,304 @@
+package speedith.benchmarks;
+
+import speedith.core.lang.*;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Generates random goals of the form {@code P1 & (P2 & ...) --> C}, where the
+ * premises {@code Pi} and the conclusion {@code C} are Euler diagrams (i.e.,
+ * primary diagrams without spiders). The goals are valid by construction, hence
+ * provable:
+ * <ol>
+ * <li>Each premise is drawn over a random subset of the contours. Each of its
+ * zones (except the one outside of all contours) is empty with the probability
+ * given by the shading density. Empty zones are either shaded or missing (i.e.,
+ * shaded but not present).</li>
+ * <li>The premises are combined into a single diagram over all contours, in which a
+ * zone is empty iff its projection onto the contours of some premise is empty in
+ * that premise. This diagram is equivalent to the conjunction of the premises.</li>
+ * <li>The conclusion is the projection of the combined diagram onto a random
+ * subset of the contours: a zone of the conclusion is shaded iff all zones of the
+ * combined diagram that it covers are empty. Conclusions without shaded zones
+ * are trivial, hence a goal is discarded if no subset of contours yields a
+ * shaded zone.</li>
+ * </ol>
+ * The generator is deterministic: the same parameters and seed always yield the
+ * same goals. Use {@link SpiderDiagram#toString()} to obtain the goals in the SDT
+ * format.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class GoalGenerator {
+
+    /**
+     * The maximal number of contours, since the combined diagram enumerates all
+     * zones over all contours.
+     */
+    public static final int MAX_CONTOURS = 20;
+
+    /**
+     * How often a random subset of contours is tried for the conclusion, until one
+     * with at least one shaded zone is found.
+     */
+    private static final int CONCLUSION_ATTEMPTS = 100;
+
+    /**
+     * How often the premises of a goal are generated anew, until a goal with a
+     * conclusion is found.
+     */
+    private static final int GOAL_ATTEMPTS = 100;
+
+    private final int contours;
+    private final int premises;
+    private final int contoursPerPremise;
+    private final double shadingDensity;
+    private final String[] contourNames;
+
+    /**
+     * Creates a generator with the given parameters.
+     *
+     * @param contours the number of distinct contours in each goal.
+     * @param premises the number of premises of each goal.
+     * @param contoursPerPremise the minimal number of contours of each premise (and the number
+     *                           of contours of the conclusion). Premises get more contours if
+     *                           needed to use all contours.
+     * @param shadingDensity the probability that a zone of a premise is empty.
+     */
+    public GoalGenerator(int contours, int premises, int contoursPerPremise, double shadingDensity) {
+        if (contours < 1 || contours > MAX_CONTOURS) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "contours"));
+        }
+        if (premises < 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "premises"));
+        }
+        if (contoursPerPremise < 1 || contoursPerPremise > contours) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "contoursPerPremise"));
+        }
+        if (!(shadingDensity >= 0 && shadingDensity <= 1)) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "shadingDensity"));
+        }
+        this.contours = contours;
+        this.premises = premises;
+        this.contoursPerPremise = contoursPerPremise;
+        this.shadingDensity = shadingDensity;
+        this.contourNames = new String[contours];
+        for (int i = 0; i < contours; i++) {
+            contourNames[i] = contourName(i);
+        }
+    }
+
+    public int getContours() {
+        return contours;
+    }
+
+    public int getPremises() {
+        return premises;
+    }
+
+    public int getContoursPerPremise() {
+        return contoursPerPremise;
+    }
+
+    public double getShadingDensity() {
+        return shadingDensity;
+    }
+
+    /**
+     * Generates the given number of goals.
+     *
+     * @param count the number of goals to generate.
+     * @param seed the seed of the random numbers.
+     * @return the generated goals.
+     * @throws IllegalStateException if no goal could be generated in {@value
+     * #GOAL_ATTEMPTS} consecutive attempts, e.g., because the shading density is
+     * too low to yield a shaded conclusion.
+     */
+    public List<SpiderDiagram> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<SpiderDiagram> goals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SpiderDiagram goal = null;
+            for (int attempt = 0; attempt < GOAL_ATTEMPTS && goal == null; attempt++) {
+                goal = generate(random);
+            }
+            if (goal == null) {
+                throw new IllegalStateException("Could not generate a goal with a shaded conclusion in " + GOAL_ATTEMPTS
+                        + " attempts. Try a higher shading density.");
+            }
+            goals.add(goal);
+        }
+        return goals;
+    }
+
+    /**
+     * Generates a single goal.
+     *
+     * @param random the source of random numbers.
+     * @return the generated goal, or null if no conclusion with a shaded zone
+     * follows from the generated premises.
+     */
+    public SpiderDiagram generate(Random random) {
+        int[] premiseMasks = choosePremiseContours(random);
+        List<Set<Integer>> emptyZones = new ArrayList<>(premises);
+        List<PrimarySpiderDiagram> premiseDiagrams = new ArrayList<>(premises);
+        for (int premiseMask : premiseMasks) {
+            Set<Integer> empty = new HashSet<>();
+            premiseDiagrams.add(createPremise(random, premiseMask, empty));
+            emptyZones.add(empty);
+        }
+        boolean[] combined = combine(premiseMasks, emptyZones);
+        PrimarySpiderDiagram conclusion = createConclusion(random, combined);
+        if (conclusion == null) {
+            return null;
+        }
+        SpiderDiagram premise = premiseDiagrams.get(premises - 1);
+        for (int i = premises - 2; i >= 0; i--) {
+            premise = SpiderDiagrams.createCompoundSD(Operator.Conjunction, premiseDiagrams.get(i), premise);
+        }
+        return SpiderDiagrams.createCompoundSD(Operator.Implication, premise, conclusion);
+    }
+
+    /**
+     * Chooses the contours of each premise, such that every contour is used by
+     * at least one premise.
+     */
+    private int[] choosePremiseContours(Random random) {
+        int[] masks = new int[premises];
+        List<Integer> shuffled = shuffledContours(random);
+        for (int i = 0; i < contours; i++) {
+            masks[i % premises] |= 1 << shuffled.get(i);
+        }
+        for (int i = 0; i < premises; i++) {
+            List<Integer> candidates = shuffledContours(random);
+            for (int j = 0; Integer.bitCount(masks[i]) < contoursPerPremise; j++) {
+                masks[i] |= 1 << candidates.get(j);
+            }
+        }
+        return masks;
+    }
+
+    private PrimarySpiderDiagram createPremise(Random random, int contourMask, Set<Integer> emptyZones) {
+        List<Zone> presentZones = new ArrayList<>();
+        List<Zone> shadedZones = new ArrayList<>();
+        for (int in : subsetsOf(contourMask)) {
+            Zone zone = toZone(in, contourMask);
+            // the zone outside of all contours is never empty
+            if (in != 0 && random.nextDouble() < shadingDensity) {
+                emptyZones.add(in);
+                shadedZones.add(zone);
+                // missing zones are the shaded zones that are not present
+                if (random.nextBoolean()) {
+                    presentZones.add(zone);
+                }
+            } else {
+                presentZones.add(zone);
+            }
+        }
+        return SpiderDiagrams.createPrimarySD(null, null, shadedZones, presentZones);
+    }
+
+    /**
+     * Computes, for each zone over all contours, whether it is empty in the
+     * conjunction of the premises.
+     */
+    private boolean[] combine(int[] premiseMasks, List<Set<Integer>> emptyZones) {
+        boolean[] empty = new boolean[1 << contours];
+        for (int in = 0; in < empty.length; in++) {
+            for (int i = 0; i < premises && !empty[in]; i++) {
+                empty[in] = emptyZones.get(i).contains(in & premiseMasks[i]);
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Projects the combined diagram onto a random subset of the contours, or
+     * returns null if no subset within {@value #CONCLUSION_ATTEMPTS} attempts
+     * yields a shaded zone.
+     */
+    private PrimarySpiderDiagram createConclusion(Random random, boolean[] combined) {
+        int contourMask = 0;
+        List<Zone> shadedZones = new ArrayList<>();
+        for (int attempt = 0; attempt < CONCLUSION_ATTEMPTS && shadedZones.isEmpty(); attempt++) {
+            List<Integer> candidates = shuffledContours(random);
+            contourMask = 0;
+            for (int j = 0; j < contoursPerPremise; j++) {
+                contourMask |= 1 << candidates.get(j);
+            }
+            shadedZones.clear();
+            for (int in : subsetsOf(contourMask)) {
+                if (isProjectionEmpty(combined, in, contourMask)) {
+                    shadedZones.add(toZone(in, contourMask));
+                }
+            }
+        }
+        if (shadedZones.isEmpty()) {
+            return null;
+        }
+        List<Zone> presentZones = new ArrayList<>();
+        for (int in : subsetsOf(contourMask)) {
+            presentZones.add(toZone(in, contourMask));
+        }
+        return SpiderDiagrams.createPrimarySD(null, null, shadedZones, presentZones);
+    }
+
+    /**
+     * Checks whether all zones of the combined diagram that agree with the given
+     * zone on the given contours are empty.
+     */
+    private boolean isProjectionEmpty(boolean[] combined, int in, int contourMask) {
+        int free = ((1 << contours) - 1) & ~contourMask;
+        for (int extension : subsetsOf(free)) {
+            if (!combined[in | extension]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Integer> shuffledContours(Random random) {
+        List<Integer> result = new ArrayList<>(contours);
+        for (int i = 0; i < contours; i++) {
+            result.add(i);
+        }
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    private Zone toZone(int in, int contourMask) {
+        List<String> inContours = new ArrayList<>();
+        List<String> outContours = new ArrayList<>();
+        for (int i = 0; i < contours; i++) {
+            if ((in & (1 << i)) != 0) {
+                inContours.add(contourNames[i]);
+            } else if ((contourMask & (1 << i)) != 0) {
+                outContours.add(contourNames[i]);
+            }
+        }
+        return new Zone(inContours, outContours);
+    }
+
+    /**
+     * All subsets of the given mask, starting with the empty one.
+     */
+    private static List<Integer> subsetsOf(int mask) {
+        List<Integer> result = new ArrayList<>(1 << Integer.bitCount(mask));
+        int subset = 0;
+        do {
+            result.add(subset);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return result;
+    }
+
+    /**
+     * The name of the contour with the given index: A, B, ..., Z, A1, B1, ...
+     */
+    private static String contourName(int index) {
+        char letter = (char) ('A' + index % 26);
+        return index < 26 ? String.valueOf(letter) : letter + String.valueOf(index / 26);
+    }
+}
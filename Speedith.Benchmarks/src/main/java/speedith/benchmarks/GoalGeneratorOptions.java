@@ -0,0 +1,42 @@
+package speedith.benchmarks;
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of {@link GenerateGoals}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class GoalGeneratorOptions extends Options {
+
+    public static final String OUTPUT_SHORT = "o";
+    public static final String OUTPUT_LONG = "output";
+    public static final String COUNT_SHORT = "n";
+    public static final String COUNT_LONG = "count";
+    public static final String SEED_SHORT = "s";
+    public static final String SEED_LONG = "seed";
+    public static final String CONTOURS_SHORT = "c";
+    public static final String CONTOURS_LONG = "contours";
+    public static final String PREMISES_SHORT = "p";
+    public static final String PREMISES_LONG = "premises";
+    public static final String CONTOURS_PER_PREMISE_SHORT = "k";
+    public static final String CONTOURS_PER_PREMISE_LONG = "contours-per-premise";
+    public static final String SHADING_SHORT = "d";
+    public static final String SHADING_LONG = "shading-density";
+
+    private static final long serialVersionUID = -4387250623617302231L;
+
+    public GoalGeneratorOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+        addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the output directory");
+        addOption(COUNT_SHORT, COUNT_LONG, true, "the number of goals to generate (optional, default: 10)");
+        addOption(SEED_SHORT, SEED_LONG, true, "the seed of the generator (optional, default: 0)");
+        addOption(CONTOURS_SHORT, CONTOURS_LONG, true, "the number of contours of each goal (optional, default: 4)");
+        addOption(PREMISES_SHORT, PREMISES_LONG, true, "the number of premises of each goal (optional, default: 3)");
+        addOption(CONTOURS_PER_PREMISE_SHORT, CONTOURS_PER_PREMISE_LONG, true, "the minimal number of contours of each premise (optional, default: 3)");
+        addOption(SHADING_SHORT, SHADING_LONG, true, "the probability that a zone of a premise is empty (optional, default: 0.3)");
+    }
+}
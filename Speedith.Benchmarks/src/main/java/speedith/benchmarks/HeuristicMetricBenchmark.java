@@ -0,0 +1,77 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.rules.util.HeuristicUtils;
+import speedith.core.reasoning.rules.util.ReasoningUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes {@link HeuristicUtils#metric(SpiderDiagram, SpiderDiagram)} between
+ * the (normalised) premises and the conclusion of all goals of an example set.
+ * Since the results of the metric are memoised, the cache is cleared before
+ * each invocation of {@link #metric(EmptyCache)}, while {@link #cachedMetric()}
+ * mostly measures lookups in the cache.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeuristicMetricBenchmark {
+
+    @Param({"3_premises", "4_premises"})
+    public String exampleSet;
+
+    private List<SpiderDiagram> premises;
+    private List<SpiderDiagram> conclusions;
+
+    @Setup
+    public void setUp() throws IOException, ReadingException {
+        premises = new ArrayList<>();
+        conclusions = new ArrayList<>();
+        for (SpiderDiagram goal : Examples.readGoals(exampleSet)) {
+            CompoundSpiderDiagram implication = (CompoundSpiderDiagram) ReasoningUtils.normalize(goal);
+            premises.add(implication.getOperand(0));
+            conclusions.add(implication.getOperand(1));
+        }
+    }
+
+    @Benchmark
+    public int metric(EmptyCache cache) {
+        return sumOfMetrics();
+    }
+
+    @Benchmark
+    public int cachedMetric() {
+        return sumOfMetrics();
+    }
+
+    private int sumOfMetrics() {
+        int result = 0;
+        for (int i = 0; i < premises.size(); i++) {
+            result += HeuristicUtils.metric(premises.get(i), conclusions.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Clears the cache of the metric before each invocation of a benchmark using this state.
+     */
+    @State(Scope.Thread)
+    public static class EmptyCache {
+        @Setup(Level.Invocation)
+        public void clearCache() {
+            HeuristicUtils.clearCaches();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.rules.util.ReasoningUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalises all goals of an example set with {@link ReasoningUtils#normalize(SpiderDiagram)}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NormalizeBenchmark {
+
+    @Param({"3_premises", "4_premises"})
+    public String exampleSet;
+
+    private List<SpiderDiagram> goals;
+
+    @Setup
+    public void setUp() throws IOException, ReadingException {
+        goals = Examples.readGoals(exampleSet);
+    }
+
+    @Benchmark
+    public void normalize(Blackhole blackhole) {
+        for (SpiderDiagram goal : goals) {
+            blackhole.consume(ReasoningUtils.normalize(goal));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import speedith.core.lang.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates primary and compound diagrams through {@link SpiderDiagrams} with the
+ * different {@link SpiderDiagramPool.InternMode intern modes} of the diagram pool.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpiderDiagramsBenchmark {
+
+    @Param({"ALWAYS", "COMPOUND_ONLY", "NEVER"})
+    public SpiderDiagramPool.InternMode mode;
+
+    @Param({"3", "6"})
+    public int contours;
+
+    private List<Zone> presentZones;
+    private List<Zone> shadedZones;
+    private SpiderDiagramPool.InternMode previousMode;
+
+    @Setup
+    public void setUp() {
+        String[] names = new String[contours];
+        for (int i = 0; i < contours; i++) {
+            names[i] = "C" + i;
+        }
+        presentZones = Zones.allZonesForContours(names);
+        shadedZones = new ArrayList<>();
+        for (Zone zone : presentZones) {
+            if (zone.getInContoursCount() == contours) {
+                shadedZones.add(zone);
+            }
+        }
+        previousMode = SpiderDiagrams.getPool().getMode();
+        SpiderDiagrams.getPool().setMode(mode);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SpiderDiagrams.getPool().setMode(previousMode);
+        SpiderDiagrams.getPool().clear();
+    }
+
+    @Benchmark
+    public PrimarySpiderDiagram createPrimary() {
+        return SpiderDiagrams.createPrimarySD(null, null, shadedZones, presentZones);
+    }
+
+    @Benchmark
+    public CompoundSpiderDiagram createConjunction() {
+        PrimarySpiderDiagram left = SpiderDiagrams.createPrimarySD(null, null, shadedZones, presentZones);
+        PrimarySpiderDiagram right = SpiderDiagrams.createPrimarySD(null, null, null, presentZones);
+        return SpiderDiagrams.createCompoundSD(Operator.Conjunction, left, right);
+    }
+}
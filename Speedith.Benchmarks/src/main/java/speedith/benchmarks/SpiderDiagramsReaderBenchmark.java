@@ -0,0 +1,41 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses all goals of an example set with {@link SpiderDiagramsReader#readSpiderDiagram(String)}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpiderDiagramsReaderBenchmark {
+
+    @Param({"3_premises", "4_premises"})
+    public String exampleSet;
+
+    private List<String> texts;
+
+    @Setup
+    public void setUp() throws IOException {
+        texts = Examples.readTexts(exampleSet);
+    }
+
+    @Benchmark
+    public void readSpiderDiagram(Blackhole blackhole) throws ReadingException {
+        for (String text : texts) {
+            blackhole.consume(SpiderDiagramsReader.readSpiderDiagram(text));
+        }
+    }
+}
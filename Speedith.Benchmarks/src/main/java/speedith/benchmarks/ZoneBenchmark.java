@@ -0,0 +1,71 @@
+package speedith.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import speedith.core.lang.BitZone;
+import speedith.core.lang.ContourSymbols;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates, compares and hashes all zones over a number of contours. Creating
+ * the zones is measured both with and without converting the {@link BitZone bit
+ * zones} they are enumerated on.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZoneBenchmark {
+
+    @Param({"3", "6", "9"})
+    public int contours;
+
+    private String[] names;
+    private List<Zone> zones;
+
+    @Setup
+    public void setUp() {
+        names = new String[contours];
+        for (int i = 0; i < contours; i++) {
+            names[i] = "C" + i;
+        }
+        zones = Zones.allZonesForContours(names);
+    }
+
+    @Benchmark
+    public List<Zone> createAllZones() {
+        return Zones.allZonesForContours(names);
+    }
+
+    @Benchmark
+    public List<BitZone> createAllBitZones() {
+        return BitZone.allZonesForContours(new ContourSymbols(), names);
+    }
+
+    @Benchmark
+    public int compareZones() {
+        int result = 0;
+        for (int i = 1; i < zones.size(); i++) {
+            result += zones.get(i - 1).compareTo(zones.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Hashes newly created zones, since zones cache their hash codes.
+     */
+    @Benchmark
+    public void hashNewZones(Blackhole blackhole) {
+        for (Zone zone : zones) {
+            blackhole.consume(new Zone(zone.getInContours(), zone.getOutContours()).hashCode());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package speedith.benchmarks;
+
+import org.junit.Test;
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.automatic.AutomaticProofException;
+import speedith.core.reasoning.automatic.AutomaticProver;
+import speedith.core.reasoning.automatic.AutomaticProvers;
+import speedith.core.reasoning.automatic.SearchLimits;
+import speedith.core.reasoning.automatic.SearchResult;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GoalGeneratorTest {
+
+    @Test
+    public void the_same_seed_should_generate_the_same_goals() {
+        GoalGenerator generator = new GoalGenerator(5, 3, 3, 0.3);
+        assertEquals(generator.generate(5, 42), generator.generate(5, 42));
+        assertNotEquals(generator.generate(5, 42), generator.generate(5, 43));
+    }
+
+    @Test
+    public void goals_should_be_implications_of_conjunctions_of_euler_diagrams() {
+        for (SpiderDiagram goal : new GoalGenerator(6, 4, 3, 0.4).generate(20, 7)) {
+            CompoundSpiderDiagram implication = (CompoundSpiderDiagram) goal;
+            assertEquals(Operator.Implication, implication.getOperator());
+            Set<String> premiseContours = new HashSet<>();
+            int premises = collectPremises(implication.getOperand(0), premiseContours);
+            assertEquals(4, premises);
+            assertEquals(6, premiseContours.size());
+            PrimarySpiderDiagram conclusion = (PrimarySpiderDiagram) implication.getOperand(1);
+            assertEquals(3, conclusion.getAllContours().size());
+            assertTrue(premiseContours.containsAll(conclusion.getAllContours()));
+            assertEquals(0, conclusion.getSpidersCount());
+        }
+    }
+
+    @Test
+    public void goals_should_be_readable_in_the_sdt_format() throws ReadingException {
+        List<SpiderDiagram> goals = new GoalGenerator(4, 2, 2, 0.5).generate(10, 0);
+        for (SpiderDiagram goal : goals) {
+            assertEquals(goal, SpiderDiagramsReader.readSpiderDiagram(goal.toString()));
+        }
+    }
+
+    @Test
+    public void empty_zones_of_premises_should_be_shaded_or_missing() {
+        for (SpiderDiagram goal : new GoalGenerator(5, 3, 3, 0.6).generate(20, 3)) {
+            List<PrimarySpiderDiagram> premises = new ArrayList<>();
+            collectPremises(((CompoundSpiderDiagram) goal).getOperand(0), premises);
+            for (PrimarySpiderDiagram premise : premises) {
+                for (Zone zone : Zones.allZonesForContours(premise.getAllContours().toArray(new String[0]))) {
+                    assertTrue(premise.getPresentZones().contains(zone) || premise.getShadedZones().contains(zone));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void generated_goals_should_be_provable() throws AutomaticProofException {
+        AutomaticProver prover = AutomaticProvers.createAutomaticProver("heuristic");
+        prover.setStrategy(Strategies.getStrategy("basic_strategy"));
+        SearchLimits limits = SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS);
+        for (SpiderDiagram goal : new GoalGenerator(3, 2, 2, 0.5).generate(5, 11)) {
+            SearchResult result = prover.generateProof(Goals.createGoalsFrom(goal), limits);
+            assertTrue("Could not prove " + goal, result.isProofFound());
+        }
+    }
+
+    @Test
+    public void conclusions_should_have_shaded_zones() {
+        for (SpiderDiagram goal : new GoalGenerator(5, 3, 3, 0.1).generate(20, 5)) {
+            PrimarySpiderDiagram conclusion = (PrimarySpiderDiagram) ((CompoundSpiderDiagram) goal).getOperand(1);
+            assertFalse(conclusion.getShadedZones().isEmpty());
+        }
+    }
+
+    @Test
+    public void goals_without_shaded_conclusions_should_not_be_generated() {
+        assertNull(new GoalGenerator(4, 2, 2, 0).generate(new Random(0)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void generating_goals_without_shading_should_fail() {
+        new GoalGenerator(4, 2, 2, 0).generate(1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void premises_with_more_contours_than_the_goal_should_be_rejected() {
+        new GoalGenerator(3, 2, 4, 0.3);
+    }
+
+    private static void collectPremises(SpiderDiagram premise, List<PrimarySpiderDiagram> premises) {
+        if (premise instanceof PrimarySpiderDiagram) {
+            premises.add((PrimarySpiderDiagram) premise);
+        } else {
+            for (SpiderDiagram operand : ((CompoundSpiderDiagram) premise).getOperands()) {
+                collectPremises(operand, premises);
+            }
+        }
+    }
+
+    private static int collectPremises(SpiderDiagram premise, Set<String> contours) {
+        if (premise instanceof PrimarySpiderDiagram) {
+            contours.addAll(((PrimarySpiderDiagram) premise).getAllContours());
+            return 1;
+        }
+        CompoundSpiderDiagram conjunction = (CompoundSpiderDiagram) premise;
+        assertEquals(Operator.Conjunction, conjunction.getOperator());
+        return collectPremises(conjunction.getOperand(0), contours) + collectPremises(conjunction.getOperand(1), contours);
+    }
+}
@@ -0,0 +1,541 @@
+package speedith.core.lang;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A compact representation of a {@link Zone}. The contours of a zone are
+ * interned in a {@link ContourSymbols symbol table} and the in- and
+ * out-contours are stored as bit masks over the indices of the contours.
+ * <p>As long as all contours of a zone have an index below 64, the masks are
+ * stored in two {@code long} values and all operations (including
+ * {@link BitZone#equals(Object)}, {@link BitZone#hashCode()} and
+ * {@link BitZone#compareTo(BitZone)}) are single word operations. Zones with
+ * contours above that limit fall back to {@link BitSet bit sets}.</p>
+ * <p>Bit zones are meant for code that creates or compares zones in bulk
+ * (e.g., {@link Zones#allZonesForContours(String...)} or the expansion of
+ * zones by new contours), which converts only its results to zones.</p>
+ * <p>Bit zones are only comparable with bit zones that use the same symbol
+ * table. Their order is the order of the masks, not the alphabetical order of
+ * {@link Zone}. Use {@link BitZone#toZone()} to view a bit zone as an ordinary
+ * zone.</p>
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class BitZone implements Comparable<BitZone>, Serializable {
+
+    private static final long serialVersionUID = 6950407081766016474L;
+
+    /**
+     * The number of contours that can be stored in the {@code long} masks.
+     */
+    private static final int WORD_SIZE = 64;
+    /**
+     * The maximal number of contours by which zones are enumerated, so that the
+     * zones still fit into a single list.
+     */
+    private static final int MAX_COMBINED_CONTOURS = 30;
+
+    private final ContourSymbols symbols;
+    private final long inMask;
+    private final long outMask;
+    /**
+     * The in- and out-contours, if any of them has an index of at least
+     * {@link BitZone#WORD_SIZE}. Otherwise both are {@code null}.
+     */
+    private final BitSet inBits;
+    private final BitSet outBits;
+    private transient Zone zone;
+
+    private BitZone(ContourSymbols symbols, long inMask, long outMask) {
+        this.symbols = symbols;
+        this.inMask = inMask;
+        this.outMask = outMask;
+        this.inBits = null;
+        this.outBits = null;
+    }
+
+    private BitZone(ContourSymbols symbols, BitSet inBits, BitSet outBits) {
+        this.symbols = symbols;
+        this.inMask = 0;
+        this.outMask = 0;
+        this.inBits = inBits;
+        this.outBits = outBits;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Factory Methods">
+
+    /**
+     * Creates a bit zone with the given in- and out-contours. Contours that are
+     * not yet contained in the symbol table are interned.
+     *
+     * @param symbols     the symbol table of the current problem.
+     * @param inContours  the contours which contain this zone (may be {@code null}).
+     * @param outContours the contours which lie outside this zone (may be {@code null}).
+     * @return the bit zone with the given in- and out-contours.
+     */
+    public static BitZone create(ContourSymbols symbols, Collection<String> inContours, Collection<String> outContours) {
+        if (symbols == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "symbols"));
+        }
+        return fromBits(symbols, toBits(symbols, inContours), toBits(symbols, outContours));
+    }
+
+    /**
+     * Creates the bit zone corresponding to the given zone.
+     *
+     * @param symbols the symbol table of the current problem.
+     * @param zone    the zone to convert.
+     * @return the bit zone corresponding to the given zone.
+     */
+    public static BitZone fromZone(ContourSymbols symbols, Zone zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "zone"));
+        }
+        BitZone result = create(symbols, zone.getInContours(), zone.getOutContours());
+        result.zone = zone;
+        return result;
+    }
+
+    /**
+     * Creates all zones over the given contours, i.e., the equivalent of {@link
+     * Zones#allZonesForContours(String...)}. The zones are returned in the same
+     * order: the {@code k}-th zone lies outside the {@code j}-th contour if and
+     * only if the {@code j}-th bit of {@code k} is set. Repeated contours are
+     * only counted once.
+     *
+     * @param symbols  the symbol table of the current problem.
+     * @param contours the contours for which to create all zones.
+     * @return all zones over the given contours.
+     */
+    public static ArrayList<BitZone> allZonesForContours(ContourSymbols symbols, String... contours) {
+        BitSet all = new BitSet();
+        int[] distinct = new int[contours.length];
+        int count = 0;
+        for (String contour : contours) {
+            int index = symbols.intern(contour);
+            if (!all.get(index)) {
+                all.set(index);
+                distinct[count++] = index;
+            }
+        }
+        return combinations(symbols, new BitSet(), new BitSet(), all, distinct, count);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Properties">
+
+    /**
+     * Returns the symbol table of this zone.
+     *
+     * @return the symbol table of this zone.
+     */
+    public ContourSymbols getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Returns the number of contours that contain this zone.
+     *
+     * @return the number of contours that contain this zone.
+     */
+    public int getInContoursCount() {
+        return inBits == null ? Long.bitCount(inMask) : inBits.cardinality();
+    }
+
+    /**
+     * Returns the number of contours that lie outside this zone.
+     *
+     * @return the number of contours that lie outside this zone.
+     */
+    public int getOutContoursCount() {
+        return outBits == null ? Long.bitCount(outMask) : outBits.cardinality();
+    }
+
+    /**
+     * Returns the names of the contours that contain this zone.
+     *
+     * @return the names of the contours that contain this zone.
+     */
+    public SortedSet<String> getInContours() {
+        return toZone().getInContours();
+    }
+
+    /**
+     * Returns the names of the contours that lie outside this zone.
+     *
+     * @return the names of the contours that lie outside this zone.
+     */
+    public SortedSet<String> getOutContours() {
+        return toZone().getOutContours();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+
+    /**
+     * Returns the {@link Zone} represented by this bit zone.
+     *
+     * @return the zone represented by this bit zone.
+     */
+    public Zone toZone() {
+        if (zone == null) {
+            zone = new Zone(toNames(getInBits()), toNames(getOutBits()));
+        }
+        return zone;
+    }
+
+    /**
+     * Checks whether the given contour contains this zone.
+     *
+     * @param contour the contour to check.
+     * @return {@code true} if and only if the contour is an in-contour of this zone.
+     */
+    public boolean isInside(String contour) {
+        return contains(inMask, inBits, symbols.indexOf(contour));
+    }
+
+    /**
+     * Checks whether this zone lies outside the given contour.
+     *
+     * @param contour the contour to check.
+     * @return {@code true} if and only if the contour is an out-contour of this zone.
+     */
+    public boolean isOutside(String contour) {
+        return contains(outMask, outBits, symbols.indexOf(contour));
+    }
+
+    /**
+     * Checks whether this zone is inside all contours in which the given zone is
+     * inside.
+     *
+     * @param other the zone whose in-contours to check.
+     * @return {@code true} if and only if the in-contours of the other zone are a
+     *         subset of the in-contours of this zone.
+     */
+    public boolean isInsideAllOf(BitZone other) {
+        checkSymbols(other);
+        if (inBits == null && other.inBits == null) {
+            return (other.inMask & ~inMask) == 0;
+        }
+        BitSet rest = other.getInBits();
+        rest.andNot(getInBits());
+        return rest.isEmpty();
+    }
+
+    /**
+     * Checks whether this zone is inside all contours in which the given zone is
+     * inside, and outside all contours outside of which the given zone lies.
+     *
+     * @param other the zone whose contours to check.
+     * @return {@code true} if and only if the in- and out-contours of the other
+     *         zone are subsets of the in- and out-contours of this zone.
+     */
+    public boolean isRefinementOf(BitZone other) {
+        checkSymbols(other);
+        if (inBits == null && other.inBits == null) {
+            return (other.inMask & ~inMask) == 0 && (other.outMask & ~outMask) == 0;
+        }
+        BitSet in = other.getInBits();
+        in.andNot(getInBits());
+        BitSet out = other.getOutBits();
+        out.andNot(getOutBits());
+        return in.isEmpty() && out.isEmpty();
+    }
+
+    /**
+     * Checks whether this and the given zone are defined over the same contours
+     * (regardless whether they are in- or out-contours).
+     *
+     * @param other the zone to compare with.
+     * @return {@code true} if and only if both zones mention the same contours.
+     */
+    public boolean hasSameContours(BitZone other) {
+        checkSymbols(other);
+        if (inBits == null && other.inBits == null) {
+            return (inMask | outMask) == (other.inMask | other.outMask);
+        }
+        BitSet these = getInBits();
+        these.or(getOutBits());
+        BitSet those = other.getInBits();
+        those.or(other.getOutBits());
+        return these.equals(those);
+    }
+
+    /**
+     * Checks whether the in- and out-contours of this zone are disjoint.
+     *
+     * @return {@code true} if and only if no contour is both an in- and an
+     *         out-contour of this zone.
+     */
+    public boolean isValid() {
+        return inBits == null ? (inMask & outMask) == 0 : !inBits.intersects(outBits);
+    }
+
+    /**
+     * Returns a copy of this zone that lies inside the given contour.
+     *
+     * @param contour the contour to add as an in-contour.
+     * @return a copy of this zone that lies inside the given contour.
+     */
+    public BitZone withInContour(String contour) {
+        int index = symbols.intern(contour);
+        if (inBits == null && index < WORD_SIZE) {
+            return new BitZone(symbols, inMask | (1L << index), outMask & ~(1L << index));
+        }
+        BitSet in = getInBits();
+        BitSet out = getOutBits();
+        in.set(index);
+        out.clear(index);
+        return fromBits(symbols, in, out);
+    }
+
+    /**
+     * Returns a copy of this zone that lies outside the given contour.
+     *
+     * @param contour the contour to add as an out-contour.
+     * @return a copy of this zone that lies outside the given contour.
+     */
+    public BitZone withOutContour(String contour) {
+        int index = symbols.intern(contour);
+        if (inBits == null && index < WORD_SIZE) {
+            return new BitZone(symbols, inMask & ~(1L << index), outMask | (1L << index));
+        }
+        BitSet in = getInBits();
+        BitSet out = getOutBits();
+        in.clear(index);
+        out.set(index);
+        return fromBits(symbols, in, out);
+    }
+
+    /**
+     * Returns a copy of this zone that does not mention the given contour.
+     *
+     * @param contour the contour to remove.
+     * @return a copy of this zone that does not mention the given contour.
+     */
+    public BitZone withoutContour(String contour) {
+        int index = symbols.indexOf(contour);
+        if (index < 0) {
+            return this;
+        }
+        if (inBits == null) {
+            return index < WORD_SIZE ? new BitZone(symbols, inMask & ~(1L << index), outMask & ~(1L << index)) : this;
+        }
+        BitSet in = getInBits();
+        BitSet out = getOutBits();
+        in.clear(index);
+        out.clear(index);
+        return fromBits(symbols, in, out);
+    }
+
+    /**
+     * Splits this zone by the given contours, i.e., returns one zone for each
+     * subset of the contours, which lies inside the contours of the subset and
+     * outside the remaining ones. The contours of this zone are kept as they
+     * are, even if they are among the given ones.
+     *
+     * @param newContours the contours by which to split this zone.
+     * @return the zones this zone is split into.
+     */
+    public ArrayList<BitZone> expand(Collection<String> newContours) {
+        BitSet all = new BitSet();
+        int[] distinct = new int[newContours.size()];
+        int count = 0;
+        for (String contour : newContours) {
+            int index = symbols.intern(contour);
+            if (!all.get(index)) {
+                all.set(index);
+                distinct[count++] = index;
+            }
+        }
+        return combinations(symbols, getInBits(), getOutBits(), all, distinct, count);
+    }
+
+    /**
+     * Two bit zones are equal if they use the same symbol table and have the same
+     * in- and out-contours.
+     *
+     * @param obj the object with which to compare this zone.
+     * @return {@code true} if and only if the given object is an equal bit zone.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof BitZone) {
+            BitZone other = (BitZone) obj;
+            if (symbols != other.symbols) {
+                return false;
+            }
+            if (inBits == null) {
+                return other.inBits == null && inMask == other.inMask && outMask == other.outMask;
+            }
+            return inBits.equals(other.inBits) && outBits.equals(other.outBits);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        if (inBits == null) {
+            return 31 * (int) (inMask ^ (inMask >>> 32)) + (int) (outMask ^ (outMask >>> 32));
+        }
+        return 31 * inBits.hashCode() + outBits.hashCode();
+    }
+
+    /**
+     * Compares the masks of this zone with the masks of the other zone (first the
+     * in-contours, then the out-contours).
+     *
+     * @param other the zone with which to compare this one.
+     * @return a negative number, zero, or a positive number if this zone is
+     *         smaller, equal, or larger than the other zone.
+     */
+    @Override
+    public int compareTo(BitZone other) {
+        checkSymbols(other);
+        if (this == other) {
+            return 0;
+        }
+        if (inBits == null && other.inBits == null) {
+            int retVal = compareUnsigned(inMask, other.inMask);
+            return retVal != 0 ? retVal : compareUnsigned(outMask, other.outMask);
+        }
+        int retVal = compareWords(getInBits().toLongArray(), other.getInBits().toLongArray());
+        return retVal != 0 ? retVal : compareWords(getOutBits().toLongArray(), other.getOutBits().toLongArray());
+    }
+
+    @Override
+    public String toString() {
+        return toZone().toString();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private static BitZone fromBits(ContourSymbols symbols, BitSet in, BitSet out) {
+        if (in.length() <= WORD_SIZE && out.length() <= WORD_SIZE) {
+            return new BitZone(symbols, toMask(in), toMask(out));
+        }
+        return new BitZone(symbols, in, out);
+    }
+
+    /**
+     * Creates a zone for each subset of the first {@code count} contours in
+     * {@code distinct} (whose bits are set in {@code all}). Each zone is inside
+     * the contours of its subset and outside the others, in addition to the given
+     * in- and out-contours.
+     */
+    private static ArrayList<BitZone> combinations(ContourSymbols symbols, BitSet in, BitSet out, BitSet all, int[] distinct, int count) {
+        if (count > MAX_COMBINED_CONTOURS) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "contours"));
+        }
+        ArrayList<BitZone> zones = new ArrayList<>(1 << count);
+        if (in.length() <= WORD_SIZE && out.length() <= WORD_SIZE && all.length() <= WORD_SIZE) {
+            long inMask = toMask(in);
+            long outMask = toMask(out);
+            long allMask = toMask(all);
+            for (int combination = 0; combination < 1 << count; combination++) {
+                long combinationOut = 0;
+                for (int j = 0; j < count; j++) {
+                    if ((combination & (1 << j)) != 0) {
+                        combinationOut |= 1L << distinct[j];
+                    }
+                }
+                zones.add(new BitZone(symbols, inMask | (allMask & ~combinationOut), outMask | combinationOut));
+            }
+        } else {
+            for (int combination = 0; combination < 1 << count; combination++) {
+                BitSet combinationIn = (BitSet) all.clone();
+                BitSet combinationOut = new BitSet();
+                for (int j = 0; j < count; j++) {
+                    if ((combination & (1 << j)) != 0) {
+                        combinationIn.clear(distinct[j]);
+                        combinationOut.set(distinct[j]);
+                    }
+                }
+                combinationIn.or(in);
+                combinationOut.or(out);
+                zones.add(fromBits(symbols, combinationIn, combinationOut));
+            }
+        }
+        return zones;
+    }
+
+    private static long toMask(BitSet bits) {
+        return bits.isEmpty() ? 0 : bits.toLongArray()[0];
+    }
+
+    private static BitSet toBits(ContourSymbols symbols, Collection<String> contours) {
+        BitSet bits = new BitSet();
+        if (contours != null) {
+            for (String contour : contours) {
+                bits.set(symbols.intern(contour));
+            }
+        }
+        return bits;
+    }
+
+    private TreeSet<String> toNames(BitSet bits) {
+        TreeSet<String> names = new TreeSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            names.add(symbols.getContour(i));
+        }
+        return names;
+    }
+
+    /**
+     * Returns a fresh copy of the in-contours as a bit set.
+     */
+    private BitSet getInBits() {
+        return inBits == null ? BitSet.valueOf(new long[]{inMask}) : (BitSet) inBits.clone();
+    }
+
+    /**
+     * Returns a fresh copy of the out-contours as a bit set.
+     */
+    private BitSet getOutBits() {
+        return outBits == null ? BitSet.valueOf(new long[]{outMask}) : (BitSet) outBits.clone();
+    }
+
+    private static boolean contains(long mask, BitSet bits, int index) {
+        if (index < 0) {
+            return false;
+        }
+        if (bits == null) {
+            return index < WORD_SIZE && (mask & (1L << index)) != 0;
+        }
+        return bits.get(index);
+    }
+
+    private void checkSymbols(BitZone other) {
+        if (other.symbols != symbols) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "other"));
+        }
+    }
+
+    private static int compareUnsigned(long a, long b) {
+        return Long.compare(a + Long.MIN_VALUE, b + Long.MIN_VALUE);
+    }
+
+    private static int compareWords(long[] a, long[] b) {
+        if (a.length != b.length) {
+            return a.length < b.length ? -1 : 1;
+        }
+        for (int i = a.length - 1; i >= 0; i--) {
+            int retVal = compareUnsigned(a[i], b[i]);
+            if (retVal != 0) {
+                return retVal;
+            }
+        }
+        return 0;
+    }
+    // </editor-fold>
+}
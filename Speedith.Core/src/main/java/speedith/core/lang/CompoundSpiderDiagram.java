@@ -27,6 +27,7 @@
 package speedith.core.lang;
 
 import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -90,9 +91,14 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
      * operator}.
      */
     private ArrayList<SpiderDiagram> operands;
-    private boolean hashInvalid = true;
-    private int hash;
-    private int subDiagramCount = -1;
+    private volatile boolean hashInvalid = true;
+    private volatile int hash;
+    private volatile int subDiagramCount = -1;
+    private transient volatile long fingerprint;
+    private transient volatile long canonicalFingerprint;
+    private transient volatile long equivalenceFingerprint;
+    private transient volatile SubDiagramIndex preorderIndex;
+    private transient volatile SpiderDiagramOccurrence occurrence;
     private static final long serialVersionUID = 6756171788260505819L;
 
     /**
@@ -196,30 +202,31 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
      */
     @Override
     public SpiderDiagram getSubDiagramAt(int index) {
-        if (index == 0) {
-            return this;
-        } else if (index > 0) {
-            --index;
-            for (SpiderDiagram sub : operands) {
-                int subCount = sub.getSubDiagramCount();
-                if (subCount > index) {
-                    return sub.getSubDiagramAt(index);
-                }
-                index -= subCount;
-            }
-        }
-        return null;
+        return index == 0 ? this : getPreorderIndex().get(index);
+    }
+
+    @Override
+    public int getSubDiagramIndex(SpiderDiagram sd) {
+        return getPreorderIndex().indexOf(sd);
+    }
+
+    @Override
+    public int getParentIndexOf(int childIndex) {
+        SubDiagramIndex index = getPreorderIndex();
+        return childIndex >= 0 && childIndex < index.size() ? index.getParentIndex(childIndex) : PARENT_NOT_FOUND;
     }
 
     @Override
     public int getSubDiagramCount() {
-        if (subDiagramCount < 0) {
-            subDiagramCount = 1;
+        int result = subDiagramCount;
+        if (result < 0) {
+            result = 1;
             for (SpiderDiagram operand : operands) {
-                subDiagramCount += operand.getSubDiagramCount();
+                result += operand.getSubDiagramCount();
             }
+            subDiagramCount = result;
         }
-        return subDiagramCount;
+        return result;
     }
 
     @Override
@@ -240,6 +247,52 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         return transform(t, this, 0, trackParents ? new ArrayList<CompoundSpiderDiagram>() : null, trackParents ? new ArrayList<Integer>() : null);
     }
 
+    @Override
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    public SpiderDiagram transformAt(Transformer t, int subDiagramIndex) {
+        if (t == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
+        }
+        if (subDiagramIndex < 0 || subDiagramIndex >= getSubDiagramCount()) {
+            return this;
+        }
+        ArrayList<CompoundSpiderDiagram> parents = new ArrayList<>();
+        ArrayList<Integer> childIndices = new ArrayList<>();
+        // Descend to the target, skipping the operands that lie before it.
+        SpiderDiagram target = this;
+        int index = 0;
+        while (index < subDiagramIndex) {
+            CompoundSpiderDiagram parent = (CompoundSpiderDiagram) target;
+            parents.add(parent);
+            ++index;
+            int childIndex = 0;
+            target = parent.operands.get(0);
+            while (index + target.getSubDiagramCount() <= subDiagramIndex) {
+                index += target.getSubDiagramCount();
+                target = parent.operands.get(++childIndex);
+            }
+            childIndices.add(childIndex);
+        }
+        SpiderDiagram transformedSD;
+        if (target instanceof CompoundSpiderDiagram) {
+            transformedSD = t.transform((CompoundSpiderDiagram) target, subDiagramIndex, parents, childIndices);
+        } else {
+            transformedSD = __applyTransform(target, t, subDiagramIndex, parents, childIndices);
+        }
+        if (transformedSD == null || transformedSD == target) {
+            return this;
+        }
+        // Rebuild the ancestors of the target bottom-up. All the other
+        // operands are shared with the original diagram.
+        for (int i = parents.size() - 1; i >= 0; i--) {
+            CompoundSpiderDiagram parent = parents.get(i);
+            ArrayList<SpiderDiagram> transformedChildren = new ArrayList<>(parent.operands);
+            transformedChildren.set(childIndices.get(i), transformedSD);
+            transformedSD = SpiderDiagrams.createCompoundSD(parent.getOperator(), transformedChildren, false);
+        }
+        return transformedSD;
+    }
+
     @Override
     public <T> T visit(DiagramVisitor<T> visitor, boolean trackParents) {
         if (visitor == null) {
@@ -374,10 +427,31 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         // operands:
         if (other instanceof CompoundSpiderDiagram) {
             CompoundSpiderDiagram csd = (CompoundSpiderDiagram) other;
-            boolean operandsSame = operandsSemanticallyEquivalent(csd);
-            if (operandsSame && operator.equals(csd.operator)) {
-                return true;
+            // Equivalent diagrams have the same equivalence fingerprint.
+            return getEquivalenceFingerprint() == csd.getEquivalenceFingerprint()
+                    && operator.equals(csd.operator) && operandsSemanticallyEquivalent(csd);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasSameCanonicalForm(SpiderDiagram other) {
+        if (equals(other)) {
+            return true;
+        }
+        if (other instanceof CompoundSpiderDiagram) {
+            CompoundSpiderDiagram csd = (CompoundSpiderDiagram) other;
+            if (getCanonicalFingerprint() != csd.getCanonicalFingerprint()
+                    || !operator.equals(csd.operator)
+                    || operands.size() != csd.operands.size()) {
+                return false;
             }
+            for (int i = 0; i < operands.size(); i++) {
+                if (!operands.get(i).hasSameCanonicalForm(csd.operands.get(i))) {
+                    return false;
+                }
+            }
+            return true;
         }
         return false;
     }
@@ -385,17 +459,63 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
     @Override
     public int hashCode() {
         if (hashInvalid) {
-            hash = operator.hashCode();
+            // the hash is computed locally and published before it is marked valid
+            int result = operator.hashCode();
             if (operands != null) {
                 for (SpiderDiagram sd : operands) {
-                    hash += sd.hashCode();
+                    result += sd.hashCode();
                 }
             }
+            hash = result;
             hashInvalid = false;
         }
         return hash;
     }
 
+    @Override
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(Fingerprints.COMPOUND_DIAGRAM, Fingerprints.of(operator.getName()));
+            for (SpiderDiagram operand : operands) {
+                result = Fingerprints.combine(result, operand.getFingerprint());
+            }
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    @Override
+    public long getCanonicalFingerprint() {
+        long result = canonicalFingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(Fingerprints.CANONICAL_COMPOUND_DIAGRAM, Fingerprints.of(operator.getName()));
+            for (SpiderDiagram operand : operands) {
+                result = Fingerprints.combine(result, operand.getCanonicalFingerprint());
+            }
+            canonicalFingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fingerprint of the operator and the equivalence fingerprints
+     * of the operands. Semantically equivalent diagrams have equal equivalence
+     * fingerprints.
+     */
+    @Override
+    long getEquivalenceFingerprint() {
+        long result = equivalenceFingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(Fingerprints.CANONICAL_COMPOUND_DIAGRAM, Fingerprints.of(operator.getName()));
+            for (SpiderDiagram operand : operands) {
+                result = Fingerprints.combine(result, operand.getEquivalenceFingerprint());
+            }
+            equivalenceFingerprint = result;
+        }
+        return result;
+    }
+
     @Override
     public void toString(Appendable sb) throws IOException {
         if (sb == null) {
@@ -454,6 +574,37 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
     }
 
 
+    /**
+     * Returns the index of all sub-diagrams of this diagram, building it on
+     * first use. Concurrent first calls may build it more than once, which is
+     * harmless as the index of an immutable diagram never changes.
+     */
+    private SubDiagramIndex getPreorderIndex() {
+        SubDiagramIndex index = preorderIndex;
+        if (index == null) {
+            index = new SubDiagramIndex(this);
+            preorderIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the occurrence of this whole diagram (i.e., with the occurrence
+     * index 0), which is created on first use. Concurrent first calls may
+     * create it more than once, which is harmless as occurrences are
+     * immutable.
+     *
+     * @return the occurrence of this diagram.
+     */
+    public SpiderDiagramOccurrence getOccurrence() {
+        SpiderDiagramOccurrence result = occurrence;
+        if (result == null) {
+            result = SpiderDiagramOccurrence.createOccurrence(this, 0);
+            occurrence = result;
+        }
+        return result;
+    }
+
     /**
      * Compares the other non-{
      *
@@ -465,6 +616,7 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
     private boolean __isCsdEqual(CompoundSpiderDiagram other) {
         return hashCode() == other.hashCode()
+                && getFingerprint() == other.getFingerprint()
                 && getOperator().equals(other.getOperator())
                 && operands.equals(other.operands);
     }
@@ -0,0 +1,104 @@
+package speedith.core.lang;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A symbol table that assigns each contour name a small, dense index. The indices
+ * are used as bit positions by {@link BitZone}, so that zones can be stored as
+ * bit masks.
+ * <p>A symbol table is meant to be created per problem (e.g., per proof search)
+ * and shared by all bit zones of that problem. Indices are never reassigned, so
+ * they stay valid for the lifetime of the table. The contours passed to the
+ * constructor are interned in their natural order.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ContourSymbols implements Serializable {
+
+    private static final long serialVersionUID = -2163307525983574066L;
+
+    private final HashMap<String, Integer> indices = new HashMap<>();
+    private final ArrayList<String> contours = new ArrayList<>();
+
+    /**
+     * Creates an empty symbol table.
+     */
+    public ContourSymbols() {
+    }
+
+    /**
+     * Creates a symbol table that contains the given contours. The contours get
+     * their indices according to their natural (alphabetical) order.
+     *
+     * @param contours the contours to intern.
+     */
+    public ContourSymbols(Collection<String> contours) {
+        if (contours != null) {
+            for (String contour : new TreeSet<>(contours)) {
+                intern(contour);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the given contour. The contour is added to this table,
+     * if it has not been interned yet.
+     *
+     * @param contour the contour to look up.
+     * @return the index of the given contour.
+     */
+    public synchronized int intern(String contour) {
+        if (contour == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "contour"));
+        }
+        Integer index = indices.get(contour);
+        if (index == null) {
+            index = contours.size();
+            contours.add(contour);
+            indices.put(contour, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the given contour, or {@code -1} if the contour is
+     * not contained in this table.
+     *
+     * @param contour the contour to look up.
+     * @return the index of the given contour, or {@code -1}.
+     */
+    public synchronized int indexOf(String contour) {
+        Integer index = indices.get(contour);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the contour with the given index.
+     *
+     * @param index the index of the contour.
+     * @return the contour with the given index.
+     */
+    public synchronized String getContour(int index) {
+        return contours.get(index);
+    }
+
+    /**
+     * Returns the number of contours interned in this table.
+     *
+     * @return the number of contours interned in this table.
+     */
+    public synchronized int size() {
+        return contours.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return contours.toString();
+    }
+}
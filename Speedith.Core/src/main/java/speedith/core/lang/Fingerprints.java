@@ -0,0 +1,143 @@
+package speedith.core.lang;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Functions for computing the 64-bit structural fingerprints of spider
+ * diagrams (see {@link SpiderDiagram#getFingerprint()}).
+ * <p>Fingerprints only depend on the structure of a diagram and on the
+ * characters of the names in it, so they are the same in every run and may be
+ * stored. Equal diagrams have equal fingerprints, and different diagrams have
+ * different fingerprints with high probability. Fingerprints may still
+ * collide, so they must only be used as hashes and to tell diagrams apart,
+ * while equal fingerprints have to be confirmed by comparing the diagrams.</p>
+ * <p>The fingerprint of a zone is the product of one (odd) factor per contour,
+ * which depends on whether the zone lies in or outside of the contour. The
+ * fingerprint of a set of zones is the sum of the fingerprints of its zones.
+ * Hence, the fingerprint of the set of all zones over some contours is the
+ * product of the sums of both factors of each contour, and can be computed
+ * without enumerating the zones (see {@link ImplicitZoneSet}).</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class Fingerprints {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long OUT_CONTOUR_SEED = 0x5851f42d4c957f2dL;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    static final long NULL_DIAGRAM = 0x2d358dccaa6c78a5L;
+    static final long PRIMARY_DIAGRAM = 0x8bb84b93962eacc9L;
+    static final long COMPOUND_DIAGRAM = 0x4b33a62ed433d4a3L;
+    static final long CANONICAL_PRIMARY_DIAGRAM = 0x1b03738712fad5c9L;
+    static final long CANONICAL_COMPOUND_DIAGRAM = 0xd6e8feb86659fd93L;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * Scrambles the bits of the given value (this is the finaliser of the
+     * SplitMix64 generator).
+     *
+     * @param value the value to scramble.
+     * @return the scrambled value.
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Combines the fingerprint of a sequence with the fingerprint of the next
+     * element. The result depends on the order of the elements.
+     *
+     * @param fingerprint the fingerprint of the sequence so far.
+     * @param element the fingerprint of the next element.
+     * @return the fingerprint of the extended sequence.
+     */
+    public static long combine(long fingerprint, long element) {
+        return mix(fingerprint * GOLDEN_GAMMA + element);
+    }
+
+    /**
+     * Returns the fingerprint of the given string, or 0 if it is {@code null}.
+     * <p>Unlike {@link String#hashCode()}, this is a 64-bit hash of all the
+     * characters (FNV-1a over the UTF-16 code units, followed by {@link
+     * #mix(long)}).</p>
+     */
+    public static long of(String str) {
+        if (str == null) {
+            return 0;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return mix(hash + GOLDEN_GAMMA);
+    }
+
+    /**
+     * Returns the fingerprint of the given strings in their iteration order.
+     */
+    static long ofSequence(Collection<String> strings) {
+        long fingerprint = 0;
+        if (strings != null) {
+            for (String str : strings) {
+                fingerprint = combine(fingerprint, of(str));
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the fingerprint of the given set of zones.
+     */
+    static long ofZones(Collection<Zone> zones) {
+        if (zones instanceof ImplicitZoneSet) {
+            return ((ImplicitZoneSet) zones).getFingerprint();
+        }
+        long fingerprint = 0;
+        if (zones != null) {
+            for (Zone zone : zones) {
+                fingerprint += zone.getFingerprint();
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the fingerprint of the given habitats in the iteration order of
+     * the spiders.
+     */
+    static long ofHabitats(Map<String, Region> habitats) {
+        long fingerprint = 0;
+        if (habitats != null) {
+            for (Map.Entry<String, Region> habitat : habitats.entrySet()) {
+                fingerprint = combine(fingerprint, of(habitat.getKey()));
+                fingerprint = combine(fingerprint, habitat.getValue() == null ? 0 : ofZones(habitat.getValue().sortedZones()));
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * The factor of the given contour in the fingerprints of the zones that
+     * lie inside it.
+     */
+    static long inContourFactor(String contour) {
+        return of(contour) | 1;
+    }
+
+    /**
+     * The factor of the given contour in the fingerprints of the zones that
+     * lie outside of it.
+     */
+    static long outContourFactor(String contour) {
+        return mix(of(contour) ^ OUT_CONTOUR_SEED) | 1;
+    }
+}
@@ -0,0 +1,210 @@
+package speedith.core.lang;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable set of zones that is given implicitly as <span
+ * style="font-style:italic;">all zones over a set of contours except the
+ * missing ones</span>. This is the set of present zones of a normalised
+ * primary spider diagram (see {@link SpiderDiagrams#createNormalisedPrimarySD(Collection,
+ * Map, Collection, Collection, Collection)}).
+ * <p>Membership tests, the size, the hash code and comparisons with other
+ * implicit zone sets only need the missing zones, i.e., they do not enumerate
+ * all 2<sup>n</sup> zones over the contours. Only iterating over this set (and
+ * the {@link SortedSet} views) materialises the zones, which happens at most
+ * once per instance.</p>
+ * <p>The hash code and equality of this set follow the contract of {@link
+ * Set}, i.e., an implicit zone set equals an explicit set with the same zones.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class ImplicitZoneSet extends AbstractSet<Zone> implements SortedSet<Zone>, Serializable {
+
+    private static final long serialVersionUID = 6210735488925346321L;
+
+    private final TreeSet<String> contours;
+    private final TreeSet<Zone> missingZones;
+    private final int hash;
+    private transient volatile SortedSet<Zone> zones;
+    private transient volatile long fingerprint;
+
+    /**
+     * Creates the set of all zones over the given contours without the given
+     * missing zones. Missing zones that are not {@link Zone#isValid(SortedSet)
+     * valid} with respect to the given contours are ignored.
+     * <p>This constructor does not copy the set of contours, i.e., it must not
+     * be changed afterwards.</p>
+     *
+     * @param contours the contours over which the zones range.
+     * @param missingZones the zones that are not contained in this set.
+     */
+    ImplicitZoneSet(TreeSet<String> contours, Collection<Zone> missingZones) {
+        this.contours = contours == null ? new TreeSet<String>() : contours;
+        this.missingZones = new TreeSet<>();
+        if (missingZones != null) {
+            for (Zone zone : missingZones) {
+                if (zone.isValid(this.contours)) {
+                    this.missingZones.add(zone);
+                }
+            }
+        }
+        this.hash = computeHash();
+    }
+
+    /**
+     * Returns the contours over which the zones of this set range.
+     *
+     * @return the contours over which the zones of this set range.
+     */
+    public SortedSet<String> getContours() {
+        return Collections.unmodifiableSortedSet(contours);
+    }
+
+    /**
+     * Returns the zones over {@link ImplicitZoneSet#getContours() the contours}
+     * that are not contained in this set.
+     *
+     * @return the zones that are not contained in this set.
+     */
+    public SortedSet<Zone> getMissingZones() {
+        return Collections.unmodifiableSortedSet(missingZones);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Zone) {
+            Zone zone = (Zone) o;
+            return zone.isValid(contours) && !missingZones.contains(zone);
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        long size = getZoneCount() - missingZones.size();
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getZoneCount() == missingZones.size();
+    }
+
+    @Override
+    public Iterator<Zone> iterator() {
+        return getZones().iterator();
+    }
+
+    @Override
+    public Comparator<? super Zone> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedSet<Zone> subSet(Zone fromElement, Zone toElement) {
+        return getZones().subSet(fromElement, toElement);
+    }
+
+    @Override
+    public SortedSet<Zone> headSet(Zone toElement) {
+        return getZones().headSet(toElement);
+    }
+
+    @Override
+    public SortedSet<Zone> tailSet(Zone fromElement) {
+        return getZones().tailSet(fromElement);
+    }
+
+    @Override
+    public Zone first() {
+        return getZones().first();
+    }
+
+    @Override
+    public Zone last() {
+        return getZones().last();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof ImplicitZoneSet) {
+            ImplicitZoneSet other = (ImplicitZoneSet) o;
+            if (hash != other.hash) {
+                return false;
+            }
+            if (contours.equals(other.contours)) {
+                return missingZones.equals(other.missingZones);
+            }
+            // Sets over different contours can only be equal if both are empty.
+            return isEmpty() && other.isEmpty();
+        }
+        if (o instanceof Set && ((Set<?>) o).size() != size()) {
+            return false;
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Computes the same hash code as {@link Set#hashCode()} without iterating
+     * over the zones. Every zone over the contours has the same hash code (the
+     * sum of the hash codes of all contours), so the hash code of this set is
+     * that of all zones minus the hash codes of the missing zones.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Computes the same {@link Fingerprints#ofZones(java.util.Collection)
+     * fingerprint} as that of an explicit set of the same zones without
+     * iterating over the zones. The fingerprints of all zones over the contours
+     * add up to the product of the in- and out-factors of each contour, so the
+     * fingerprint of this set is that product minus the fingerprints of the
+     * missing zones.
+     */
+    long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = 1;
+            for (String contour : contours) {
+                result *= Fingerprints.inContourFactor(contour) + Fingerprints.outContourFactor(contour);
+            }
+            for (Zone missingZone : missingZones) {
+                result -= missingZone.getFingerprint();
+            }
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    private int computeHash() {
+        int zoneHash = contours.isEmpty() ? 0 : contours.hashCode();
+        // the number of zones modulo 2^32
+        int zoneCount = contours.size() >= Integer.SIZE ? 0 : 1 << contours.size();
+        int result = zoneCount * zoneHash;
+        for (Zone missingZone : missingZones) {
+            result -= missingZone.hashCode();
+        }
+        return result;
+    }
+
+    private long getZoneCount() {
+        return contours.size() >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << contours.size();
+    }
+
+    private SortedSet<Zone> getZones() {
+        SortedSet<Zone> result = zones;
+        if (result == null) {
+            TreeSet<Zone> allZones = new TreeSet<>(Zones.allZonesForContours(contours.toArray(new String[contours.size()])));
+            allZones.removeAll(missingZones);
+            result = Collections.unmodifiableSortedSet(allZones);
+            zones = result;
+        }
+        return result;
+    }
+}
@@ -73,6 +73,14 @@ public class NullSpiderDiagram extends SpiderDiagram {
         return curTransform == null ? this : curTransform;
     }
 
+    @Override
+    public SpiderDiagram transformAt(Transformer t, int subDiagramIndex) {
+        if (t == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
+        }
+        return subDiagramIndex == 0 ? transform(t, true) : this;
+    }
+
     @Override
     public int getSubDiagramCount() {
         return 1;
@@ -110,6 +118,16 @@ public class NullSpiderDiagram extends SpiderDiagram {
     public int hashCode() {
         return 0xb8e9561a;
     }
+
+    @Override
+    public long getFingerprint() {
+        return Fingerprints.NULL_DIAGRAM;
+    }
+
+    @Override
+    public long getCanonicalFingerprint() {
+        return Fingerprints.NULL_DIAGRAM;
+    }
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="The Singleton Holder Class">
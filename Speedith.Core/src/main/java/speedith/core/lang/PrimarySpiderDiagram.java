@@ -87,11 +87,15 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     private final TreeSet<String> spiders;
     private final TreeMap<String, Region> spiderHabitatsMap;
     private final TreeSet<Zone> shadedZones;
-    private final TreeSet<Zone> presentZones;
-    private TreeSet<String> contours;
-    private boolean hashInvalid = true;
-    private int hash;
-    private Boolean valid;
+    private final SortedSet<Zone> presentZones;
+    private volatile TreeSet<String> contours;
+    private volatile boolean hashInvalid = true;
+    private volatile int hash;
+    private transient volatile long fingerprint;
+    private transient volatile long canonicalFingerprint;
+    private transient volatile long equivalenceFingerprint;
+    private transient volatile Region[] sortedHabitats;
+    private volatile Boolean valid;
 
     /**
      * Creates an instance of a primary spider diagram with the given spiders,
@@ -110,7 +114,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         this(spiders == null ? null : new TreeSet<>(spiders),
                 habitats == null ? null : new TreeMap<>(habitats),
                 shadedZones == null ? null : new TreeSet<>(shadedZones),
-                presentZones == null ? null : new TreeSet<>(presentZones));
+                copyPresentZones(presentZones));
     }
 
     /**
@@ -125,9 +129,10 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * {@link Region habitats}.
      * @param shadedZones a set of shaded {@link Zone zones}.
      * @param presentZones the set of zones that should be drawn in the diagram
-     * if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
+     * if possible (see {@link PrimarySpiderDiagram#getPresentZones()}). This
+     * is either a {@link TreeSet} or an {@link ImplicitZoneSet}.
      */
-    PrimarySpiderDiagram(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones) {
+    PrimarySpiderDiagram(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, SortedSet<Zone> presentZones) {
         // TODO: This should be checked in 'isValid'. The construction of a
         // primary spider diagram should be as quick as possible (just reference
         // assignments). Also check that no habitat is an empty or null region
@@ -155,6 +160,20 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         this.presentZones = presentZones == null ? new TreeSet<Zone>() : presentZones;
     }
 
+    /**
+     * Copies the given present zones into a {@link TreeSet}, unless they are
+     * given implicitly (which are immutable and need not be copied).
+     */
+    static SortedSet<Zone> copyPresentZones(Collection<Zone> presentZones) {
+        if (presentZones == null) {
+            return null;
+        } else if (presentZones instanceof ImplicitZoneSet) {
+            return (ImplicitZoneSet) presentZones;
+        } else {
+            return new TreeSet<>(presentZones);
+        }
+    }
+
     /**
      * Returns an unmodifiable key-value map of spiders with their corresponding
      * {@link Region habitats}. <p>Note: this method may return
@@ -208,11 +227,77 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * shaded intersection zone). This set indicates whether or not to draw such
      * zones.</p>
      *
+     * <p>The present zones of a {@link PrimarySpiderDiagram#hasImplicitPresentZones()
+     * normalised} diagram are not stored explicitly. Iterating over them
+     * enumerates all zones over the contours of this diagram, so prefer {@link
+     * PrimarySpiderDiagram#isZonePresent(Zone)} for membership tests.</p>
+     *
      * @return a set of zones that should be drawn in the diagram. <p>May return
      * {@code null}.</p>
      */
     public SortedSet<Zone> getPresentZones() {
-        return Collections.unmodifiableSortedSet(presentZones);
+        // implicit zone sets are immutable already
+        return presentZones instanceof ImplicitZoneSet ? presentZones : Collections.unmodifiableSortedSet(presentZones);
+    }
+
+    /**
+     * Indicates whether the present zones of this diagram are given implicitly
+     * as all zones over the contours of this diagram except the {@link
+     * PrimarySpiderDiagram#getMissingZones() missing zones}. Such diagrams are
+     * created by {@link SpiderDiagrams#createNormalisedPrimarySD(Collection,
+     * Map, Collection, Collection, Collection)}.
+     *
+     * @return {@code true} if the present zones of this diagram are given
+     * implicitly.
+     */
+    public boolean hasImplicitPresentZones() {
+        return presentZones instanceof ImplicitZoneSet;
+    }
+
+    /**
+     * Returns the contours over which the present zones of a {@link
+     * PrimarySpiderDiagram#hasImplicitPresentZones() normalised} diagram range.
+     *
+     * @return the contours of the implicit present zones, or {@code null} if the
+     * present zones of this diagram are given explicitly.
+     */
+    public SortedSet<String> getPresentZonesContours() {
+        return presentZones instanceof ImplicitZoneSet ? ((ImplicitZoneSet) presentZones).getContours() : null;
+    }
+
+    /**
+     * Checks whether the given zone is one of the {@link PrimarySpiderDiagram#getPresentZones()
+     * present zones} of this diagram. <p>This method does not enumerate the
+     * present zones of {@link PrimarySpiderDiagram#hasImplicitPresentZones()
+     * normalised} diagrams.</p>
+     *
+     * @param zone the zone to look up.
+     * @return {@code true} if the given zone is present in this diagram.
+     */
+    public boolean isZonePresent(Zone zone) {
+        return presentZones.contains(zone);
+    }
+
+    /**
+     * Returns the zones that are shaded, but not present in this diagram (the
+     * <span style="font-style:italic;">missing zones</span>). <p>For
+     * {@link PrimarySpiderDiagram#hasImplicitPresentZones() normalised}
+     * diagrams, these are exactly the zones over the contours of this diagram
+     * that are not present.</p>
+     *
+     * @return an unmodifiable set of the missing zones of this diagram.
+     */
+    public SortedSet<Zone> getMissingZones() {
+        if (presentZones instanceof ImplicitZoneSet) {
+            return ((ImplicitZoneSet) presentZones).getMissingZones();
+        }
+        TreeSet<Zone> missingZones = new TreeSet<>();
+        for (Zone shadedZone : shadedZones) {
+            if (!presentZones.contains(shadedZone)) {
+                missingZones.add(shadedZone);
+            }
+        }
+        return Collections.unmodifiableSortedSet(missingZones);
     }
 
     /**
@@ -330,10 +415,12 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
 
     @Override
     public boolean isValid() {
-        if (valid == null) {
-            valid = checkValid();
+        Boolean result = valid;
+        if (result == null) {
+            result = checkValid();
+            valid = result;
         }
-        return valid;
+        return result;
     }
 
     @Override
@@ -345,6 +432,14 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         return curTransform == null ? this : curTransform;
     }
 
+    @Override
+    public SpiderDiagram transformAt(Transformer t, int subDiagramIndex) {
+        if (t == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
+        }
+        return subDiagramIndex == 0 ? transform(t, true) : this;
+    }
+
     @Override
     public int getSubDiagramCount() {
         return 1;
@@ -399,6 +494,10 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         // Well, firstly, the diagrams have to be of the same type:
         if (other instanceof PrimarySpiderDiagram) {
             PrimarySpiderDiagram psd = (PrimarySpiderDiagram) other;
+            // Equivalent diagrams have the same equivalence fingerprint.
+            if (getEquivalenceFingerprint() != psd.getEquivalenceFingerprint()) {
+                return false;
+            }
             // The primary spider diagrams must have the same number of spiders:
             if (getSpidersCount() != psd.getSpidersCount()) {
                 return false;
@@ -417,6 +516,22 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         return false;
     }
 
+    @Override
+    public boolean hasSameCanonicalForm(SpiderDiagram other) {
+        if (equals(other)) {
+            return true;
+        }
+        if (other instanceof PrimarySpiderDiagram) {
+            PrimarySpiderDiagram psd = (PrimarySpiderDiagram) other;
+            return getCanonicalFingerprint() == psd.getCanonicalFingerprint()
+                    && getSpidersCount() == psd.getSpidersCount()
+                    && __sameHabitats(psd)
+                    && equal(shadedZones, psd.shadedZones)
+                    && __samePresentZones(psd);
+        }
+        return false;
+    }
+
     @Override
     public int hashCode() {
         if (hashInvalid) {
@@ -429,6 +544,48 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         return hash;
     }
 
+    @Override
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(Fingerprints.PRIMARY_DIAGRAM, Fingerprints.ofSequence(spiders));
+            result = Fingerprints.combine(result, Fingerprints.ofHabitats(spiderHabitatsMap));
+            result = Fingerprints.combine(result, Fingerprints.ofZones(shadedZones));
+            result = Fingerprints.combine(result, Fingerprints.ofZones(presentZones));
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    @Override
+    public long getCanonicalFingerprint() {
+        long result = canonicalFingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(getEquivalenceFingerprint(), Fingerprints.ofZones(presentZones));
+            canonicalFingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fingerprint of the canonical form of this diagram without
+     * its present zones. Semantically equivalent diagrams have equal
+     * equivalence fingerprints.
+     */
+    @Override
+    long getEquivalenceFingerprint() {
+        long result = equivalenceFingerprint;
+        if (result == 0) {
+            result = Fingerprints.combine(Fingerprints.CANONICAL_PRIMARY_DIAGRAM, getSpidersCount());
+            for (Region habitat : getSortedHabitats()) {
+                result = Fingerprints.combine(result, Fingerprints.ofZones(habitat.sortedZones()));
+            }
+            result = Fingerprints.combine(result, Fingerprints.ofZones(shadedZones));
+            equivalenceFingerprint = result;
+        }
+        return result;
+    }
+
     /**
      * Creates a copy of this primary spider diagram that contains the given
      * spider and its habitat. <p>If the original primary spider diagram already
@@ -548,10 +705,25 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
     private boolean __isPsdEqual(PrimarySpiderDiagram psd) {
         return hashCode() == psd.hashCode()
+                && getFingerprint() == psd.getFingerprint()
                 && equal(spiders, psd.spiders)
                 && equal(spiderHabitatsMap == null ? null : spiderHabitatsMap.entrySet(), psd.spiderHabitatsMap == null ? null : psd.spiderHabitatsMap.entrySet())
                 && equal(shadedZones, psd.shadedZones)
-                && equal(presentZones, psd.presentZones);
+                && __samePresentZones(psd);
+    }
+
+    /**
+     * Compares the present zones of this and the given diagram. Implicit
+     * present zones are compared without enumerating them.
+     */
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    private boolean __samePresentZones(PrimarySpiderDiagram psd) {
+        if (presentZones instanceof ImplicitZoneSet) {
+            return presentZones.equals(psd.presentZones);
+        } else if (psd.presentZones instanceof ImplicitZoneSet) {
+            return psd.presentZones.equals(presentZones);
+        }
+        return equal(presentZones, psd.presentZones);
     }
 
     /**
@@ -567,32 +739,43 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         }
         // There are some habitats. We have to make sure that they are exactly
         // the same if both are sorted:
-        Object[] habitatsA = spiderHabitatsMap.values().toArray();
-        Object[] habitatsB = psd.spiderHabitatsMap.values().toArray();
-        Arrays.sort(habitatsA);
-        Arrays.sort(habitatsB);
-        for (int i = 0; i < habitatsA.length; i++) {
-            if (!habitatsA[i].equals(habitatsB[i])) {
-                return false;
-            }
+        return Arrays.equals(getSortedHabitats(), psd.getSortedHabitats());
+    }
+
+    /**
+     * Returns the habitats of the spiders in their natural order, regardless of
+     * the names of the spiders. The array is computed once and must not be
+     * changed.
+     */
+    private Region[] getSortedHabitats() {
+        Region[] result = sortedHabitats;
+        if (result == null) {
+            result = spiderHabitatsMap == null ? new Region[0] : spiderHabitatsMap.values().toArray(new Region[spiderHabitatsMap.size()]);
+            Arrays.sort(result);
+            sortedHabitats = result;
         }
-        return true;
+        return result;
     }
 
     /**
      * Traverses all zones mentioned in this primary spider diagram and collects
-     * all names of contours mentioned in these zones.
+     * all names of contours mentioned in these zones. The set is filled
+     * before it is published, so that concurrent readers never see a
+     * partially filled set.
      */
-    private void extractContours() {
-        if (contours == null) {
-            contours = new TreeSet<>();
-            if (extractContoursFromHabitats()
-                    || extractContoursFromShadedZones()
-                    || extractContoursFromPresentZones());
+    private TreeSet<String> extractContours() {
+        TreeSet<String> result = contours;
+        if (result == null) {
+            result = new TreeSet<>();
+            if (extractContoursFromHabitats(result)
+                    || extractContoursFromShadedZones(result)
+                    || extractContoursFromPresentZones(result));
+            contours = result;
         }
+        return result;
     }
 
-    private boolean extractContoursFromHabitats() {
+    private boolean extractContoursFromHabitats(TreeSet<String> contours) {
         if (getHabitatsCount() > 0) {
             Region region = spiderHabitatsMap.firstEntry().getValue();
             if (region.getZonesCount() > 0) {
@@ -609,7 +792,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         return false;
     }
 
-    private boolean extractContoursFromShadedZones() {
+    private boolean extractContoursFromShadedZones(TreeSet<String> contours) {
         if (getShadedZonesCount() > 0) {
             Zone zone = shadedZones.first();
             if (zone.getInContoursCount() > 0) {
@@ -623,8 +806,11 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         return false;
     }
 
-    private boolean extractContoursFromPresentZones() {
-        if (getPresentZonesCount() > 0) {
+    private boolean extractContoursFromPresentZones(TreeSet<String> contours) {
+        if (presentZones instanceof ImplicitZoneSet) {
+            contours.addAll(((ImplicitZoneSet) presentZones).getContours());
+            return true;
+        } else if (getPresentZonesCount() > 0) {
             Zone zone = presentZones.first();
             if (zone.getInContoursCount() > 0) {
                 contours.addAll(zone.getInContours());
@@ -653,6 +839,10 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     private boolean arePresentZonesValid(SortedSet<String> contours) {
         // we need the outer zone (outside of all contours)
         // to be present at all times
+        if (presentZones instanceof ImplicitZoneSet) {
+            return ((ImplicitZoneSet) presentZones).getContours().equals(contours)
+                    && presentZones.contains(new Zone(null, contours));
+        }
         boolean outerZonePresent = false;
         if (this.presentZones != null) {
             for (Zone zone : presentZones) {
@@ -717,8 +907,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * chosen zone of this primary spider diagram.
      */
     SortedSet<String> getContours() {
-        extractContours();
-        return Collections.unmodifiableSortedSet(contours);
+        return Collections.unmodifiableSortedSet(extractContours());
     }
 
     /**
@@ -48,6 +48,12 @@ import static speedith.core.i18n.Translations.i18n;
  */
 public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDiagramElement {
 
+    /**
+     * Returned by {@link #getParentIndexOf(int)} if there is no sub-diagram
+     * with the given index.
+     */
+    public static final int PARENT_NOT_FOUND = -2;
+
     // <editor-fold defaultstate="collapsed" desc="Public Methods">
 
     /**
@@ -70,6 +76,23 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
         return equals(other);
     }
 
+    /**
+     * Compares this spider diagram with another and returns {@code true} iff
+     * they have the same {@link SpiderDiagram#getCanonicalFingerprint()
+     * canonical form}, i.e., iff they are equal up to the renaming of spiders.
+     * <p>In contrast to {@link SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)
+     * semantic equivalence}, the present (and hence the missing) zones of the
+     * diagrams have to be the same.</p>
+     * <p>The default implementation of this method simply calls the {@link
+     * SpiderDiagram#equals(java.lang.Object) syntactical equality method}.</p>
+     *
+     * @param other the other spider diagram to compare this one against.
+     * @return {@code true} iff both diagrams have the same canonical form.
+     */
+    public boolean hasSameCanonicalForm(SpiderDiagram other) {
+        return equals(other);
+    }
+
     /**
      * Compares this spider diagram with another and returns {@code true} iff
      * they are syntactically the same. <p>If this method returns {@code true}
@@ -111,6 +134,50 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
     @Override
     public abstract int hashCode();
 
+    /**
+     * Returns the 64-bit structural fingerprint of this diagram. <p>Equal
+     * diagrams have equal fingerprints, and different diagrams have different
+     * fingerprints with overwhelming probability. Fingerprints are stable
+     * between runs, so they can be used to identify diagrams persistently
+     * (see {@link Fingerprints}).</p> <p>The fingerprint is computed once per
+     * diagram; the fingerprint of a compound diagram is composed from the
+     * fingerprints of its operands.</p>
+     *
+     * @return the structural fingerprint of this diagram.
+     */
+    public abstract long getFingerprint();
+
+    /**
+     * Returns the fingerprint of the canonical form of this diagram, which
+     * ignores the names of spiders (the habitats of primary diagrams are
+     * taken as a multiset). <p>Diagrams that {@link
+     * SpiderDiagram#hasSameCanonicalForm(speedith.core.lang.SpiderDiagram)
+     * have the same canonical form} have equal canonical fingerprints, which
+     * makes the canonical fingerprint a key for identifying diagrams up to
+     * spider renaming. The canonical form contains the present (and hence the
+     * missing) zones, so semantically equivalent diagrams may have different
+     * canonical fingerprints.</p> <p>The canonical fingerprint is computed
+     * once per diagram.</p>
+     *
+     * @return the fingerprint of the canonical form of this diagram.
+     */
+    public abstract long getCanonicalFingerprint();
+
+    /**
+     * Returns a fingerprint that is equal for {@link
+     * SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)
+     * semantically equivalent} diagrams, so that diagrams with different
+     * equivalence fingerprints can be told apart without comparing them.
+     * <p>The default implementation returns the {@link
+     * SpiderDiagram#getFingerprint() structural fingerprint}, which matches the
+     * default implementation of semantic equivalence.</p>
+     *
+     * @return the equivalence fingerprint of this diagram.
+     */
+    long getEquivalenceFingerprint() {
+        return getFingerprint();
+    }
+
     /**
      * Visits the given spider diagram and its children in a parent-first left-
      * to-right order. <p>If the diagram does not have any parents, then the
@@ -148,6 +215,27 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
      */
     public abstract SpiderDiagram transform(Transformer t, boolean trackParents);
 
+    /**
+     * Applies the given transformer to the sub-diagram at the given index
+     * only. <p>Unlike {@link SpiderDiagram#transform(speedith.core.lang.Transformer)},
+     * this method does not visit every sub-diagram. It descends straight to
+     * the target (using the {@link SpiderDiagram#getSubDiagramCount() sizes} of
+     * the operands) and calls the transformer only once, with the parents and
+     * child indices of the target on the path from this diagram. If the
+     * transformer changes the target, only its ancestors are rebuilt; all
+     * other sub-diagrams are shared with this diagram.</p> <p>This is
+     * equivalent to the full transformation for transformers that act on the
+     * sub-diagram with the given index only (which is the case for the
+     * transformers of most inference rules).</p>
+     *
+     * @param t               the object that transforms the target sub-diagram.
+     * @param subDiagramIndex the index of the target sub-diagram.
+     * @return the transformed spider diagram, or this diagram if the
+     *         transformer did not change the target or if there is no
+     *         sub-diagram at the given index.
+     */
+    public abstract SpiderDiagram transformAt(Transformer t, int subDiagramIndex);
+
     /**
      * Visits every sub-diagram in this diagram and calls the appropriate
      * methods of the given {@link DiagramVisitor visitor}. <p>This method
@@ -326,9 +414,18 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
         sb.append(']');
     }
 
+    /**
+     * Returns the index of the compound diagram that directly contains the
+     * sub-diagram at the given index.
+     *
+     * @param childIndex the index of the sub-diagram.
+     * @return the index of the parent of the sub-diagram, -1 if the
+     *         sub-diagram is this diagram, or {@link #PARENT_NOT_FOUND} if
+     *         there is no sub-diagram at the given index.
+     */
     public int getParentIndexOf(final int childIndex) {
         return visit(new DiagramVisitor<Integer>() {
-            private static final int PARENT_NOT_YET_NDETERMINED = -2;
+            private static final int PARENT_NOT_YET_NDETERMINED = PARENT_NOT_FOUND;
             private static final int HAS_NO_PARENT = -1;
             public int parentIndex = PARENT_NOT_YET_NDETERMINED;
 
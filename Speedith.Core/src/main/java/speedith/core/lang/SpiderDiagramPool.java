@@ -0,0 +1,277 @@
+package speedith.core.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A concurrent, weak intern table for spider diagrams. It is used by {@link
+ * SpiderDiagrams} to reuse equal spider diagrams instead of keeping several
+ * copies around.
+ * <p>The table is backed by a {@link ConcurrentHashMap} with many lock
+ * stripes, so that lookups do not block and insertions only contend if they
+ * fall into the same stripe. The entries are weak references, i.e., diagrams
+ * that are not used anymore are collected by the garbage collector. Entries of
+ * collected diagrams are removed from the table during subsequent calls to
+ * {@link SpiderDiagramPool#intern(SpiderDiagram)}.</p>
+ * <p>The pool keeps counters for hits, misses, bypassed diagrams (see {@link
+ * InternMode}) and removed entries, which can be used to judge its
+ * effectiveness.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class SpiderDiagramPool {
+
+    /**
+     * Determines which diagrams are put into the pool.
+     */
+    public enum InternMode {
+        /**
+         * All primary and compound diagrams are interned.
+         */
+        ALWAYS,
+        /**
+         * No diagrams are interned, every factory call returns a new diagram.
+         */
+        NEVER,
+        /**
+         * Only compound diagrams are interned.
+         */
+        COMPOUND_ONLY
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int CONCURRENCY_LEVEL = 64;
+
+    private final ConcurrentHashMap<DiagramReference, DiagramReference> table = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, CONCURRENCY_LEVEL);
+    private final ReferenceQueue<SpiderDiagram> collected = new ReferenceQueue<>();
+    private volatile InternMode mode;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+
+    /**
+     * Creates a new pool that interns all diagrams.
+     */
+    public SpiderDiagramPool() {
+        this(InternMode.ALWAYS);
+    }
+
+    /**
+     * Creates a new pool with the given intern mode.
+     *
+     * @param mode determines which diagrams are put into the pool.
+     */
+    public SpiderDiagramPool(InternMode mode) {
+        setMode(mode);
+    }
+
+    /**
+     * Returns the diagram in the pool that equals the given one, or puts the
+     * given diagram into the pool if there is no such diagram.
+     * <p>If the given diagram should not be interned according to the current
+     * {@link InternMode mode}, it is returned unchanged.</p>
+     *
+     * @param <T> the type of the diagram.
+     * @param sd the diagram to intern.
+     * @return the pooled diagram that equals the given one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends SpiderDiagram> T intern(T sd) {
+        if (!isInterned(sd)) {
+            bypassed.incrementAndGet();
+            return sd;
+        }
+        expungeCollected();
+        DiagramReference ref = new DiagramReference(sd, collected);
+        while (true) {
+            DiagramReference existingRef = table.putIfAbsent(ref, ref);
+            if (existingRef == null) {
+                misses.incrementAndGet();
+                return sd;
+            }
+            SpiderDiagram existing = existingRef.get();
+            if (existing != null) {
+                hits.incrementAndGet();
+                // the new reference never entered the table, so it must not
+                // be enqueued later on
+                ref.clear();
+                return (T) existing;
+            }
+            // the diagram has just been collected, remove its stale entry and try again
+            if (table.remove(existingRef, existingRef)) {
+                removed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the diagram in the pool that equals the given one without adding
+     * the given diagram to the pool.
+     *
+     * @param <T> the type of the diagram.
+     * @param sd the diagram to look up.
+     * @return the pooled diagram that equals the given one, or {@code null} if
+     * there is no such diagram in the pool (or the diagram is not interned
+     * according to the current {@link InternMode mode}).
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends SpiderDiagram> T lookup(T sd) {
+        if (!isInterned(sd)) {
+            return null;
+        }
+        DiagramReference ref = table.get(new DiagramReference(sd, null));
+        SpiderDiagram existing = ref == null ? null : ref.get();
+        if (existing != null) {
+            hits.incrementAndGet();
+        }
+        return (T) existing;
+    }
+
+    public InternMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets which diagrams are put into the pool. Diagrams that have been
+     * interned before stay in the pool.
+     *
+     * @param mode the new intern mode.
+     */
+    public void setMode(InternMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "mode"));
+        }
+        this.mode = mode;
+    }
+
+    /**
+     * Removes all diagrams from the pool and resets the counters.
+     */
+    public void clear() {
+        table.clear();
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        bypassed.set(0);
+        removed.set(0);
+    }
+
+    /**
+     * Returns the number of entries in the pool. This includes entries of
+     * diagrams that have been collected, but not yet removed.
+     *
+     * @return the number of entries in the pool.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * The number of diagrams that were found in the pool.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of diagrams that were added to the pool.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of diagrams that were not interned due to the {@link InternMode}.
+     */
+    public long getBypassed() {
+        return bypassed.get();
+    }
+
+    /**
+     * The number of entries removed from the pool after their diagrams have been
+     * collected.
+     */
+    public long getRemoved() {
+        return removed.get();
+    }
+
+    /**
+     * The fraction of interned diagrams that were found in the pool.
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SpiderDiagramPool{mode=" + mode + ", size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", bypassed=" + getBypassed() + ", removed=" + getRemoved() + "}";
+    }
+
+    private boolean isInterned(SpiderDiagram sd) {
+        switch (mode) {
+            case NEVER:
+                return false;
+            case COMPOUND_ONLY:
+                return sd instanceof CompoundSpiderDiagram;
+            default:
+                return true;
+        }
+    }
+
+    private void expungeCollected() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            if (table.remove(ref, ref)) {
+                removed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A weak reference to a diagram that uses the hash code and equality of the
+     * diagram. References of collected diagrams are only equal to themselves.
+     */
+    private static final class DiagramReference extends WeakReference<SpiderDiagram> {
+
+        private final int hash;
+
+        DiagramReference(SpiderDiagram referent, ReferenceQueue<SpiderDiagram> queue) {
+            super(referent, queue);
+            hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof DiagramReference) {
+                DiagramReference other = (DiagramReference) obj;
+                if (hash != other.hash) {
+                    return false;
+                }
+                SpiderDiagram referent = get();
+                return referent != null && referent.equals(other.get());
+            }
+            return false;
+        }
+    }
+}
@@ -26,7 +26,6 @@
  */
 package speedith.core.lang;
 
-import java.lang.ref.WeakReference;
 import java.util.*;
 
 import static speedith.core.i18n.Translations.i18n;
@@ -37,17 +36,29 @@ import static speedith.core.i18n.Translations.i18n;
  * <p><span style="font-weight:bold">Note</span>: This class must be used when
  * constructing spider diagrams.</p>
  * <p>It maintains a pool of living spider diagrams and reuses same spider
- * diagrams instead of creating new ones (for faster equality comparison).</p>
+ * diagrams instead of creating new ones (for faster equality comparison).
+ * Which diagrams are pooled can be configured via {@link SpiderDiagrams#getPool()}.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class SpiderDiagrams {
 
-  private static final WeakHashMap<SpiderDiagram, WeakReference<SpiderDiagram>> pool = new WeakHashMap<>();
+  private static final SpiderDiagramPool pool = new SpiderDiagramPool();
 
   private SpiderDiagrams() {
   }
 
+  /**
+   * Returns the pool of living spider diagrams. It can be used to change
+   * the {@link SpiderDiagramPool.InternMode intern mode} and to inspect the
+   * hit rate of the pool.
+   *
+   * @return the pool of living spider diagrams.
+   */
+  public static SpiderDiagramPool getPool() {
+    return pool;
+  }
+
   /**
    * Creates an instance of the {@link NullSpiderDiagram null spider diagram}.
    * <p>This method does not put the returned null spider diagram into the
@@ -119,6 +130,35 @@ public class SpiderDiagrams {
     return createPrimarySD(spiders, habitats, shadedZones, presentZones, false);
   }
 
+  /**
+   * <p>Creates a new normalised primary spider diagram, i.e., a diagram in
+   * which all zones over the given contours are present, except for the given
+   * missing zones.</p>
+   * <p>The present zones of the returned diagram are not enumerated (see
+   * {@link PrimarySpiderDiagram#hasImplicitPresentZones()}), which makes this
+   * method suitable for diagrams with many contours. The missing zones should
+   * be shaded for the diagram to be well-formed.</p>
+   * <p><span style="font-weight:bold">Note</span>: diagrams with implicit and
+   * explicit present zones are equal if they have the same zones. Hence, this
+   * method returns an equal diagram with explicit present zones, if there is
+   * one in the pool already.</p>
+   *
+   * @param spiders      a set of spiders (their names) that appear in this
+   *                     spider diagram.
+   * @param habitats     a key-value map of spiders and their corresponding
+   *                     {@link Region habitats}.
+   * @param shadedZones  a set of shaded {@link Zone zones}.
+   * @param contours     all contours of the diagram.
+   * @param missingZones the zones over the given contours that are not
+   *                     present in the diagram.
+   * @return the normalised primary spider diagram.
+   */
+  public static PrimarySpiderDiagram createNormalisedPrimarySD(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<String> contours, Collection<Zone> missingZones) {
+    return createPrimarySD(spiders, habitats, shadedZones,
+                           new ImplicitZoneSet(contours == null ? null : new TreeSet<>(contours), missingZones),
+                           true);
+  }
+
   /**
    * <p>Creates a new primary spider diagram with the given parameters.</p>
    * <p><span style="font-weight:bold">Note</span>: setting the {@code
@@ -144,11 +184,12 @@ public class SpiderDiagrams {
    * @param shadedZones     a set of shaded {@link Zone zones}.
    * @param presentZones    the set of zones that should be drawn in the diagram
    *                        if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
+   *                        This is either a {@link TreeSet} or an {@link ImplicitZoneSet}.
    * @param copyCollections indicates whether a copy of the above collections
    *                        should be made to construct the new primary spider diagram.
    * @return the primary spider diagram.
    */
-  static PrimarySpiderDiagram createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones, boolean copyCollections) {
+  static PrimarySpiderDiagram createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, SortedSet<Zone> presentZones, boolean copyCollections) {
     return __createPrimarySD(spiders, habitats, shadedZones, presentZones, copyCollections);
   }
 
@@ -257,63 +298,41 @@ public class SpiderDiagrams {
     if ((spiders == null || spiders instanceof TreeSet)
         && (habitats == null || habitats instanceof TreeMap)
         && (shadedZones == null || shadedZones instanceof TreeSet)
-        && (presentZones == null || presentZones instanceof TreeSet)) {
+        && (presentZones == null || presentZones instanceof TreeSet || presentZones instanceof ImplicitZoneSet)) {
       return createPrimarySD(spiders == null ? null : (TreeSet<String>) spiders,
                              habitats == null ? null : (TreeMap<String, Region>) habitats,
                              shadedZones == null ? null : (TreeSet<Zone>) shadedZones,
-                             presentZones == null ? null : (TreeSet<Zone>) presentZones,
+                             (SortedSet<Zone>) presentZones,
                              copyCollections);
     } else {
       TreeSet<String> spidersCopy = spiders == null ? null : new TreeSet<>(spiders);
       TreeMap<String, Region> habitatsCopy = habitats == null ? null : new TreeMap<>(habitats);
       TreeSet<Zone> shadedZonesCopy = shadedZones == null ? null : new TreeSet<>(shadedZones);
-      TreeSet<Zone> presentZonesCopy = presentZones == null ? null : new TreeSet<>(presentZones);
+      SortedSet<Zone> presentZonesCopy = PrimarySpiderDiagram.copyPresentZones(presentZones);
       return __createPrimarySD(spidersCopy, habitatsCopy, shadedZonesCopy, presentZonesCopy, false);
     }
   }
 
   @SuppressWarnings("unchecked")
-  private static PrimarySpiderDiagram __createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones, boolean copyCollections) {
-    synchronized (pool) {
-      // TODO: Create separate classes for Habitats and Spiders, and use
-      // Region for 'shadedZones' and 'presentZones. This way, we will
-      // never have to worry about copying these sets, recalculating
-      // hashes and extracting mentioned contours.
-
-      // Create the "temporary" primary spider diagram.
-      PrimarySpiderDiagram psd = null;
-      if (copyCollections) {
-        psd = new PrimarySpiderDiagram(spiders == null ? null : (TreeSet<String>) spiders.clone(),
-                                       habitats == null ? null : (TreeMap<String, Region>) habitats.clone(),
-                                       shadedZones == null ? null : (TreeSet<Zone>) shadedZones.clone(),
-                                       presentZones == null ? null : (TreeSet<Zone>) presentZones.clone());
-      } else {
-        psd = new PrimarySpiderDiagram(spiders, habitats, shadedZones, presentZones);
-      }
+  private static PrimarySpiderDiagram __createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, SortedSet<Zone> presentZones, boolean copyCollections) {
+    // TODO: Create separate classes for Habitats and Spiders, and use
+    // Region for 'shadedZones' and 'presentZones. This way, we will
+    // never have to worry about copying these sets, recalculating
+    // hashes and extracting mentioned contours.
 
-      // Check if an exact copy of it exists in the pool already.
-      SpiderDiagram exPsd = __getSDFromPool(psd);
-
-      // Is the spider diagram already in the pool?
-      if (exPsd == null) {
-        // It is not. Then add the newly created one into the pool and
-        // return it.
-        pool.put(psd, new WeakReference<SpiderDiagram>(psd));
-        return psd;
-      } else {
-        // Otherwise discard the newly created one and return the old one.
-        assert (exPsd instanceof PrimarySpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_PRIMARY_SD_EQUALS_NON_PRIMARY_SD"));
-        // The diagram is already in the pool. Just return it.
-        assert (((PrimarySpiderDiagram) exPsd).equals(psd)) : i18n("GERR_ILLEGAL_STATE");
-        assert (psd.equals(exPsd)) : i18n("GERR_ILLEGAL_STATE");
-        // The spider diagram might have been removed already (just
-        // after we fetched it from the pool and before the reference
-        // was assigned to the local variable). So, add it again to the
-        // pool.
-        pool.put(exPsd, new WeakReference<>(exPsd));
-        return (PrimarySpiderDiagram) exPsd;
-      }
+    // Create the "temporary" primary spider diagram.
+    PrimarySpiderDiagram psd = null;
+    if (copyCollections) {
+      psd = new PrimarySpiderDiagram(spiders == null ? null : (TreeSet<String>) spiders.clone(),
+                                     habitats == null ? null : (TreeMap<String, Region>) habitats.clone(),
+                                     shadedZones == null ? null : (TreeSet<Zone>) shadedZones.clone(),
+                                     presentZones instanceof TreeSet ? (TreeSet<Zone>) ((TreeSet<Zone>) presentZones).clone() : presentZones);
+    } else {
+      psd = new PrimarySpiderDiagram(spiders, habitats, shadedZones, presentZones);
     }
+    // Returns an exact copy of it if it exists in the pool already,
+    // otherwise the newly created one is added to the pool.
+    return pool.intern(psd);
   }
 
   /**
@@ -327,33 +346,18 @@ public class SpiderDiagrams {
    * @return
    */
   private static CompoundSpiderDiagram __createCompoundSD(CompoundSpiderDiagram csd, boolean copyCollection, String operator, Collection<SpiderDiagram> operands) {
-    synchronized (pool) {
-      SpiderDiagram exCsd = __getSDFromPool(csd);
-      // Is the spider diagram already in the pool?
-      if (exCsd == null) {
-        // It is not. Then add this newly created one into the pool and
-        // return it.
-        if (copyCollection) {
-          csd = new CompoundSpiderDiagram(operator, operands);
-        }
-        pool.put(csd, new WeakReference<SpiderDiagram>(csd));
-        return csd;
-      }
+    CompoundSpiderDiagram exCsd = pool.lookup(csd);
+    // Is the spider diagram already in the pool?
+    if (exCsd != null) {
       // The diagram is already in the pool. Just return it.
-      assert (exCsd instanceof CompoundSpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_COMPOUND_SD_EQUALS_NON_COMPOUND_SD"));
-      assert (((CompoundSpiderDiagram) exCsd).equals(csd)) : i18n("GERR_ILLEGAL_STATE");
-      assert (csd.equals(exCsd)) : i18n("GERR_ILLEGAL_STATE");
-      // The spider diagram might have been removed already (just
-      // after we fetched it from the pool and before the reference
-      // was assigned to the local variable). So, add it again to the
-      // pool.
-      pool.put(exCsd, new WeakReference<>(exCsd));
-      return (CompoundSpiderDiagram) exCsd;
+      assert (exCsd.equals(csd)) : i18n("GERR_ILLEGAL_STATE");
+      return exCsd;
     }
-  }
-
-  private static SpiderDiagram __getSDFromPool(SpiderDiagram psd) {
-    WeakReference<SpiderDiagram> poolSD = pool.get(psd);
-    return poolSD == null ? null : poolSD.get();
+    // It is not. Then add this newly created one into the pool and
+    // return it (or the equal one another thread has added in the meantime).
+    if (copyCollection) {
+      csd = new CompoundSpiderDiagram(operator, operands);
+    }
+    return pool.intern(csd);
   }
 }
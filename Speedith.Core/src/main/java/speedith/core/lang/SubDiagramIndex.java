@@ -0,0 +1,84 @@
+package speedith.core.lang;
+
+import java.util.HashMap;
+
+/**
+ * The sub-diagrams of a {@link CompoundSpiderDiagram} in the order of their
+ * {@link SpiderDiagram#getSubDiagramAt(int) sub-diagram indices} (i.e., in
+ * pre-order), together with the index of the parent of each sub-diagram.
+ * <p>Compound diagrams are immutable, so the index is built once per diagram
+ * (when it is first needed) and then answers all lookups by sub-diagram index
+ * in constant time.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class SubDiagramIndex {
+
+    /**
+     * The parent index of the root diagram.
+     */
+    static final int NO_PARENT = -1;
+
+    private final SpiderDiagram[] subDiagrams;
+    private final int[] parentIndices;
+    private volatile HashMap<SpiderDiagram, Integer> firstIndices;
+
+    SubDiagramIndex(CompoundSpiderDiagram root) {
+        int count = root.getSubDiagramCount();
+        subDiagrams = new SpiderDiagram[count];
+        parentIndices = new int[count];
+        fill(root, 0, NO_PARENT);
+    }
+
+    private void fill(SpiderDiagram sd, int index, int parentIndex) {
+        subDiagrams[index] = sd;
+        parentIndices[index] = parentIndex;
+        if (sd instanceof CompoundSpiderDiagram) {
+            int childIndex = index + 1;
+            for (SpiderDiagram operand : ((CompoundSpiderDiagram) sd).getOperands()) {
+                fill(operand, childIndex, index);
+                childIndex += operand.getSubDiagramCount();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of sub-diagrams (including the root diagram).
+     */
+    int size() {
+        return subDiagrams.length;
+    }
+
+    /**
+     * Returns the sub-diagram at the given index, or {@code null} if there is
+     * no such sub-diagram.
+     */
+    SpiderDiagram get(int index) {
+        return index >= 0 && index < subDiagrams.length ? subDiagrams[index] : null;
+    }
+
+    /**
+     * Returns the index of the parent of the sub-diagram at the given index,
+     * or {@link #NO_PARENT} for the root diagram.
+     */
+    int getParentIndex(int index) {
+        return parentIndices[index];
+    }
+
+    /**
+     * Returns the smallest index of a sub-diagram that equals the given one,
+     * or -1 if there is no such sub-diagram.
+     */
+    int indexOf(SpiderDiagram sd) {
+        HashMap<SpiderDiagram, Integer> indices = firstIndices;
+        if (indices == null) {
+            indices = new HashMap<>();
+            for (int i = subDiagrams.length - 1; i >= 0; i--) {
+                indices.put(subDiagrams[i], i);
+            }
+            firstIndices = indices;
+        }
+        Integer index = indices.get(sd);
+        return index == null ? -1 : index;
+    }
+}
@@ -52,6 +52,7 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
     private TreeSet<String> outContours;
     private boolean hashInvalid = true;
     private int hash;
+    private transient volatile long fingerprint;
     private SortedSet<String> allContours;
     private static final long serialVersionUID = 4268941198100631182L;
     // </editor-fold>
@@ -236,6 +237,31 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
         return hash;
     }
 
+    /**
+     * Returns the structural fingerprint of this zone (see {@link Fingerprints}).
+     * Equal zones have the same fingerprint.
+     *
+     * @return the structural fingerprint of this zone.
+     */
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = 1;
+            if (inContours != null) {
+                for (String contour : inContours) {
+                    result *= Fingerprints.inContourFactor(contour);
+                }
+            }
+            if (outContours != null) {
+                for (String contour : outContours) {
+                    result *= Fingerprints.outContourFactor(contour);
+                }
+            }
+            fingerprint = result;
+        }
+        return result;
+    }
+
     /**
      * Takes this zone and creates a copy of it with in-contours replaced with
      * the given ones.
@@ -5,10 +5,11 @@ import java.util.*;
 public final class Zones {
 
     public static ArrayList<Zone> allZonesForContours(String... contours) {
-        ArrayList<Zone> powerRegion = new ArrayList<>();
-        powerRegion.add(new Zone());
-        for (String contour : contours) {
-            addContourToPowerRegion(powerRegion, contour);
+        // the zones are enumerated on bit masks and converted only once
+        ArrayList<BitZone> bitZones = BitZone.allZonesForContours(new ContourSymbols(Arrays.asList(contours)), contours);
+        ArrayList<Zone> powerRegion = new ArrayList<>(bitZones.size());
+        for (BitZone bitZone : bitZones) {
+            powerRegion.add(bitZone.toZone());
         }
         return powerRegion;
     }
@@ -112,20 +113,6 @@ public final class Zones {
         return false;
     }
 
-    private static void addContourToPowerRegion(ArrayList<Zone> powerRegion, String contour) {
-        if (powerRegion.isEmpty()) {
-            powerRegion.add(Zone.fromInContours(contour));
-            powerRegion.add(Zone.fromOutContours(contour));
-        } else {
-            int oldZonesCount = powerRegion.size();
-            for (int i = 0; i < oldZonesCount; i++) {
-                Zone zone = powerRegion.get(i);
-                powerRegion.set(i, createZoneWithAddedInContour(contour, zone));
-                powerRegion.add(createZoneWithAddedOutContour(contour, zone));
-            }
-        }
-    }
-
     private static Zone createZoneWithAddedInContour(String newContour, Zone zone) {
         return new Zone(extendContours(newContour, zone.getInContours()), zone.getOutContours());
     }
@@ -26,6 +26,7 @@
  */
 package speedith.core.reasoning;
 
+import speedith.core.lang.Fingerprints;
 import speedith.core.lang.SpiderDiagram;
 
 import java.io.Serializable;
@@ -45,6 +46,8 @@ public class Goals implements Serializable {
 
     private static final long serialVersionUID = -5994853267156830447L;
     private final ArrayList<SpiderDiagram> goals;
+    private transient volatile long fingerprint;
+    private transient volatile long canonicalFingerprint;
 
     /**
      * Initialises an instance of this class with a list of spider diagrams (the
@@ -195,6 +198,7 @@ public class Goals implements Serializable {
 
         Goals goals1 = (Goals) o;
 
+        if (getFingerprint() != goals1.getFingerprint()) return false;
         return !(goals != null ? !goals.equals(goals1.goals) : goals1.goals != null);
     }
 
@@ -203,6 +207,51 @@ public class Goals implements Serializable {
         return goals != null ? goals.hashCode() : 0;
     }
 
+    /**
+     * Returns the structural fingerprint of these goals, which is composed of
+     * the {@link SpiderDiagram#getFingerprint() fingerprints} of the goals in
+     * their order. Equal goals have equal fingerprints. All goals without any
+     * spider diagrams have the same fingerprint.
+     *
+     * @return the structural fingerprint of these goals.
+     */
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = Fingerprints.mix(getGoalsCount());
+            if (goals != null) {
+                for (SpiderDiagram goal : goals) {
+                    result = Fingerprints.combine(result, goal == null ? 0 : goal.getFingerprint());
+                }
+            }
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fingerprint of these goals up to the renaming of spiders,
+     * which is composed of the {@link SpiderDiagram#getCanonicalFingerprint()
+     * canonical fingerprints} of the goals in their order. Goals that pairwise
+     * {@link SpiderDiagram#hasSameCanonicalForm(speedith.core.lang.SpiderDiagram)
+     * have the same canonical form} have equal canonical fingerprints.
+     *
+     * @return the canonical fingerprint of these goals.
+     */
+    public long getCanonicalFingerprint() {
+        long result = canonicalFingerprint;
+        if (result == 0) {
+            result = Fingerprints.mix(getGoalsCount());
+            if (goals != null) {
+                for (SpiderDiagram goal : goals) {
+                    result = Fingerprints.combine(result, goal == null ? 0 : goal.getCanonicalFingerprint());
+                }
+            }
+            canonicalFingerprint = result;
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return "Goals(" + goals + ')';
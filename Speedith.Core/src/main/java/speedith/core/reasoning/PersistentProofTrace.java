@@ -0,0 +1,372 @@
+package speedith.core.reasoning;
+
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.AppliedRules;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * An implementation of the {@link Proof} interface that shares its steps with
+ * the proofs it has been copied from. Each proof step is an immutable node that
+ * points to its predecessor, so that copying a proof and applying a rule to it
+ * take constant time and memory, independently of the length of the proof.
+ * <p>This makes this class well suited for the automatic provers, which create
+ * many successors of the same proof attempt. The lists returned by {@link
+ * PersistentProofTrace#getGoals()} and {@link PersistentProofTrace#getInferenceApplications()}
+ * are views of the chain of steps. The last step of a proof collects the chain
+ * into an array the first time an element other than the last one is accessed,
+ * so that loops over the indices of a proof take linear time in total. Since a
+ * proof search only looks at the last goals of its proof attempts, it still keeps
+ * a constant amount of memory per proof step. Instances of this class are
+ * serialised as {@link ProofTrace} objects.</p>
+ * <p>A persistent proof is equal to any {@link ProofTrace} with the same goals
+ * and inference applications (and has the same hash code).</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class PersistentProofTrace implements Proof {
+
+    private static final long serialVersionUID = -4735305745416311529L;
+
+    /**
+     * The last step of this proof. Is {@code null} if this proof has no
+     * initial goals.
+     */
+    private Step last;
+
+    /**
+     * Creates a new proof with the given initial goals.
+     *
+     * @param initialGoals the initial goals (the theorem we want to prove).
+     * <p><span style="font-weight:bold">Note</span>: this parameter may be
+     * {@code null} in which case no goals will be there to prove and no proof
+     * steps will be applicable.</p>
+     */
+    public PersistentProofTrace(Goals initialGoals) {
+        if (initialGoals != null) {
+            last = new Step(null, null, initialGoals);
+        }
+    }
+
+    /**
+     * Creates a copy of the given proof. If the given proof is a persistent proof
+     * itself, the copy shares all steps with it and this constructor takes constant
+     * time. Otherwise the steps of the given proof are copied once.
+     *
+     * @param proof the proof to copy
+     */
+    public PersistentProofTrace(Proof proof) {
+        if (proof instanceof PersistentProofTrace) {
+            last = ((PersistentProofTrace) proof).last;
+        } else if (proof.getGoalsCount() > 0) {
+            last = new Step(null, null, proof.getInitialGoals());
+            for (int i = 0; i < proof.getInferenceApplicationCount(); i++) {
+                last = new Step(last, proof.getInferenceApplicationAt(i), proof.getGoalsAt(i + 1));
+            }
+        }
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<TRuleArg, ? extends InferenceApplicationResult> rule, RuleApplicationType type, String typeSpecifier) throws RuleApplicationException, TacticApplicationException {
+        return applyRule(rule, null, type, typeSpecifier);
+    }
+
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<? super TRuleArg, ? extends InferenceApplicationResult> rule, TRuleArg args, RuleApplicationType type, String typeSpecifier) throws RuleApplicationException, TacticApplicationException {
+        if (isFinished()) {
+            throw new RuleApplicationException(i18n("PROOF_TRACE_FINISHED"));
+        }
+        InferenceApplicationResult appResult = rule.apply(args, getLastGoals());
+        if (appResult == null) {
+            throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceName()));
+        }
+        // Discharge any null-spider diagrams automatically.
+        Goals newGoals = ProofTrace.dischargeNullGoals(appResult.getGoals());
+        last = new Step(last, new InferenceApplication(rule, args, type, typeSpecifier), newGoals);
+        return appResult;
+    }
+
+    @Override
+    public Goals getGoalsAt(int index) {
+        return getGoals().get(index);
+    }
+
+    @Override
+    public int getGoalsCount() {
+        return last == null ? 0 : last.length + 1;
+    }
+
+    @Override
+    public Goals getInitialGoals() {
+        if (last == null) {
+            return null;
+        }
+        Step step = last;
+        while (step.previous != null) {
+            step = step.previous;
+        }
+        return step.goals;
+    }
+
+    @Override
+    public Goals getLastGoals() {
+        return last == null ? null : last.goals;
+    }
+
+    @Override
+    public List<Goals> getGoals() {
+        return last == null ? Collections.<Goals>emptyList() : new GoalsView(last);
+    }
+
+    @Override
+    public List<InferenceApplication> getInferenceApplications() {
+        return last == null ? Collections.<InferenceApplication>emptyList() : new ApplicationsView(last);
+    }
+
+    @Override
+    public InferenceApplication getInferenceApplicationAt(int index) {
+        return getInferenceApplications().get(index);
+    }
+
+    @Override
+    public int getInferenceApplicationCount() {
+        return last == null ? 0 : last.length;
+    }
+
+    @Override
+    public boolean isFinished() {
+        final Goals lastGoals = getLastGoals();
+        return lastGoals == null || lastGoals.isEmpty();
+    }
+
+    @Override
+    public boolean undoStep() {
+        if (getInferenceApplicationCount() > 0) {
+            last = last.previous;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public Proof createFlattenedProof() throws TacticApplicationException {
+        return new ProofTrace(this).createFlattenedProof();
+    }
+    //</editor-fold>
+
+    /**
+     * Returns the index of the rules applied within this proof. The index is created
+     * lazily and shared by all proofs that share the last step of this proof.
+     *
+     * @return the index of the rules applied within this proof.
+     */
+    public AppliedRules getAppliedRules() {
+        return last == null ? AppliedRules.EMPTY : last.getAppliedRules();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        // two proofs are equal, iff the list of goals and the list of applied rules are equal
+        if (obj == this) return true;
+        if (obj instanceof PersistentProofTrace) {
+            PersistentProofTrace other = (PersistentProofTrace) obj;
+            if (last == other.last) return true;
+            return hashCode() == other.hashCode()
+                    && getGoals().equals(other.getGoals())
+                    && getInferenceApplications().equals(other.getInferenceApplications());
+        }
+        if (obj instanceof ProofTrace) {
+            ProofTrace other = (ProofTrace) obj;
+            return getGoals().equals(other.getGoals())
+                    && getInferenceApplications().equals(other.getInferenceApplications());
+        }
+        return false;
+    }
+
+    /**
+     * Computes the same hash code as {@link ProofTrace#hashCode()} for the same
+     * goals and inference applications, but in constant time.
+     */
+    @Override
+    public int hashCode() {
+        return last == null ? 31 + 1 : 31 * last.goalsHash + last.applicationsHash;
+    }
+
+    /**
+     * Persistent proofs are written as ordinary proof traces, so that the
+     * serialised form does not depend on the way the proof has been created.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new ProofTrace(getGoals(), getInferenceApplications());
+    }
+
+    /**
+     * A single immutable step of a proof: the goals that were the result of applying
+     * the inference application to the goals of the previous step.
+     */
+    private static final class Step implements Serializable {
+
+        private static final long serialVersionUID = 2962283853436519046L;
+
+        private final Step previous;
+        private final InferenceApplication application;
+        private final Goals goals;
+        private final int length;
+        private final int goalsHash;
+        private final int applicationsHash;
+
+        private transient volatile AppliedRules appliedRules;
+
+        /**
+         * All steps up to this one, collected on the first random access.
+         */
+        private transient volatile Step[] steps;
+
+        Step(Step previous, InferenceApplication application, Goals goals) {
+            this.previous = previous;
+            this.application = application;
+            this.goals = goals;
+            if (previous == null) {
+                length = 0;
+                goalsHash = 31 + (goals == null ? 0 : goals.hashCode());
+                applicationsHash = 1;
+            } else {
+                length = previous.length + 1;
+                // the same as List.hashCode() for the lists of goals and applications
+                goalsHash = 31 * previous.goalsHash + (goals == null ? 0 : goals.hashCode());
+                applicationsHash = 31 * previous.applicationsHash + (application == null ? 0 : application.hashCode());
+            }
+        }
+
+        /**
+         * Returns the step with the given length (i.e., the step that holds the
+         * goals at the given index of the proof).
+         */
+        Step stepAt(int index) {
+            if (index < 0 || index > length) {
+                throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+            }
+            if (index == length) {
+                return this;
+            } else if (index == length - 1) {
+                return previous;
+            }
+            return toSteps()[index];
+        }
+
+        /**
+         * Returns all steps up to this one, in the order of the proof. The array
+         * is collected once and must not be changed.
+         */
+        Step[] toSteps() {
+            Step[] all = steps;
+            if (all == null) {
+                all = new Step[length + 1];
+                for (Step step = this; step != null; step = step.previous) {
+                    all[step.length] = step;
+                }
+                steps = all;
+            }
+            return all;
+        }
+
+        AppliedRules getAppliedRules() {
+            AppliedRules result = appliedRules;
+            if (result == null) {
+                result = previous == null ? AppliedRules.EMPTY : previous.getAppliedRules().extend(application, goals);
+                appliedRules = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An unmodifiable view of the goals of all steps up to a given step.
+     */
+    private static final class GoalsView extends AbstractList<Goals> {
+
+        private final Step last;
+
+        GoalsView(Step last) {
+            this.last = last;
+        }
+
+        @Override
+        public Goals get(int index) {
+            return last.stepAt(index).goals;
+        }
+
+        @Override
+        public int size() {
+            return last.length + 1;
+        }
+
+        @Override
+        public Iterator<Goals> iterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<Goals> listIterator(int index) {
+            Step[] steps = last.toSteps();
+            Goals[] all = new Goals[steps.length];
+            for (int i = 0; i < steps.length; i++) {
+                all[i] = steps[i].goals;
+            }
+            return Collections.unmodifiableList(Arrays.asList(all)).listIterator(index);
+        }
+    }
+
+    /**
+     * An unmodifiable view of the inference applications of all steps up to a
+     * given step.
+     */
+    private static final class ApplicationsView extends AbstractList<InferenceApplication> {
+
+        private final Step last;
+
+        ApplicationsView(Step last) {
+            this.last = last;
+        }
+
+        @Override
+        public InferenceApplication get(int index) {
+            if (index < 0 || index >= last.length) {
+                throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+            }
+            return last.stepAt(index + 1).application;
+        }
+
+        @Override
+        public int size() {
+            return last.length;
+        }
+
+        @Override
+        public Iterator<InferenceApplication> iterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<InferenceApplication> listIterator(int index) {
+            Step[] steps = last.toSteps();
+            InferenceApplication[] all = new InferenceApplication[last.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = steps[i + 1].application;
+            }
+            return Collections.unmodifiableList(Arrays.asList(all)).listIterator(index);
+        }
+    }
+}
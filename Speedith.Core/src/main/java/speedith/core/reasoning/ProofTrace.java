@@ -144,7 +144,23 @@ public class ProofTrace implements Proof {
             throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceName()));
         }
         // Discharge any null-spider diagrams automatically.
-        Goals newGoals = appResult.getGoals();
+        Goals newGoals = dischargeNullGoals(appResult.getGoals());
+        InferenceApplication application = new InferenceApplication( rule, args, type, typeSpecifier);
+       
+        inferenceApplications.add(application);
+//        goals.add(appResult.getGoals());
+        goals.add(newGoals);
+        return appResult;
+    }
+
+    /**
+     * Removes all goals that are syntactically equivalent to the {@link
+     * NullSpiderDiagram null spider diagram}, i.e., discharges them automatically.
+     *
+     * @param newGoals the goals resulting from an inference application.
+     * @return the goals without null spider diagrams.
+     */
+    static Goals dischargeNullGoals(Goals newGoals) {
         if (!newGoals.isEmpty()) {
             ArrayList<SpiderDiagram> remainingGoals = new ArrayList<>();
             NullSpiderDiagram nsd = NullSpiderDiagram.getInstance();
@@ -155,12 +171,7 @@ public class ProofTrace implements Proof {
             }
             newGoals = Goals.createGoalsFrom(remainingGoals);
         }
-        InferenceApplication application = new InferenceApplication( rule, args, type, typeSpecifier);
-       
-        inferenceApplications.add(application);
-//        goals.add(appResult.getGoals());
-        goals.add(newGoals);
-        return appResult;
+        return newGoals;
     }
 
     @Override
@@ -230,6 +241,10 @@ public class ProofTrace implements Proof {
             ProofTrace other = (ProofTrace) obj;
             return goals.equals(other.goals) && inferenceApplications.equals(other.inferenceApplications);
         }
+        if (obj instanceof PersistentProofTrace) {
+            // keep the equality symmetric
+            return obj.equals(this);
+        }
         return false;
     }
 
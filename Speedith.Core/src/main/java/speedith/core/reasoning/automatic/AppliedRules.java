@@ -1,205 +1,383 @@
 package speedith.core.reasoning.automatic;
 
-import speedith.core.lang.Zone;
-import speedith.core.reasoning.automatic.rules.*;
-import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Inference;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.args.ContourArg;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.rules.*;
+
+import java.util.*;
 
 /**
- *
+ * An index of the rules applied within a proof, which allows the possible rule
+ * applications (see {@link speedith.core.reasoning.automatic.rules.PossibleRuleApplication#isSuperfluous(Proof)})
+ * to check in constant time whether they would repeat or revert an earlier
+ * rule application, instead of scanning all inference applications of the
+ * proof.
+ * <p>The index is immutable and persistent: the index of a proof is the index
+ * of the proof without its last step, extended by the keys of the last step.
+ * The keys are kept in a {@link PersistentHashSet persistent hash set}, so that
+ * the extended index shares all but a logarithmic number of nodes with the
+ * index it extends. Hence, extending and querying the index never copies the
+ * keys of earlier steps. The index of a {@link PersistentProofTrace} is attached to its last step (see
+ * {@link PersistentProofTrace#getAppliedRules()}), so that all successors of a
+ * proof attempt query the same index.</p>
+ * <p>Rules that refer to single zones (remove shading, introduce and remove
+ * shaded zones) are superfluous, if a single earlier application refers to all
+ * their zones. The possible applications of these rules refer to one zone only,
+ * which is answered by a key per zone. Queries for several zones fall back to
+ * the (persistent) list of earlier zone-wise applications.</p>
  *
  * @author Sven Linker [s.linker@brighton.ac.uk]
  */
-public class AppliedRules {
-
-    private Map<SpiderDiagramOccurrence, Set<String>> introContours;
-
-    private Map<SpiderDiagramOccurrence, Set<String>> removeContours;
+public final class AppliedRules {
 
-    private Map<SpiderDiagramOccurrence, Set<String>> copiedContours;
-
-    private Map<SpiderDiagramOccurrence, Set<Zone>> removedShading;
+    /**
+     * The kinds of rule applications that are relevant for superfluous rule
+     * applications.
+     */
+    public enum Kind {
+        COPY_CONTOURS,
+        COPY_SHADING,
+        INTRO_CONTOUR,
+        REMOVE_CONTOUR,
+        REMOVE_SHADING,
+        INTRO_SHADED_ZONE,
+        REMOVE_SHADED_ZONE;
+
+        /**
+         * Returns the kind of the given inference, or null, if applications of the
+         * inference are not indexed.
+         */
+        public static Kind of(Inference<?, ?> inference) {
+            if (inference instanceof CopyContours) {
+                return COPY_CONTOURS;
+            } else if (inference instanceof CopyShading) {
+                return COPY_SHADING;
+            } else if (inference instanceof IntroContour) {
+                return INTRO_CONTOUR;
+            } else if (inference instanceof RemoveContour) {
+                return REMOVE_CONTOUR;
+            } else if (inference instanceof RemoveShading) {
+                return REMOVE_SHADING;
+            } else if (inference instanceof IntroShadedZone) {
+                return INTRO_SHADED_ZONE;
+            } else if (inference instanceof RemoveShadedZone) {
+                return REMOVE_SHADED_ZONE;
+            }
+            return null;
+        }
 
-    private Map<SpiderDiagramOccurrence, Set<Set<Zone>>> copiedShadings;
+        private boolean isZoneWise() {
+            return this == REMOVE_SHADING || this == INTRO_SHADED_ZONE || this == REMOVE_SHADED_ZONE;
+        }
+    }
 
+    /**
+     * The index of a proof without any inference applications.
+     */
+    public static final AppliedRules EMPTY = new AppliedRules(PersistentHashSet.<Key>empty(), null);
 
-    public AppliedRules() {
-        introContours = new HashMap<>();
-        removeContours = new HashMap<>();
-        removedShading = new HashMap<>();
-        copiedContours = new HashMap<>();
-        copiedShadings = new HashMap<>();
+    private final PersistentHashSet<Key> allKeys;
+    /**
+     * The zone-wise applications of the proof, latest first. Only needed for
+     * queries that refer to several zones.
+     */
+    private final ZoneApplication zoneApplications;
 
+    private AppliedRules(PersistentHashSet<Key> allKeys, ZoneApplication zoneApplications) {
+        this.allKeys = allKeys;
+        this.zoneApplications = zoneApplications;
     }
 
-    public AppliedRules(AppliedRules old) {
-        this.introContours = new HashMap<> ();
-        for( SpiderDiagramOccurrence key: old.introContours.keySet()) {
-            this.introContours.put(key, new HashSet<>(old.introContours.get(key)));
-        }
-        this.removeContours = new HashMap<>();
-        for (SpiderDiagramOccurrence key: old.removeContours.keySet()) {
-            this.removeContours.put(key, new HashSet<>(old.removeContours.get(key)));
-        }
-        this.copiedContours = new HashMap<>();
-        for (SpiderDiagramOccurrence key: old.copiedContours.keySet()) {
-            this.copiedContours.put(key, new HashSet<>(old.copiedContours.get(key)));
+    /**
+     * Returns the index of the given proof. If the proof is a {@link PersistentProofTrace},
+     * its (shared) index is returned. Otherwise, the index is built from all inference
+     * applications of the proof.
+     *
+     * @param p the proof to index
+     * @return the index of the given proof
+     */
+    public static AppliedRules of(Proof p) {
+        if (p instanceof PersistentProofTrace) {
+            return ((PersistentProofTrace) p).getAppliedRules();
         }
-        this.removedShading = new HashMap<>();
-        for (SpiderDiagramOccurrence key: old.removedShading.keySet()) {
-            this.removedShading.put(key, new HashSet<>(old.removedShading.get(key)));
+        AppliedRules result = EMPTY;
+        Iterator<Goals> goals = p.getGoals().iterator();
+        if (!goals.hasNext()) {
+            return result;
         }
-        this.copiedShadings = new HashMap<>();
-        for (SpiderDiagramOccurrence key: old.copiedShadings.keySet()) {
-            this.copiedShadings.put(key, new HashSet<>(old.copiedShadings.get(key)));
-        }
-    }
-
-
-    public void add(PossibleRuleApplication rule, SpiderDiagramOccurrence psd) {
-        if (rule instanceof PossibleCopyContour) {
-            add((PossibleCopyContour) rule, psd);
-        } else if(rule instanceof PossibleCopyShading) {
-            add((PossibleCopyShading) rule, psd);
-        } else if (rule instanceof PossibleIntroduceContour) {
-            add((PossibleIntroduceContour) rule, psd);
-        } else  if(rule instanceof PossibleRemoveContour) {
-            add((PossibleRemoveContour) rule, psd);
-        } else if(rule instanceof PossibleRemoveShading) {
-            add((PossibleRemoveShading) rule, psd);
+        // skip the initial goals, each application results in the next goals
+        goals.next();
+        for (InferenceApplication application : p.getInferenceApplications()) {
+            result = result.extend(application, goals.next());
         }
+        return result;
     }
 
     /**
-     * Adds the contour of the given rule to the set of already introduced contours for
-     * the given primary spider diagram
+     * Creates the index of a proof that extends the proof of this index by the given
+     * inference application.
      *
-     * @param rule the instance of introduce contour
-     * @param psd the Primary Spider diagram for which the contour shall be saved
-     *            as already introduced
+     * @param application the applied inference
+     * @param goalsAfter the goals resulting from the application
+     * @return the extended index. May be this index, if the application is irrelevant for
+     * superfluous rule applications.
      */
-    public void add(PossibleIntroduceContour rule, SpiderDiagramOccurrence psd) {
-        if (!introContours.containsKey(psd)) {
-            introContours.put(psd, new HashSet<String>());
+    public AppliedRules extend(InferenceApplication application, Goals goalsAfter) {
+        Kind kind = application == null ? null : Kind.of(application.getInference());
+        if (kind == null || !(application.getRuleArguments() instanceof MultipleRuleArgs)) {
+            return this;
         }
-        introContours.get(psd).add(rule.getContour());
+        MultipleRuleArgs args = (MultipleRuleArgs) application.getRuleArguments();
+        if (args.isEmpty()) {
+            return this;
+        }
+        List<Key> resultKeys = resultKeys(kind, args, goalsAfter);
+        PersistentHashSet<Key> extended = allKeys.plusAll(applicationKeys(kind, args))
+                .plusAll(resultKeys);
+        ZoneApplication zoneApplications = this.zoneApplications;
+        if (kind.isZoneWise()) {
+            SpiderDiagram result = resultKeys.isEmpty() ? null : resultKeys.get(0).diagram;
+            zoneApplications = new ZoneApplication(kind, args, result, zoneApplications);
+            if (args.size() > 1) {
+                // distinguishes one application on several zones from several
+                // applications on one zone each
+                extended = extended.plus(new Key(kind, false, -1, -1, result, zoneApplications.args, args.size(), 0));
+            }
+        }
+        return new AppliedRules(extended, zoneApplications);
     }
 
     /**
-     * Adds a contour to the set of already removed contours for
-     * the given primary spider diagram
-     * @param psd the Primary Spider diagram for which the contour shall be saved
-     *            as already removed
+     * Checks whether a rule of the given kind has already been applied with the given
+     * arguments, i.e., whether applying it again would be a repetition. For rules that
+     * refer to sets of contours or zones (copy contours, copy shading, introduce and
+     * remove contours), the earlier application must refer to the same set on the same
+     * sub-diagram. For rules that refer to single zones (remove shading, introduce and
+     * remove shaded zones), a single earlier application must refer to all the given
+     * zones on the same sub-diagrams.
+     *
+     * @param kind the kind of the rule
+     * @param args the arguments of the rule
+     * @return true, if the rule has already been applied with these arguments
      */
-    public void add(PossibleRemoveContour rule, SpiderDiagramOccurrence psd) {
-        if (!removeContours.containsKey(psd)) {
-            removeContours.put(psd, new HashSet<String>());
+    public boolean containsApplication(Kind kind, MultipleRuleArgs args) {
+        if (args.isEmpty()) {
+            return false;
         }
-        removeContours.get(psd).add(rule.getContour());
-    }
-
-    public void add(PossibleRemoveShading rule, SpiderDiagramOccurrence sd) {
-        if (!removedShading.containsKey(sd)) {
-            removedShading.put(sd, new HashSet<Zone>());
+        if (kind.isZoneWise() && args.size() > 1) {
+            return findZoneApplication(kind, args, false, null);
         }
-        removedShading.get(sd).add(rule.getZone());
-    }
-
-    public void add(PossibleCopyShading rule , SpiderDiagramOccurrence sd) {
-        if (!copiedShadings.containsKey(sd)) {
-            copiedShadings.put(sd, new HashSet<Set<Zone>>());
+        for (Key key : applicationKeys(kind, args)) {
+            if (!allKeys.contains(key)) {
+                return false;
+            }
         }
-        copiedShadings.get(sd).add(rule.getRegion());
+        return true;
     }
 
-    public void add(PossibleCopyContour rule, SpiderDiagramOccurrence sd) {
-        if (!copiedContours.containsKey(sd)) {
-            copiedContours.put(sd, new HashSet<String>());
+    /**
+     * Checks whether a rule of the given kind has been applied with the given arguments
+     * and resulted in the given diagram. This is used to detect rule applications that
+     * would revert an earlier application (e.g., removing a contour that has just been
+     * introduced).
+     * <p>For contour rules, an earlier application with the same number of arguments
+     * matches, if any of its arguments refers to the same subgoal and contour as the
+     * argument at the same position in the given arguments. For zone rules, a single
+     * earlier application must refer to all the given zones on the same sub-diagrams.</p>
+     *
+     * @param kind the kind of the earlier rule
+     * @param args the arguments to look for
+     * @param result the sub-diagram resulting from the earlier application
+     * @return true, if such an application exists
+     */
+    public boolean containsResult(Kind kind, MultipleRuleArgs args, SpiderDiagram result) {
+        if (args.isEmpty()) {
+            return false;
         }
-        copiedContours.get(sd).add(rule.getContour());
-    }
-
-    public boolean contains(PossibleRuleApplication rule, SpiderDiagramOccurrence psd) {
-        if (rule instanceof PossibleCopyContour) {
-            return contains((PossibleCopyContour) rule, psd);
-        } else if(rule instanceof PossibleCopyShading) {
-            return contains((PossibleCopyShading) rule, psd);
-        } else if (rule instanceof PossibleIntroduceContour) {
-            return contains((PossibleIntroduceContour) rule, psd);
-        } else  if(rule instanceof PossibleRemoveContour) {
-            return contains((PossibleRemoveContour) rule, psd);
-        } else if(rule instanceof PossibleRemoveShading) {
-            return contains((PossibleRemoveShading) rule, psd);
+        PersistentHashSet<Key> all = allKeys;
+        if (kind.isZoneWise()) {
+            if (args.size() > 1) {
+                return findZoneApplication(kind, args, true, result);
+            }
+            ZoneArg zoneArg = (ZoneArg) args.get(0);
+            return all.contains(new Key(kind, true, zoneArg.getSubgoalIndex(), zoneArg.getSubDiagramIndex(), result, zoneArg.getZone(), 0, 0));
+        }
+        for (int j = 0; j < args.size(); j++) {
+            ContourArg contourArg = (ContourArg) args.get(j);
+            if (all.contains(new Key(kind, true, contourArg.getSubgoalIndex(), -1, result, contourArg.getContour(), args.size(), j))) {
+                return true;
+            }
         }
         return false;
     }
 
-    public boolean contains(PossibleIntroduceContour rule, SpiderDiagramOccurrence psd) {
-        return introContours.containsKey(psd) && introContours.get(psd).contains(rule.getContour());
+    /**
+     * Returns the number of keys in this index.
+     */
+    public int size() {
+        return allKeys.size();
     }
 
-    public boolean contains(PossibleRemoveContour rule, SpiderDiagramOccurrence psd) {
-        return removeContours.containsKey(psd) && removeContours.get(psd).contains(rule.getContour());
+    /**
+     * Two indices are equal if they contain the same keys, i.e., if exactly the same
+     * rule applications are superfluous after both of them.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof AppliedRules && allKeys.equals(((AppliedRules) obj).allKeys));
     }
 
-    public boolean contains(PossibleCopyContour rule, SpiderDiagramOccurrence psd) {
-        return copiedContours.containsKey(psd) && copiedContours.get(psd).contains(rule.getContour());
+    @Override
+    public int hashCode() {
+        return allKeys.hashCode();
     }
 
-    public boolean contains(PossibleCopyShading rule, SpiderDiagramOccurrence psd) {
-        return copiedShadings.containsKey(psd) && copiedShadings.get(psd).contains(rule.getRegion());
+    private boolean findZoneApplication(Kind kind, MultipleRuleArgs args, boolean compareResult, SpiderDiagram result) {
+        List<RuleArg> wanted = args.getRuleArgs();
+        for (ZoneApplication application = zoneApplications; application != null; application = application.next) {
+            if (application.kind == kind && application.args.containsAll(wanted)
+                    && (!compareResult || (result == null ? application.result == null : result.equals(application.result)))) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public boolean contains(PossibleRemoveShading rule, SpiderDiagramOccurrence psd) {
-        return removedShading.containsKey(psd) && removedShading.get(psd).contains(rule.getZone());
+    private static List<Key> applicationKeys(Kind kind, MultipleRuleArgs args) {
+        if (kind.isZoneWise()) {
+            List<Key> result = new ArrayList<>(args.size());
+            for (RuleArg arg : args) {
+                ZoneArg zoneArg = (ZoneArg) arg;
+                result.add(new Key(kind, false, zoneArg.getSubgoalIndex(), zoneArg.getSubDiagramIndex(), null, zoneArg.getZone(), 0, 0));
+            }
+            return result;
+        }
+        Set<Object> values = new HashSet<>();
+        int subgoalIndex;
+        int subDiagramIndex;
+        if (kind == Kind.COPY_SHADING) {
+            for (RuleArg arg : args) {
+                values.add(((ZoneArg) arg).getZone());
+            }
+            ZoneArg first = (ZoneArg) args.get(0);
+            subgoalIndex = first.getSubgoalIndex();
+            subDiagramIndex = first.getSubDiagramIndex();
+        } else {
+            for (RuleArg arg : args) {
+                values.add(((ContourArg) arg).getContour());
+            }
+            ContourArg first = (ContourArg) args.get(0);
+            subgoalIndex = first.getSubgoalIndex();
+            subDiagramIndex = first.getSubDiagramIndex();
+        }
+        return Collections.singletonList(new Key(kind, false, subgoalIndex, subDiagramIndex, null, values, args.size(), 0));
     }
 
-    public void remove(PossibleRuleApplication rule, SpiderDiagramOccurrence sd) {
-        if (rule instanceof PossibleCopyContour) {
-            remove((PossibleCopyContour) rule, sd);
-        } else if(rule instanceof PossibleCopyShading) {
-            remove((PossibleCopyShading) rule, sd);
-        } else if (rule instanceof PossibleIntroduceContour) {
-            remove((PossibleIntroduceContour) rule, sd);
-        } else  if(rule instanceof PossibleRemoveContour) {
-            remove((PossibleRemoveContour) rule, sd);
-        } else if(rule instanceof PossibleRemoveShading) {
-            remove((PossibleRemoveShading) rule, sd);
+    private static List<Key> resultKeys(Kind kind, MultipleRuleArgs args, Goals goalsAfter) {
+        if (kind == Kind.INTRO_CONTOUR || kind == Kind.REMOVE_CONTOUR) {
+            List<Key> result = new ArrayList<>(args.size());
+            for (int j = 0; j < args.size(); j++) {
+                ContourArg arg = (ContourArg) args.get(j);
+                SpiderDiagram diagram = subDiagramAt(goalsAfter, arg.getSubgoalIndex(), arg.getSubDiagramIndex());
+                result.add(new Key(kind, true, arg.getSubgoalIndex(), -1, diagram, arg.getContour(), args.size(), j));
+            }
+            return result;
+        } else if (kind == Kind.INTRO_SHADED_ZONE || kind == Kind.REMOVE_SHADED_ZONE) {
+            ZoneArg first = (ZoneArg) args.get(0);
+            SpiderDiagram diagram = subDiagramAt(goalsAfter, first.getSubgoalIndex(), first.getSubDiagramIndex());
+            List<Key> result = new ArrayList<>(args.size());
+            for (RuleArg arg : args) {
+                ZoneArg zoneArg = (ZoneArg) arg;
+                result.add(new Key(kind, true, zoneArg.getSubgoalIndex(), zoneArg.getSubDiagramIndex(), diagram, zoneArg.getZone(), 0, 0));
+            }
+            return result;
         }
+        return Collections.emptyList();
     }
 
-    public void remove(PossibleIntroduceContour rule, SpiderDiagramOccurrence sd) {
-        if (introContours.containsKey(sd)) {
-            introContours.get(sd).remove(rule.getContour());
+    private static SpiderDiagram subDiagramAt(Goals goals, int subgoalIndex, int subDiagramIndex) {
+        if (goals == null || subgoalIndex < 0 || subgoalIndex >= goals.getGoalsCount()) {
+            return null;
         }
+        return goals.getGoalAt(subgoalIndex).getSubDiagramAt(subDiagramIndex);
     }
 
-    public void remove(PossibleRemoveContour rule, SpiderDiagramOccurrence sd) {
-        if(removeContours.containsKey(sd)) {
-            removeContours.get(sd).remove(rule.getContour());
+    /**
+     * A zone-wise rule application, linked to the zone-wise applications before it.
+     */
+    private static final class ZoneApplication {
+
+        private final Kind kind;
+        private final Set<RuleArg> args;
+        private final SpiderDiagram result;
+        private final ZoneApplication next;
+
+        ZoneApplication(Kind kind, MultipleRuleArgs args, SpiderDiagram result, ZoneApplication next) {
+            this.kind = kind;
+            this.args = Collections.unmodifiableSet(new HashSet<>(args.getRuleArgs()));
+            this.result = result;
+            this.next = next;
         }
     }
 
-    public void remove(PossibleRemoveShading rule, SpiderDiagramOccurrence sd) {
-        if (removedShading.containsKey(sd)) {
-            removedShading.get(sd).remove(rule.getZone());
+    /**
+     * A single entry of the index.
+     */
+    private static final class Key {
+
+        private final Kind kind;
+        private final boolean isResult;
+        private final int subgoalIndex;
+        private final int subDiagramIndex;
+        private final SpiderDiagram diagram;
+        private final Object value;
+        private final int arity;
+        private final int position;
+        private final int hash;
+
+        Key(Kind kind, boolean isResult, int subgoalIndex, int subDiagramIndex, SpiderDiagram diagram, Object value, int arity, int position) {
+            this.kind = kind;
+            this.isResult = isResult;
+            this.subgoalIndex = subgoalIndex;
+            this.subDiagramIndex = subDiagramIndex;
+            this.diagram = diagram;
+            this.value = value;
+            this.arity = arity;
+            this.position = position;
+            int h = kind.ordinal();
+            h = 31 * h + (isResult ? 1 : 0);
+            h = 31 * h + subgoalIndex;
+            h = 31 * h + subDiagramIndex;
+            h = 31 * h + (diagram == null ? 0 : diagram.hashCode());
+            h = 31 * h + (value == null ? 0 : value.hashCode());
+            h = 31 * h + arity;
+            h = 31 * h + position;
+            this.hash = h;
         }
-    }
 
-    public void remove(PossibleCopyContour rule, SpiderDiagramOccurrence sd) {
-        if (copiedContours.containsKey(sd)) {
-            copiedContours.get(sd).remove(rule.getContour());
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return hash == that.hash && kind == that.kind && isResult == that.isResult
+                    && subgoalIndex == that.subgoalIndex && subDiagramIndex == that.subDiagramIndex
+                    && arity == that.arity && position == that.position
+                    && (diagram == null ? that.diagram == null : diagram.equals(that.diagram))
+                    && (value == null ? that.value == null : value.equals(that.value));
         }
-    }
 
-    public void remove(PossibleCopyShading rule, SpiderDiagramOccurrence sd) {
-        if (copiedShadings.containsKey(sd)) {
-            copiedShadings.get(sd).remove(rule.getRegion());
+        @Override
+        public int hashCode() {
+            return hash;
         }
     }
-
 }
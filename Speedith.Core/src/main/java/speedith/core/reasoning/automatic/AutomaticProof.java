@@ -12,4 +12,8 @@ public interface AutomaticProof {
 
     Proof extendProof(Proof proof) throws AutomaticProofException;
 
+    SearchResult generateProof(Goals initialGoals, SearchLimits limits) throws AutomaticProofException;
+
+    SearchResult extendProof(Proof proof, SearchLimits limits) throws AutomaticProofException;
+
 }
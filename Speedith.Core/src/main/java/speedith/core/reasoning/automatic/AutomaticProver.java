@@ -4,6 +4,7 @@ import speedith.core.lang.TransformationException;
 import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.SubDiagramIndexArg;
 import speedith.core.reasoning.automatic.strategies.Strategy;
+import speedith.core.reasoning.automatic.wrappers.ProofAttempt;
 import speedith.core.reasoning.automatic.wrappers.CompoundSpiderDiagramOccurrence;
 import speedith.core.reasoning.automatic.wrappers.PrimarySpiderDiagramOccurrence;
 import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
@@ -11,6 +12,12 @@ import speedith.core.reasoning.rules.TrivialImplicationTautology;
 import speedith.core.reasoning.rules.util.ReasoningUtils;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static speedith.core.i18n.Translations.i18n;
+
 /**
  * @author Sven Linker [s.linker@brighton.ac.uk]
  */
@@ -18,6 +25,10 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
 
     private Strategy strategy;
 
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+
+    private long progressIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+
     public AutomaticProver(Strategy strategy) {
         this.strategy = strategy;
     }
@@ -30,6 +41,40 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
         this.strategy = strategy;
     }
 
+    /**
+     * Registers a listener that is notified about the progress of the searches of
+     * this prover.
+     *
+     * @param listener the listener to register.
+     */
+    public void addSearchListener(SearchListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "listener"));
+        }
+        listeners.add(listener);
+    }
+
+    public void removeSearchListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the interval in which the search listeners are notified about the progress
+     * of a search.
+     *
+     * @param interval the interval between two notifications.
+     * @param unit the unit of the interval.
+     */
+    public void setProgressInterval(long interval, TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "interval"));
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "unit"));
+        }
+        this.progressIntervalNanos = unit.toNanos(interval);
+    }
+
     /**
      * Creates a {@link Proof} object for the given set of initial goals using the {@link Strategy}.
      *
@@ -38,6 +83,27 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
      * @throws AutomaticProofException if no Proof could be constructed
      */
     public Proof generateProof(Goals initialGoals) throws AutomaticProofException {
+        SearchResult result = generateProof(initialGoals, SearchLimits.NONE);
+        if (!result.isProofFound()) {
+            throw  new AutomaticProofException("Unable to prove current goal");
+        }
+        return result.getProof();
+    }
+
+    /**
+     * Searches for a {@link Proof} of the given set of initial goals using the {@link Strategy}
+     * within the given limits.
+     *
+     * @param initialGoals The set of SpiderDiagrams for which a proof will be constructed
+     * @param limits The limits of the search
+     * @return the constructed Proof object (if any) together with the statistics of the search
+     * @throws AutomaticProofException if the goals cannot be handled by the prover
+     */
+    @Override
+    public SearchResult generateProof(Goals initialGoals, SearchLimits limits) throws AutomaticProofException {
+        if (limits == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "limits"));
+        }
         // currently only Spider Diagrams which have an implication as their major operator
         // and where the assumption and conclusion are conjunctive diagrams
         // can be proved
@@ -51,28 +117,38 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
         // introduce all zones that are only implicit in the
         // data structure. I.e. present_zones returns the zone set in
         // the usual sense of spider diagrams
-        Proof init = new ProofTrace(ReasoningUtils.normalize(initialGoals));
+        Proof init = new PersistentProofTrace(ReasoningUtils.normalize(initialGoals));
         //AppliedRules appliedRules = new AppliedRules();
 
-        Proof result;
-        try {
-            result = prove(init, subGoalToProve);
-        } catch (RuleApplicationException|TacticApplicationException e) {
-            throw new AutomaticProofException("Unable to prove current goal because of an illegal rule application",e);
-        }
-        if (result == null || !result.isFinished()) {
+        return search(init, subGoalToProve, limits);
+    }
+
+    @Override
+    public Proof extendProof(Proof proof) throws AutomaticProofException {
+        SearchResult result = extendProof(proof, SearchLimits.NONE);
+        if (!Thread.currentThread().isInterrupted() && !result.isProofFound()) {
             throw  new AutomaticProofException("Unable to prove current goal");
         }
-        return result;
+        return result.getProof();
     }
 
+    /**
+     * Tries to extend the given proof to a finished proof within the given limits.
+     *
+     * @param proof The proof to extend. Is not changed by this method
+     * @param limits The limits of the search
+     * @return the extended proof (if any) together with the statistics of the search
+     * @throws AutomaticProofException if the current goals of the proof cannot be handled by the prover
+     */
     @Override
-    public Proof extendProof(Proof proof) throws AutomaticProofException {
+    public SearchResult extendProof(Proof proof, SearchLimits limits) throws AutomaticProofException {
+        if (limits == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "limits"));
+        }
         // workaround as long as Speedith doesn't support several subgoals at once
         int subGoalToProve = 0;
         if (proof.isFinished()) {
-            System.out.println("Proof already finished");
-            return proof;
+            return new SearchResult(proof, createMonitor(limits).finish(SearchStatistics.Outcome.PROOF_FOUND));
 //            throw new AutomaticProofException("The proof is already finished");
         }
         if (!ReasoningUtils.isImplicationOfConjunctions(proof.getLastGoals().getGoalAt(subGoalToProve))) {
@@ -84,22 +160,59 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
             throw  new AutomaticProofException("The current goal is not normalised!");
         }
         // create a new proof object, so that we do not mess with the supplied proof
-        Proof initial = new ProofTrace(proof.getGoals(), proof.getInferenceApplications());
+        Proof initial = new PersistentProofTrace(proof);
+
+        return search(initial, subGoalToProve, limits);
+    }
 
+    private SearchResult search(Proof initial, int subGoalToProve, SearchLimits limits) throws AutomaticProofException {
+        SearchMonitor monitor = createMonitor(limits);
         Proof result;
         try {
-            result = prove(initial, subGoalToProve);
+            result = prove(initial, subGoalToProve, monitor);
         } catch (RuleApplicationException|TacticApplicationException e) {
             throw new AutomaticProofException("Unable to prove current goal because of an illegal rule application",e);
         }
-        if (!Thread.currentThread().isInterrupted() && (result == null || !result.isFinished())) {
-            throw  new AutomaticProofException("Unable to prove current goal");
+        SearchStatistics.Outcome outcome;
+        if (result != null && result.isFinished()) {
+            outcome = SearchStatistics.Outcome.PROOF_FOUND;
+        } else if (monitor.getStopReason() != null) {
+            outcome = monitor.getStopReason();
+        } else if (Thread.currentThread().isInterrupted()) {
+            outcome = SearchStatistics.Outcome.INTERRUPTED;
+        } else {
+            outcome = SearchStatistics.Outcome.SEARCH_EXHAUSTED;
         }
-        return result;
+        return new SearchResult(result, monitor.finish(outcome));
+    }
 
+    private SearchMonitor createMonitor(SearchLimits limits) {
+        return new SearchMonitor(getPrettyName(), limits, listeners, progressIntervalNanos);
     }
 
-    protected abstract Proof prove (Proof p, int subgoalindex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException;
+    /**
+     * Creates a new proof attempt for the given proof, i.e., evaluates the cost and
+     * heuristic of the strategy for the proof, and records the time needed for the
+     * evaluation in the given monitor.
+     */
+    protected ProofAttempt createAttempt(Proof proof, SearchMonitor monitor) throws AutomaticProofException {
+        long start = System.nanoTime();
+        ProofAttempt attempt = new ProofAttempt(proof, getStrategy());
+        monitor.addHeuristicTime(System.nanoTime() - start);
+        return attempt;
+    }
+
+    /**
+     * Searches for a proof of the given subgoal. Implementations have to check
+     * {@link SearchMonitor#shouldStop()} regularly and return as soon as it returns true.
+     * They report their progress to the monitor.
+     *
+     * @param p The proof to extend
+     * @param subgoalindex The subgoal to prove
+     * @param monitor The monitor of the search
+     * @return a finished proof, or null (or an unfinished proof) if none could be found
+     */
+    protected abstract Proof prove (Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException;
 
 
     /**
@@ -20,6 +20,11 @@ public class AutomaticProvers {
         registerProvider(BreadthFirstProver.class);
         registerProvider(HeuristicSearch.class);
         registerProvider(TacticalHeuristicSearch.class);
+        registerProvider(ParallelHeuristicSearch.class);
+        registerProvider(IterativeDeepeningHeuristicSearch.class);
+        registerProvider(PartialExpansionHeuristicSearch.class);
+        // must be registered last, since its default configurations refer to the other provers
+        registerProvider(PortfolioProver.class);
     }
 
     private AutomaticProvers() {
@@ -47,6 +52,31 @@ public class AutomaticProvers {
         return provider.getAutomaticProver();
     }
 
+    /**
+     * Creates a new instance of the {@link AutomaticProver automatic prover} of the
+     * given name. Contrary to {@link AutomaticProvers#getAutomaticProver(java.lang.String)},
+     * which returns the registered (and thus shared) instance, the returned prover
+     * can be used in a search that runs concurrently to other searches.
+     *
+     * @param prover the name of the automatic prover to create.
+     * @return a new instance of the automatic prover.
+     * @throws AutomaticProofException if the prover could not be instantiated.
+     */
+    public static AutomaticProver createAutomaticProver(String prover) throws AutomaticProofException {
+        if (prover == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "prover"));
+        }
+        AutomaticProverProvider provider = providers.get(prover);
+        if (provider == null) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "prover"));
+        }
+        try {
+            return provider.getAutomaticProver().getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AutomaticProofException("Could not create the prover " + prover, e);
+        }
+    }
+
     /**
      * Returns the {@link AutomaticProverProvider automatic prover provider} of the
      * given name.
@@ -3,7 +3,7 @@ package speedith.core.reasoning.automatic;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.Goals;
 import speedith.core.reasoning.Proof;
-import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.PersistentProofTrace;
 import speedith.core.reasoning.RuleApplicationException;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
@@ -13,10 +13,8 @@ import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
 import speedith.core.reasoning.rules.util.AutomaticUtils;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 
-import java.text.DecimalFormat;
 import java.util.*;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author Sven Linker [s.linker@brighton.ac.uk]
@@ -32,16 +30,19 @@ public class BreadthFirstProver extends  AutomaticProver {
     }
 
     @Override
-    protected Proof prove(Proof p, int subgoalindex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
         p = tryToFinish(p, subgoalindex);
         if (p.isFinished()) {
             return p;
         }
         // initialise the set of proofs to be considered
         List<Proof> currentProofs = new LinkedList<>();
-        // we keep the set of closed proofs for statistics
-        Set<Proof> closed = new HashSet<>();
         currentProofs.add( p);
+        // the goal states already reached (after the same applied rules, which decide
+        // the superfluous continuations). Since proofs are considered in order of
+        // their length, any later proof reaching one of these states is dominated.
+        TranspositionTable visited = new TranspositionTable();
+        visit(visited, p);
 
          Goals currentGoals = p.getLastGoals();
         // get all names of contours present in the goals. This bounds the
@@ -52,10 +53,9 @@ public class BreadthFirstProver extends  AutomaticProver {
             contours.addAll( AutomaticUtils.collectContours(sd));
         }
         Proof finishedProof = null;
-        long numOfSuperFl = 0;
-        long startTime= System.nanoTime();
-        while (!Thread.currentThread().isInterrupted() && finishedProof == null && !currentProofs.isEmpty()) {
+        while (!monitor.shouldStop() && finishedProof == null && !currentProofs.isEmpty()) {
             Proof current = currentProofs.remove(0);
+            monitor.nodeExpanded(current.getInferenceApplicationCount());
             current = tryToFinish(current, subgoalindex);
             if (current.isFinished()) {
                 // we found a finished proof
@@ -66,38 +66,27 @@ public class BreadthFirstProver extends  AutomaticProver {
                 Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex,target, contours);
                 // apply all possible rules to the current proof, creating a new proof for each application
                 for (PossibleRuleApplication nextRule : applications) {
-                    ProofTrace newCurrent = new ProofTrace(current.getGoals(), current.getInferenceApplications());
+                    Proof newCurrent = new PersistentProofTrace(current);
+                    long start = System.nanoTime();
                     boolean superfl = nextRule.isSuperfluous(newCurrent);
-                    if (superfl) numOfSuperFl++;
+                    if (superfl) monitor.superfluousApplication();
                     boolean hasbeenApplied = !superfl && nextRule.apply(newCurrent, getPrettyName());
-                    if (hasbeenApplied) {
+                    monitor.addRuleApplicationTime(System.nanoTime() - start);
+                    if (hasbeenApplied) monitor.nodeCreated();
+                    if (hasbeenApplied && visit(visited, newCurrent)) {
                         // save the new proof within the set of not yet considered proofs
                         currentProofs.add(newCurrent);
                     }
                 }
-                closed.add(current);
+                monitor.setFrontierSize(currentProofs.size());
+                monitor.setDistinctStates(visited.size());
             }
         }
-        Set<Proof> attempts = new HashSet<>();
-        attempts.addAll(closed);
-        attempts.addAll(currentProofs);
-        // TODO remove statistics
-        printStatistics(closed, attempts, startTime, numOfSuperFl);
         return finishedProof;
     }
 
-    private void printStatistics(Collection<Proof> closed, Collection<Proof> attempts, long startTime, long superfluousAttemps) {
-        long duration = System.nanoTime() - startTime;
-        DecimalFormat format = new DecimalFormat("###,###,###,###");
-        String fullNumber= format.format(closed.size()+attempts.size());
-        String considered = format.format(closed.size());
-        String superfluous = format.format(superfluousAttemps);
-        System.out.println("Prover: "+getPrettyName());
-        System.out.println("Considered proof attempts: "+considered);
-        System.out.println("Complete number of created proofs: "+fullNumber);
-        System.out.println("Number of prevented rule applications: "+superfluous);
-        System.out.println("Time needed: "+ TimeUnit.NANOSECONDS.toMillis(duration)+"ms ("+ TimeUnit.NANOSECONDS.toSeconds(duration)+"s)" );
-        System.out.println("Average per Attempt: " + TimeUnit.NANOSECONDS.toMillis(duration)/closed.size() +"ms\n");
+    private boolean visit(TranspositionTable visited, Proof p) {
+        return visited.offer(p.getLastGoals(), AppliedRules.of(p), getStrategy().getCost(p));
     }
 
     @Override
@@ -16,6 +16,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import static speedith.core.i18n.Translations.i18n;
+
 /**
  * Generates proofs for given subgoals.
  *
@@ -27,10 +29,34 @@ public class DepthFirstProver extends AutomaticProver {
 
     private static final String proverName = "depth_first";
 
-    public DepthFirstProver() {super(new NoStrategy());}
+    /**
+     * The default number of goal states remembered during a search.
+     */
+    public static final int DEFAULT_MAX_CACHED_STATES = 1 << 16;
+
+    private final int maxCachedStates;
+
+    public DepthFirstProver() {this(new NoStrategy());}
 
     public DepthFirstProver(Strategy strategy) {
+        this(strategy, DEFAULT_MAX_CACHED_STATES);
+    }
+
+    /**
+     * @param strategy The strategy that defines the costs of the proofs
+     * @param maxCachedStates The maximum number of goal states remembered during a
+     *                        search (0 disables the cache)
+     */
+    public DepthFirstProver(Strategy strategy, int maxCachedStates) {
         super(strategy);
+        if (maxCachedStates < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maxCachedStates"));
+        }
+        this.maxCachedStates = maxCachedStates;
+    }
+
+    public int getMaxCachedStates() {
+        return maxCachedStates;
     }
 
     /**
@@ -38,14 +64,19 @@ public class DepthFirstProver extends AutomaticProver {
      * heuristics using a depth-first search.
      *
      * Recursively create and apply all rule applications for the given subgoal  in the current
-     * state of the given Proof p. The rules already applied to subdiagrams within
-     * the current set of goals are saved in appliedRules
+     * state of the given Proof p. Rule applications that repeat or revert rules already applied
+     * within p are skipped (see {@link AppliedRules}). Goal states that have already been
+     * reached after the same applied rules with at most the same cost are not explored
+     * again, since the same rule applications would be skipped in them. At most
+     * {@link #getMaxCachedStates()} states are remembered, so that the memory of the
+     * search stays bounded.
      */
-    private Proof proveRecursively(Proof p, int subgoalindex, AppliedRules appliedRules) throws RuleApplicationException, TacticApplicationException {
+    private Proof proveRecursively(Proof p, int subgoalindex, TranspositionTable visited, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException {
         p = tryToFinish(p, subgoalindex);
         if (p.isFinished()) {
             return p;
         }
+        monitor.nodeExpanded(p.getInferenceApplicationCount());
         Goals currentGoals = p.getLastGoals();
         // get all names of contours present in the goals. This bounds the
         // possible proof rule applications, since contours not in this set
@@ -55,20 +86,27 @@ public class DepthFirstProver extends AutomaticProver {
             contours.addAll( AutomaticUtils.collectContours(sd));
         }
         SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(currentGoals.getGoalAt(subgoalindex), 0);
-//        AppliedRules applied = new AppliedRules(appliedRules);
-//        AppliedRules applied = appliedRules;
         Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex,target, contours);
         for(PossibleRuleApplication nextRule : applications)  {
-            boolean superfl = nextRule.isSuperfluous(p) || appliedRules.contains(nextRule, nextRule.getTarget());
+            long start = System.nanoTime();
+            boolean superfl = nextRule.isSuperfluous(p);
+            if (superfl) monitor.superfluousApplication();
             boolean hasBeenApplied = !superfl && nextRule.apply(p, getPrettyName());
+            monitor.addRuleApplicationTime(System.nanoTime() - start);
+            if (hasBeenApplied) monitor.nodeCreated();
+            if (hasBeenApplied && !visit(visited, p)) {
+                // this state has already been explored after the same rules by a cheaper or equally expensive proof
+                p.undoStep();
+                hasBeenApplied = false;
+            }
             if (hasBeenApplied) {
-                appliedRules.add(nextRule, nextRule.getTarget());
-                p = proveRecursively(p, subgoalindex, appliedRules);
-                if (p.isFinished() || Thread.currentThread().isInterrupted()) {
+                monitor.setFrontierSize(p.getInferenceApplicationCount());
+                monitor.setDistinctStates(visited.size());
+                p = proveRecursively(p, subgoalindex, visited, monitor);
+                if (p.isFinished() || monitor.shouldStop()) {
                     return p;
                 }
                 p.undoStep();
- //               appliedRules.remove(nextRule, nextRule.getTarget());
             }
         }
 
@@ -76,8 +114,14 @@ public class DepthFirstProver extends AutomaticProver {
     }
 
     @Override
-    protected Proof prove(Proof p, int subgoalindex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
-        return proveRecursively(p, subgoalindex, new AppliedRules());
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        TranspositionTable visited = new TranspositionTable(false, maxCachedStates);
+        visit(visited, p);
+        return proveRecursively(p, subgoalindex, visited, monitor);
+    }
+
+    private boolean visit(TranspositionTable visited, Proof p) {
+        return visited.offer(p.getLastGoals(), AppliedRules.of(p), getStrategy().getCost(p));
     }
 
     @Override
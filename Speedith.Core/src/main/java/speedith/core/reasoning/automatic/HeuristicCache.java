@@ -0,0 +1,275 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.Fingerprints;
+import speedith.core.lang.SpiderDiagram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A bounded, thread-safe memo cache for the values of heuristic functions (e.g.,
+ * {@link speedith.core.reasoning.rules.util.HeuristicUtils#metric(SpiderDiagram, SpiderDiagram)}).
+ * The same premises and conclusions are reached over and over again during
+ * a proof search, so that caching the heuristic values saves a lot of
+ * recomputation.
+ * <p>The cache is split into several segments, each of which is a small LRU
+ * map guarded by its own lock. Hence, threads only contend if they access the
+ * same segment. If a segment is full, its least recently used entry is evicted.</p>
+ * <p>{@link DiagramKey Diagram keys} are hashed by the {@link
+ * SpiderDiagram#getFingerprint() fingerprints} of the diagrams, which also
+ * finds equal diagrams that have not been interned. Keys with different
+ * fingerprints are told apart without comparing the diagrams structurally.</p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class HeuristicCache<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int maximumSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache that keeps at most the given number of values (rounded
+     * up to a multiple of the number of segments).
+     *
+     * @param maximumSize the maximum number of cached values.
+     */
+    public HeuristicCache(int maximumSize) {
+        this(maximumSize, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Creates a new cache that keeps at most the given number of values in
+     * (roughly) the given number of segments.
+     *
+     * @param maximumSize the maximum number of cached values.
+     * @param concurrencyLevel the expected number of threads accessing the cache
+     * concurrently. Is rounded up to the next power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public HeuristicCache(int maximumSize, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maximumSize"));
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "concurrencyLevel"));
+        }
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount < maximumSize) {
+            segmentCount <<= 1;
+        }
+        this.maximumSize = maximumSize;
+        this.segments = new Segment[segmentCount];
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize, evictions);
+        }
+    }
+
+    /**
+     * Returns the cached value for the given key, or {@code null} if there is
+     * none.
+     *
+     * @param key the key to look up.
+     * @return the cached value for the given key, or {@code null}.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Caches the given value for the given key. This may evict the least
+     * recently used value of the same segment.
+     *
+     * @param key the key of the value.
+     * @param value the value to cache.
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "value"));
+        }
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Removes all values from this cache and resets the statistics.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    /**
+     * Returns the number of values in this cache.
+     *
+     * @return the number of values in this cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * The number of lookups that found a cached value.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups that did not find a cached value.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of values that have been evicted to make room for new ones.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * The fraction of lookups that found a cached value.
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "HeuristicCache{size=" + size() + ", maximumSize=" + maximumSize + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "key"));
+        }
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    /**
+     * A key that consists of one or two spider diagrams. Keys are compared by
+     * the fingerprints of their diagrams first and then structurally, so that
+     * colliding fingerprints never return the value of another diagram.
+     */
+    public static final class DiagramKey {
+
+        private final SpiderDiagram firstDiagram;
+        private final SpiderDiagram secondDiagram;
+        private final long first;
+        private final long second;
+        private final int hash;
+
+        public DiagramKey(SpiderDiagram diagram) {
+            this(diagram, null);
+        }
+
+        public DiagramKey(SpiderDiagram first, SpiderDiagram second) {
+            this.firstDiagram = first;
+            this.secondDiagram = second;
+            this.first = first == null ? 0 : first.getFingerprint();
+            this.second = second == null ? 0 : second.getFingerprint();
+            long combined = Fingerprints.combine(this.first, this.second);
+            this.hash = (int) (combined ^ (combined >>> 32));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof DiagramKey) {
+                DiagramKey other = (DiagramKey) obj;
+                return first == other.first && second == other.second
+                        && sameDiagram(firstDiagram, other.firstDiagram)
+                        && sameDiagram(secondDiagram, other.secondDiagram);
+            }
+            return false;
+        }
+
+        private static boolean sameDiagram(SpiderDiagram a, SpiderDiagram b) {
+            return a == b || (a != null && a.equals(b));
+        }
+    }
+
+    /**
+     * A single LRU segment of the cache. Must only be accessed while holding
+     * its lock.
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 8357937145186393232L;
+
+        private final int capacity;
+        private final AtomicLong evictions;
+
+        Segment(int capacity, AtomicLong evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package speedith.core.reasoning.automatic;
 
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.Proof;
-import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.PersistentProofTrace;
 import speedith.core.reasoning.RuleApplicationException;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
@@ -14,9 +14,7 @@ import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
 import speedith.core.reasoning.rules.util.AutomaticUtils;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 
-import java.text.DecimalFormat;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Implements an A* search with the heuristic strategy currently loaded within
@@ -45,22 +43,20 @@ public class HeuristicSearch extends AutomaticProver {
     }
 
     @Override
-    protected Proof prove(Proof p, int subgoalindex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
         p = tryToFinish(p, subgoalindex);
         if (p.isFinished()) {
             return p;
         }
-        // the set of already visited proofs (not necessary for the algorithm itself, but nice for
-        // getting a clue how many proofs have been analysed)
-        //Set<ProofAttempt> closed = new HashSet<>();
-
-        //the number of analysed proof attempts (for statistics)
-        int closed = 0;
+        // the goal states already reached, together with the lowest cost they were reached with.
+        // Proof attempts arriving at a known state with a higher cost are dropped.
+        TranspositionTable visited = new TranspositionTable();
 
         // the list of proof attempts, which still have to be visited
         PriorityQueue<ProofAttempt> attempts = new PriorityQueue<>(11, new HeuristicsComparator());
-        ProofAttempt pw = new ProofAttempt(p,getStrategy());
+        ProofAttempt pw = createAttempt(p, monitor);
         attempts.add(pw);
+        visited.offer(p.getLastGoals(), pw.getCost());
         // get all names of contours present in the goals. This bounds the
         // possible proof rule applications, since contours not in this set
         // never have to be copied or introduced.
@@ -68,52 +64,42 @@ public class HeuristicSearch extends AutomaticProver {
         for (SpiderDiagram sd : p.getLastGoals().getGoals()) {
             contours.addAll( AutomaticUtils.collectContours(sd));
         }
-        long numOfSuperFl = 0;
-        long startTime= System.nanoTime();
-        while(!attempts.isEmpty() && !Thread.currentThread().isInterrupted()) {
+        while(!attempts.isEmpty() && !monitor.shouldStop()) {
             ProofAttempt currentAttempt = attempts.poll();
+            if (visited.isDominated(currentAttempt.getProof().getLastGoals(), currentAttempt.getCost())) {
+                // the state has been reached more cheaply since this attempt was queued
+                continue;
+            }
+            monitor.nodeExpanded(currentAttempt.getCost() + currentAttempt.getHeuristic());
             Proof currentProof = tryToFinish(currentAttempt.getProof(), subgoalindex);
             if (currentProof.isFinished()) {
-                //TODO: remove sysout
-                printStatistics(closed, attempts,startTime, numOfSuperFl);
                 return currentProof;
             }
             SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(currentProof.getLastGoals().getGoalAt(subgoalindex), 0);
             Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex, target, contours);
             // apply all possible rules to the current proof, creating a new proof for each application
             for(PossibleRuleApplication nextRule : applications) {
-                ProofTrace newCurrent = new ProofTrace(currentProof.getGoals(), currentProof.getInferenceApplications());
+                Proof newCurrent = new PersistentProofTrace(currentProof);
+                long start = System.nanoTime();
                 boolean superfl = nextRule.isSuperfluous(newCurrent);
-                if (superfl) numOfSuperFl++;
+                if (superfl) monitor.superfluousApplication();
                 boolean hasBeenApplied =  /*!superfl  && */nextRule.apply(newCurrent, getPrettyName());
+                monitor.addRuleApplicationTime(System.nanoTime() - start);
                 if (hasBeenApplied) {
+                    monitor.nodeCreated();
                     // save the new proof within the set of not yet considered proofs
-                    ProofAttempt newAttempt = new ProofAttempt(newCurrent, getStrategy());
-                    attempts.add(newAttempt);
+                    ProofAttempt newAttempt = createAttempt(newCurrent, monitor);
+                    if (visited.offer(newCurrent.getLastGoals(), newAttempt.getCost())) {
+                        attempts.add(newAttempt);
+                    }
                 }
             }
-            attempts.remove(currentAttempt);
-            closed++;
+            monitor.setFrontierSize(attempts.size());
+            monitor.setDistinctStates(visited.size());
         }
-        // TODO: remove sysout
-        printStatistics(closed, attempts,startTime,numOfSuperFl);
         return null;
     }
 
-    private void printStatistics(int closed, Collection<ProofAttempt> attempts, long startTime, long superfluousAttemps) {
-        long duration = System.nanoTime() - startTime;
-        DecimalFormat format = new DecimalFormat("###,###,###,###");
-        String fullNumber= format.format(closed+attempts.size());
-        String considered = format.format(closed);
-        String superfluous = format.format(superfluousAttemps);
-        System.out.println("Prover: "+getPrettyName());
-        System.out.println("Considered proof attempts: "+considered);
-        System.out.println("Complete number of created proofs: "+fullNumber);
-        System.out.println("Number of prevented rule applications: "+superfluous);
-        System.out.println("Time needed: "+ TimeUnit.NANOSECONDS.toMillis(duration)+"ms ("+ TimeUnit.NANOSECONDS.toSeconds(duration)+"s)" );
-        System.out.println("Average per Attempt: " + TimeUnit.NANOSECONDS.toMillis(duration)/closed +"ms\n");
-    }
-
     @Override
     public AutomaticProver getAutomaticProver() {
         return this;
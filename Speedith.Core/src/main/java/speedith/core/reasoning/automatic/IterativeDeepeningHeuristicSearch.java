@@ -0,0 +1,239 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
+import speedith.core.reasoning.automatic.strategies.NoStrategy;
+import speedith.core.reasoning.automatic.strategies.Strategy;
+import speedith.core.reasoning.automatic.wrappers.HeuristicsComparator;
+import speedith.core.reasoning.automatic.wrappers.ProofAttempt;
+import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
+import speedith.core.reasoning.rules.util.AutomaticUtils;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Implements an iterative deepening A* search (IDA*) with the heuristic strategy
+ * currently loaded within Speedith.
+ * <p>In contrast to {@link HeuristicSearch}, this prover does not keep a frontier
+ * of proof attempts. It performs a series of depth-first searches, each bounded
+ * by a threshold on the value (cost plus heuristic) of the proof attempts. The
+ * threshold of the next search is the lowest value that exceeded the threshold
+ * of the previous one. Hence, only the proof attempts along the current path and
+ * their siblings are kept in memory, i.e., the memory grows linearly with the
+ * length of the proof.</p>
+ * <p>To avoid searching the same goal states over and over again within a
+ * single iteration, the prover remembers at most a configurable number of goal
+ * states together with the lowest cost they have been reached with. If this
+ * ceiling is reached, further states are not recorded anymore. A ceiling of 0
+ * yields a pure IDA* search.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class IterativeDeepeningHeuristicSearch extends AutomaticProver {
+
+    private static final String proverName = "iterative_deepening_heuristic";
+
+    /**
+     * The default number of goal states remembered within a single iteration.
+     */
+    public static final int DEFAULT_MAX_CACHED_STATES = 1 << 16;
+
+    private final int maxCachedStates;
+
+    /**
+     * Creates an instance of the iterative deepening prover without a certain strategy,
+     * i.e., with a strategy that does not distinguish the costs of proof attempts.
+     */
+    public IterativeDeepeningHeuristicSearch() {
+        this(new NoStrategy());
+    }
+
+    /**
+     * Creates an instance of the iterative deepening prover with the certain strategy.
+     *
+     * @param strategy The strategy that the provers uses to order proof attempts
+     */
+    public IterativeDeepeningHeuristicSearch(Strategy strategy) {
+        this(strategy, DEFAULT_MAX_CACHED_STATES);
+    }
+
+    /**
+     * Creates an instance of the iterative deepening prover with the certain strategy.
+     *
+     * @param strategy The strategy that the provers uses to order proof attempts
+     * @param maxCachedStates The maximum number of goal states remembered within
+     *                        a single iteration (0 disables the cache)
+     */
+    public IterativeDeepeningHeuristicSearch(Strategy strategy, int maxCachedStates) {
+        super(strategy);
+        if (maxCachedStates < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maxCachedStates"));
+        }
+        this.maxCachedStates = maxCachedStates;
+    }
+
+    public int getMaxCachedStates() {
+        return maxCachedStates;
+    }
+
+    @Override
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        p = tryToFinish(p, subgoalindex);
+        if (p.isFinished()) {
+            return p;
+        }
+        // get all names of contours present in the goals. This bounds the
+        // possible proof rule applications, since contours not in this set
+        // never have to be copied or introduced.
+        Collection<String> contours = new HashSet<>();
+        for (SpiderDiagram sd : p.getLastGoals().getGoals()) {
+            contours.addAll(AutomaticUtils.collectContours(sd));
+        }
+        ProofAttempt root = createAttempt(p, monitor);
+        Iteration iteration = new Iteration(subgoalindex, contours, monitor);
+        int threshold = getF(root);
+        while (!monitor.shouldStop()) {
+            monitor.thresholdReached(threshold);
+            iteration.start(threshold);
+            Proof result = iteration.search(root);
+            if (result != null || iteration.nextThreshold == Integer.MAX_VALUE) {
+                // either a proof has been found, or no proof attempt has been cut off,
+                // i.e., the whole search space has been explored
+                return result;
+            }
+            threshold = iteration.nextThreshold;
+        }
+        return null;
+    }
+
+    private static int getF(ProofAttempt attempt) {
+        return attempt.getCost() + attempt.getHeuristic();
+    }
+
+    @Override
+    public AutomaticProver getAutomaticProver() {
+        return this;
+    }
+
+    @Override
+    public String getAutomaticProverName() {
+        return proverName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Iterative deepening A* search (IDA*) with the currently selected strategy, using memory linear in the proof length";
+    }
+
+    @Override
+    public String getPrettyName() {
+        return "Iterative Deepening A* Search";
+    }
+
+    /**
+     * The state of the depth-first searches.
+     */
+    private final class Iteration {
+
+        private final int subgoalindex;
+        private final Collection<String> contours;
+
+        /**
+         * The goal states on the current path. Proof attempts returning to one of
+         * these states are cycles and will not be expanded.
+         */
+        private final Set<Goals> path = new HashSet<>();
+
+        /**
+         * The goal states reached within the current iteration (bounded by
+         * {@link #maxCachedStates}).
+         */
+        private final TranspositionTable visited = new TranspositionTable(false, maxCachedStates);
+
+        private final SearchMonitor monitor;
+
+        private int threshold;
+        private int nextThreshold;
+
+        Iteration(int subgoalindex, Collection<String> contours, SearchMonitor monitor) {
+            this.subgoalindex = subgoalindex;
+            this.contours = contours;
+            this.monitor = monitor;
+        }
+
+        void start(int threshold) {
+            this.threshold = threshold;
+            this.nextThreshold = Integer.MAX_VALUE;
+            this.path.clear();
+            this.visited.clear();
+        }
+
+        Proof search(ProofAttempt attempt) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+            int f = getF(attempt);
+            if (f > threshold) {
+                nextThreshold = Math.min(nextThreshold, f);
+                return null;
+            }
+            if (monitor.shouldStop()) {
+                return null;
+            }
+            Goals goals = attempt.getProof().getLastGoals();
+            if (path.contains(goals) || !visited.offer(goals, attempt.getCost())) {
+                return null;
+            }
+            monitor.nodeExpanded();
+            Proof currentProof = tryToFinish(attempt.getProof(), subgoalindex);
+            if (currentProof.isFinished()) {
+                return currentProof;
+            }
+            path.add(goals);
+            monitor.setFrontierSize(path.size());
+            monitor.setDistinctStates(visited.size());
+            try {
+                for (ProofAttempt child : expand(currentProof)) {
+                    Proof result = search(child);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                return null;
+            } finally {
+                path.remove(goals);
+            }
+        }
+
+        /**
+         * Creates all successors of the given proof, ordered by their values, so that the
+         * most promising ones are searched first.
+         */
+        private List<ProofAttempt> expand(Proof currentProof) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+            SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(currentProof.getLastGoals().getGoalAt(subgoalindex), 0);
+            Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex, target, contours);
+            List<ProofAttempt> children = new ArrayList<>(applications.size());
+            // apply all possible rules to the current proof, creating a new proof for each application
+            for (PossibleRuleApplication nextRule : applications) {
+                Proof newCurrent = new PersistentProofTrace(currentProof);
+                long start = System.nanoTime();
+                if (nextRule.isSuperfluous(newCurrent)) {
+                    monitor.superfluousApplication();
+                }
+                boolean hasBeenApplied = nextRule.apply(newCurrent, getPrettyName());
+                monitor.addRuleApplicationTime(System.nanoTime() - start);
+                if (hasBeenApplied) {
+                    monitor.nodeCreated();
+                    children.add(createAttempt(newCurrent, monitor));
+                }
+            }
+            Collections.sort(children, new HeuristicsComparator());
+            return children;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
+import speedith.core.reasoning.automatic.strategies.NoStrategy;
+import speedith.core.reasoning.automatic.strategies.Strategy;
+import speedith.core.reasoning.automatic.wrappers.HeuristicsComparator;
+import speedith.core.reasoning.automatic.wrappers.ProofAttempt;
+import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
+import speedith.core.reasoning.rules.util.AutomaticUtils;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Implements a hash distributed A* search (HDA*) with the heuristic strategy
+ * currently loaded within Speedith.
+ * <p>The proof attempts are distributed among several worker threads by
+ * hashing their last goals. Each worker owns the open list and the {@link
+ * TranspositionTable closed set} of the goal states assigned to it, so that
+ * workers never share these data structures. New proof attempts are sent to
+ * their owners via lock-free queues.</p>
+ * <p>If a worker finds a proof, the search goes on as long as any queue or open
+ * list holds a proof attempt whose value (cost plus heuristic) is lower than
+ * the cost of the best proof found so far, since such an attempt could still
+ * lead to a cheaper proof. Only attempts whose values reach that cost are
+ * discarded. Hence, like {@link HeuristicSearch}, this prover returns proofs
+ * of the lowest cost whenever the heuristic of the strategy never
+ * overestimates. The search terminates as soon as no proof attempt is waiting
+ * in any queue, open list or is being expanded.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ParallelHeuristicSearch extends AutomaticProver {
+
+    private static final String proverName = "parallel_heuristic";
+
+    /**
+     * How long idle workers wait before they look for new proof attempts again.
+     */
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int threads;
+
+    /**
+     * Creates an instance of the parallel heuristic prover without a certain strategy,
+     * i.e., with a strategy that does not distinguish the costs of proof attempts. The
+     * prover uses one worker per available processor.
+     */
+    public ParallelHeuristicSearch() {
+        this(new NoStrategy());
+    }
+
+    /**
+     * Creates an instance of the parallel heuristic prover with the certain strategy. The
+     * prover uses one worker per available processor.
+     *
+     * @param strategy The strategy that the provers uses to order proof attempts
+     */
+    public ParallelHeuristicSearch(Strategy strategy) {
+        this(strategy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an instance of the parallel heuristic prover with the certain strategy.
+     *
+     * @param strategy The strategy that the provers uses to order proof attempts
+     * @param threads The number of worker threads
+     */
+    public ParallelHeuristicSearch(Strategy strategy, int threads) {
+        super(strategy);
+        if (threads <= 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "threads"));
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        p = tryToFinish(p, subgoalindex);
+        if (p.isFinished()) {
+            return p;
+        }
+        // get all names of contours present in the goals. This bounds the
+        // possible proof rule applications, since contours not in this set
+        // never have to be copied or introduced.
+        Collection<String> contours = new HashSet<>();
+        for (SpiderDiagram sd : p.getLastGoals().getGoals()) {
+            contours.addAll(AutomaticUtils.collectContours(sd));
+        }
+        return new Search(subgoalindex, contours, monitor).run(p);
+    }
+
+    @Override
+    public AutomaticProver getAutomaticProver() {
+        return this;
+    }
+
+    @Override
+    public String getAutomaticProverName() {
+        return proverName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Hash distributed A* search (HDA*) on several threads with the currently selected strategy";
+    }
+
+    @Override
+    public String getPrettyName() {
+        return "Parallel Heuristic A* Search";
+    }
+
+    private static int getF(ProofAttempt attempt) {
+        return attempt.getCost() + attempt.getHeuristic();
+    }
+
+    /**
+     * The best proof found so far, together with the cost of the proof attempt it
+     * has been found in.
+     */
+    private static final class Incumbent {
+        final Proof proof;
+        final int cost;
+
+        Incumbent(Proof proof, int cost) {
+            this.proof = proof;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * The state of a single search, shared by all workers.
+     */
+    private final class Search {
+
+        private final int subgoalindex;
+        private final Collection<String> contours;
+        private final Worker[] workers;
+
+        /**
+         * The number of proof attempts that are either waiting in an inbox, an open list,
+         * or are being expanded. The search is finished, if there are none left.
+         */
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicReference<Incumbent> incumbent = new AtomicReference<>();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final SearchMonitor monitor;
+        private volatile boolean stopped;
+
+        Search(int subgoalindex, Collection<String> contours, SearchMonitor monitor) {
+            this.subgoalindex = subgoalindex;
+            this.contours = contours;
+            this.monitor = monitor;
+            this.workers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker();
+            }
+        }
+
+        Proof run(Proof p) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+            outstanding.set(1);
+            ownerOf(p.getLastGoals()).inbox.add(createAttempt(p, monitor));
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (Worker worker : workers) {
+                    futures.add(executor.submit(worker));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                // keep the interruption visible to the caller (see AutomaticProver#extendProof)
+                Thread.currentThread().interrupt();
+                monitor.stop(SearchStatistics.Outcome.INTERRUPTED);
+            } catch (ExecutionException e) {
+                fail(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+            } finally {
+                stopped = true;
+                executor.shutdownNow();
+            }
+            long distinctStates = 0;
+            for (Worker worker : workers) {
+                distinctStates += worker.closed.size();
+            }
+            monitor.setDistinctStates(distinctStates);
+            rethrowFailure();
+            Incumbent result = incumbent.get();
+            if (result == null || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            return result.proof;
+        }
+
+        private Worker ownerOf(Goals goals) {
+            int h = goals.hashCode();
+            h ^= (h >>> 16);
+            return workers[(h & 0x7fffffff) % workers.length];
+        }
+
+        /**
+         * Checks whether the given proof attempt cannot lead to a proof cheaper than the
+         * best one found so far, i.e., whether its value is not lower than the cost of
+         * that proof.
+         */
+        private boolean isPruned(ProofAttempt attempt) {
+            Incumbent best = incumbent.get();
+            return best != null && getF(attempt) >= best.cost;
+        }
+
+        private void offerSolution(Proof proof, int cost) {
+            Incumbent candidate = new Incumbent(proof, cost);
+            while (true) {
+                Incumbent best = incumbent.get();
+                if (best != null && (best.cost < cost || (best.cost == cost && best.proof.getInferenceApplicationCount() <= proof.getInferenceApplicationCount()))) {
+                    return;
+                }
+                if (incumbent.compareAndSet(best, candidate)) {
+                    return;
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            failure.compareAndSet(null, e);
+            stopped = true;
+        }
+
+        private void rethrowFailure() throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+            Exception e = failure.get();
+            if (e == null) {
+                return;
+            }
+            if (e instanceof RuleApplicationException) {
+                throw (RuleApplicationException) e;
+            } else if (e instanceof TacticApplicationException) {
+                throw (TacticApplicationException) e;
+            } else if (e instanceof AutomaticProofException) {
+                throw (AutomaticProofException) e;
+            } else if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new AutomaticProofException("A worker of the parallel search failed", e);
+        }
+
+        /**
+         * A worker owns the open list and the closed set of all goal states hashed to it.
+         * Proof attempts for these states are sent to its inbox by the other workers.
+         */
+        private final class Worker implements Runnable {
+
+            private final ConcurrentLinkedQueue<ProofAttempt> inbox = new ConcurrentLinkedQueue<>();
+            private final PriorityQueue<ProofAttempt> open = new PriorityQueue<>(11, new HeuristicsComparator());
+            private final TranspositionTable closed = new TranspositionTable();
+
+            @Override
+            public void run() {
+                try {
+                    while (!stopped && !monitor.shouldStop()) {
+                        drainInbox();
+                        ProofAttempt attempt = open.poll();
+                        if (attempt == null) {
+                            if (outstanding.get() == 0) {
+                                return;
+                            }
+                            LockSupport.parkNanos(IDLE_WAIT_NANOS);
+                        } else if (isPruned(attempt)) {
+                            // the open list is ordered by value, so none of the remaining
+                            // attempts has a value below the cost of the best proof either
+                            outstanding.addAndGet(-1 - open.size());
+                            open.clear();
+                        } else {
+                            try {
+                                expand(attempt);
+                            } finally {
+                                monitor.setFrontierSize(outstanding.decrementAndGet());
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    fail(e);
+                }
+            }
+
+            private void drainInbox() {
+                ProofAttempt attempt;
+                while ((attempt = inbox.poll()) != null) {
+                    accept(attempt);
+                }
+            }
+
+            private void accept(ProofAttempt attempt) {
+                if (!isPruned(attempt) && closed.offer(attempt.getProof().getLastGoals(), attempt.getCost())) {
+                    open.add(attempt);
+                } else {
+                    outstanding.decrementAndGet();
+                }
+            }
+
+            private void send(ProofAttempt attempt) {
+                outstanding.incrementAndGet();
+                Worker owner = ownerOf(attempt.getProof().getLastGoals());
+                if (owner == this) {
+                    accept(attempt);
+                } else {
+                    owner.inbox.add(attempt);
+                }
+            }
+
+            private void expand(ProofAttempt attempt) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+                if (closed.isDominated(attempt.getProof().getLastGoals(), attempt.getCost())) {
+                    // the state has been reached more cheaply since this attempt was queued
+                    return;
+                }
+                monitor.nodeExpanded(getF(attempt));
+                Proof currentProof = tryToFinish(attempt.getProof(), subgoalindex);
+                if (currentProof.isFinished()) {
+                    offerSolution(currentProof, attempt.getCost());
+                    return;
+                }
+                SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(currentProof.getLastGoals().getGoalAt(subgoalindex), 0);
+                Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex, target, contours);
+                // apply all possible rules to the current proof, creating a new proof for each application
+                for (PossibleRuleApplication nextRule : applications) {
+                    Proof newCurrent = new PersistentProofTrace(currentProof);
+                    long start = System.nanoTime();
+                    if (nextRule.isSuperfluous(newCurrent)) {
+                        monitor.superfluousApplication();
+                    }
+                    boolean hasBeenApplied = nextRule.apply(newCurrent, getPrettyName());
+                    monitor.addRuleApplicationTime(System.nanoTime() - start);
+                    if (hasBeenApplied) {
+                        monitor.nodeCreated();
+                        ProofAttempt newAttempt = createAttempt(newCurrent, monitor);
+                        if (!isPruned(newAttempt)) {
+                            send(newAttempt);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
+import speedith.core.reasoning.automatic.strategies.NoStrategy;
+import speedith.core.reasoning.automatic.strategies.Strategy;
+import speedith.core.reasoning.automatic.wrappers.HeuristicsComparator;
+import speedith.core.reasoning.automatic.wrappers.ProofAttempt;
+import speedith.core.reasoning.automatic.wrappers.RulePriorityComparator;
+import speedith.core.reasoning.rules.util.AutomaticUtils;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.util.*;
+
+/**
+ * An A* search with partial expansion (PEA*). The successors of a proof attempt
+ * are created lazily: each time a proof attempt is polled from the open list,
+ * only the next batch of its possible rules is applied (in the order of their
+ * {@link RulePriorityComparator priority} within the batch). Of the successors
+ * created so far, only those whose value does not exceed the value of the proof
+ * attempt are released into the open list. The proof attempt is then put back
+ * into the open list with the lowest value any of its remaining successors can
+ * have: its own value as long as some of its rules have not been applied yet,
+ * and the lowest value of its unreleased successors afterwards. Hence, successors
+ * of proof attempts that are never reached by the search are neither created nor
+ * applied, and unpromising successors are not kept in the open list.
+ * <p>Proof attempts leave the open list in the same order of their values as in
+ * {@link HeuristicSearch}, so that this prover returns proofs of the same length,
+ * provided that the heuristic of the strategy is consistent (i.e., no successor
+ * has a lower value than its proof attempt).</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class PartialExpansionHeuristicSearch extends AutomaticProver {
+
+    private static final String proverName = "partial_expansion_heuristic";
+
+    /**
+     * The number of possible rules that are applied each time a proof attempt is polled.
+     */
+    private static final int BATCH_SIZE = Successors.DEFAULT_BATCH_SIZE;
+
+    public PartialExpansionHeuristicSearch() {
+        super(new NoStrategy());
+    }
+
+    public PartialExpansionHeuristicSearch(Strategy strategy) {
+        super(strategy);
+    }
+
+    @Override
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        p = tryToFinish(p, subgoalindex);
+        if (p.isFinished()) {
+            return p;
+        }
+        TranspositionTable visited = new TranspositionTable();
+        PriorityQueue<Node> open = new PriorityQueue<>(11, new NodeComparator());
+        ProofAttempt root = createAttempt(p, monitor);
+        open.add(new Node(root));
+        visited.offer(p.getLastGoals(), root.getCost());
+        Collection<String> contours = new HashSet<>();
+        for (SpiderDiagram sd : p.getLastGoals().getGoals()) {
+            contours.addAll(AutomaticUtils.collectContours(sd));
+        }
+        RulePriorityComparator priority = new RulePriorityComparator();
+        while (!open.isEmpty() && !monitor.shouldStop()) {
+            Node node = open.poll();
+            if (node.successors == null) {
+                // the proof attempt itself has been reached
+                if (visited.isDominated(node.attempt.getProof().getLastGoals(), node.attempt.getCost())) {
+                    continue;
+                }
+                monitor.nodeExpanded(node.value);
+                Proof currentProof = tryToFinish(node.attempt.getProof(), subgoalindex);
+                if (currentProof.isFinished()) {
+                    return currentProof;
+                }
+                node.proof = currentProof;
+                node.successors = Successors.of(currentProof, subgoalindex, contours, priority, BATCH_SIZE);
+            }
+            createNextBatch(node, visited, monitor);
+            releaseSuccessors(node, open, visited);
+            if (node.updateValue()) {
+                open.add(node);
+            }
+            monitor.setFrontierSize(open.size());
+            monitor.setDistinctStates(visited.size());
+        }
+        return null;
+    }
+
+    /**
+     * Applies the next batch of the possible rules of the given node. The created proof
+     * attempts are kept in the node, unless they reach an already known state with the
+     * same or a higher cost.
+     */
+    private void createNextBatch(Node node, TranspositionTable visited, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        for (int i = 0; i < BATCH_SIZE && node.successors.hasNext(); i++) {
+            PossibleRuleApplication nextRule = node.successors.next();
+            Proof newCurrent = new PersistentProofTrace(node.proof);
+            long start = System.nanoTime();
+            if (nextRule.isSuperfluous(newCurrent)) {
+                monitor.superfluousApplication();
+            }
+            boolean hasBeenApplied = nextRule.apply(newCurrent, getPrettyName());
+            monitor.addRuleApplicationTime(System.nanoTime() - start);
+            if (hasBeenApplied) {
+                monitor.nodeCreated();
+                ProofAttempt attempt = createAttempt(newCurrent, monitor);
+                int best = visited.getBestCost(newCurrent.getLastGoals());
+                if (best < 0 || attempt.getCost() < best) {
+                    node.unreleased.add(attempt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the successors of the given node whose values do not exceed the value of
+     * the node into the open list.
+     */
+    private static void releaseSuccessors(Node node, PriorityQueue<Node> open, TranspositionTable visited) {
+        while (!node.unreleased.isEmpty() && getValue(node.unreleased.peek()) <= node.value) {
+            ProofAttempt successor = node.unreleased.poll();
+            if (visited.offer(successor.getProof().getLastGoals(), successor.getCost())) {
+                open.add(new Node(successor));
+            }
+        }
+    }
+
+    private static int getValue(ProofAttempt attempt) {
+        return attempt.getCost() + attempt.getHeuristic();
+    }
+
+    @Override
+    public AutomaticProver getAutomaticProver() {
+        return this;
+    }
+
+    @Override
+    public String getAutomaticProverName() {
+        return proverName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "A* search with partial expansion, creating the successors of a proof only when they are needed";
+    }
+
+    @Override
+    public String getPrettyName() {
+        return "Partial Expansion A* Search";
+    }
+
+    /**
+     * An entry of the open list: a proof attempt, which is either yet to be expanded
+     * or has been partially expanded. The value of a partially expanded proof attempt
+     * is the lowest value any of its remaining successors can have.
+     */
+    private static final class Node {
+
+        private final ProofAttempt attempt;
+        private Proof proof;
+        private Successors successors;
+        private final PriorityQueue<ProofAttempt> unreleased = new PriorityQueue<>(11, new HeuristicsComparator());
+        private int value;
+
+        Node(ProofAttempt attempt) {
+            this.attempt = attempt;
+            this.value = getValue(attempt);
+        }
+
+        /**
+         * Updates the value of this partially expanded node to the lowest value of its
+         * remaining successors.
+         *
+         * @return false, if the node has no successors left.
+         */
+        boolean updateValue() {
+            if (successors.hasNext()) {
+                // the rules not applied yet may still create successors with the same value
+                return true;
+            }
+            if (unreleased.isEmpty()) {
+                return false;
+            }
+            value = getValue(unreleased.peek());
+            return true;
+        }
+    }
+
+    private static final class NodeComparator implements Comparator<Node> {
+        @Override
+        public int compare(Node n1, Node n2) {
+            return n1.value - n2.value;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package speedith.core.reasoning.automatic;
+
+/**
+ * An immutable set that is stored in a hash array mapped trie. Adding an
+ * element creates a new set, which shares all but the nodes on the path to
+ * the new element with the original set. Hence, adding an element and
+ * checking whether an element is contained both take time logarithmic (with
+ * base 32) in the size of the set, and do not copy the set.
+ * <p>Elements must not be {@code null} and their hash codes must not change.
+ * Two sets are equal if they contain equal elements. Since the shape of the
+ * trie only depends on the hash codes of its elements, equal sets are
+ * compared node by node, and nodes shared by both sets are not visited.</p>
+ *
+ * @param <E> the type of the elements.
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class PersistentHashSet<E> {
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+    private static final int MAX_SHIFT = 30;
+
+    private static final PersistentHashSet<Object> EMPTY = new PersistentHashSet<>(null, 0, 0);
+
+    private final Node root;
+    private final int size;
+    /**
+     * The sum of the hash codes of the elements.
+     */
+    private final int hash;
+
+    private PersistentHashSet(Node root, int size, int hash) {
+        this.root = root;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(Object element) {
+        return root != null && element != null && root.contains(element, hash(element), 0);
+    }
+
+    /**
+     * Returns a set that contains the elements of this set and the given element.
+     * Returns this set, if it already contains the element.
+     */
+    PersistentHashSet<E> plus(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        int hash = hash(element);
+        if (root == null) {
+            return new PersistentHashSet<>(new BitmapNode(bit(hash, 0), new Object[]{element}), 1, element.hashCode());
+        }
+        Node newRoot = root.plus(element, hash, 0);
+        return newRoot == root ? this : new PersistentHashSet<E>(newRoot, size + 1, this.hash + element.hashCode());
+    }
+
+    /**
+     * Returns a set that contains the elements of this set and the given elements.
+     */
+    PersistentHashSet<E> plusAll(Iterable<? extends E> elements) {
+        PersistentHashSet<E> result = this;
+        for (E element : elements) {
+            result = result.plus(element);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof PersistentHashSet)) {
+            return false;
+        }
+        PersistentHashSet<?> other = (PersistentHashSet<?>) obj;
+        if (size != other.size || hash != other.hash) {
+            return false;
+        }
+        return root == null || root.sameElements(other.root);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static int hash(Object element) {
+        int h = element.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    /**
+     * Creates the node that holds the two given elements (with different hash
+     * codes or different values) at the given level of the trie.
+     */
+    private static Node pair(Object first, int firstHash, Object second, int secondHash, int shift) {
+        if (shift > MAX_SHIFT) {
+            return new CollisionNode(new Object[]{first, second});
+        }
+        int firstPosition = (firstHash >>> shift) & LEVEL_MASK;
+        int secondPosition = (secondHash >>> shift) & LEVEL_MASK;
+        if (firstPosition == secondPosition) {
+            return new BitmapNode(1 << firstPosition, new Object[]{pair(first, firstHash, second, secondHash, shift + BITS_PER_LEVEL)});
+        }
+        // the entries are ordered by their positions
+        return new BitmapNode((1 << firstPosition) | (1 << secondPosition), firstPosition < secondPosition
+                ? new Object[]{first, second}
+                : new Object[]{second, first});
+    }
+
+    private abstract static class Node {
+
+        abstract boolean contains(Object element, int hash, int shift);
+
+        /**
+         * Returns the node with the given element added, or this node, if it
+         * already contains the element.
+         */
+        abstract Node plus(Object element, int hash, int shift);
+
+        /**
+         * Checks whether the given node (at the same level of the trie) holds the
+         * same elements as this node.
+         */
+        abstract boolean sameElements(Node other);
+    }
+
+    /**
+     * An inner node of the trie. Its entries are either elements or child
+     * nodes, one for each bit set in the bitmap.
+     */
+    private static final class BitmapNode extends Node {
+
+        private final int bitmap;
+        private final Object[] entries;
+
+        BitmapNode(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return false;
+            }
+            Object entry = entries[index(bit)];
+            if (entry instanceof Node) {
+                return ((Node) entry).contains(element, hash, shift + BITS_PER_LEVEL);
+            }
+            return element.equals(entry);
+        }
+
+        @Override
+        Node plus(Object element, int hash, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newEntries = new Object[entries.length + 1];
+                System.arraycopy(entries, 0, newEntries, 0, index);
+                newEntries[index] = element;
+                System.arraycopy(entries, index, newEntries, index + 1, entries.length - index);
+                return new BitmapNode(bitmap | bit, newEntries);
+            }
+            Object entry = entries[index];
+            Object newEntry;
+            if (entry instanceof Node) {
+                newEntry = ((Node) entry).plus(element, hash, shift + BITS_PER_LEVEL);
+            } else if (element.equals(entry)) {
+                return this;
+            } else {
+                newEntry = pair(entry, hash(entry), element, hash, shift + BITS_PER_LEVEL);
+            }
+            if (newEntry == entry) {
+                return this;
+            }
+            Object[] newEntries = entries.clone();
+            newEntries[index] = newEntry;
+            return new BitmapNode(bitmap, newEntries);
+        }
+
+        @Override
+        boolean sameElements(Node other) {
+            if (other == this) {
+                return true;
+            }
+            if (!(other instanceof BitmapNode) || ((BitmapNode) other).bitmap != bitmap) {
+                return false;
+            }
+            Object[] otherEntries = ((BitmapNode) other).entries;
+            for (int i = 0; i < entries.length; i++) {
+                Object entry = entries[i];
+                Object otherEntry = otherEntries[i];
+                if (entry instanceof Node) {
+                    if (!(otherEntry instanceof Node) || !((Node) entry).sameElements((Node) otherEntry)) {
+                        return false;
+                    }
+                } else if (otherEntry instanceof Node || !entry.equals(otherEntry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    /**
+     * A leaf that holds elements whose hash codes are equal.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object[] elements;
+
+        CollisionNode(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            for (Object candidate : elements) {
+                if (element.equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Node plus(Object element, int hash, int shift) {
+            if (contains(element, hash, shift)) {
+                return this;
+            }
+            Object[] newElements = new Object[elements.length + 1];
+            System.arraycopy(elements, 0, newElements, 0, elements.length);
+            newElements[elements.length] = element;
+            return new CollisionNode(newElements);
+        }
+
+        @Override
+        boolean sameElements(Node other) {
+            if (other == this) {
+                return true;
+            }
+            // the elements of a collision node are kept in the order of their insertion
+            if (!(other instanceof CollisionNode) || ((CollisionNode) other).elements.length != elements.length) {
+                return false;
+            }
+            for (Object element : elements) {
+                if (!other.contains(element, 0, 0)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.automatic.strategies.NoStrategy;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+import speedith.core.reasoning.automatic.strategies.Strategy;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Runs several combinations of automatic provers and strategies concurrently
+ * on the same goal. It is usually not known in advance which combination will
+ * find a proof quickly, so this prover races all of them: as soon as one of
+ * them finds a proof, the others get a grace period to find a shorter one.
+ * Afterwards, all remaining searches are cancelled and the shortest proof is
+ * returned. The configuration that found it can be queried via {@link
+ * #getLastWinner()}.
+ * <p>The strategy of this prover itself (see {@link #setStrategy(Strategy)})
+ * is not used, since every configuration brings its own strategy.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class PortfolioProver extends AutomaticProver {
+
+    private static final String proverName = "portfolio";
+
+    /**
+     * The default grace period (in milliseconds) the other searches get to find
+     * a shorter proof, once the first proof has been found.
+     */
+    public static final long DEFAULT_GRACE_PERIOD_MILLIS = 0;
+
+    /**
+     * How often the racing searches are checked for results and the limits of the
+     * search are checked.
+     */
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    /**
+     * How long the cancelled searches are waited for to stop, before their
+     * statistics are collected.
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1000;
+
+    private final List<Configuration> configurations;
+
+    private final long gracePeriodNanos;
+
+    private volatile Configuration lastWinner;
+
+    /**
+     * Creates a portfolio prover that races A* search with each of the known strategies
+     * and the tactical A* search with the basic heuristic strategy.
+     */
+    public PortfolioProver() {
+        this(createDefaultConfigurations(), DEFAULT_GRACE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a portfolio prover that races the given configurations.
+     *
+     * @param configurations the prover and strategy combinations to run.
+     * @param gracePeriod the time the other searches get to find a shorter proof, once
+     *                    the first proof has been found.
+     * @param unit the unit of the grace period.
+     */
+    public PortfolioProver(Collection<Configuration> configurations, long gracePeriod, TimeUnit unit) {
+        super(new NoStrategy());
+        if (configurations == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "configurations"));
+        }
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "configurations"));
+        }
+        if (gracePeriod < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "gracePeriod"));
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "unit"));
+        }
+        this.configurations = Collections.unmodifiableList(new ArrayList<>(configurations));
+        this.gracePeriodNanos = unit.toNanos(gracePeriod);
+    }
+
+    private static List<Configuration> createDefaultConfigurations() {
+        List<Configuration> result = new ArrayList<>();
+        for (String strategy : new TreeSet<>(Strategies.getKnownStrategies())) {
+            result.add(new Configuration("heuristic", strategy));
+        }
+        result.add(new Configuration("tactical_heuristic", "basic_strategy"));
+        return result;
+    }
+
+    public List<Configuration> getConfigurations() {
+        return configurations;
+    }
+
+    public long getGracePeriodNanos() {
+        return gracePeriodNanos;
+    }
+
+    /**
+     * Returns the configuration that found the proof returned by the last
+     * search of this prover, or null, if the last search did not find a proof.
+     */
+    public Configuration getLastWinner() {
+        return lastWinner;
+    }
+
+    @Override
+    protected Proof prove(Proof p, int subgoalindex, SearchMonitor monitor) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        lastWinner = null;
+        p = tryToFinish(p, subgoalindex);
+        if (p.isFinished()) {
+            return p;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(configurations.size());
+        CompletionService<Entry> completion = new ExecutorCompletionService<>(executor);
+        List<SearchMonitor> monitors = new ArrayList<>();
+        try {
+            for (Configuration configuration : configurations) {
+                SearchMonitor entryMonitor = new SearchMonitor(configuration.toString(), monitor.getLimits(), Collections.<SearchListener>emptyList(), Long.MAX_VALUE);
+                monitors.add(entryMonitor);
+                completion.submit(new Entry(configuration, configuration.createProver(), new PersistentProofTrace(p), subgoalindex, entryMonitor));
+            }
+            Entry best = null;
+            Exception failure = null;
+            long graceDeadline = 0;
+            int running = configurations.size();
+            while (running > 0 && !monitor.shouldStop()) {
+                if (best != null && System.nanoTime() - graceDeadline >= 0) {
+                    break;
+                }
+                Future<Entry> done = completion.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    continue;
+                }
+                running--;
+                Entry entry;
+                try {
+                    entry = done.get();
+                } catch (ExecutionException e) {
+                    // one failing configuration does not stop the others
+                    if (failure == null) {
+                        failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                    continue;
+                }
+                if (entry.isFinished() && (best == null || entry.getLength() < best.getLength())) {
+                    if (best == null) {
+                        graceDeadline = System.nanoTime() + gracePeriodNanos;
+                    }
+                    best = entry;
+                }
+            }
+            if (best != null) {
+                lastWinner = best.configuration;
+                return best.result;
+            }
+            if (failure != null && !monitor.shouldStop()) {
+                rethrow(failure);
+            }
+            return null;
+        } catch (InterruptedException e) {
+            // keep the interruption visible to the caller (see AutomaticProver#extendProof)
+            Thread.currentThread().interrupt();
+            monitor.stop(SearchStatistics.Outcome.INTERRUPTED);
+            return null;
+        } finally {
+            // the remaining searches stop at their next check of their monitors
+            executor.shutdownNow();
+            for (SearchMonitor entryMonitor : monitors) {
+                entryMonitor.stop(SearchStatistics.Outcome.INTERRUPTED);
+            }
+            awaitTermination(executor);
+            for (SearchMonitor entryMonitor : monitors) {
+                monitor.absorb(entryMonitor.snapshot(entryMonitor.getStopReason()));
+            }
+        }
+    }
+
+    /**
+     * Waits for the cancelled searches to stop, so that their statistics do not
+     * change while they are collected.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(Exception e) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        if (e instanceof RuleApplicationException) {
+            throw (RuleApplicationException) e;
+        } else if (e instanceof TacticApplicationException) {
+            throw (TacticApplicationException) e;
+        } else if (e instanceof AutomaticProofException) {
+            throw (AutomaticProofException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw new AutomaticProofException("A prover of the portfolio failed", e);
+    }
+
+    @Override
+    public AutomaticProver getAutomaticProver() {
+        return this;
+    }
+
+    @Override
+    public String getAutomaticProverName() {
+        return proverName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs several provers and strategies in parallel and returns the first (or shortest) proof found";
+    }
+
+    @Override
+    public String getPrettyName() {
+        return "Portfolio";
+    }
+
+    /**
+     * A combination of an automatic prover and a strategy, given by their names
+     * (see {@link AutomaticProvers} and {@link Strategies}).
+     */
+    public static final class Configuration {
+
+        private final String proverName;
+        private final String strategyName;
+
+        public Configuration(String proverName, String strategyName) {
+            if (AutomaticProvers.getProvider(proverName) == null) {
+                throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "proverName"));
+            }
+            if (Strategies.getProvider(strategyName) == null) {
+                throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "strategyName"));
+            }
+            if (proverName.equals(PortfolioProver.proverName)) {
+                throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "proverName"));
+            }
+            this.proverName = proverName;
+            this.strategyName = strategyName;
+        }
+
+        public String getProverName() {
+            return proverName;
+        }
+
+        public String getStrategyName() {
+            return strategyName;
+        }
+
+        /**
+         * Creates a new instance of the prover of this configuration, so that concurrent
+         * searches do not share any state.
+         */
+        AutomaticProver createProver() throws AutomaticProofException {
+            AutomaticProver prover = AutomaticProvers.createAutomaticProver(proverName);
+            prover.setStrategy(Strategies.getStrategy(strategyName));
+            return prover;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Configuration)) return false;
+            Configuration that = (Configuration) o;
+            return proverName.equals(that.proverName) && strategyName.equals(that.strategyName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * proverName.hashCode() + strategyName.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return proverName + "/" + strategyName;
+        }
+    }
+
+    /**
+     * A single search of the portfolio.
+     */
+    private static final class Entry implements Callable<Entry> {
+
+        private final Configuration configuration;
+        private final AutomaticProver prover;
+        private final Proof initial;
+        private final int subgoalindex;
+        private final SearchMonitor monitor;
+        private Proof result;
+
+        Entry(Configuration configuration, AutomaticProver prover, Proof initial, int subgoalindex, SearchMonitor monitor) {
+            this.configuration = configuration;
+            this.prover = prover;
+            this.initial = initial;
+            this.subgoalindex = subgoalindex;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Entry call() throws Exception {
+            result = prover.prove(initial, subgoalindex, monitor);
+            return this;
+        }
+
+        boolean isFinished() {
+            return result != null && result.isFinished();
+        }
+
+        int getLength() {
+            return result.getInferenceApplicationCount();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package speedith.core.reasoning.automatic;
+
+import java.util.concurrent.TimeUnit;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * The budget of a single proof search. An automatic prover stops searching as
+ * soon as one of the limits is exceeded (see {@link SearchMonitor#shouldStop()}),
+ * and reports the exceeded limit as the {@link SearchStatistics#getOutcome()
+ * outcome} of the search.
+ * <p>Instances of this class are immutable. A limit of 0 means that the
+ * respective resource is not limited.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class SearchLimits {
+
+    /**
+     * Limits that do not restrict the search at all. The search can then only be
+     * cancelled by interrupting the searching thread.
+     */
+    public static final SearchLimits NONE = new SearchLimits(0, 0, 0, 0);
+
+    private final long maxExpandedNodes;
+    private final long maxFrontierSize;
+    private final long timeoutNanos;
+    private final long maxHeapBytes;
+
+    private SearchLimits(long maxExpandedNodes, long maxFrontierSize, long timeoutNanos, long maxHeapBytes) {
+        this.maxExpandedNodes = maxExpandedNodes;
+        this.maxFrontierSize = maxFrontierSize;
+        this.timeoutNanos = timeoutNanos;
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    /**
+     * Returns a copy of these limits that stops the search after the given number
+     * of proof attempts has been expanded.
+     *
+     * @param maxExpandedNodes the maximum number of expanded proof attempts (0 for no limit).
+     * @return the new limits.
+     */
+    public SearchLimits withMaxExpandedNodes(long maxExpandedNodes) {
+        return new SearchLimits(checkLimit(maxExpandedNodes, "maxExpandedNodes"), maxFrontierSize, timeoutNanos, maxHeapBytes);
+    }
+
+    /**
+     * Returns a copy of these limits that stops the search as soon as the number
+     * of proof attempts waiting to be expanded exceeds the given number.
+     *
+     * @param maxFrontierSize the maximum size of the frontier (0 for no limit).
+     * @return the new limits.
+     */
+    public SearchLimits withMaxFrontierSize(long maxFrontierSize) {
+        return new SearchLimits(maxExpandedNodes, checkLimit(maxFrontierSize, "maxFrontierSize"), timeoutNanos, maxHeapBytes);
+    }
+
+    /**
+     * Returns a copy of these limits that stops the search after the given
+     * wall-clock time has elapsed since its start.
+     *
+     * @param timeout the maximum duration of the search (0 for no limit).
+     * @param unit the unit of the timeout.
+     * @return the new limits.
+     */
+    public SearchLimits withTimeout(long timeout, TimeUnit unit) {
+        if (unit == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "unit"));
+        }
+        return new SearchLimits(maxExpandedNodes, maxFrontierSize, unit.toNanos(checkLimit(timeout, "timeout")), maxHeapBytes);
+    }
+
+    /**
+     * Returns a copy of these limits that stops the search as soon as the used
+     * heap of the JVM exceeds the given number of bytes.
+     *
+     * @param maxHeapBytes the maximum used heap in bytes (0 for no limit).
+     * @return the new limits.
+     */
+    public SearchLimits withMaxHeapBytes(long maxHeapBytes) {
+        return new SearchLimits(maxExpandedNodes, maxFrontierSize, timeoutNanos, checkLimit(maxHeapBytes, "maxHeapBytes"));
+    }
+
+    public long getMaxExpandedNodes() {
+        return maxExpandedNodes;
+    }
+
+    public long getMaxFrontierSize() {
+        return maxFrontierSize;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /**
+     * Returns true, if none of the resources is limited.
+     */
+    public boolean isUnlimited() {
+        return maxExpandedNodes == 0 && maxFrontierSize == 0 && timeoutNanos == 0 && maxHeapBytes == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchLimits)) return false;
+        SearchLimits that = (SearchLimits) o;
+        return maxExpandedNodes == that.maxExpandedNodes && maxFrontierSize == that.maxFrontierSize
+                && timeoutNanos == that.timeoutNanos && maxHeapBytes == that.maxHeapBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (maxExpandedNodes ^ (maxExpandedNodes >>> 32));
+        result = 31 * result + (int) (maxFrontierSize ^ (maxFrontierSize >>> 32));
+        result = 31 * result + (int) (timeoutNanos ^ (timeoutNanos >>> 32));
+        result = 31 * result + (int) (maxHeapBytes ^ (maxHeapBytes >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{maxExpandedNodes=" + maxExpandedNodes + ", maxFrontierSize=" + maxFrontierSize
+                + ", timeout=" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms, maxHeapBytes=" + maxHeapBytes + "}";
+    }
+
+    private static long checkLimit(long limit, String name) {
+        if (limit < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", name));
+        }
+        return limit;
+    }
+}
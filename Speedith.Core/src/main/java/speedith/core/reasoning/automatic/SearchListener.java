@@ -0,0 +1,28 @@
+package speedith.core.reasoning.automatic;
+
+/**
+ * Receives the progress of the proof searches of an {@link AutomaticProver}
+ * (see {@link AutomaticProver#addSearchListener(SearchListener)}).
+ * <p>The methods are called by the searching thread (or one of the worker
+ * threads of a parallel prover), so implementations must be thread-safe and
+ * should return quickly.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public interface SearchListener {
+
+    /**
+     * Called regularly during a search (see {@link AutomaticProver#setProgressInterval(long,
+     * java.util.concurrent.TimeUnit)}).
+     *
+     * @param statistics the statistics of the search so far.
+     */
+    void searchProgressed(SearchStatistics statistics);
+
+    /**
+     * Called once, when a search has ended.
+     *
+     * @param statistics the final statistics of the search.
+     */
+    void searchFinished(SearchStatistics statistics);
+}
@@ -0,0 +1,247 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.reasoning.automatic.SearchStatistics.Outcome;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps track of a single proof search of an {@link AutomaticProver}. The
+ * prover reports its progress (expanded and created proof attempts, the size of
+ * its frontier, etc.) to the monitor and regularly asks it whether the search
+ * has to be stopped, either because the searching thread has been interrupted
+ * or because one of the {@link SearchLimits limits} of the search has been
+ * exceeded. The monitor passes snapshots of the statistics to the
+ * {@link SearchListener search listeners} of the prover in regular intervals.
+ * <p>Instances of this class are thread-safe, so that the workers of a parallel
+ * prover can share a single monitor.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class SearchMonitor {
+
+    private final String proverName;
+    private final SearchLimits limits;
+    private final List<SearchListener> listeners;
+    private final long progressIntervalNanos;
+    private final long startNanos;
+
+    private final AtomicLong expandedNodes = new AtomicLong();
+    private final AtomicLong createdNodes = new AtomicLong();
+    private final AtomicLong superfluousApplications = new AtomicLong();
+    private final AtomicLong ruleApplicationNanos = new AtomicLong();
+    private final AtomicLong heuristicNanos = new AtomicLong();
+    private final AtomicLong peakFrontierSize = new AtomicLong();
+    private volatile long frontierSize;
+    private volatile long distinctStates;
+    private final AtomicInteger bestF = new AtomicInteger(Integer.MAX_VALUE);
+
+    private final AtomicReference<Outcome> stopReason = new AtomicReference<>();
+    private final AtomicLong nextProgressReport;
+
+    SearchMonitor(String proverName, SearchLimits limits, List<SearchListener> listeners, long progressIntervalNanos) {
+        this.proverName = proverName;
+        this.limits = limits;
+        this.listeners = listeners;
+        this.progressIntervalNanos = progressIntervalNanos;
+        this.startNanos = System.nanoTime();
+        this.nextProgressReport = new AtomicLong(startNanos + progressIntervalNanos);
+    }
+
+    /**
+     * Checks whether the search has to be stopped. This is the case if the current
+     * thread has been interrupted or one of the limits of the search has been
+     * exceeded. Once this method returned true, it will always return true.
+     * <p>This method also notifies the listeners about the progress of the search,
+     * if the progress interval has elapsed since the last notification.</p>
+     *
+     * @return true, if the search has to be stopped.
+     */
+    public boolean shouldStop() {
+        if (stopReason.get() != null) {
+            return true;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return stop(Outcome.INTERRUPTED);
+        }
+        if (limits.getMaxExpandedNodes() > 0 && expandedNodes.get() >= limits.getMaxExpandedNodes()) {
+            return stop(Outcome.EXPANSION_LIMIT);
+        }
+        if (limits.getMaxFrontierSize() > 0 && frontierSize > limits.getMaxFrontierSize()) {
+            return stop(Outcome.FRONTIER_LIMIT);
+        }
+        long now = System.nanoTime();
+        if (limits.getTimeoutNanos() > 0 && now - startNanos >= limits.getTimeoutNanos()) {
+            return stop(Outcome.TIMEOUT);
+        }
+        if (limits.getMaxHeapBytes() > 0) {
+            Runtime runtime = Runtime.getRuntime();
+            if (runtime.totalMemory() - runtime.freeMemory() > limits.getMaxHeapBytes()) {
+                return stop(Outcome.HEAP_LIMIT);
+            }
+        }
+        long next = nextProgressReport.get();
+        if (!listeners.isEmpty() && now >= next && nextProgressReport.compareAndSet(next, now + progressIntervalNanos)) {
+            SearchStatistics statistics = snapshot(Outcome.RUNNING);
+            for (SearchListener listener : listeners) {
+                listener.searchProgressed(statistics);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops the search with the given reason, unless it has already been stopped.
+     *
+     * @param reason the reason why the search has to be stopped.
+     * @return always true.
+     */
+    public boolean stop(Outcome reason) {
+        stopReason.compareAndSet(null, reason);
+        return true;
+    }
+
+    /**
+     * Returns the reason why the search has been stopped, or null if it has not been
+     * stopped (yet).
+     */
+    public Outcome getStopReason() {
+        return stopReason.get();
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Records that a proof attempt with the given value (cost plus heuristic) is
+     * being expanded. The lowest such value is reported as the
+     * {@link SearchStatistics#getBestF() best value} of the search.
+     *
+     * @param f the value of the expanded proof attempt.
+     */
+    public void nodeExpanded(int f) {
+        expandedNodes.incrementAndGet();
+        lowerBestF(f);
+    }
+
+    /**
+     * Records that a proof attempt is being expanded by a search that does not expand
+     * proof attempts in the order of their values, and reports its progress with
+     * {@link #thresholdReached(int)} instead.
+     */
+    public void nodeExpanded() {
+        expandedNodes.incrementAndGet();
+    }
+
+    /**
+     * Records that an iterative deepening search has started an iteration with the
+     * given threshold. The threshold of the last iteration is reported as the
+     * {@link SearchStatistics#getBestF() best value} of the search.
+     *
+     * @param threshold the threshold on the values of the proof attempts.
+     */
+    public void thresholdReached(int threshold) {
+        bestF.set(threshold);
+    }
+
+    /**
+     * Records that a rule application has created a new proof attempt.
+     */
+    public void nodeCreated() {
+        createdNodes.incrementAndGet();
+    }
+
+    /**
+     * Records that a rule application has been recognised as superfluous.
+     */
+    public void superfluousApplication() {
+        superfluousApplications.incrementAndGet();
+    }
+
+    /**
+     * Records the current number of proof attempts waiting to be expanded.
+     */
+    public void setFrontierSize(long frontierSize) {
+        this.frontierSize = frontierSize;
+        long peak = peakFrontierSize.get();
+        while (frontierSize > peak && !peakFrontierSize.compareAndSet(peak, frontierSize)) {
+            peak = peakFrontierSize.get();
+        }
+    }
+
+    /**
+     * Records the current number of distinct goal states reached by the search.
+     */
+    public void setDistinctStates(long distinctStates) {
+        this.distinctStates = distinctStates;
+    }
+
+    public void addRuleApplicationTime(long nanos) {
+        ruleApplicationNanos.addAndGet(nanos);
+    }
+
+    public void addHeuristicTime(long nanos) {
+        heuristicNanos.addAndGet(nanos);
+    }
+
+    public long getExpandedNodes() {
+        return expandedNodes.get();
+    }
+
+    /**
+     * Adds the counters and timings of a sub-search (e.g., of one of the provers
+     * run by a {@link PortfolioProver}) to the ones of this monitor. The statistics
+     * should be taken after the sub-search has ended, so that they do not change
+     * any more.
+     *
+     * @param other the final statistics of the sub-search.
+     */
+    void absorb(SearchStatistics other) {
+        expandedNodes.addAndGet(other.getExpandedNodes());
+        createdNodes.addAndGet(other.getCreatedNodes());
+        superfluousApplications.addAndGet(other.getSuperfluousApplications());
+        ruleApplicationNanos.addAndGet(other.getRuleApplicationNanos());
+        heuristicNanos.addAndGet(other.getHeuristicNanos());
+        frontierSize += other.getFrontierSize();
+        // the sub-searches run concurrently, so their frontiers may have peaked at the same time
+        peakFrontierSize.addAndGet(other.getPeakFrontierSize());
+        distinctStates += other.getDistinctStates();
+        lowerBestF(other.getBestF());
+    }
+
+    private void lowerBestF(int f) {
+        int current = bestF.get();
+        while (f < current && !bestF.compareAndSet(current, f)) {
+            current = bestF.get();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the current statistics of the search.
+     *
+     * @param outcome the outcome to record in the snapshot.
+     * @return the snapshot.
+     */
+    public SearchStatistics snapshot(Outcome outcome) {
+        return new SearchStatistics(proverName, outcome, expandedNodes.get(), createdNodes.get(),
+                superfluousApplications.get(), frontierSize, peakFrontierSize.get(), distinctStates, bestF.get(),
+                System.nanoTime() - startNanos, ruleApplicationNanos.get(), heuristicNanos.get());
+    }
+
+    /**
+     * Takes the final snapshot of the statistics and passes it to the listeners.
+     *
+     * @param outcome the outcome of the search.
+     * @return the final statistics.
+     */
+    SearchStatistics finish(Outcome outcome) {
+        SearchStatistics statistics = snapshot(outcome);
+        for (SearchListener listener : listeners) {
+            listener.searchFinished(statistics);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,39 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.reasoning.Proof;
+
+/**
+ * The result of a proof search within {@link SearchLimits limits}: the proof
+ * (if one has been found) together with the statistics of the search.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class SearchResult {
+
+    private final Proof proof;
+    private final SearchStatistics statistics;
+
+    public SearchResult(Proof proof, SearchStatistics statistics) {
+        this.proof = proof;
+        this.statistics = statistics;
+    }
+
+    /**
+     * The proof returned by the search. May be null or unfinished, if the
+     * search did not succeed (see {@link #isProofFound()}).
+     */
+    public Proof getProof() {
+        return proof;
+    }
+
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns true, if the search has found a finished proof.
+     */
+    public boolean isProofFound() {
+        return proof != null && proof.isFinished();
+    }
+}
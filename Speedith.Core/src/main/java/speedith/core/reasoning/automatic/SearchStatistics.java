@@ -0,0 +1,196 @@
+package speedith.core.reasoning.automatic;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the statistics of a proof search. Snapshots are taken regularly
+ * during the search and passed to the {@link SearchListener search listeners}
+ * of the prover, and a final snapshot is returned together with the result of
+ * the search (see {@link SearchResult}).
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class SearchStatistics {
+
+    /**
+     * The reason why a search has ended.
+     */
+    public enum Outcome {
+        /**
+         * The search is still running (only reported in progress snapshots).
+         */
+        RUNNING,
+        /**
+         * A finished proof has been found.
+         */
+        PROOF_FOUND,
+        /**
+         * All proof attempts have been considered without finding a proof.
+         */
+        SEARCH_EXHAUSTED,
+        /**
+         * The searching thread has been interrupted.
+         */
+        INTERRUPTED,
+        /**
+         * The maximal number of expanded proof attempts has been reached.
+         */
+        EXPANSION_LIMIT,
+        /**
+         * The frontier of the search has grown beyond its maximal size.
+         */
+        FRONTIER_LIMIT,
+        /**
+         * The search has run out of time.
+         */
+        TIMEOUT,
+        /**
+         * The used heap has grown beyond its maximal size.
+         */
+        HEAP_LIMIT
+    }
+
+    private final String proverName;
+    private final Outcome outcome;
+    private final long expandedNodes;
+    private final long createdNodes;
+    private final long superfluousApplications;
+    private final long frontierSize;
+    private final long peakFrontierSize;
+    private final long distinctStates;
+    private final int bestF;
+    private final long elapsedNanos;
+    private final long ruleApplicationNanos;
+    private final long heuristicNanos;
+
+    SearchStatistics(String proverName, Outcome outcome, long expandedNodes, long createdNodes,
+                     long superfluousApplications, long frontierSize, long peakFrontierSize, long distinctStates, int bestF,
+                     long elapsedNanos, long ruleApplicationNanos, long heuristicNanos) {
+        this.proverName = proverName;
+        this.outcome = outcome;
+        this.expandedNodes = expandedNodes;
+        this.createdNodes = createdNodes;
+        this.superfluousApplications = superfluousApplications;
+        this.frontierSize = frontierSize;
+        this.peakFrontierSize = peakFrontierSize;
+        this.distinctStates = distinctStates;
+        this.bestF = bestF;
+        this.elapsedNanos = elapsedNanos;
+        this.ruleApplicationNanos = ruleApplicationNanos;
+        this.heuristicNanos = heuristicNanos;
+    }
+
+    /**
+     * The pretty name of the prover that performed the search.
+     */
+    public String getProverName() {
+        return proverName;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * The number of proof attempts that have been expanded, i.e., for which all
+     * possible rule applications have been created.
+     */
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * The number of proof attempts that have been created by rule applications.
+     */
+    public long getCreatedNodes() {
+        return createdNodes;
+    }
+
+    /**
+     * The number of rule applications that have been recognised as superfluous.
+     */
+    public long getSuperfluousApplications() {
+        return superfluousApplications;
+    }
+
+    /**
+     * The number of proof attempts waiting to be expanded when the snapshot was taken.
+     */
+    public long getFrontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * The largest number of proof attempts that have been waiting to be expanded at
+     * the same time until the snapshot was taken.
+     */
+    public long getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    /**
+     * The number of distinct goal states reached so far, or 0 if the prover does not
+     * keep track of them.
+     */
+    public long getDistinctStates() {
+        return distinctStates;
+    }
+
+    /**
+     * The best value (cost plus heuristic) reached by the search: the lowest value of
+     * the expanded proof attempts, or, for an iterative deepening search, the
+     * threshold of its last iteration. Is {@link Integer#MAX_VALUE} if no proof
+     * attempt has been expanded yet.
+     */
+    public int getBestF() {
+        return bestF;
+    }
+
+    /**
+     * The average number of proof attempts created per expanded proof attempt.
+     */
+    public double getBranchingFactor() {
+        return expandedNodes == 0 ? 0 : (double) createdNodes / expandedNodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * The time spent in applying rules (including the check for superfluous
+     * applications) in nanoseconds.
+     */
+    public long getRuleApplicationNanos() {
+        return ruleApplicationNanos;
+    }
+
+    /**
+     * The time spent in evaluating the cost and heuristic functions of the
+     * strategy in nanoseconds.
+     */
+    public long getHeuristicNanos() {
+        return heuristicNanos;
+    }
+
+    @Override
+    public String toString() {
+        DecimalFormat format = new DecimalFormat("###,###,###,###");
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        return "Prover: " + proverName + "\n"
+                + "Outcome: " + outcome + "\n"
+                + "Considered proof attempts: " + format.format(expandedNodes) + "\n"
+                + "Complete number of created proofs: " + format.format(createdNodes) + "\n"
+                + "Number of prevented rule applications: " + format.format(superfluousApplications) + "\n"
+                + "Frontier size: " + format.format(frontierSize) + "\n"
+                + "Peak frontier size: " + format.format(peakFrontierSize) + "\n"
+                + "Distinct goal states: " + format.format(distinctStates) + "\n"
+                + "Branching factor: " + new DecimalFormat("0.00").format(getBranchingFactor()) + "\n"
+                + "Time needed: " + millis + "ms (" + TimeUnit.NANOSECONDS.toSeconds(elapsedNanos) + "s)\n"
+                + "Time in rule applications: " + TimeUnit.NANOSECONDS.toMillis(ruleApplicationNanos) + "ms\n"
+                + "Time in heuristics: " + TimeUnit.NANOSECONDS.toMillis(heuristicNanos) + "ms\n"
+                + "Average per Attempt: " + millis / Math.max(1, expandedNodes) + "ms";
+    }
+}
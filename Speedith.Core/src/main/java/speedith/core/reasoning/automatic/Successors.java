@@ -0,0 +1,149 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
+import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
+import speedith.core.reasoning.rules.util.AutomaticUtils;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Enumerates the possible rule applications to a subgoal of a proof on demand.
+ * In contrast to {@link AutomaticUtils#createAllPossibleRuleApplications(int,
+ * SpiderDiagramOccurrence, Collection)}, the candidates are only created when
+ * they are requested, so that a search that does not need all successors of a
+ * proof (e.g., {@link PartialExpansionHeuristicSearch}) neither creates nor
+ * applies the remaining ones.
+ * <p>Optionally, the candidates can be ordered by a cheap priority that does
+ * not require the rules to be applied. In that case, the candidates are still
+ * created on demand, but in batches of a fixed size, and each batch is ordered
+ * by the priority. Hence, the priority orders the candidates within a batch,
+ * while the batches come in the order in which they are generated.</p>
+ * <p>Instances of this class are not thread-safe.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class Successors implements Iterator<PossibleRuleApplication<? extends RuleArg>> {
+
+    /**
+     * The default number of candidates that are created and ordered at once, if
+     * the candidates are ordered by a priority.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final Iterator<PossibleRuleApplication<? extends RuleArg>> candidates;
+    private final Comparator<? super PossibleRuleApplication<? extends RuleArg>> priority;
+    private final int batchSize;
+    private final ArrayList<PossibleRuleApplication<? extends RuleArg>> batch;
+    private int batchPosition;
+
+    private Successors(Iterator<PossibleRuleApplication<? extends RuleArg>> candidates,
+                       Comparator<? super PossibleRuleApplication<? extends RuleArg>> priority,
+                       int batchSize) {
+        this.candidates = candidates;
+        this.priority = priority;
+        this.batchSize = batchSize;
+        this.batch = priority == null ? null : new ArrayList<PossibleRuleApplication<? extends RuleArg>>(batchSize);
+    }
+
+    /**
+     * Lazily enumerates the possible rule applications to the given subgoal of the
+     * last goals of p, in the order in which they are generated.
+     *
+     * @param p the proof whose last goals shall be extended.
+     * @param subgoalindex the index of the subgoal to which the rules shall be applied.
+     * @param contours the contours that may be introduced into the subgoal.
+     * @return the possible rule applications.
+     */
+    public static Successors of(Proof p, int subgoalindex, Collection<String> contours) {
+        if (p == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "p"));
+        }
+        SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(p.getLastGoals().getGoalAt(subgoalindex), 0);
+        return new Successors(AutomaticUtils.createPossibleRuleApplications(subgoalindex, target, contours), null, 0);
+    }
+
+    /**
+     * Lazily enumerates the possible rule applications to the given subgoal of the
+     * last goals of p in batches of {@link #DEFAULT_BATCH_SIZE}, each of which is
+     * ordered by the given priority.
+     *
+     * @param p the proof whose last goals shall be extended.
+     * @param subgoalindex the index of the subgoal to which the rules shall be applied.
+     * @param contours the contours that may be introduced into the subgoal.
+     * @param priority the order in which the candidates of a batch are returned.
+     * @return the possible rule applications.
+     */
+    public static Successors of(Proof p, int subgoalindex, Collection<String> contours, Comparator<? super PossibleRuleApplication<? extends RuleArg>> priority) {
+        return of(p, subgoalindex, contours, priority, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Lazily enumerates the possible rule applications to the given subgoal of the
+     * last goals of p in batches of the given size, each of which is ordered by the
+     * given priority. Candidates of a batch with the same priority keep the order in
+     * which they are generated.
+     *
+     * @param p the proof whose last goals shall be extended.
+     * @param subgoalindex the index of the subgoal to which the rules shall be applied.
+     * @param contours the contours that may be introduced into the subgoal.
+     * @param priority the order in which the candidates of a batch are returned.
+     * @param batchSize the number of candidates that are created and ordered at once.
+     * @return the possible rule applications.
+     */
+    public static Successors of(Proof p, int subgoalindex, Collection<String> contours, Comparator<? super PossibleRuleApplication<? extends RuleArg>> priority, int batchSize) {
+        if (priority == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "priority"));
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "batchSize"));
+        }
+        return inBatches(of(p, subgoalindex, contours).candidates, priority, batchSize);
+    }
+
+    /**
+     * Orders the given candidates in batches of the given size.
+     */
+    static Successors inBatches(Iterator<PossibleRuleApplication<? extends RuleArg>> candidates,
+                                Comparator<? super PossibleRuleApplication<? extends RuleArg>> priority,
+                                int batchSize) {
+        return new Successors(candidates, priority, batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return (batch != null && batchPosition < batch.size()) || candidates.hasNext();
+    }
+
+    @Override
+    public PossibleRuleApplication<? extends RuleArg> next() {
+        if (batch == null) {
+            return candidates.next();
+        }
+        if (batchPosition >= batch.size()) {
+            fillBatch();
+        }
+        return batch.get(batchPosition++);
+    }
+
+    private void fillBatch() {
+        batch.clear();
+        batchPosition = 0;
+        while (batch.size() < batchSize && candidates.hasNext()) {
+            batch.add(candidates.next());
+        }
+        if (batch.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        // the sort is stable, so equally important candidates keep their order
+        Collections.sort(batch, priority);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
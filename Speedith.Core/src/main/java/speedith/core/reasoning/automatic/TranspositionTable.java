@@ -0,0 +1,263 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A transposition table (closed set) for the automatic provers. It records
+ * every goal state that has been reached during a proof search together with
+ * the lowest cost with which it has been reached so far. Proof attempts that
+ * reach a known state with an equal or higher cost are dominated and can be
+ * dropped, while attempts reaching a known state more cheaply re-open it.
+ *
+ * The table is keyed on the last goals of a proof, since two proofs that
+ * arrive at the same goals (e.g., by applying the same rules in a different
+ * order) have the same possible continuations. Goals are hashed by their
+ * {@link Goals#getFingerprint() fingerprints}, and goals with equal
+ * fingerprints are only taken as the same state if they are also equal
+ * structurally, so that a fingerprint collision never prunes an unexplored
+ * state. Optionally, goals are hashed by their {@link
+ * Goals#getCanonicalFingerprint() canonical fingerprints} and compared up to
+ * the renaming of spiders instead, so that states which only differ in the
+ * names of their spiders are visited once.
+ *
+ * Provers that skip superfluous rule applications (see {@link AppliedRules})
+ * cannot treat two proofs reaching the same goals alike, since the rules
+ * applied on the way decide which continuations are skipped. They record
+ * states together with the {@link AppliedRules index of the applied rules},
+ * so that only proofs with the same goals and the same applied rules are
+ * identified.
+ *
+ * The costs recorded in the table are the costs of the strategy of the prover
+ * (see {@link speedith.core.reasoning.automatic.wrappers.ProofAttempt#getCost()}).
+ * The table can be bounded: once it holds the given number of states, further
+ * states are not recorded anymore (but known states may still be re-opened).
+ *
+ * Instances of this class are not thread-safe.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class TranspositionTable {
+
+    private final Map<StateKey, Integer> bestCosts;
+
+    private final boolean identifyEquivalentGoals;
+
+    private final int capacity;
+
+    private long hits;
+
+    private long misses;
+
+    private long reopened;
+
+    public TranspositionTable() {
+        this(false);
+    }
+
+    /**
+     * @param identifyEquivalentGoals whether goals that are equal up to the
+     * renaming of spiders shall be treated as the same state.
+     */
+    public TranspositionTable(boolean identifyEquivalentGoals) {
+        this(identifyEquivalentGoals, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param identifyEquivalentGoals whether goals that are equal up to the
+     * renaming of spiders shall be treated as the same state.
+     * @param capacity the maximum number of states recorded in this table.
+     */
+    public TranspositionTable(boolean identifyEquivalentGoals, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "capacity"));
+        }
+        bestCosts = new HashMap<>();
+        this.identifyEquivalentGoals = identifyEquivalentGoals;
+        this.capacity = capacity;
+    }
+
+    public boolean isIdentifyingEquivalentGoals() {
+        return identifyEquivalentGoals;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Records that the given goals have been reached with the given cost.
+     *
+     * @param goals the reached state
+     * @param cost the cost with which the state has been reached
+     * @return true, if the state has not been seen before or has now been reached
+     * with a lower cost. False, if the state is known with the same or a lower cost.
+     */
+    public boolean offer(Goals goals, int cost) {
+        return offer(keyOf(goals, null), cost);
+    }
+
+    /**
+     * Records that the given goals have been reached with the given cost after
+     * applying the given rules.
+     *
+     * @param goals the reached state
+     * @param appliedRules the index of the rules applied to reach the state
+     * @param cost the cost with which the state has been reached
+     * @return true, if the state has not been seen before after the same rules or has
+     * now been reached with a lower cost. False, if the state is known after the same
+     * rules with the same or a lower cost.
+     */
+    public boolean offer(Goals goals, AppliedRules appliedRules, int cost) {
+        if (appliedRules == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "appliedRules"));
+        }
+        return offer(keyOf(goals, appliedRules), cost);
+    }
+
+    private boolean offer(StateKey key, int cost) {
+        Integer best = bestCosts.get(key);
+        if (best == null) {
+            misses++;
+            if (bestCosts.size() < capacity) {
+                bestCosts.put(key, cost);
+            }
+            return true;
+        }
+        hits++;
+        if (cost < best) {
+            reopened++;
+            bestCosts.put(key, cost);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a state that has been queued with the given cost has been reached
+     * more cheaply in the meantime. Such queued attempts need not be expanded anymore.
+     *
+     * @param goals the state to check
+     * @param cost the cost with which the state has been queued
+     * @return true, if the state is known with a strictly lower cost.
+     */
+    public boolean isDominated(Goals goals, int cost) {
+        Integer best = bestCosts.get(keyOf(goals, null));
+        return best != null && best < cost;
+    }
+
+    public boolean contains(Goals goals) {
+        return bestCosts.containsKey(keyOf(goals, null));
+    }
+
+    /**
+     * Returns the lowest cost with which the given goals have been reached, or
+     * -1, if the goals have not been recorded yet.
+     */
+    public int getBestCost(Goals goals) {
+        Integer best = bestCosts.get(keyOf(goals, null));
+        return best == null ? -1 : best;
+    }
+
+    /**
+     * The number of distinct states recorded in this table.
+     */
+    public int size() {
+        return bestCosts.size();
+    }
+
+    /**
+     * The number of offered states that were already contained in this table.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * The number of offered states that were not yet contained in this table.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * The number of known states that were reached again with a lower cost.
+     */
+    public long getReopened() {
+        return reopened;
+    }
+
+    private StateKey keyOf(Goals goals, AppliedRules appliedRules) {
+        return new StateKey(goals, appliedRules, identifyEquivalentGoals);
+    }
+
+    public void clear() {
+        bestCosts.clear();
+        hits = 0;
+        misses = 0;
+        reopened = 0;
+    }
+
+    /**
+     * The goals of a state, hashed by their (canonical) fingerprint and
+     * confirmed structurally, optionally together with the rules applied to
+     * reach them.
+     */
+    private static final class StateKey {
+
+        private final Goals goals;
+        private final AppliedRules appliedRules;
+        private final long fingerprint;
+        private final boolean canonical;
+
+        StateKey(Goals goals, AppliedRules appliedRules, boolean canonical) {
+            this.goals = goals;
+            this.appliedRules = appliedRules;
+            this.canonical = canonical;
+            this.fingerprint = canonical ? goals.getCanonicalFingerprint() : goals.getFingerprint();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = (int) (fingerprint ^ (fingerprint >>> 32));
+            return appliedRules == null ? hash : 31 * hash + appliedRules.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof StateKey)) {
+                return false;
+            }
+            StateKey other = (StateKey) obj;
+            if (fingerprint != other.fingerprint || canonical != other.canonical) {
+                return false;
+            }
+            if (appliedRules == null ? other.appliedRules != null : !appliedRules.equals(other.appliedRules)) {
+                return false;
+            }
+            return canonical ? haveSameCanonicalForm(goals, other.goals) : goals.equals(other.goals);
+        }
+
+        private static boolean haveSameCanonicalForm(Goals a, Goals b) {
+            if (a.getGoalsCount() != b.getGoalsCount()) {
+                return false;
+            }
+            for (int i = 0; i < a.getGoalsCount(); i++) {
+                SpiderDiagram goalA = a.getGoalAt(i);
+                SpiderDiagram goalB = b.getGoalAt(i);
+                if (goalA == null ? goalB != null : goalB == null || !goalA.hasSameCanonicalForm(goalB)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
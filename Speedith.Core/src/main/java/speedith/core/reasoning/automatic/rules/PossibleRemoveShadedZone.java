@@ -1,12 +1,11 @@
 package speedith.core.reasoning.automatic.rules;
 
-import speedith.core.lang.SpiderDiagram;
 import speedith.core.lang.Zone;
 import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.MultipleRuleArgs;
 import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.automatic.AppliedRules;
 import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
-import speedith.core.reasoning.rules.IntroShadedZone;
 import speedith.core.reasoning.rules.RemoveShadedZone;
 
 /**
@@ -36,33 +35,13 @@ public class PossibleRemoveShadedZone extends PossibleRuleApplication<MultipleRu
 
     @Override
     public boolean isSuperfluous(Proof p) {
-        for (int i = 0; i < p.getInferenceApplicationCount(); i++) {
-            InferenceApplication application = p.getInferenceApplicationAt(i);
-            if (application.getInference() instanceof IntroShadedZone) {
-                MultipleRuleArgs args = (MultipleRuleArgs) application.getRuleArguments();
-                MultipleRuleArgs thisArgs =  getArg();
-                // application is superfluous if :
-                // a) both rules work on the same subgoal
-                // b) the result of the already applied rule is the premiss of the current rule
-                // c) both refer to the same zones
-
-                if (args.getRuleArgs().containsAll(thisArgs.getRuleArgs())) {
-                    ZoneArg arg = (ZoneArg) args.get(0);
-                    SpiderDiagram result = p.getGoalsAt(i + 1).getGoalAt(arg.getSubgoalIndex()).getSubDiagramAt(arg.getSubDiagramIndex());
-                    return getTarget().getDiagram().equals(result);
-                }
-            } else if (application.getInference() instanceof RemoveShadedZone) {
-                MultipleRuleArgs args = (MultipleRuleArgs) application.getRuleArguments();
-                MultipleRuleArgs thisArgs =  getArg();
-                // application is superfluous if the other rule
-                // a) works on the same subgoal
-                // b) and on the same subdiagram and
-                // c) both refer to the same zone
-                if (args.getRuleArgs().containsAll(thisArgs.getRuleArgs())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        AppliedRules applied = AppliedRules.of(p);
+        // application is superfluous if it reverts an application of introduce shaded zone, i.e., if
+        // a) both rules work on the same subgoal
+        // b) the result of the already applied rule is the premiss of the current rule
+        // c) both refer to the same zones
+        // or if the same zone has already been removed from the same subdiagram
+        return applied.containsResult(AppliedRules.Kind.INTRO_SHADED_ZONE, getArg(), getTarget().getDiagram())
+                || applied.containsApplication(AppliedRules.Kind.REMOVE_SHADED_ZONE, getArg());
     }
 }
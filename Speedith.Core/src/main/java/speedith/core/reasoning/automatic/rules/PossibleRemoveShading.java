@@ -2,9 +2,9 @@ package speedith.core.reasoning.automatic.rules;
 
 import speedith.core.lang.Zone;
 import speedith.core.reasoning.Proof;
-import speedith.core.reasoning.InferenceApplication;
 import speedith.core.reasoning.args.MultipleRuleArgs;
 import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.automatic.AppliedRules;
 import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
 import speedith.core.reasoning.rules.RemoveShading;
 
@@ -36,19 +36,10 @@ public class PossibleRemoveShading extends PossibleRuleApplication<MultipleRuleA
 
     @Override
     public boolean isSuperfluous(Proof p) {
-        for (InferenceApplication application : p.getInferenceApplications()) {
-            if (application.getInference() instanceof RemoveShading) {
-                MultipleRuleArgs args = (MultipleRuleArgs) application.getRuleArguments();
-                MultipleRuleArgs thisArgs =  getArg();
-                // application is superfluous if the other rule
-                // a) works on the same subgoal
-                // b) and on the same subdiagram and
-                // c) both refer to the same zone
-                if (args.getRuleArgs().containsAll(thisArgs.getRuleArgs())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // application is superfluous if remove shading has already been applied
+        // a) to the same subgoal
+        // b) and on the same subdiagram and
+        // c) to the same zone
+        return AppliedRules.of(p).containsApplication(AppliedRules.Kind.REMOVE_SHADING, getArg());
     }
 }
@@ -15,7 +15,7 @@ public class CompoundSpiderDiagramOccurrence extends SpiderDiagramOccurrence {
 
     private ArrayList<SpiderDiagramOccurrence> operands;
 
-    private boolean hashInvalid = true;
+    private volatile boolean hashInvalid = true;
     private int hash;
 
 
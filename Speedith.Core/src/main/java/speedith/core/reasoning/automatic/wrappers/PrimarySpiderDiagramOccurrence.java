@@ -13,7 +13,7 @@ import java.util.SortedSet;
  */
 public class PrimarySpiderDiagramOccurrence extends SpiderDiagramOccurrence {
 
-    private boolean hashInvalid = true;
+    private volatile boolean hashInvalid = true;
     private int hash;
 
 
@@ -33,6 +33,10 @@ public class PrimarySpiderDiagramOccurrence extends SpiderDiagramOccurrence {
         return ((PrimarySpiderDiagram) getDiagram()).getPresentZones();
     }
 
+    public boolean isZonePresent(Zone zone) {
+        return ((PrimarySpiderDiagram) getDiagram()).isZonePresent(zone);
+    }
+
     public SortedMap<String, Region> getHabitats() {return ((PrimarySpiderDiagram) getDiagram()).getHabitats(); }
 
     public PrimarySpiderDiagram getPrimaryDiagram() { return (PrimarySpiderDiagram) getDiagram();}
@@ -0,0 +1,46 @@
+package speedith.core.reasoning.automatic.wrappers;
+
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.*;
+
+import java.util.Comparator;
+
+/**
+ * Orders possible rule applications by a fixed priority of their rules, without
+ * applying them. Rules that simplify the structure of a goal (conjunction
+ * elimination and combining) come first, followed by the rules that transfer
+ * information between the operands of a conjunction, the rules removing
+ * information and finally the rules introducing new zones and contours, which
+ * usually lead to the largest number of successors.
+ *
+ * Note: this comparator imposes orderings that are inconsistent with equals.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class RulePriorityComparator implements Comparator<PossibleRuleApplication<? extends RuleArg>> {
+
+    @Override
+    public int compare(PossibleRuleApplication<? extends RuleArg> a1, PossibleRuleApplication<? extends RuleArg> a2) {
+        return getPriority(a1) - getPriority(a2);
+    }
+
+    /**
+     * The priority of the given rule application. Lower values are applied first.
+     */
+    public static int getPriority(PossibleRuleApplication<? extends RuleArg> application) {
+        if (application instanceof PossibleConjunction || application instanceof PossibleCombining) {
+            return 0;
+        } else if (application instanceof PossibleCopyContour || application instanceof PossibleCopyShading) {
+            return 1;
+        } else if (application instanceof PossibleRemoveShading || application instanceof PossibleRemoveShadedZone) {
+            return 2;
+        } else if (application instanceof PossibleRemoveContour) {
+            return 3;
+        } else if (application instanceof PossibleIntroShadedZone) {
+            return 4;
+        } else if (application instanceof PossibleIntroduceContour) {
+            return 5;
+        }
+        return 6;
+    }
+}
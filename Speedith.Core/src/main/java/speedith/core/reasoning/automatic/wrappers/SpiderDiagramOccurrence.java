@@ -17,7 +17,7 @@ import java.util.ArrayList;
  */
 public abstract class SpiderDiagramOccurrence {
 
-    private SpiderDiagram diagram;
+    private final SpiderDiagram diagram;
 
     /**
      * The occurrence index of diagram.
@@ -25,7 +25,7 @@ public abstract class SpiderDiagramOccurrence {
      * to refer to different occurrences of a single diagram within the same compound
      * diagram.
      */
-    private int occurrenceIndex;
+    private final int occurrenceIndex;
 
     public SpiderDiagramOccurrence(SpiderDiagram diagram, int occurrenceIndex) {
         this.diagram = diagram;
@@ -34,9 +34,23 @@ public abstract class SpiderDiagramOccurrence {
 
     /**
      * Creates a SpiderDiagramOccurrence for the given SpiderDiagram sd to reliably
-     * refer to the different occurrences of diagrams in sd
+     * refer to the different occurrences of diagrams in sd.
+     * The occurrences are immutable, so the occurrence of a whole compound diagram
+     * (i.e., with occurrence index 0) is cached on the diagram and shared by all
+     * callers (see {@link CompoundSpiderDiagram#getOccurrence()}).
      */
     public static SpiderDiagramOccurrence wrapDiagram (SpiderDiagram sd, final int occurrenceIndex) {
+        if (occurrenceIndex == 0 && sd instanceof CompoundSpiderDiagram) {
+            return ((CompoundSpiderDiagram) sd).getOccurrence();
+        }
+        return createOccurrence(sd, occurrenceIndex);
+    }
+
+    /**
+     * Creates a new SpiderDiagramOccurrence for the given SpiderDiagram sd, without
+     * sharing it with other callers.
+     */
+    public static SpiderDiagramOccurrence createOccurrence(SpiderDiagram sd, final int occurrenceIndex) {
         if (sd instanceof PrimarySpiderDiagram) {
             return new PrimarySpiderDiagramOccurrence(sd, occurrenceIndex);
         }
@@ -44,9 +58,9 @@ public abstract class SpiderDiagramOccurrence {
             int newIndex = occurrenceIndex+1;
             ArrayList<SpiderDiagramOccurrence> operands = new ArrayList<>();
             for(SpiderDiagram op: ((CompoundSpiderDiagram) sd).getOperands()) {
-                SpiderDiagramOccurrence opWrap = wrapDiagram(op, newIndex);
+                SpiderDiagramOccurrence opWrap = createOccurrence(op, newIndex);
                 operands.add(opWrap);
-                newIndex+= opWrap.getDiagram().getSubDiagramCount();
+                newIndex+= op.getSubDiagramCount();
             }
             return new CompoundSpiderDiagramOccurrence(sd, occurrenceIndex, operands);
 
@@ -0,0 +1,196 @@
+package speedith.core.reasoning.io;
+
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A read-only proof contained in a {@link ProofArchive}. The goals and inference
+ * applications of the proof are decoded on demand, while the {@link
+ * #getClutterScoreAt(int) clutter scores} of its goals are stored in the archive
+ * and can be read without decoding any goals. Archives contain flattened proofs,
+ * hence {@link #createFlattenedProof()} returns the proof itself.
+ * <p>Since the proof is decoded lazily, the methods of the {@link Proof}
+ * interface throw an {@link IllegalStateException} if the archive turns out to be
+ * corrupt.</p>
+ * <p>Instances of this class are not thread-safe.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ArchivedProof implements Proof {
+
+    private static final long serialVersionUID = 3186205542713946220L;
+
+    private final String name;
+    private final transient ByteBuffer clutterScores;
+    private final transient ByteBuffer data;
+    private transient BinaryProofReader reader;
+
+    ArchivedProof(String name, ByteBuffer clutterScores, ByteBuffer data) {
+        this.name = name;
+        this.clutterScores = clutterScores;
+        this.data = data;
+    }
+
+    /**
+     * Returns the name under which this proof has been added to the archive.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@link ProofAnalyser#clutterScore(Goals) clutter score} of the
+     * goals at the given index, or -1 if these goals are empty.
+     *
+     * @param index the index of the goals.
+     * @return the clutter score of the goals at the given index.
+     */
+    public int getClutterScoreAt(int index) {
+        if (index < 0 || index >= getGoalsCount()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return clutterScores.getInt(4 * index);
+    }
+
+    /**
+     * Returns the {@link Goals#getFingerprint() fingerprint} of the goals at the
+     * given index, without decoding the goals (see {@link
+     * BinaryProofReader#getGoalsFingerprintAt(int)}).
+     *
+     * @param index the index of the goals.
+     * @return the fingerprint of the goals at the given index.
+     * @throws ProofFormatException if the archive is corrupt.
+     */
+    public long getGoalsFingerprintAt(int index) throws ProofFormatException {
+        return reader().getGoalsFingerprintAt(index);
+    }
+
+    /**
+     * Decodes the whole proof.
+     *
+     * @return a modifiable copy of this proof.
+     * @throws ProofFormatException if the archive is corrupt.
+     */
+    public Proof toProof() throws ProofFormatException {
+        return reader().readProof();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<TRuleArg, ? extends InferenceApplicationResult> rule, RuleApplicationType type, String typeSpecifier) {
+        throw new UnsupportedOperationException("Archived proofs cannot be changed.");
+    }
+
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<? super TRuleArg, ? extends InferenceApplicationResult> rule, TRuleArg args, RuleApplicationType type, String typeSpecifier) {
+        throw new UnsupportedOperationException("Archived proofs cannot be changed.");
+    }
+
+    @Override
+    public Goals getGoalsAt(int index) {
+        try {
+            return reader().getGoalsAt(index);
+        } catch (ProofFormatException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getGoalsCount() {
+        return clutterScores.limit() / 4;
+    }
+
+    @Override
+    public Goals getInitialGoals() {
+        return getGoalsCount() == 0 ? null : getGoalsAt(0);
+    }
+
+    @Override
+    public Goals getLastGoals() {
+        return getGoalsCount() == 0 ? null : getGoalsAt(getGoalsCount() - 1);
+    }
+
+    @Override
+    public List<Goals> getGoals() {
+        return new AbstractList<Goals>() {
+            @Override
+            public Goals get(int index) {
+                return getGoalsAt(index);
+            }
+
+            @Override
+            public int size() {
+                return getGoalsCount();
+            }
+        };
+    }
+
+    @Override
+    public List<InferenceApplication> getInferenceApplications() {
+        return new AbstractList<InferenceApplication>() {
+            @Override
+            public InferenceApplication get(int index) {
+                return getInferenceApplicationAt(index);
+            }
+
+            @Override
+            public int size() {
+                return getInferenceApplicationCount();
+            }
+        };
+    }
+
+    @Override
+    public InferenceApplication getInferenceApplicationAt(int index) {
+        try {
+            return reader().getInferenceApplicationAt(index);
+        } catch (ProofFormatException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getInferenceApplicationCount() {
+        return Math.max(0, getGoalsCount() - 1);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return getGoalsCount() == 0 || getClutterScoreAt(getGoalsCount() - 1) == ProofArchive.EMPTY_GOALS;
+    }
+
+    @Override
+    public boolean undoStep() {
+        throw new UnsupportedOperationException("Archived proofs cannot be changed.");
+    }
+
+    @Override
+    public Proof createFlattenedProof() {
+        return this;
+    }
+    //</editor-fold>
+
+    private BinaryProofReader reader() throws ProofFormatException {
+        if (reader == null) {
+            reader = new BinaryProofReader(data);
+        }
+        return reader;
+    }
+
+    /**
+     * Archived proofs are serialised as decoded copies, since the archive they are
+     * contained in cannot be serialised.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        try {
+            return toProof();
+        } catch (ProofFormatException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
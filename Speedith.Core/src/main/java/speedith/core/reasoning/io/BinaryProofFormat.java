@@ -0,0 +1,86 @@
+package speedith.core.reasoning.io;
+
+/**
+ * The constants of the binary proof format written by {@link BinaryProofWriter}
+ * and read by {@link BinaryProofReader}.
+ * <p>A file consists of a fixed-size header followed by four sections:</p>
+ * <ol>
+ *     <li>the <span style="font-style:italic;">header</span>: the magic bytes
+ *     {@code SPRF}, the version and flags of the format (two bytes each), the
+ *     number of goals of the proof and the offsets of the following sections
+ *     (four bytes each),</li>
+ *     <li>the <span style="font-style:italic;">string table</span>: all contour
+ *     and spider names, operators, inference names etc. of the proof,</li>
+ *     <li>the <span style="font-style:italic;">zone table</span>: all zones of
+ *     the proof, given by the string ids of their in- and out-contours,</li>
+ *     <li>the <span style="font-style:italic;">diagram table</span>: an offset
+ *     index followed by the distinct (sub-)diagrams of the proof. Compound
+ *     diagrams refer to their operands by id, and primary diagrams are either
+ *     given completely or as a delta against a primary diagram of the previous
+ *     step,</li>
+ *     <li>the <span style="font-style:italic;">steps</span>: an offset index
+ *     followed by one record per goals of the proof, containing the {@link
+ *     speedith.core.reasoning.Goals#getFingerprint() fingerprint} of the goals
+ *     (eight bytes, since version 2), the ids of the goal diagrams and the
+ *     inference application that led to these goals.</li>
+ * </ol>
+ * <p>The offset indices allow to read single goals or inference applications
+ * without decoding the whole proof. All offsets are absolute. Apart from the
+ * header and the indices, numbers are stored as variable-length integers.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class BinaryProofFormat {
+
+    static final byte[] MAGIC = {'S', 'P', 'R', 'F'};
+
+    /**
+     * The version written by {@link BinaryProofWriter}. Readers reject files of
+     * a newer version.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The first version whose steps start with the fingerprint of their goals.
+     */
+    static final int FINGERPRINT_VERSION = 2;
+
+    static final int HEADER_SIZE = 28;
+
+    static final int KIND_NULL = 0;
+    static final int KIND_PRIMARY = 1;
+    static final int KIND_PRIMARY_DELTA = 2;
+    static final int KIND_COMPOUND = 3;
+
+    static final int PRESENT_EXPLICIT = 0;
+    static final int PRESENT_IMPLICIT = 1;
+
+    static final int ARG_NULL = 0;
+    static final int ARG_SUBGOAL = 1;
+    static final int ARG_SUB_DIAGRAM = 2;
+    static final int ARG_CONTOUR = 3;
+    static final int ARG_SPIDER = 4;
+    static final int ARG_SPIDER_REGION = 5;
+    static final int ARG_SPIDER_ZONE = 6;
+    static final int ARG_ZONE = 7;
+    static final int ARG_MULTIPLE = 8;
+
+    private BinaryProofFormat() {
+    }
+
+    /**
+     * Checks whether the given bytes start with the magic bytes of the binary
+     * proof format.
+     */
+    static boolean hasMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
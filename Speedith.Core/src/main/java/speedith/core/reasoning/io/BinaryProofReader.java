@@ -0,0 +1,437 @@
+package speedith.core.reasoning.io;
+
+import speedith.core.lang.*;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.tactical.Tactics;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.io.BinaryProofFormat.*;
+
+/**
+ * Reads proofs in the {@link BinaryProofFormat binary proof format}. Single goals
+ * and inference applications can be read without decoding the whole proof (see
+ * {@link #getGoalsAt(int)} and {@link #getInferenceApplicationAt(int)}); the
+ * diagrams and inferences decoded so far are cached.
+ * <p>Instances of this class are not thread-safe.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class BinaryProofReader {
+
+    private final ByteBuffer buffer;
+    private final int version;
+    private final int goalsCount;
+    private final String[] strings;
+    private final Zone[] zones;
+    private final int diagramsOffset;
+    private final SpiderDiagram[] diagrams;
+    private final int stepsOffset;
+    private final Map<String, Inference<?, ?>> inferences = new HashMap<>();
+
+    /**
+     * Creates a reader of the proof contained in the given buffer, starting at its
+     * current position. The string and zone tables of the proof are read
+     * immediately, everything else on demand.
+     *
+     * @param buffer the buffer containing the proof. It must not be changed while
+     *               the reader is used, but its position and limit may.
+     * @throws ProofFormatException if the buffer does not contain a proof of a
+     * supported version.
+     */
+    public BinaryProofReader(ByteBuffer buffer) throws ProofFormatException {
+        if (buffer == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "buffer"));
+        }
+        this.buffer = buffer.slice();
+        try {
+            ByteBuffer header = this.buffer.duplicate();
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!BinaryProofFormat.hasMagic(magic)) {
+                throw new ProofFormatException("The data does not contain a proof in the binary proof format.");
+            }
+            version = header.getShort() & 0xFFFF;
+            if (version > VERSION) {
+                throw new ProofFormatException("The proof has been written with a newer version (" + version + ") of the binary proof format.");
+            }
+            header.getShort();
+            int storedGoalsCount = header.getInt();
+            int stringsOffset = header.getInt();
+            int zonesOffset = header.getInt();
+            diagramsOffset = header.getInt();
+            stepsOffset = header.getInt();
+            // every step has an entry of four bytes in the step table
+            goalsCount = checkCount(storedGoalsCount, at(stepsOffset).remaining() / 4);
+
+            ByteBuffer in = at(stringsOffset);
+            strings = new String[readCount(in)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readCount(in)];
+                in.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            in = at(zonesOffset);
+            zones = new Zone[readCount(in)];
+            for (int i = 0; i < zones.length; i++) {
+                List<String> inContours = readStrings(in);
+                zones[i] = new Zone(inContours, readStrings(in));
+            }
+            in = at(diagramsOffset);
+            // every diagram has an entry of four bytes in the diagram table
+            diagrams = new SpiderDiagram[checkCount(in.getInt(), in.remaining() / 4)];
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw corrupt(e);
+        }
+    }
+
+    /**
+     * The version of the binary proof format in which the proof has been written.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * The number of goals of the proof, including the initial goals.
+     */
+    public int getGoalsCount() {
+        return goalsCount;
+    }
+
+    public int getInferenceApplicationCount() {
+        return Math.max(0, goalsCount - 1);
+    }
+
+    /**
+     * Reads the goals at the given index (see {@link Proof#getGoalsAt(int)}).
+     */
+    public Goals getGoalsAt(int index) throws ProofFormatException {
+        if (index < 0 || index >= goalsCount) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        try {
+            return readGoals(step(index));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw corrupt(e);
+        }
+    }
+
+    /**
+     * Returns the {@link Goals#getFingerprint() fingerprint} of the goals at the
+     * given index. For proofs of version 2 or later, the stored fingerprint is
+     * returned without reading the goals, so that it can identify the goals
+     * cheaply (e.g., in caches). For earlier versions, the goals are read and
+     * their fingerprint is computed.
+     */
+    public long getGoalsFingerprintAt(int index) throws ProofFormatException {
+        if (index < 0 || index >= goalsCount) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        if (version < FINGERPRINT_VERSION) {
+            return getGoalsAt(index).getFingerprint();
+        }
+        try {
+            return step(index).getLong();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw corrupt(e);
+        }
+    }
+
+    /**
+     * Reads the inference application at the given index (see {@link
+     * Proof#getInferenceApplicationAt(int)}).
+     */
+    public InferenceApplication getInferenceApplicationAt(int index) throws ProofFormatException {
+        if (index < 0 || index >= getInferenceApplicationCount()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        try {
+            ByteBuffer in = step(index + 1);
+            // skip the goals that resulted from the application
+            if (version >= FINGERPRINT_VERSION) {
+                in.getLong();
+            }
+            for (int i = readVarInt(in); i > 0; i--) {
+                readVarInt(in);
+            }
+            return readApplication(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw corrupt(e);
+        }
+    }
+
+    /**
+     * Reads the whole proof.
+     */
+    public Proof readProof() throws ProofFormatException {
+        List<Goals> goals = new ArrayList<>(goalsCount);
+        List<InferenceApplication> applications = new ArrayList<>(getInferenceApplicationCount());
+        try {
+            for (int i = 0; i < goalsCount; i++) {
+                ByteBuffer in = step(i);
+                goals.add(readGoals(in));
+                if (i > 0) {
+                    applications.add(readApplication(in));
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw corrupt(e);
+        }
+        return new ProofTrace(goals, applications);
+    }
+
+    private ByteBuffer at(int offset) {
+        ByteBuffer result = buffer.duplicate();
+        result.position(offset);
+        return result;
+    }
+
+    private ByteBuffer step(int index) {
+        return at(buffer.getInt(stepsOffset + 4 * index));
+    }
+
+    private Goals readGoals(ByteBuffer in) throws ProofFormatException {
+        boolean hasFingerprint = version >= FINGERPRINT_VERSION;
+        long fingerprint = hasFingerprint ? in.getLong() : 0;
+        ArrayList<SpiderDiagram> diagrams = new ArrayList<>();
+        for (int i = readVarInt(in); i > 0; i--) {
+            diagrams.add(diagram(readVarInt(in)));
+        }
+        Goals goals = Goals.createGoalsFrom(diagrams);
+        if (hasFingerprint && goals.getFingerprint() != fingerprint) {
+            throw new ProofFormatException("The goals do not match their stored fingerprint.");
+        }
+        return goals;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Diagrams">
+    private SpiderDiagram diagram(int id) throws ProofFormatException {
+        SpiderDiagram diagram = diagrams[id];
+        if (diagram == null) {
+            diagram = readDiagram(id, at(buffer.getInt(diagramsOffset + 4 + 4 * id)));
+            diagrams[id] = diagram;
+        }
+        return diagram;
+    }
+
+    private SpiderDiagram readDiagram(int id, ByteBuffer in) throws ProofFormatException {
+        int kind = readVarInt(in);
+        switch (kind) {
+            case KIND_NULL:
+                return SpiderDiagrams.createNullSD();
+            case KIND_COMPOUND:
+                Operator operator = Operator.fromString(string(readVarInt(in)));
+                ArrayList<SpiderDiagram> operands = new ArrayList<>();
+                for (int i = readVarInt(in); i > 0; i--) {
+                    operands.add(diagram(earlier(id, readVarInt(in))));
+                }
+                return SpiderDiagrams.createCompoundSD(operator, operands, false);
+            case KIND_PRIMARY:
+                return readPrimary(in);
+            case KIND_PRIMARY_DELTA:
+                SpiderDiagram base = diagram(earlier(id, readVarInt(in)));
+                if (!(base instanceof PrimarySpiderDiagram)) {
+                    throw new ProofFormatException("The base of a primary diagram delta is not a primary diagram.");
+                }
+                return readPrimaryDelta(in, (PrimarySpiderDiagram) base);
+            default:
+                throw new ProofFormatException("Unknown kind of diagram: " + kind);
+        }
+    }
+
+    /**
+     * Diagrams refer only to diagrams written before them, which rules out cycles.
+     */
+    private static int earlier(int id, int referenced) throws ProofFormatException {
+        if (referenced >= id) {
+            throw new ProofFormatException("A diagram refers to a diagram that has not been written before it.");
+        }
+        return referenced;
+    }
+
+    private PrimarySpiderDiagram readPrimary(ByteBuffer in) throws ProofFormatException {
+        TreeSet<String> spiders = new TreeSet<>(readStrings(in));
+        TreeMap<String, Region> habitats = new TreeMap<>();
+        for (int i = readVarInt(in); i > 0; i--) {
+            String spider = string(readVarInt(in));
+            habitats.put(spider, new Region(readZones(in)));
+        }
+        TreeSet<Zone> shadedZones = new TreeSet<>(readZones(in));
+        int present = readVarInt(in);
+        if (present == PRESENT_IMPLICIT) {
+            List<String> contours = readStrings(in);
+            return SpiderDiagrams.createNormalisedPrimarySD(spiders, habitats, shadedZones, contours, readZones(in));
+        } else if (present == PRESENT_EXPLICIT) {
+            return SpiderDiagrams.createPrimarySDNoCopy(spiders, habitats, shadedZones, new TreeSet<>(readZones(in)));
+        }
+        throw new ProofFormatException("Unknown kind of present zones: " + present);
+    }
+
+    private PrimarySpiderDiagram readPrimaryDelta(ByteBuffer in, PrimarySpiderDiagram base) throws ProofFormatException {
+        TreeSet<String> spiders = new TreeSet<>(base.getSpiders());
+        spiders.removeAll(readStrings(in));
+        spiders.addAll(readStrings(in));
+        TreeMap<String, Region> habitats = new TreeMap<>(base.getHabitats());
+        habitats.keySet().removeAll(readStrings(in));
+        for (int i = readVarInt(in); i > 0; i--) {
+            String spider = string(readVarInt(in));
+            habitats.put(spider, new Region(readZones(in)));
+        }
+        TreeSet<Zone> shadedZones = new TreeSet<>(base.getShadedZones());
+        shadedZones.removeAll(readZones(in));
+        shadedZones.addAll(readZones(in));
+        if (base.hasImplicitPresentZones()) {
+            TreeSet<String> contours = new TreeSet<>(base.getPresentZonesContours());
+            contours.removeAll(readStrings(in));
+            contours.addAll(readStrings(in));
+            TreeSet<Zone> missingZones = new TreeSet<>(base.getMissingZones());
+            missingZones.removeAll(readZones(in));
+            missingZones.addAll(readZones(in));
+            return SpiderDiagrams.createNormalisedPrimarySD(spiders, habitats, shadedZones, contours, missingZones);
+        }
+        TreeSet<Zone> presentZones = new TreeSet<>(base.getPresentZones());
+        presentZones.removeAll(readZones(in));
+        presentZones.addAll(readZones(in));
+        return SpiderDiagrams.createPrimarySDNoCopy(spiders, habitats, shadedZones, presentZones);
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Inference Applications">
+    private InferenceApplication readApplication(ByteBuffer in) throws ProofFormatException {
+        Inference<?, ?> inference = inference(string(readVarInt(in)));
+        String type = nullableString(readVarInt(in));
+        String typeSpecifier = nullableString(readVarInt(in));
+        RuleArg arg = readArg(in);
+        return new InferenceApplication(inference, arg, type == null ? null : RuleApplicationType.valueOf(type), typeSpecifier);
+    }
+
+    private Inference<?, ?> inference(String name) throws ProofFormatException {
+        Inference<?, ?> inference = inferences.get(name);
+        if (inference == null) {
+            if (InferenceRules.getProvider(name) != null) {
+                inference = InferenceRules.getInferenceRule(name);
+            } else if (Tactics.getProvider(name) != null) {
+                inference = Tactics.getTactic(name);
+            } else {
+                throw new ProofFormatException("Unknown inference rule or tactic: " + name);
+            }
+            inferences.put(name, inference);
+        }
+        return inference;
+    }
+
+    private RuleArg readArg(ByteBuffer in) throws ProofFormatException {
+        int type = readVarInt(in);
+        switch (type) {
+            case ARG_NULL:
+                return null;
+            case ARG_SUBGOAL:
+                return new SubgoalIndexArg(readSignedVarInt(in));
+            case ARG_SUB_DIAGRAM:
+                return new SubDiagramIndexArg(readSignedVarInt(in), readSignedVarInt(in));
+            case ARG_CONTOUR:
+                return new ContourArg(readSignedVarInt(in), readSignedVarInt(in), string(readVarInt(in)));
+            case ARG_SPIDER:
+                return new SpiderArg(readSignedVarInt(in), readSignedVarInt(in), string(readVarInt(in)));
+            case ARG_SPIDER_REGION:
+                return new SpiderRegionArg(readSignedVarInt(in), readSignedVarInt(in), string(readVarInt(in)), new Region(readZones(in)));
+            case ARG_SPIDER_ZONE:
+                return new SpiderZoneArg(readSignedVarInt(in), readSignedVarInt(in), string(readVarInt(in)), zone(readVarInt(in)));
+            case ARG_ZONE:
+                return new ZoneArg(readSignedVarInt(in), readSignedVarInt(in), zone(readVarInt(in)));
+            case ARG_MULTIPLE:
+                List<RuleArg> args = new ArrayList<>();
+                for (int i = readVarInt(in); i > 0; i--) {
+                    args.add(readArg(in));
+                }
+                return new MultipleRuleArgs(args);
+            default:
+                throw new ProofFormatException("Unknown type of rule argument: " + type);
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Tables">
+    private String string(int id) throws ProofFormatException {
+        if (id < 0 || id >= strings.length) {
+            throw new ProofFormatException("Unknown string: " + id);
+        }
+        return strings[id];
+    }
+
+    private String nullableString(int id) throws ProofFormatException {
+        return id == 0 ? null : string(id - 1);
+    }
+
+    private List<String> readStrings(ByteBuffer in) throws ProofFormatException {
+        int count = readCount(in);
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(string(readVarInt(in)));
+        }
+        return result;
+    }
+
+    private Zone zone(int id) throws ProofFormatException {
+        if (id < 0 || id >= zones.length) {
+            throw new ProofFormatException("Unknown zone: " + id);
+        }
+        return zones[id];
+    }
+
+    private List<Zone> readZones(ByteBuffer in) throws ProofFormatException {
+        int count = readCount(in);
+        List<Zone> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(zone(readVarInt(in)));
+        }
+        return result;
+    }
+
+    private static int readVarInt(ByteBuffer in) throws ProofFormatException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new ProofFormatException("Malformed variable-length integer.");
+    }
+
+    /**
+     * Reads the number of elements that follow in the given buffer. Every element
+     * takes at least one byte.
+     */
+    private static int readCount(ByteBuffer in) throws ProofFormatException {
+        return checkCount(readVarInt(in), in.remaining());
+    }
+
+    /**
+     * Checks a count read from the proof data before anything is allocated for
+     * it, so that corrupt data cannot request arbitrarily large arrays.
+     */
+    private static int checkCount(int count, int maxCount) throws ProofFormatException {
+        if (count < 0 || count > maxCount) {
+            throw new ProofFormatException("Invalid number of elements: " + count);
+        }
+        return count;
+    }
+
+    private static int readSignedVarInt(ByteBuffer in) throws ProofFormatException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+    //</editor-fold>
+
+    private static ProofFormatException corrupt(Exception cause) {
+        return new ProofFormatException("The proof data is corrupt.", cause);
+    }
+}
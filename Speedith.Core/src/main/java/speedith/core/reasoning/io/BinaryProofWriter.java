@@ -0,0 +1,454 @@
+package speedith.core.reasoning.io;
+
+import speedith.core.lang.*;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.args.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.io.BinaryProofFormat.*;
+
+/**
+ * Writes proofs in the {@link BinaryProofFormat binary proof format}. Contours,
+ * spiders and zones are stored only once per file, diagrams that occur in several
+ * steps of the proof are stored only once, and the primary diagrams changed by a
+ * step are stored as the difference to a primary diagram of the previous step.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class BinaryProofWriter {
+
+    private final Map<String, Integer> stringIds = new LinkedHashMap<>();
+    private final Map<Zone, Integer> zoneIds = new HashMap<>();
+    private final Buffer zones = new Buffer();
+    private final Map<SpiderDiagram, Integer> diagramIds = new HashMap<>();
+    private final List<Integer> diagramOffsets = new ArrayList<>();
+    private final Buffer diagrams = new Buffer();
+    private final Buffer steps = new Buffer();
+    /**
+     * The strings and zones first used by the candidate encoding of a primary
+     * diagram that is being written, or null if new strings and zones are added
+     * to the tables directly.
+     */
+    private Scratch scratch;
+
+    private BinaryProofWriter() {
+    }
+
+    /**
+     * Encodes the given proof in the binary proof format.
+     *
+     * @param proof the proof to encode.
+     * @return the encoded proof.
+     * @throws ProofFormatException if the proof contains diagrams or rule arguments
+     * that cannot be represented in the format.
+     */
+    public static byte[] toByteArray(Proof proof) throws ProofFormatException {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        return new BinaryProofWriter().encode(proof);
+    }
+
+    /**
+     * Writes the given proof in the binary proof format to the given stream. The
+     * stream is not closed.
+     *
+     * @param proof the proof to write.
+     * @param out the stream to write to.
+     */
+    public static void write(Proof proof, OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "out"));
+        }
+        out.write(toByteArray(proof));
+    }
+
+    private byte[] encode(Proof proof) throws ProofFormatException {
+        List<Goals> goals = proof.getGoals();
+        List<InferenceApplication> applications = proof.getInferenceApplications();
+        if (applications.size() != Math.max(0, goals.size() - 1)) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "proof"));
+        }
+        int[] stepOffsets = new int[goals.size()];
+        List<PrimarySpiderDiagram> previous = Collections.emptyList();
+        for (int i = 0; i < goals.size(); i++) {
+            stepOffsets[i] = steps.size();
+            List<SpiderDiagram> diagrams = goals.get(i) == null ? null : goals.get(i).getGoals();
+            List<PrimarySpiderDiagram> current = new ArrayList<>();
+            // missing goals are read as goals without any diagrams
+            steps.writeLong(goals.get(i) == null ? Goals.createGoalsFrom().getFingerprint() : goals.get(i).getFingerprint());
+            steps.writeVarInt(diagrams == null ? 0 : diagrams.size());
+            if (diagrams != null) {
+                for (SpiderDiagram diagram : diagrams) {
+                    steps.writeVarInt(diagramId(diagram, previous));
+                    collectPrimaries(diagram, current);
+                }
+            }
+            if (i > 0) {
+                writeApplication(applications.get(i - 1));
+            }
+            previous = current;
+        }
+        return assemble(stepOffsets);
+    }
+
+    private byte[] assemble(int[] stepOffsets) {
+        Buffer strings = new Buffer();
+        strings.writeVarInt(stringIds.size());
+        for (String string : stringIds.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            strings.writeVarInt(bytes.length);
+            strings.write(bytes, 0, bytes.length);
+        }
+        Buffer zoneTable = new Buffer();
+        zoneTable.writeVarInt(zoneIds.size());
+
+        int stringsOffset = HEADER_SIZE;
+        int zonesOffset = stringsOffset + strings.size();
+        int diagramsOffset = zonesOffset + zoneTable.size() + zones.size();
+        int diagramBodies = diagramsOffset + 4 + 4 * diagramOffsets.size();
+        int stepsOffset = diagramBodies + diagrams.size();
+        int stepBodies = stepsOffset + 4 * stepOffsets.length;
+
+        ByteBuffer result = ByteBuffer.allocate(stepBodies + steps.size());
+        result.put(MAGIC)
+                .putShort((short) VERSION)
+                .putShort((short) 0)
+                .putInt(stepOffsets.length)
+                .putInt(stringsOffset)
+                .putInt(zonesOffset)
+                .putInt(diagramsOffset)
+                .putInt(stepsOffset);
+        strings.copyTo(result);
+        zoneTable.copyTo(result);
+        zones.copyTo(result);
+        result.putInt(diagramOffsets.size());
+        for (int offset : diagramOffsets) {
+            result.putInt(diagramBodies + offset);
+        }
+        diagrams.copyTo(result);
+        for (int offset : stepOffsets) {
+            result.putInt(stepBodies + offset);
+        }
+        steps.copyTo(result);
+        return result.array();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Diagrams">
+    private int diagramId(SpiderDiagram diagram, List<PrimarySpiderDiagram> previous) throws ProofFormatException {
+        Integer id = diagramIds.get(diagram);
+        if (id != null) {
+            return id;
+        }
+        Buffer body = new Buffer();
+        if (diagram instanceof CompoundSpiderDiagram) {
+            CompoundSpiderDiagram compound = (CompoundSpiderDiagram) diagram;
+            int[] operands = new int[compound.getOperandCount()];
+            for (int i = 0; i < operands.length; i++) {
+                operands[i] = diagramId(compound.getOperands().get(i), previous);
+            }
+            body.writeVarInt(KIND_COMPOUND);
+            body.writeVarInt(stringId(compound.getOperator().getName()));
+            body.writeVarInt(operands.length);
+            for (int operand : operands) {
+                body.writeVarInt(operand);
+            }
+        } else if (diagram instanceof PrimarySpiderDiagram) {
+            PrimarySpiderDiagram primary = (PrimarySpiderDiagram) diagram;
+            // only the table entries of the written candidate are kept
+            Scratch written = scratch = new Scratch();
+            writePrimary(body, primary);
+            for (PrimarySpiderDiagram base : previous) {
+                Buffer delta = new Buffer();
+                Scratch candidate = scratch = new Scratch();
+                if (writePrimaryDelta(delta, primary, base)
+                        && delta.size() + candidate.size() < body.size() + written.size()) {
+                    body = delta;
+                    written = candidate;
+                }
+            }
+            scratch = null;
+            commit(written);
+        } else if (diagram instanceof NullSpiderDiagram) {
+            body.writeVarInt(KIND_NULL);
+        } else {
+            throw new ProofFormatException("Diagrams of type " + diagram.getClass().getName() + " cannot be written.");
+        }
+        id = diagramOffsets.size();
+        diagramOffsets.add(diagrams.size());
+        body.copyTo(diagrams);
+        diagramIds.put(diagram, id);
+        return id;
+    }
+
+    private static void collectPrimaries(SpiderDiagram diagram, List<PrimarySpiderDiagram> primaries) {
+        if (diagram instanceof PrimarySpiderDiagram) {
+            primaries.add((PrimarySpiderDiagram) diagram);
+        } else if (diagram instanceof CompoundSpiderDiagram) {
+            for (SpiderDiagram operand : ((CompoundSpiderDiagram) diagram).getOperands()) {
+                collectPrimaries(operand, primaries);
+            }
+        }
+    }
+
+    private void writePrimary(Buffer out, PrimarySpiderDiagram diagram) {
+        out.writeVarInt(KIND_PRIMARY);
+        writeStrings(out, diagram.getSpiders());
+        out.writeVarInt(diagram.getHabitatsCount());
+        for (Map.Entry<String, Region> habitat : diagram.getHabitats().entrySet()) {
+            out.writeVarInt(stringId(habitat.getKey()));
+            writeZones(out, habitat.getValue().sortedZones());
+        }
+        writeZones(out, diagram.getShadedZones());
+        if (diagram.hasImplicitPresentZones()) {
+            out.writeVarInt(PRESENT_IMPLICIT);
+            writeStrings(out, diagram.getPresentZonesContours());
+            writeZones(out, diagram.getMissingZones());
+        } else {
+            out.writeVarInt(PRESENT_EXPLICIT);
+            writeZones(out, diagram.getPresentZones());
+        }
+    }
+
+    /**
+     * Writes the given diagram as the difference to the given base diagram, which
+     * must have been written already. Returns false, if no delta can be written,
+     * because the present zones of the diagrams are given in different ways.
+     */
+    private boolean writePrimaryDelta(Buffer out, PrimarySpiderDiagram diagram, PrimarySpiderDiagram base) {
+        Integer baseId = diagramIds.get(base);
+        if (baseId == null || diagram.hasImplicitPresentZones() != base.hasImplicitPresentZones()) {
+            return false;
+        }
+        out.writeVarInt(KIND_PRIMARY_DELTA);
+        out.writeVarInt(baseId);
+        writeStrings(out, difference(base.getSpiders(), diagram.getSpiders()));
+        writeStrings(out, difference(diagram.getSpiders(), base.getSpiders()));
+        SortedMap<String, Region> habitats = diagram.getHabitats();
+        SortedMap<String, Region> baseHabitats = base.getHabitats();
+        writeStrings(out, difference(baseHabitats.keySet(), habitats.keySet()));
+        List<Map.Entry<String, Region>> changed = new ArrayList<>();
+        for (Map.Entry<String, Region> habitat : habitats.entrySet()) {
+            if (!habitat.getValue().equals(baseHabitats.get(habitat.getKey()))) {
+                changed.add(habitat);
+            }
+        }
+        out.writeVarInt(changed.size());
+        for (Map.Entry<String, Region> habitat : changed) {
+            out.writeVarInt(stringId(habitat.getKey()));
+            writeZones(out, habitat.getValue().sortedZones());
+        }
+        writeZoneDelta(out, base.getShadedZones(), diagram.getShadedZones());
+        if (diagram.hasImplicitPresentZones()) {
+            writeStrings(out, difference(base.getPresentZonesContours(), diagram.getPresentZonesContours()));
+            writeStrings(out, difference(diagram.getPresentZonesContours(), base.getPresentZonesContours()));
+            writeZoneDelta(out, base.getMissingZones(), diagram.getMissingZones());
+        } else {
+            writeZoneDelta(out, base.getPresentZones(), diagram.getPresentZones());
+        }
+        return true;
+    }
+
+    private void writeZoneDelta(Buffer out, Set<Zone> base, Set<Zone> target) {
+        writeZones(out, difference(base, target));
+        writeZones(out, difference(target, base));
+    }
+
+    private static <T> List<T> difference(Set<T> minuend, Set<T> subtrahend) {
+        List<T> result = new ArrayList<>();
+        for (T element : minuend) {
+            if (!subtrahend.contains(element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Inference Applications">
+    private void writeApplication(InferenceApplication application) throws ProofFormatException {
+        steps.writeVarInt(stringId(application.getInference().getProvider().getInferenceName()));
+        writeNullableString(steps, application.getType() == null ? null : application.getType().name());
+        writeNullableString(steps, application.getTypeSpecifier());
+        writeArg(steps, application.getRuleArguments());
+    }
+
+    private void writeArg(Buffer out, RuleArg arg) throws ProofFormatException {
+        // the exact class is checked, since subclasses would lose information
+        Class<?> type = arg == null ? null : arg.getClass();
+        if (type == null) {
+            out.writeVarInt(ARG_NULL);
+        } else if (type == SubgoalIndexArg.class) {
+            out.writeVarInt(ARG_SUBGOAL);
+            out.writeSignedVarInt(((SubgoalIndexArg) arg).getSubgoalIndex());
+        } else if (type == SubDiagramIndexArg.class) {
+            out.writeVarInt(ARG_SUB_DIAGRAM);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+        } else if (type == ContourArg.class) {
+            out.writeVarInt(ARG_CONTOUR);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+            out.writeVarInt(stringId(((ContourArg) arg).getContour()));
+        } else if (type == SpiderArg.class) {
+            out.writeVarInt(ARG_SPIDER);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+            out.writeVarInt(stringId(((SpiderArg) arg).getSpider()));
+        } else if (type == SpiderRegionArg.class) {
+            out.writeVarInt(ARG_SPIDER_REGION);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+            out.writeVarInt(stringId(((SpiderArg) arg).getSpider()));
+            writeZones(out, ((SpiderRegionArg) arg).getRegion().sortedZones());
+        } else if (type == SpiderZoneArg.class) {
+            out.writeVarInt(ARG_SPIDER_ZONE);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+            out.writeVarInt(stringId(((SpiderArg) arg).getSpider()));
+            out.writeVarInt(zoneId(((SpiderZoneArg) arg).getZone()));
+        } else if (type == ZoneArg.class) {
+            out.writeVarInt(ARG_ZONE);
+            writeSubDiagramIndex(out, (SubDiagramIndexArg) arg);
+            out.writeVarInt(zoneId(((ZoneArg) arg).getZone()));
+        } else if (type == MultipleRuleArgs.class) {
+            out.writeVarInt(ARG_MULTIPLE);
+            MultipleRuleArgs args = (MultipleRuleArgs) arg;
+            out.writeVarInt(args.size());
+            for (RuleArg element : args) {
+                writeArg(out, element);
+            }
+        } else {
+            throw new ProofFormatException("Rule arguments of type " + type.getName() + " cannot be written.");
+        }
+    }
+
+    private static void writeSubDiagramIndex(Buffer out, SubDiagramIndexArg arg) {
+        out.writeSignedVarInt(arg.getSubgoalIndex());
+        out.writeSignedVarInt(arg.getSubDiagramIndex());
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Tables">
+    private int stringId(String string) {
+        Integer id = stringIds.get(string);
+        if (id == null && scratch != null) {
+            id = scratch.strings.get(string);
+            if (id == null) {
+                id = stringIds.size() + scratch.strings.size();
+                scratch.strings.put(string, id);
+            }
+        } else if (id == null) {
+            id = stringIds.size();
+            stringIds.put(string, id);
+        }
+        return id;
+    }
+
+    private void writeNullableString(Buffer out, String string) {
+        out.writeVarInt(string == null ? 0 : stringId(string) + 1);
+    }
+
+    private void writeStrings(Buffer out, Collection<String> strings) {
+        out.writeVarInt(strings.size());
+        for (String string : strings) {
+            out.writeVarInt(stringId(string));
+        }
+    }
+
+    private int zoneId(Zone zone) {
+        Integer id = zoneIds.get(zone);
+        if (id == null && scratch != null) {
+            id = scratch.zoneIds.get(zone);
+            if (id == null) {
+                writeStrings(scratch.zones, zone.getInContours());
+                writeStrings(scratch.zones, zone.getOutContours());
+                id = zoneIds.size() + scratch.zoneIds.size();
+                scratch.zoneIds.put(zone, id);
+            }
+        } else if (id == null) {
+            writeStrings(zones, zone.getInContours());
+            writeStrings(zones, zone.getOutContours());
+            id = zoneIds.size();
+            zoneIds.put(zone, id);
+        }
+        return id;
+    }
+
+    /**
+     * Adds the strings and zones first used by a written candidate to the tables.
+     * They are added in the order of their ids, hence they keep the ids they had
+     * in the candidate.
+     */
+    private void commit(Scratch written) {
+        stringIds.putAll(written.strings);
+        zoneIds.putAll(written.zoneIds);
+        written.zones.copyTo(zones);
+    }
+
+    private void writeZones(Buffer out, Collection<Zone> zones) {
+        out.writeVarInt(zones.size());
+        for (Zone zone : zones) {
+            out.writeVarInt(zoneId(zone));
+        }
+    }
+    //</editor-fold>
+
+    /**
+     * The table entries that a candidate encoding would add.
+     */
+    private static final class Scratch {
+
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final Map<Zone, Integer> zoneIds = new HashMap<>();
+        private final Buffer zones = new Buffer();
+
+        /**
+         * Returns the approximate number of bytes that the entries add to the
+         * tables.
+         */
+        int size() {
+            int size = zones.size();
+            for (String string : strings.keySet()) {
+                size += 1 + string.length();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * A byte buffer that can write variable-length integers.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeSignedVarInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void copyTo(ByteBuffer target) {
+            target.put(buf, 0, count);
+        }
+
+        void copyTo(Buffer target) {
+            target.write(buf, 0, count);
+        }
+    }
+}
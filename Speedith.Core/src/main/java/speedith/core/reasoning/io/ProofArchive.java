@@ -0,0 +1,193 @@
+package speedith.core.reasoning.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A read-only archive of many proofs in a single file, written by {@link
+ * ProofArchiveWriter}. The archive file is memory-mapped, and the proofs are
+ * decoded only when they are accessed (see {@link ArchivedProof}).
+ * <p>An archive consists of a header (the magic bytes {@code SPRA}, the version
+ * and flags of the format, two bytes each, the number of proofs and the offset
+ * of the index, four bytes each), followed by one entry per proof and the index,
+ * which contains the offsets of all entries. An entry consists of the name of
+ * the proof, the {@link speedith.core.reasoning.ProofAnalyser#clutterScore(speedith.core.reasoning.Goals)
+ * clutter scores} of all its goals and the (flattened) proof in the {@link
+ * BinaryProofFormat binary proof format}. All offsets are absolute, which limits
+ * the size of an archive to 2 GB.</p>
+ * <p>Instances of this class are thread-safe.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ProofArchive {
+
+    /**
+     * The extension of proof archives.
+     */
+    public static final String ARCHIVE_EXTENSION = ".pra";
+
+    static final byte[] MAGIC = {'S', 'P', 'R', 'A'};
+
+    /**
+     * The version written by {@link ProofArchiveWriter}. Readers reject archives
+     * of a newer version.
+     */
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The clutter score stored for empty goals.
+     */
+    static final int EMPTY_GOALS = -1;
+
+    private final ByteBuffer buffer;
+    private final int version;
+    private final int size;
+    private final int indexOffset;
+
+    /**
+     * Opens the given proof archive. The archive is mapped into memory and must
+     * not be changed while it is open.
+     *
+     * @param file the archive to open.
+     * @throws ProofFormatException if the file is not a proof archive of a
+     * supported version.
+     */
+    public ProofArchive(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "file"));
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ProofFormatException("Proof archives larger than 2 GB are not supported.");
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer = mapped;
+        }
+        try {
+            ByteBuffer header = buffer.duplicate();
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!isProofArchive(magic)) {
+                throw new ProofFormatException("The file " + file + " is not a proof archive.");
+            }
+            version = header.getShort() & 0xFFFF;
+            if (version > VERSION) {
+                throw new ProofFormatException("The archive has been written with a newer version (" + version + ") of the proof archive format.");
+            }
+            header.getShort();
+            size = header.getInt();
+            indexOffset = header.getInt();
+            if (size < 0 || indexOffset < HEADER_SIZE || (long) indexOffset + 4L * size > buffer.limit()) {
+                throw new ProofFormatException("The proof archive is corrupt.");
+            }
+        } catch (BufferUnderflowException e) {
+            throw new ProofFormatException("The proof archive is corrupt.", e);
+        }
+    }
+
+    /**
+     * Checks whether the given bytes start with the magic bytes of proof archives.
+     */
+    public static boolean isProofArchive(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "bytes"));
+        }
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of proofs in this archive.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the name of the proof at the given index without decoding the proof.
+     */
+    public String getName(int index) throws ProofFormatException {
+        return readName(entry(index));
+    }
+
+    /**
+     * Returns the proof at the given index. Its goals and inference applications
+     * are decoded only when they are accessed.
+     *
+     * @param index the index of the proof.
+     * @return the proof at the given index.
+     * @throws ProofFormatException if the entry of the proof is corrupt.
+     */
+    public ArchivedProof get(int index) throws ProofFormatException {
+        ByteBuffer in = entry(index);
+        try {
+            String name = readName(in);
+            int goalsCount = in.getInt();
+            if (goalsCount < 0 || goalsCount > in.remaining() / 4) {
+                throw new ProofFormatException("The proof archive is corrupt.");
+            }
+            ByteBuffer clutterScores = in.slice();
+            clutterScores.limit(4 * goalsCount);
+            in.position(in.position() + 4 * goalsCount);
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new ProofFormatException("The proof archive is corrupt.");
+            }
+            ByteBuffer proof = in.slice();
+            proof.limit(length);
+            return new ArchivedProof(name, clutterScores, proof);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new ProofFormatException("The proof archive is corrupt.", e);
+        }
+    }
+
+    private ByteBuffer entry(int index) throws ProofFormatException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        int offset = buffer.getInt(indexOffset + 4 * index);
+        if (offset < HEADER_SIZE || offset >= indexOffset) {
+            throw new ProofFormatException("The proof archive is corrupt.");
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        in.limit(indexOffset);
+        return in;
+    }
+
+    private static String readName(ByteBuffer in) throws ProofFormatException {
+        try {
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new ProofFormatException("The proof archive is corrupt.");
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (BufferUnderflowException e) {
+            throw new ProofFormatException("The proof archive is corrupt.", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package speedith.core.reasoning.io;
+
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.ProofAnalyser;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Writes a {@link ProofArchive proof archive}. The proofs are flattened before
+ * they are added, and the clutter scores of their goals are computed once, so
+ * that proofs read from the archive can be analysed without applying any rules.
+ * The archive is complete only after it has been {@link #close() closed}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ProofArchiveWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final List<Integer> offsets = new ArrayList<>();
+    private long position = ProofArchive.HEADER_SIZE;
+
+    /**
+     * Creates a new archive in the given file.
+     *
+     * @param file the file to write the archive to. It is overwritten if it exists.
+     */
+    public ProofArchiveWriter(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "file"));
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Returns the number of proofs added so far.
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Flattens the given proof and adds it to the archive.
+     *
+     * @param name the name of the proof, e.g., the name of the file it has been
+     *             read from.
+     * @param proof the proof to add.
+     * @throws TacticApplicationException if the proof could not be flattened.
+     * @throws ProofFormatException if the proof cannot be represented in the
+     * binary proof format, or the archive would get too large.
+     */
+    public void add(String name, Proof proof) throws IOException, TacticApplicationException {
+        if (name == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "name"));
+        }
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        Proof flattened = proof.createFlattenedProof();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] data = BinaryProofWriter.toByteArray(flattened);
+        int goalsCount = flattened.getGoalsCount();
+
+        ByteBuffer entry = ByteBuffer.allocate(4 + nameBytes.length + 4 + 4 * goalsCount + 4 + data.length);
+        entry.putInt(nameBytes.length).put(nameBytes);
+        entry.putInt(goalsCount);
+        for (int i = 0; i < goalsCount; i++) {
+            Goals goals = flattened.getGoalsAt(i);
+            entry.putInt(goals == null || goals.isEmpty() ? ProofArchive.EMPTY_GOALS : ProofAnalyser.clutterScore(goals));
+        }
+        entry.putInt(data.length).put(data);
+        entry.flip();
+
+        if (position + entry.remaining() + 4L * (offsets.size() + 1) > Integer.MAX_VALUE) {
+            throw new ProofFormatException("Proof archives larger than 2 GB are not supported.");
+        }
+        offsets.add((int) position);
+        position += writeFully(entry, position);
+    }
+
+    /**
+     * Writes the index and the header of the archive and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            ByteBuffer index = ByteBuffer.allocate(4 * offsets.size());
+            for (int offset : offsets) {
+                index.putInt(offset);
+            }
+            index.flip();
+            writeFully(index, position);
+
+            ByteBuffer header = ByteBuffer.allocate(ProofArchive.HEADER_SIZE);
+            header.put(ProofArchive.MAGIC)
+                    .putShort((short) ProofArchive.VERSION)
+                    .putShort((short) 0)
+                    .putInt(offsets.size())
+                    .putInt((int) position);
+            header.flip();
+            writeFully(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int writeFully(ByteBuffer buffer, long at) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, at + written);
+        }
+        return written;
+    }
+}
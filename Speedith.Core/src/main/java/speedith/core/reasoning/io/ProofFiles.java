@@ -0,0 +1,119 @@
+package speedith.core.reasoning.io;
+
+import speedith.core.reasoning.Proof;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Reads and writes proof files. Proofs are written in the {@link BinaryProofFormat
+ * binary proof format}. Proof files written by earlier versions of Speedith, which
+ * contain serialised {@link Proof} objects, can still be read, and can be converted
+ * with {@link #convert(File, File)}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ProofFiles {
+
+    /**
+     * The extension of proof files.
+     */
+    public static final String PROOF_EXTENSION = ".prf";
+
+    private ProofFiles() {
+    }
+
+    /**
+     * Reads the proof contained in the given file, which can be either in the binary
+     * proof format or contain a serialised proof.
+     *
+     * @param file the proof file.
+     * @return the proof.
+     * @throws ProofFormatException if the file does not contain a proof.
+     */
+    public static Proof read(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "file"));
+        }
+        return read(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Reads the proof contained in the given bytes, which can be either in the binary
+     * proof format or a serialised proof.
+     *
+     * @param bytes the contents of a proof file.
+     * @return the proof.
+     * @throws ProofFormatException if the bytes do not contain a proof.
+     */
+    public static Proof read(byte[] bytes) throws IOException {
+        if (isBinaryProof(bytes)) {
+            return new BinaryProofReader(ByteBuffer.wrap(bytes)).readProof();
+        }
+        return readSerialised(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Checks whether the given contents of a proof file are in the binary proof format.
+     */
+    public static boolean isBinaryProof(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "bytes"));
+        }
+        return BinaryProofFormat.hasMagic(bytes);
+    }
+
+    /**
+     * Writes the given proof in the binary proof format to the given file.
+     *
+     * @param proof the proof to write.
+     * @param file the file to write to. It is overwritten if it exists.
+     */
+    public static void write(Proof proof, File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "file"));
+        }
+        byte[] bytes = BinaryProofWriter.toByteArray(proof);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Converts a proof file into the binary proof format. The source and the target
+     * may be the same file.
+     *
+     * @param source the proof file to convert.
+     * @param target the file to write the converted proof to.
+     * @return true, if the source had to be converted, false if it was in the binary
+     * proof format already (in which case it is copied to the target).
+     */
+    public static boolean convert(File source, File target) throws IOException {
+        byte[] bytes = Files.readAllBytes(source.toPath());
+        if (isBinaryProof(bytes)) {
+            if (!source.getCanonicalFile().equals(target.getCanonicalFile())) {
+                try (FileOutputStream out = new FileOutputStream(target)) {
+                    out.write(bytes);
+                }
+            }
+            return false;
+        }
+        write(readSerialised(new ByteArrayInputStream(bytes)), target);
+        return true;
+    }
+
+    private static Proof readSerialised(InputStream in) throws IOException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(in)) {
+            Object proof = objectInputStream.readObject();
+            if (!(proof instanceof Proof)) {
+                throw new ProofFormatException("The file does not contain a proof.");
+            }
+            return (Proof) proof;
+        } catch (ClassNotFoundException | ObjectStreamException | EOFException e) {
+            throw new ProofFormatException("The file does not contain a proof.", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package speedith.core.reasoning.io;
+
+import java.io.IOException;
+
+/**
+ * Indicates that a proof could not be written to or read from a proof file,
+ * e.g., because the file is corrupt or of an unsupported version.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public class ProofFormatException extends IOException {
+
+    private static final long serialVersionUID = -1920336475839186713L;
+
+    public ProofFormatException(String message) {
+        super(message);
+    }
+
+    public ProofFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
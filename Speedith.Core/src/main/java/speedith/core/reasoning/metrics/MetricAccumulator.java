@@ -0,0 +1,27 @@
+package speedith.core.reasoning.metrics;
+
+/**
+ * Computes a {@link ProofMetric metric} of a single proof, while the steps of the
+ * proof are passed to it in order. Accumulators should only keep a constant amount
+ * of state, so that metrics can be computed for arbitrarily long proofs.
+ *
+ * @param <T> the type of the value of the metric.
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public interface MetricAccumulator<T> {
+
+    /**
+     * Accounts for the given step of the proof. The step must not be retained,
+     * since it is reused for the next step.
+     *
+     * @param step the next step of the proof.
+     */
+    void visit(ProofStep step);
+
+    /**
+     * Returns the value of the metric for all steps visited so far.
+     *
+     * @return the value of the metric.
+     */
+    T getResult();
+}
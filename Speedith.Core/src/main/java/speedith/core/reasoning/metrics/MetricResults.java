@@ -0,0 +1,44 @@
+package speedith.core.reasoning.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * The values of the metrics computed for a proof by {@link
+ * Metrics#compute(speedith.core.reasoning.Proof, java.util.Collection)}.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class MetricResults {
+
+    private final Map<ProofMetric<?>, Object> values;
+
+    MetricResults(Map<ProofMetric<?>, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the value of the given metric.
+     *
+     * @param metric the metric.
+     * @param <T> the type of the values of the metric.
+     * @return the value of the given metric.
+     * @throws IllegalArgumentException if the metric has not been computed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ProofMetric<T> metric) {
+        if (!values.containsKey(metric)) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "metric"));
+        }
+        return (T) values.get(metric);
+    }
+
+    /**
+     * Returns the values of all computed metrics.
+     */
+    public Map<ProofMetric<?>, Object> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,135 @@
+package speedith.core.reasoning.metrics;
+
+import speedith.core.reasoning.Proof;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Computes {@link ProofMetric metrics} of proofs and keeps a registry of all
+ * known metrics. All requested metrics are computed in a single pass over the
+ * steps of a proof, so that the goals of each step are fetched, and their clutter
+ * score is computed, at most once (see {@link ProofStep}).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class Metrics {
+
+    private static final LinkedHashMap<String, ProofMetric<?>> metrics = new LinkedHashMap<>();
+
+    static {
+        registerMetric(StandardMetrics.LENGTH);
+        registerMetric(StandardMetrics.MAXIMUM_CLUTTER);
+        registerMetric(StandardMetrics.AVERAGE_CLUTTER);
+        registerMetric(StandardMetrics.MAXIMAL_CLUTTER_VELOCITY);
+        registerMetric(StandardMetrics.COMPLEX_RULE_COUNT);
+        registerMetric(StandardMetrics.AVERAGE_NUMBER_OF_COMPLEX_RULES);
+        registerMetric(StandardMetrics.NUMBER_OF_PROOF_METHOD_INVOCATIONS);
+        registerMetric(StandardMetrics.NUMBER_OF_INTERACTIONS);
+        registerMetric(StandardMetrics.AVERAGE_INTERACTIONS);
+        registerMetric(StandardMetrics.NUMBER_OF_AUTOMATIC_RULE_APPLICATIONS);
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the metric of the given name.
+     * <p>Returns {@code null} if no such metric exists.</p>
+     *
+     * @param name the name of the metric.
+     * @return the metric of the given name.
+     */
+    public static ProofMetric<?> getMetric(String name) {
+        synchronized (metrics) {
+            return metrics.get(name);
+        }
+    }
+
+    /**
+     * Returns all currently registered metrics, in the order of their
+     * registration.
+     * <p>Note: This method never returns {@code null}.</p>
+     *
+     * @return all currently registered metrics.
+     */
+    public static List<ProofMetric<?>> getKnownMetrics() {
+        synchronized (metrics) {
+            return Collections.unmodifiableList(new ArrayList<>(metrics.values()));
+        }
+    }
+
+    /**
+     * Registers the given metric.
+     * <p>This method replaces any old metric that happens to have the same name
+     * as the newly registered one.</p>
+     *
+     * @param metric the metric to register.
+     */
+    public static void registerMetric(ProofMetric<?> metric) {
+        if (metric == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "metric"));
+        }
+        synchronized (metrics) {
+            metrics.put(metric.getName(), metric);
+        }
+    }
+
+    /**
+     * Computes all {@link #getKnownMetrics() registered} metrics of the given proof.
+     *
+     * @param proof the proof to analyse.
+     * @return the values of all registered metrics.
+     */
+    public static MetricResults compute(Proof proof) {
+        return compute(proof, getKnownMetrics());
+    }
+
+    /**
+     * Computes a single metric of the given proof.
+     *
+     * @param proof the proof to analyse.
+     * @param metric the metric to compute.
+     * @param <T> the type of the values of the metric.
+     * @return the value of the metric.
+     */
+    public static <T> T compute(Proof proof, ProofMetric<T> metric) {
+        return compute(proof, Collections.<ProofMetric<?>>singletonList(metric)).get(metric);
+    }
+
+    /**
+     * Computes the given metrics of the given proof in a single pass over the
+     * steps of the proof.
+     *
+     * @param proof the proof to analyse.
+     * @param metrics the metrics to compute.
+     * @return the values of the given metrics.
+     */
+    public static MetricResults compute(Proof proof, Collection<? extends ProofMetric<?>> metrics) {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "metrics"));
+        }
+        List<MetricAccumulator<?>> accumulators = new ArrayList<>(metrics.size());
+        for (ProofMetric<?> metric : metrics) {
+            accumulators.add(metric.createAccumulator());
+        }
+        ProofStep step = new ProofStep(proof);
+        int goalsCount = proof.getGoalsCount();
+        for (int i = 0; i < goalsCount; i++) {
+            step.moveTo(i);
+            for (MetricAccumulator<?> accumulator : accumulators) {
+                accumulator.visit(step);
+            }
+        }
+        Map<ProofMetric<?>, Object> values = new LinkedHashMap<>();
+        Iterator<MetricAccumulator<?>> accumulator = accumulators.iterator();
+        for (ProofMetric<?> metric : metrics) {
+            values.put(metric, accumulator.next().getResult());
+        }
+        return new MetricResults(values);
+    }
+}
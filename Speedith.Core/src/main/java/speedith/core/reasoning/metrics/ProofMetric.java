@@ -0,0 +1,29 @@
+package speedith.core.reasoning.metrics;
+
+/**
+ * A metric of proofs, e.g., the length of a proof or its maximal clutter. Metrics
+ * are computed by {@link Metrics#compute(speedith.core.reasoning.Proof, java.util.Collection)},
+ * which passes all steps of a proof once to an accumulator of each metric.
+ * <p>Implementations must be thread-safe, which they usually are by keeping all
+ * state in their accumulators.</p>
+ *
+ * @param <T> the type of the values of the metric.
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public interface ProofMetric<T> {
+
+    /**
+     * Returns the unique name of this metric, under which it is {@link
+     * Metrics#registerMetric(ProofMetric) registered}.
+     *
+     * @return the name of this metric.
+     */
+    String getName();
+
+    /**
+     * Creates a new accumulator that computes this metric for a single proof.
+     *
+     * @return a new accumulator.
+     */
+    MetricAccumulator<T> createAccumulator();
+}
@@ -0,0 +1,110 @@
+package speedith.core.reasoning.metrics;
+
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.ProofAnalyser;
+import speedith.core.reasoning.io.ArchivedProof;
+
+/**
+ * A step of a proof, as passed to {@link MetricAccumulator metric accumulators}.
+ * The step at index 0 contains the initial goals of the proof, every later step
+ * the inference application and the goals it resulted in.
+ * <p>The goals, the inference application and the clutter score of a step are
+ * fetched (and, for {@link ArchivedProof archived proofs}, decoded) only when an
+ * accumulator needs them, and at most once per step. The clutter scores of
+ * archived proofs are read from the archive.</p>
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class ProofStep {
+
+    private final Proof proof;
+    private final ArchivedProof archived;
+    private int index = -1;
+    private Goals goals;
+    private boolean goalsFetched;
+    private InferenceApplication application;
+    private int clutterScore;
+    private boolean clutterScoreComputed;
+
+    ProofStep(Proof proof) {
+        this.proof = proof;
+        this.archived = proof instanceof ArchivedProof ? (ArchivedProof) proof : null;
+    }
+
+    /**
+     * Moves to the step at the given index.
+     */
+    void moveTo(int index) {
+        this.index = index;
+        goals = null;
+        goalsFetched = false;
+        application = null;
+        clutterScoreComputed = false;
+    }
+
+    /**
+     * Returns the index of this step, i.e., the index of its goals in the proof.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Indicates whether this step has been reached by an inference application,
+     * i.e., whether it is not the first step of the proof.
+     */
+    public boolean hasInferenceApplication() {
+        return index > 0;
+    }
+
+    /**
+     * Returns the inference application that resulted in the goals of this step,
+     * or {@code null} for the first step of the proof.
+     */
+    public InferenceApplication getInferenceApplication() {
+        if (application == null && index > 0) {
+            application = proof.getInferenceApplicationAt(index - 1);
+        }
+        return application;
+    }
+
+    /**
+     * Returns the goals of this step. May be {@code null}.
+     */
+    public Goals getGoals() {
+        if (!goalsFetched) {
+            goals = proof.getGoalsAt(index);
+            goalsFetched = true;
+        }
+        return goals;
+    }
+
+    /**
+     * Indicates whether there are no goals left in this step.
+     */
+    public boolean isEmpty() {
+        if (archived != null) {
+            return getClutterScore() < 0;
+        }
+        Goals current = getGoals();
+        return current == null || current.isEmpty();
+    }
+
+    /**
+     * Returns the {@link ProofAnalyser#clutterScore(Goals) clutter score} of the
+     * goals of this step, or -1 if there are no goals left.
+     */
+    public int getClutterScore() {
+        if (!clutterScoreComputed) {
+            if (archived != null) {
+                clutterScore = archived.getClutterScoreAt(index);
+            } else {
+                clutterScore = isEmpty() ? -1 : ProofAnalyser.clutterScore(getGoals());
+            }
+            clutterScoreComputed = true;
+        }
+        return clutterScore;
+    }
+}
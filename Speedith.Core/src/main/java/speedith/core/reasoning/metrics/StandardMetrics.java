@@ -0,0 +1,309 @@
+package speedith.core.reasoning.metrics;
+
+import speedith.core.reasoning.Inference;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.rules.CopyContours;
+import speedith.core.reasoning.rules.CopyContoursTopological;
+import speedith.core.reasoning.rules.CopyShading;
+import speedith.core.reasoning.rules.CopySpider;
+
+/**
+ * The metrics computed by {@link speedith.core.reasoning.ProofAnalyser}. The
+ * clutter metrics only take steps into account that have goals left, and the
+ * averages are taken over the {@link #LENGTH length} of the proof.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+public final class StandardMetrics {
+
+    /**
+     * The number of inference applications.
+     */
+    public static final ProofMetric<Integer> LENGTH = new NamedMetric<Integer>("length") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new CountingAccumulator() {
+                @Override
+                protected boolean counts(ProofStep step) {
+                    return step.hasInferenceApplication();
+                }
+            };
+        }
+    };
+
+    /**
+     * The maximal clutter score of the goals of the proof, or 0 if the proof has
+     * no goals.
+     */
+    public static final ProofMetric<Integer> MAXIMUM_CLUTTER = new NamedMetric<Integer>("maximum_clutter") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new MetricAccumulator<Integer>() {
+                private int maximum;
+
+                @Override
+                public void visit(ProofStep step) {
+                    maximum = Math.max(maximum, step.getClutterScore());
+                }
+
+                @Override
+                public Integer getResult() {
+                    return maximum;
+                }
+            };
+        }
+    };
+
+    /**
+     * The sum of the clutter scores of the goals of the proof.
+     */
+    private static final ProofMetric<Integer> TOTAL_CLUTTER = new NamedMetric<Integer>("total_clutter") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new MetricAccumulator<Integer>() {
+                private int total;
+
+                @Override
+                public void visit(ProofStep step) {
+                    if (!step.isEmpty()) {
+                        total += step.getClutterScore();
+                    }
+                }
+
+                @Override
+                public Integer getResult() {
+                    return total;
+                }
+            };
+        }
+    };
+
+    /**
+     * The sum of the clutter scores of the goals of the proof, divided by its
+     * length.
+     */
+    public static final ProofMetric<Double> AVERAGE_CLUTTER = perStep("average_clutter", TOTAL_CLUTTER);
+
+    /**
+     * The maximal absolute difference between the clutter scores of two
+     * consecutive goals of the proof.
+     */
+    public static final ProofMetric<Integer> MAXIMAL_CLUTTER_VELOCITY = new NamedMetric<Integer>("maximal_clutter_velocity") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new MetricAccumulator<Integer>() {
+                private int previous = -1;
+                private int maximum;
+
+                @Override
+                public void visit(ProofStep step) {
+                    if (step.isEmpty()) {
+                        return;
+                    }
+                    int current = step.getClutterScore();
+                    if (previous >= 0) {
+                        maximum = Math.max(maximum, Math.abs(current - previous));
+                    }
+                    previous = current;
+                }
+
+                @Override
+                public Integer getResult() {
+                    return maximum;
+                }
+            };
+        }
+    };
+
+    /**
+     * The number of applications of {@link #isComplexRule(Inference) complex rules}.
+     */
+    public static final ProofMetric<Integer> COMPLEX_RULE_COUNT = new NamedMetric<Integer>("complex_rule_count") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new CountingAccumulator() {
+                @Override
+                protected boolean counts(ProofStep step) {
+                    return step.hasInferenceApplication() && isComplexRule(step.getInferenceApplication().getInference());
+                }
+            };
+        }
+    };
+
+    /**
+     * The number of applications of complex rules, divided by the length of the
+     * proof.
+     */
+    public static final ProofMetric<Double> AVERAGE_NUMBER_OF_COMPLEX_RULES = perStep("average_number_of_complex_rules", COMPLEX_RULE_COUNT);
+
+    /**
+     * The number of {@link #isProofMethodInvocation(InferenceApplication,
+     * InferenceApplication) invocations of proof methods}.
+     */
+    public static final ProofMetric<Integer> NUMBER_OF_PROOF_METHOD_INVOCATIONS = new NamedMetric<Integer>("number_of_proof_method_invocations") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new InteractionAccumulator(false);
+        }
+    };
+
+    /**
+     * The number of interactive inference applications plus the number of
+     * invocations of proof methods.
+     */
+    public static final ProofMetric<Integer> NUMBER_OF_INTERACTIONS = new NamedMetric<Integer>("number_of_interactions") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new InteractionAccumulator(true);
+        }
+    };
+
+    /**
+     * The number of interactions, divided by the length of the proof.
+     */
+    public static final ProofMetric<Double> AVERAGE_INTERACTIONS = perStep("average_interactions", NUMBER_OF_INTERACTIONS);
+
+    /**
+     * The number of automatic inference applications.
+     */
+    public static final ProofMetric<Integer> NUMBER_OF_AUTOMATIC_RULE_APPLICATIONS = new NamedMetric<Integer>("number_of_automatic_rule_applications") {
+        @Override
+        public MetricAccumulator<Integer> createAccumulator() {
+            return new CountingAccumulator() {
+                @Override
+                protected boolean counts(ProofStep step) {
+                    return step.hasInferenceApplication() && step.getInferenceApplication().getType() == RuleApplicationType.AUTOMATIC;
+                }
+            };
+        }
+    };
+
+    private StandardMetrics() {
+    }
+
+    /**
+     * Indicates whether the given inference is one of the rules that copy
+     * information between diagrams, which are considered complex.
+     */
+    public static boolean isComplexRule(Inference<?, ?> inference) {
+        return inference instanceof CopyContours
+                || inference instanceof CopyContoursTopological
+                || inference instanceof CopyShading
+                || inference instanceof CopySpider;
+    }
+
+    /**
+     * Indicates whether the given inference application starts a new invocation of
+     * a proof method, i.e., whether it is not interactive and differs in its type
+     * or type specifier from the previous application.
+     *
+     * @param previous the previous inference application.
+     * @param next the inference application following it.
+     */
+    public static boolean isProofMethodInvocation(InferenceApplication previous, InferenceApplication next) {
+        if (next.getType() == RuleApplicationType.INTERACTIVE) {
+            return false;
+        }
+        if (previous.getType() != next.getType()) {
+            return true;
+        }
+        return previous.getTypeSpecifier() == null
+                ? next.getTypeSpecifier() != null
+                : !previous.getTypeSpecifier().equals(next.getTypeSpecifier());
+    }
+
+    /**
+     * Creates a metric that divides the given metric by the length of the proof.
+     */
+    private static ProofMetric<Double> perStep(String name, final ProofMetric<? extends Number> total) {
+        return new NamedMetric<Double>(name) {
+            @Override
+            public MetricAccumulator<Double> createAccumulator() {
+                final MetricAccumulator<? extends Number> totalAccumulator = total.createAccumulator();
+                final MetricAccumulator<Integer> lengthAccumulator = LENGTH.createAccumulator();
+                return new MetricAccumulator<Double>() {
+                    @Override
+                    public void visit(ProofStep step) {
+                        totalAccumulator.visit(step);
+                        lengthAccumulator.visit(step);
+                    }
+
+                    @Override
+                    public Double getResult() {
+                        return totalAccumulator.getResult().doubleValue() / lengthAccumulator.getResult();
+                    }
+                };
+            }
+        };
+    }
+
+    private static abstract class NamedMetric<T> implements ProofMetric<T> {
+
+        private final String name;
+
+        NamedMetric(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static abstract class CountingAccumulator implements MetricAccumulator<Integer> {
+
+        private int count;
+
+        @Override
+        public void visit(ProofStep step) {
+            if (counts(step)) {
+                count++;
+            }
+        }
+
+        protected abstract boolean counts(ProofStep step);
+
+        @Override
+        public Integer getResult() {
+            return count;
+        }
+    }
+
+    private static class InteractionAccumulator implements MetricAccumulator<Integer> {
+
+        private final boolean countInteractive;
+        private InferenceApplication previous;
+        private int count;
+
+        InteractionAccumulator(boolean countInteractive) {
+            this.countInteractive = countInteractive;
+        }
+
+        @Override
+        public void visit(ProofStep step) {
+            if (!step.hasInferenceApplication()) {
+                return;
+            }
+            InferenceApplication current = step.getInferenceApplication();
+            if (countInteractive && current.getType() == RuleApplicationType.INTERACTIVE) {
+                count++;
+            }
+            if (previous != null && isProofMethodInvocation(previous, current)) {
+                count++;
+            }
+            previous = current;
+        }
+
+        @Override
+        public Integer getResult() {
+            return count;
+        }
+    }
+}
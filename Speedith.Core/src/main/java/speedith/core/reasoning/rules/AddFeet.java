@@ -122,7 +122,7 @@ public class AddFeet extends SimpleInferenceRule<SpiderRegionArg> implements Bas
     private RuleApplicationResult apply(final RuleArg args, Goals goals, boolean applyForward) throws RuleApplicationException {
         SpiderRegionArg arg = getTypedRuleArgs(args);
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transform(new AddFeetTransformer(arg, applyForward));
+        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transformAt(new AddFeetTransformer(arg, applyForward), arg.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
     //</editor-fold>
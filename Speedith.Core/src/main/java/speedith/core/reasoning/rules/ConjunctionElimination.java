@@ -65,7 +65,7 @@ public class ConjunctionElimination extends SimpleInferenceRule<MultipleRuleArgs
         SubDiagramIndexArg operatorDiagram = (SubDiagramIndexArg) mult.get(0);
         SubDiagramIndexArg targetChild = (SubDiagramIndexArg) mult.get(1);
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-        newSubgoals[operatorDiagram.getSubgoalIndex()] = getSubgoal(operatorDiagram, goals).transform(new ConjunctionEliminationTransformer(operatorDiagram.getSubDiagramIndex(), targetChild, applyStyle));
+        newSubgoals[operatorDiagram.getSubgoalIndex()] = getSubgoal(operatorDiagram, goals).transformAt(new ConjunctionEliminationTransformer(operatorDiagram.getSubDiagramIndex(), targetChild, applyStyle), operatorDiagram.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
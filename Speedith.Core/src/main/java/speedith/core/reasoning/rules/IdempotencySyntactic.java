@@ -40,7 +40,7 @@ public class IdempotencySyntactic extends SimpleInferenceRule<SubDiagramIndexArg
     public RuleApplicationResult apply(final RuleArg args, Goals goals) throws RuleApplicationException {
         SubDiagramIndexArg arg = getTypedRuleArgs(args);
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transform(new IdempotencyTransformer(arg), false);
+        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transformAt(new IdempotencyTransformer(arg), arg.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
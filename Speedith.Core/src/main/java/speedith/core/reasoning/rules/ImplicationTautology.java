@@ -68,7 +68,7 @@ public class ImplicationTautology extends SimpleInferenceRule<SubDiagramIndexArg
         // sub-formulae to null diagrams).
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
         // Now apply the rewrite on the chosen subgoal.
-        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transform(new IdempotencyTransformer(arg), false);
+        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transformAt(new IdempotencyTransformer(arg), arg.getSubDiagramIndex());
         // Finally return the changed goals.
         return createRuleApplicationResult(newSubgoals);
     }
@@ -81,7 +81,7 @@ public class IntroContour extends SimpleInferenceRule<MultipleRuleArgs>
     private RuleApplicationResult apply(SubDiagramIndexArg target, ArrayList<ContourArg> targetContours, Goals goals) throws RuleApplicationException {
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
         SpiderDiagram targetSubgoal = getSubgoal(target, goals);
-        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transform(new IntroduceContoursTransformer(target, targetContours));
+        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transformAt(new IntroduceContoursTransformer(target, targetContours), target.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
@@ -66,7 +66,7 @@ public class IntroShadedZone extends SimpleInferenceRule<MultipleRuleArgs>
     private RuleApplicationResult apply(SubDiagramIndexArg target, ArrayList<ZoneArg> targetContours, Goals goals) throws RuleApplicationException {
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
         SpiderDiagram targetSubgoal = getSubgoal(target, goals);
-        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transform(new IntroShadedZoneTransformer(target, targetContours));
+        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transformAt(new IntroShadedZoneTransformer(target, targetContours), target.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
@@ -115,7 +115,7 @@ public class RemoveContour extends SimpleInferenceRule<MultipleRuleArgs> impleme
     protected RuleApplicationResult apply(final RuleArg args, Goals goals, ApplyStyle applyStyle) throws RuleApplicationException {
         ArrayList<ContourArg> contourArgs = ContourArg.getContourArgsFrom(getTypedRuleArgs(args));
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-        newSubgoals[contourArgs.get(0).getSubgoalIndex()] = getSubgoal(contourArgs.get(0), goals).transform(new RemoveContoursTransformer(contourArgs, applyStyle));
+        newSubgoals[contourArgs.get(0).getSubgoalIndex()] = getSubgoal(contourArgs.get(0), goals).transformAt(new RemoveContoursTransformer(contourArgs, applyStyle), contourArgs.get(0).getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
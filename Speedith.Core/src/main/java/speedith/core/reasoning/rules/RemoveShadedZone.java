@@ -46,7 +46,7 @@ implements BasicInferenceRule<MultipleRuleArgs>, ForwardRule<MultipleRuleArgs>,
     private RuleApplicationResult apply(SubDiagramIndexArg target, ArrayList<ZoneArg> targetContours, Goals goals) throws RuleApplicationException {
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
         SpiderDiagram targetSubgoal = getSubgoal(target, goals);
-        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transform(new RemoveShadedZoneTransformer(target, targetContours));
+        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transformAt(new RemoveShadedZoneTransformer(target, targetContours), target.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
@@ -102,7 +102,7 @@ public class RemoveShading extends SimpleInferenceRule<MultipleRuleArgs>
     protected RuleApplicationResult apply(SubDiagramIndexArg target, ArrayList<ZoneArg> targetContours, Goals goals, ApplyStyle applyStyle) throws RuleApplicationException {
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
         SpiderDiagram targetSubgoal = getSubgoal(target, goals);
-        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transform(new RemoveShadingTransformer(target, targetContours, applyStyle));
+        newSubgoals[target.getSubgoalIndex()] = targetSubgoal.transformAt(new RemoveShadingTransformer(target, targetContours, applyStyle), target.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
 
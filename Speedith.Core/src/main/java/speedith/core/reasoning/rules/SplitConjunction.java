@@ -88,9 +88,9 @@ public class SplitConjunction extends UnaryForwardRule implements Serializable {
             if (i == arg.getSubgoalIndex()) {
                 SpiderDiagram target = getSubgoal(arg, goals);
                 newSubgoals.add(
-                        target.transform(new SplitConjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 0)));
+                        target.transformAt(new SplitConjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 0), arg.getSubDiagramIndex()));
                 newSubgoals.add(
-                        target.transform(new SplitConjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 1)));
+                        target.transformAt(new SplitConjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 1), arg.getSubDiagramIndex()));
             } else {
                 newSubgoals.add(goals.getGoalAt(i));
             }
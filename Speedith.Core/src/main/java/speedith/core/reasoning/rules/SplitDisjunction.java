@@ -85,9 +85,9 @@ public class SplitDisjunction extends UnaryForwardRule implements Serializable {
             if (i == arg.getSubgoalIndex()) {
                 SpiderDiagram target = getSubgoal(arg, goals);
                 newSubgoals.add(
-                        target.transform(new SplitDisjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 0)));
+                        target.transformAt(new SplitDisjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 0), arg.getSubDiagramIndex()));
                 newSubgoals.add(
-                        target.transform(new SplitDisjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 1)));
+                        target.transformAt(new SplitDisjunctionTransformer(arg.getSubDiagramIndex(), applyStyle, 1), arg.getSubDiagramIndex()));
             } else {
                 newSubgoals.add(goals.getGoalAt(i));
             }
@@ -64,7 +64,7 @@ public class SplitSpiders extends SimpleInferenceRule<SpiderRegionArg> implement
     public RuleApplicationResult apply(final RuleArg args, Goals goals) throws RuleApplicationException {
         SpiderRegionArg arg = getTypedRuleArgs(args);
         SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transform(new SplitSpiderTransformer(arg), false);
+        newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transformAt(new SplitSpiderTransformer(arg), arg.getSubDiagramIndex());
         return createRuleApplicationResult(newSubgoals);
     }
     //</editor-fold>
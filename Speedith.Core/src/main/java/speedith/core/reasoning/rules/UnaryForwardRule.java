@@ -75,7 +75,7 @@ public abstract class UnaryForwardRule
   protected RuleApplicationResult apply(final RuleArg args, Goals goals, ApplyStyle applyStyle) throws RuleApplicationException {
     SubDiagramIndexArg arg = getTypedRuleArgs(args);
     SpiderDiagram[] newSubgoals = goals.getGoals().toArray(new SpiderDiagram[goals.getGoalsCount()]);
-    newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transform(getSententialTransformer(arg, applyStyle));
+    newSubgoals[arg.getSubgoalIndex()] = getSubgoal(arg, goals).transformAt(getSententialTransformer(arg, applyStyle), arg.getSubDiagramIndex());
     return createRuleApplicationResult(newSubgoals);
   }
 
@@ -1,24 +1,23 @@
 package speedith.core.reasoning
 
 import speedith.core.lang.{PrimarySpiderDiagram, CompoundSpiderDiagram, SpiderDiagram}
-import speedith.core.reasoning.rules.{CopySpider, CopyShading, CopyContoursTopological, CopyContours}
+import speedith.core.reasoning.automatic.HeuristicCache
+import speedith.core.reasoning.metrics.{Metrics, StandardMetrics}
 import scala.collection.JavaConversions._
 
 /**
-  * Methods to analyse a given proof.
+  * Methods to analyse a given proof. The metrics are computed by [[speedith.core.reasoning.metrics.Metrics]];
+  * use [[speedith.core.reasoning.metrics.Metrics#compute]] directly to compute several metrics in a single
+  * pass over the proof.
   *
   * @author Sven Linker [s.linker@brighton.ac.uk]
   *
   */
 object ProofAnalyser  {
 
-  def averageClutter(proof  : Proof) : Double = {
-    proof.getGoals.filter(p => !p.isEmpty).map(clutterScore).sum.toDouble / length(proof)
-  }
+  def averageClutter(proof  : Proof) : Double = Metrics.compute(proof, StandardMetrics.AVERAGE_CLUTTER)
 
-  def maximumClutter(proof:Proof) : Int = {
-    proof.getGoals.filter(p => !p.isEmpty).map(clutterScore).max
-  }
+  def maximumClutter(proof:Proof) : Int = Metrics.compute(proof, StandardMetrics.MAXIMUM_CLUTTER)
 
   /**
     * Computes the clutter score for the given spider diagram. For a primary spider
@@ -29,7 +28,37 @@ object ProofAnalyser  {
     * @param diagram The spider diagram to compute the clutter score for
     * @return the clutter score of the given spider diagram
     */
-  def clutterScore(diagram : SpiderDiagram): Int = diagram match {
+  def clutterScore(diagram : SpiderDiagram): Int = {
+    val key = new HeuristicCache.DiagramKey(diagram)
+    val cached = clutterCache.get(key)
+    if (cached != null) {
+      cached.intValue
+    } else {
+      val result = computeClutterScore(diagram)
+      clutterCache.put(key, result)
+      result
+    }
+  }
+
+  private val ClutterCacheSize = 1 << 16
+
+  /**
+    * Memoises the clutter scores of (interned) diagrams. Shared by all users of clutterScore,
+    * e.g., the LowClutterStrategy.
+    */
+  val clutterCache = new HeuristicCache[HeuristicCache.DiagramKey, Integer](ClutterCacheSize)
+
+  /**
+    * Removes all memoised clutter scores, e.g., between independent measurements.
+    */
+  def clearCaches(): Unit = clutterCache.clear()
+
+  private def computeClutterScore(diagram : SpiderDiagram): Int = diagram match {
+    case sd : PrimarySpiderDiagram if sd.hasImplicitPresentZones =>
+      // each contour contains half of all 2^n zones
+      val n = sd.getAllContours.size
+      val allInContours = if (n == 0) 0 else n * (1 << (n - 1))
+      allInContours - sd.getMissingZones.toList.map(_.getInContoursCount).sum + sd.getShadedZones.count(z => sd.isZonePresent(z))
     case sd : PrimarySpiderDiagram =>
       sd.getPresentZones.toList.map(_.getInContoursCount).sum + (sd.getShadedZones & sd.getPresentZones).size
     case sd:CompoundSpiderDiagram =>
@@ -46,60 +75,25 @@ object ProofAnalyser  {
     goals.getGoals.map(clutterScore).sum
   }
 
-  def complexRuleCount(proof : Proof) : Int = {
-    proof.getInferenceApplications.map(r => r.getInference match  {
-      case r1 : CopyContours  => 1
-      case r2 : CopyContoursTopological => 1
-      case r3 : CopyShading => 1
-      case r4 : CopySpider => 1
-      case _ => 0
-    }).sum
-  }
+  def complexRuleCount(proof : Proof) : Int = Metrics.compute(proof, StandardMetrics.COMPLEX_RULE_COUNT)
 
-  def averageNumberOfComplexRules(proof: Proof) : Double ={
-    complexRuleCount(proof).toDouble / length(proof)
-  }
+  def averageNumberOfComplexRules(proof: Proof) : Double = Metrics.compute(proof, StandardMetrics.AVERAGE_NUMBER_OF_COMPLEX_RULES)
 
   def length(proof: Proof) : Int = proof.getInferenceApplicationCount
 
-  def numberOfInteractions(proof : Proof) : Int = {
-    val interactiveApps =  proof.getInferenceApplications.count(app => app.getType.equals(RuleApplicationType.INTERACTIVE))
-    val methodInvocations = numberOfProofMethodInvocations(proof.getInferenceApplications.toList)
-    interactiveApps + methodInvocations
-  }
+  def numberOfInteractions(proof : Proof) : Int = Metrics.compute(proof, StandardMetrics.NUMBER_OF_INTERACTIONS)
 
-  def numberOfProofMethodInvocations(apps : List[InferenceApplication]) : Int = apps match {
-    case Nil => 0
-    case app :: Nil => 0
-    case app1 :: app2 :: x =>
-     val rest = numberOfProofMethodInvocations(app2::x)
-      if(!app2.getType.equals(RuleApplicationType.INTERACTIVE) &&
-        (app1.getType != app2.getType || !app1.getTypeSpecifier.equals(app2.getTypeSpecifier)))
-      {
-        1+rest
-      } else {
-        0+rest
-      }
+  def numberOfProofMethodInvocations(apps : List[InferenceApplication]) : Int = {
+    // iterative, since long proofs would overflow the stack of a recursive traversal
+    apps.iterator.sliding(2).count {
+      case Seq(app1, app2) => StandardMetrics.isProofMethodInvocation(app1, app2)
+      case _ => false
+    }
   }
 
-  def averageInteractions(proof:Proof) : Double = {
-    numberOfInteractions(proof).toDouble /length(proof)
-  }
+  def averageInteractions(proof:Proof) : Double = Metrics.compute(proof, StandardMetrics.AVERAGE_INTERACTIONS)
 
-  def maximalClutterVelocity(proof : Proof) : Int = {
-    val goals = proof.getGoals.filter(g => !g.isEmpty).toList
-    if (goals.size > 1) {
-      val tuples = goals.sliding(2).map(t => t match {
-        case List(x, y) => clutterScore(x) - clutterScore(y)
-      })
-      val list = tuples.toList.map(i => if (i < 0) -i else i)
-      list.max
-    } else {
-      0
-    }
-  }
+  def maximalClutterVelocity(proof : Proof) : Int = Metrics.compute(proof, StandardMetrics.MAXIMAL_CLUTTER_VELOCITY)
 
-  def numberOfAutomaticRuleApplications(proof : Proof) : Int = {
-    proof.getInferenceApplications.count(app => app.getType.equals(RuleApplicationType.AUTOMATIC))
-  }
+  def numberOfAutomaticRuleApplications(proof : Proof) : Int = Metrics.compute(proof, StandardMetrics.NUMBER_OF_AUTOMATIC_RULE_APPLICATIONS)
 }
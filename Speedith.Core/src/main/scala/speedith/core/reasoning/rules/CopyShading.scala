@@ -43,7 +43,7 @@ class CopyShading extends SimpleInferenceRule[MultipleRuleArgs] with Serializabl
     val newSubgoals = goals.getGoals.toList.toArray[SpiderDiagram]
     val targetSubgoal = SimpleInferenceRule.getSubgoal(zoneArgs.head, goals)
     val indexOfParent = targetSubgoal.getParentIndexOf(zoneArgs.head.getSubDiagramIndex)
-    newSubgoals(zoneArgs.head.getSubgoalIndex) = targetSubgoal.transform(CopyShadingTransformer(indexOfParent, zoneArgs))
+    newSubgoals(zoneArgs.head.getSubgoalIndex) = targetSubgoal.transformAt(CopyShadingTransformer(indexOfParent, zoneArgs), indexOfParent)
     new RuleApplicationResult(Goals.createGoalsFrom(seqAsJavaList(newSubgoals)))
   }
 }
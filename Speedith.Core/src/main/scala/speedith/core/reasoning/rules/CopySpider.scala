@@ -42,7 +42,7 @@ class CopySpider extends SimpleInferenceRule[SpiderArg] with Serializable {
     val newSubgoals = goals.getGoals.toSeq.toArray[SpiderDiagram]
     val targetSubgoal = SimpleInferenceRule.getSubgoal(args, goals)
     val indexOfParent: Int = targetSubgoal.getParentIndexOf(args.getSubDiagramIndex)
-    newSubgoals(args.getSubgoalIndex) = targetSubgoal.transform(CopySpiderTransformer(indexOfParent, args))
+    newSubgoals(args.getSubgoalIndex) = targetSubgoal.transformAt(CopySpiderTransformer(indexOfParent, args), indexOfParent)
     new RuleApplicationResult(Goals.createGoalsFrom(seqAsJavaList(newSubgoals)))
   }
 }
@@ -19,10 +19,15 @@ class IntroShadedZoneTransformer (target:  SubDiagramIndexArg, zones : java.util
                          parents: java.util.ArrayList[CompoundSpiderDiagram],
                          childIndices: java.util.ArrayList[java.lang.Integer]): SpiderDiagram = {
     if (diagramIndex == subDiagramIndex) {
-        if ( (zones.map(_.getZone) -- (psd.getShadedZones -- psd.getPresentZones)).nonEmpty) {
+        if ( (zones.map(_.getZone) -- psd.getShadedZones.filterNot(z => psd.isZonePresent(z))).nonEmpty) {
           throw new TransformationException("One of the selected zones is not missing.")
         }
-        SpiderDiagrams.createPrimarySD(psd.getHabitats,psd.getShadedZones, psd.getPresentZones ++  zones.map(_.getZone))
+        if (psd.hasImplicitPresentZones) {
+          SpiderDiagrams.createNormalisedPrimarySD(psd.getHabitats.keySet, psd.getHabitats, psd.getShadedZones, psd.getAllContours,
+            psd.getMissingZones -- zones.map(_.getZone))
+        } else {
+          SpiderDiagrams.createPrimarySD(psd.getHabitats,psd.getShadedZones, psd.getPresentZones ++  zones.map(_.getZone))
+        }
     } else {
       null
     }
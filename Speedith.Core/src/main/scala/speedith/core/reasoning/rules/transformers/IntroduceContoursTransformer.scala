@@ -33,8 +33,16 @@ case class IntroduceContoursTransformer(target : SubDiagramIndexArg, contours :
         if ((contoursToAdd & psd.getAllContours).nonEmpty ) {
           throw new TransformationException("The contours to be introduced must not be contained in the target diagram.")
         }
-        SpiderDiagrams.createPrimarySD(createHabitats(psd.getHabitats.toMap, contoursToAdd), ReasoningUtils.shadedRegionWithNewContours(psd.getShadedZones.toSet,contoursToAdd),
-          ReasoningUtils.regionWithNewContours(psd.getPresentZones,contoursToAdd) )
+        if (psd.hasImplicitPresentZones) {
+          // a new zone is missing iff its restriction to the old contours was missing
+          val habitats = createHabitats(psd.getHabitats.toMap, contoursToAdd)
+          SpiderDiagrams.createNormalisedPrimarySD(habitats.keySet, habitats, ReasoningUtils.shadedRegionWithNewContours(psd.getShadedZones.toSet,contoursToAdd),
+            psd.getAllContours ++ contoursToAdd,
+            ReasoningUtils.shadedRegionWithNewContours(psd.getMissingZones.toSet,contoursToAdd))
+        } else {
+          SpiderDiagrams.createPrimarySD(createHabitats(psd.getHabitats.toMap, contoursToAdd), ReasoningUtils.shadedRegionWithNewContours(psd.getShadedZones.toSet,contoursToAdd),
+            ReasoningUtils.regionWithNewContours(psd.getPresentZones,contoursToAdd) )
+        }
 
       /*        EulerDiagrams.createPrimaryEulerDiagram(
           ReasoningUtils.shadedRegionWithNewContours(psd.getShadedZones.toSet,contoursToAdd),
@@ -49,6 +49,18 @@ case class RemoveContoursTransformer(contourArgs: java.util.List[ContourArg], ap
       if (!psd.getAllContours.containsAll(contoursToRemove)) {
         throw new TransformationException("The contours to be removed do not exist in the target diagram")
       }
+      if (psd.hasImplicitPresentZones) {
+        // a zone is missing after the removal iff all zones it has been split into were missing
+        SpiderDiagrams.createNormalisedPrimarySD(
+          psd.getSpiders,
+          psd.getHabitats.map {
+            case (spider, habitat) => (spider, new Region(regionWithoutContours(habitat.zones)))
+          },
+          shadedRegionWithoutContours(psd.getShadedZones.toSet),
+          psd.getAllContours -- contoursToRemove,
+          shadedRegionWithoutContours(psd.getMissingZones.toSet)
+        )
+      } else {
         SpiderDiagrams.createPrimarySD(
           psd.getSpiders,
           psd.getHabitats.map {
@@ -57,6 +69,7 @@ case class RemoveContoursTransformer(contourArgs: java.util.List[ContourArg], ap
           shadedRegionWithoutContours(psd.getShadedZones.toSet),
           regionWithoutContours(psd.getPresentZones.toSet)
         )
+      }
     } else {
       null
     }
@@ -30,7 +30,12 @@ class RemoveShadedZoneTransformer (target:  SubDiagramIndexArg, zones : java.uti
         if (psd.getHabitats.values exists (r => (r.zones & (zones map (arg => arg.getZone)).toSet).nonEmpty)) {
           throw new RuleApplicationException("Cannot remove zone that contains a spider")
         }
-        SpiderDiagrams.createPrimarySD(psd.getHabitats, psd.getShadedZones , psd.getPresentZones-- zones.map(_.getZone))
+        if (psd.hasImplicitPresentZones) {
+          SpiderDiagrams.createNormalisedPrimarySD(psd.getHabitats.keySet, psd.getHabitats, psd.getShadedZones, psd.getAllContours,
+            psd.getMissingZones ++ zones.map(_.getZone))
+        } else {
+          SpiderDiagrams.createPrimarySD(psd.getHabitats, psd.getShadedZones , psd.getPresentZones-- zones.map(_.getZone))
+        }
     } else {
       null
     }
@@ -28,6 +28,10 @@ object AutomaticUtils {
   }
 
   def containsEmptyZone (sd : SpiderDiagram): Boolean = sd match {
+    case sd:PrimarySpiderDiagram if sd.hasImplicitPresentZones =>
+      // a contour is empty iff all 2^(n-1) zones inside of it are missing
+      val zonesPerContour = 1L << (sd.getAllContours.size - 1)
+      sd.getAllContours.exists(c => sd.getMissingZones.count(_.getInContours.contains(c)) == zonesPerContour)
     case sd:PrimarySpiderDiagram =>
       sd.getAllContours.exists(c => sd.getPresentZones.forall(!_.getInContours.contains(c)))
     case sd: CompoundSpiderDiagram =>
@@ -47,29 +51,53 @@ object AutomaticUtils {
    * @return A set of PossibleRuleApplication denoting all rule applications possible to target
    */
   def createAllPossibleRuleApplications(subGoalIndex:Int, target: SpiderDiagramOccurrence, contours: util.Collection[String]):java.util.Set[_ <: PossibleRuleApplication[_ <: RuleArg]]  = {
-   createAllPossibleRuleApplicationsRec(subGoalIndex, target, contours)
+   createPossibleRuleApplicationsRec(subGoalIndex, target, contours).toSet[PossibleRuleApplication[_ <: RuleArg]]
   }
 
+  /**
+   * Lazily enumerates all possible rule applications for the given SpiderDiagram with respect to the given set of contours.
+   * The candidates are the same as the ones returned by [[createAllPossibleRuleApplications]], but the candidates of
+   * each rule (and each subdiagram) are only created once all candidates before them have been consumed. Hence, a
+   * search that only needs some of the successors of a proof does not pay for the creation of all of them.
+   *
+   * @param target The SpiderDiagramOccurrence for which the PossibleRuleApplication will be created
+   * @param contours The set of contours present in the whole subgoal target is contained in
+   * @return An iterator over all rule applications possible to target
+   */
+  def createPossibleRuleApplications(subGoalIndex:Int, target: SpiderDiagramOccurrence, contours: util.Collection[String]):java.util.Iterator[PossibleRuleApplication[_ <: RuleArg]] = {
+    createPossibleRuleApplicationsRec(subGoalIndex, target, contours)
+  }
 
-  private def createAllPossibleRuleApplicationsRec (subGoalIndex:Int, target: SpiderDiagramOccurrence, contours: util.Collection[String]):Set[_ <: PossibleRuleApplication[_ <: RuleArg]] = target match {
+  private type Candidate = PossibleRuleApplication[_ <: RuleArg]
+
+  /**
+   * Concatenates the results of the given generators, calling each generator only when the
+   * results of the previous ones have been consumed.
+   */
+  private def lazily(generators: (() => TraversableOnce[Candidate])*): Iterator[Candidate] =
+    generators.iterator.flatMap(generator => generator())
+
+  private def createPossibleRuleApplicationsRec (subGoalIndex:Int, target: SpiderDiagramOccurrence, contours: util.Collection[String]):Iterator[Candidate] = target match {
     case target : PrimarySpiderDiagramOccurrence =>
-      createRemoveShadedZoneApplications(subGoalIndex, target) ++
-        createRemoveShadingApplications(subGoalIndex,target) ++
-        createIntroducedShadedZoneApplications(subGoalIndex,target) ++
-        createRemoveContourApplications(subGoalIndex,target) ++
-        createIntroduceContoursApplication(subGoalIndex,target, contours)
+      lazily(
+        () => createRemoveShadedZoneApplications(subGoalIndex, target),
+        () => createRemoveShadingApplications(subGoalIndex,target),
+        () => createIntroducedShadedZoneApplications(subGoalIndex,target),
+        () => createRemoveContourApplications(subGoalIndex,target),
+        () => createIntroduceContoursApplication(subGoalIndex,target, contours))
     case target : CompoundSpiderDiagramOccurrence =>  target.getCompoundDiagram.getOperator match  {
       case Operator.Conjunction =>
-        createCopyContourApplications(subGoalIndex,target) ++
-          createCopyShadingApplications(subGoalIndex,target) ++
-          createCombiningApplications(subGoalIndex,target) ++
-          createAllPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(0), contours) ++
-          createAllPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(1), contours) ++
-          createConjunctionEliminationApplication(subGoalIndex,target)
-      case Operator.Implication => createAllPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(0), contours)
-      case _ => Set()
+        lazily(
+          () => createCopyContourApplications(subGoalIndex,target),
+          () => createCopyShadingApplications(subGoalIndex,target),
+          () => createCombiningApplications(subGoalIndex,target),
+          () => createPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(0), contours),
+          () => createPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(1), contours),
+          () => createConjunctionEliminationApplication(subGoalIndex,target))
+      case Operator.Implication => createPossibleRuleApplicationsRec(subGoalIndex,target.getOperand(0), contours)
+      case _ => Iterator.empty
     }
-    case _ => Set() //TODO: full implementation for Compound Diagrams!
+    case _ => Iterator.empty //TODO: full implementation for Compound Diagrams!
   }
 
 
@@ -105,18 +133,18 @@ object AutomaticUtils {
 //        val contoursOnlyInLeft = leftContours -- rightContours
 //        val contoursOnlyInRight = rightContours -- leftContours
 //      val leftVisibleShadedZones = leftDiagram.getShadedZones & leftDiagram.getPresentZones
-      val shadedZonesLeft = (leftDiagram.getShadedZones & leftDiagram.getPresentZones).toSet
+      val shadedZonesLeft = leftDiagram.getShadedZones.filter(z => leftDiagram.isZonePresent(z)).toSet
       val shadedRegionsPerContourLeft = leftContours map (c => shadedZonesLeft filter (z => z.getInContours.contains(c) ||z.getInContours.isEmpty)) filter (_.nonEmpty)
       val regionsLeft = shadedRegionsPerContourLeft map (region => Tuple2(region, CorrespondingRegions(leftDiagram, rightDiagram).correspondingRegion(new Region(region)).zones)) filter (m => m._2.nonEmpty)
-      val unShadedTargetsLeft = regionsLeft filter (_._2.exists((rightDiagram.getPresentZones -- rightDiagram.getShadedZones).contains ))
+      val unShadedTargetsLeft = regionsLeft filter (_._2.exists(z => rightDiagram.isZonePresent(z) && !rightDiagram.getShadedZones.contains(z)))
       val leftResult = unShadedTargetsLeft.
         map(r => new PossibleCopyShading(subGoalIndex,target.getOperand(0), new CopyShading(), r._1))
 
 //      val rightVisibleShadedZones = rightDiagram.getShadedZones & rightDiagram.getPresentZones
-      val shadedZonesRight = (rightDiagram.getShadedZones & leftDiagram.getPresentZones).toSet
+      val shadedZonesRight = rightDiagram.getShadedZones.filter(z => leftDiagram.isZonePresent(z)).toSet
       val shadedRegionsPerContourRight = rightContours map (c => shadedZonesRight filter (z => z.getInContours.contains(c) ||z.getInContours.isEmpty)) filter (_.nonEmpty)
       val regionsRight = shadedRegionsPerContourRight map (region => Tuple2(region, CorrespondingRegions(rightDiagram, leftDiagram).correspondingRegion(new Region(region)).zones)) filter (m => m._2.nonEmpty)
-      val unShadedTargetsRight = regionsRight filter (_._2.exists((leftDiagram.getPresentZones -- leftDiagram.getShadedZones).contains ))
+      val unShadedTargetsRight = regionsRight filter (_._2.exists(z => leftDiagram.isZonePresent(z) && !leftDiagram.getShadedZones.contains(z)))
       val rightResult = unShadedTargetsRight.
         map(r => new PossibleCopyShading(subGoalIndex,target.getOperand(1), new CopyShading(), r._1))
 
@@ -154,37 +182,34 @@ object AutomaticUtils {
   }
 
   private def createRemoveContourApplications(subGoalIndex : Int,target: PrimarySpiderDiagramOccurrence): Set[PossibleRemoveContour] = {
-    val targetShadedZones = (target.getPresentZones & target.getShadedZones).toSet
-    val targetUnshadedZones = target.getPresentZones.toSet -- target.getShadedZones.toSet
+    // Only the shaded present zones are enumerated: for a zone z1 with c as an in-contour, the
+    // only zone that differs from z1 just in c is the zone with c as an out-contour (and vice versa).
+    val targetShadedZones = target.getShadedZones.filter(z => target.isZonePresent(z)).toSet
+    def isUnshadedPresent(z: Zone) = target.isZonePresent(z) && !target.getShadedZones.contains(z)
     val safeContours = target.getAllContours.toSet filterNot (
       c => targetShadedZones.exists (
           z1 => z1.getInContours.contains(c) &&
-            targetUnshadedZones.exists (z2 => z2.getOutContours.contains(c) &&
-                z2.getInContours.containsAll(z1.getInContours - c) &&
-                z2.getOutContours.containsAll(z1.getOutContours + c))))
+            isUnshadedPresent(new Zone(z1.getInContours - c, z1.getOutContours + c))))
     val safeContours2 = safeContours filterNot (
-        c => targetUnshadedZones.exists (
-          z1 => z1.getInContours.contains(c) &&
-          targetShadedZones.exists (
-            z2 => z2.getOutContours.contains(c)
-              && z2.getInContours.containsAll(z1.getInContours - c)
-              && z2.getOutContours.containsAll(z1.getOutContours + c))))
+        c => targetShadedZones.exists (
+          z2 => z2.getOutContours.contains(c) &&
+            isUnshadedPresent(new Zone(z2.getInContours + c, z2.getOutContours - c))))
       safeContours2 map (new PossibleRemoveContour(subGoalIndex, target, new RemoveContour(), _))
   }
 
 
   private def createRemoveShadedZoneApplications(subGoalIndex : Int,target: PrimarySpiderDiagramOccurrence) : Set[PossibleRemoveShadedZone] = {
-    (target.getShadedZones & target.getPresentZones) .filter(z => z.getInContours.nonEmpty).
+    target.getShadedZones.filter(z => target.isZonePresent(z) && z.getInContours.nonEmpty).
       map(z => new PossibleRemoveShadedZone(subGoalIndex, target, new RemoveShadedZone(), z)).toSet
   }
 
   private def createIntroducedShadedZoneApplications(subGoalIndex :Int,target: PrimarySpiderDiagramOccurrence) :Set[PossibleIntroShadedZone] = {
-    (target.getShadedZones -- target.getPresentZones).
+    target.getShadedZones.filterNot(z => target.isZonePresent(z)).
     map(z => new PossibleIntroShadedZone(subGoalIndex,target, new IntroShadedZone(), z)).toSet
   }
 
   private def createRemoveShadingApplications(subGoalIndex : Int,target: PrimarySpiderDiagramOccurrence): Set[PossibleRemoveShading] = {
-    (target.getShadedZones & target.getPresentZones).
+    target.getShadedZones.filter(z => target.isZonePresent(z)).
       map(z => new PossibleRemoveShading(subGoalIndex,target, new RemoveShading(), z)).toSet
   }
 
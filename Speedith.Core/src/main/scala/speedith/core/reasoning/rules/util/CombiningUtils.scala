@@ -15,11 +15,24 @@ object CombiningUtils {
     val leftDiagramHabitats = habitatsNotInOther(leftZonesWithSpiders, rightZonesWithSpiders, leftConjunct.getHabitats)
     val rightDiagramHabitats = habitatsNotInOther(rightZonesWithSpiders, leftZonesWithSpiders, rightConjunct.getHabitats)
     val sharedHabitats = habitatsFromDiagramWithMoreSpiders(leftZonesWithSpiders, leftConjunct.getHabitats, rightZonesWithSpiders, rightConjunct.getHabitats)
-    SpiderDiagrams.createPrimarySD(
-      leftDiagramHabitats ++ rightDiagramHabitats ++ sharedHabitats,
-      leftConjunct.getShadedZones ++ rightConjunct.getShadedZones,
-      leftConjunct.getPresentZones ++ rightConjunct.getPresentZones
-    )
+    if (leftConjunct.hasImplicitPresentZones && rightConjunct.hasImplicitPresentZones
+      && leftConjunct.getAllContours.equals(rightConjunct.getAllContours)) {
+      // the union of the present zones misses exactly the zones missing in both conjuncts
+      val habitats = leftDiagramHabitats ++ rightDiagramHabitats ++ sharedHabitats
+      SpiderDiagrams.createNormalisedPrimarySD(
+        habitats.keySet,
+        habitats,
+        leftConjunct.getShadedZones ++ rightConjunct.getShadedZones,
+        leftConjunct.getAllContours,
+        leftConjunct.getMissingZones.filter(z => rightConjunct.getMissingZones.contains(z))
+      )
+    } else {
+      SpiderDiagrams.createPrimarySD(
+        leftDiagramHabitats ++ rightDiagramHabitats ++ sharedHabitats,
+        leftConjunct.getShadedZones ++ rightConjunct.getShadedZones,
+        leftConjunct.getPresentZones ++ rightConjunct.getPresentZones
+      )
+    }
   }
 
   private def habitatsNotInOther(zonesWithSpiders: Map[Zone, List[String]], otherZonesWithSpiders: Map[Zone, List[String]], habitats: util.SortedMap[String, Region]): Map[String, Region] = {
@@ -3,6 +3,7 @@ package speedith.core.reasoning.rules.util
 import java.util
 
 import speedith.core.lang._
+import speedith.core.reasoning.automatic.HeuristicCache
 
 import scala.collection.JavaConversions._
 
@@ -12,13 +13,41 @@ import scala.collection.JavaConversions._
  * that are visible are contained in the set "presentZones". That is, the missing zones
  * are the elements of "shadedZones" that are not elements of "presentZones"
  *
+ * Diagrams whose present zones are given implicitly (see PrimarySpiderDiagram#hasImplicitPresentZones)
+ * are handled via their missing zones, so that the present zones are never enumerated.
+ *
  * @author Sven Linker [s.linker@brighton.ac.uk]
  *
  */
 object HeuristicUtils {
 
+  private val MetricCacheSize = 1 << 16
+
+  /**
+   * Memoises the results of metric for pairs of (interned) diagrams. Shared by all
+   * strategies that use metric.
+   */
+  val metricCache = new HeuristicCache[HeuristicCache.DiagramKey, Integer](MetricCacheSize)
+
+  /**
+   * Removes all memoised results of metric, e.g., between independent measurements.
+   */
+  def clearCaches(): Unit = metricCache.clear()
+
   // TODO: still missing measure for negation
   def metric(d1: SpiderDiagram, d2:SpiderDiagram) : Int = {
+    val key = new HeuristicCache.DiagramKey(d1, d2)
+    val cached = metricCache.get(key)
+    if (cached != null) {
+      cached.intValue
+    } else {
+      val result = computeMetric(d1, d2)
+      metricCache.put(key, result)
+      result
+    }
+  }
+
+  private def computeMetric(d1: SpiderDiagram, d2:SpiderDiagram) : Int = {
     val contours = (AutomaticUtils.collectContours(d1) ++ AutomaticUtils.collectContours(d2)).toSet
     val cform1 = computeCForm(d1,contours)
     val cform2 = computeCForm(d2,contours)
@@ -79,7 +108,16 @@ object HeuristicUtils {
   }
 
   def zoneDiffMetric(d1 :SpiderDiagram, d2: SpiderDiagram) : Int = {
-    addZ(d1,d2)+remZ(d1,d2)
+    if (hasImplicitPresentZones(d1) && hasImplicitPresentZones(d2)) {
+      addMissingZ(d1,d2)+remMissingZ(d1,d2)
+    } else {
+      addZ(d1,d2)+remZ(d1,d2)
+    }
+  }
+
+  private def hasImplicitPresentZones(d: SpiderDiagram) : Boolean = d match {
+    case d: PrimarySpiderDiagram => d.hasImplicitPresentZones
+    case d: CompoundSpiderDiagram => d.getOperands.forall(hasImplicitPresentZones)
   }
 
   private def addZ(d1 : SpiderDiagram, d2: SpiderDiagram) : Int = {
@@ -115,6 +153,13 @@ object HeuristicUtils {
   }
 
   def computeCForm(d1: SpiderDiagram, contours :Set[String]) : SpiderDiagram = d1 match  {
+    case d1 : PrimarySpiderDiagram if d1.hasImplicitPresentZones =>
+      // a zone is missing in the c-form iff its restriction to the contours of d1 is missing
+      val newContours = contours -- d1.getAllContours
+      SpiderDiagrams.createNormalisedPrimarySD(null, null,
+        ReasoningUtils.shadedRegionWithNewContours(d1.getShadedZones.toSet, newContours),
+        contours,
+        ReasoningUtils.shadedRegionWithNewContours(d1.getMissingZones.toSet, newContours))
     case d1 : PrimarySpiderDiagram  =>
       val newContours = contours -- d1.getAllContours
       EulerDiagrams.createPrimaryEulerDiagram(
@@ -151,6 +196,63 @@ object HeuristicUtils {
     }
   }
 
+  /*
+   * The following functions compute the same as addZ and remZ for diagrams in c-form with implicit
+   * present zones. Since all primary diagrams in c-form have the same contours, they work on the
+   * complements of zoneM1 and zoneM2, i.e., on the missing zones. None denotes the set of all zones
+   * (i.e., the complement of an empty set of present zones).
+   */
+  private def addMissingZ(d1 : SpiderDiagram, d2: SpiderDiagram) : Int = {
+    math.max(
+      if (isMissingSubset(missingM1(d1), missingM1(d2))) 0 else 1,
+      if (isMissingSubset(missingM2(d1), missingM2(d2))) 0 else 1
+    )
+  }
+
+  private def remMissingZ(d1 : SpiderDiagram, d2: SpiderDiagram) : Int = {
+    math.max(
+      if (isMissingSubset(missingM1(d2), missingM1(d1))) 0 else 1,
+      if (isMissingSubset(missingM2(d2), missingM2(d1))) 0 else 1
+    )
+  }
+
+  private def isMissingSubset(m1 : Option[Set[Zone]], m2: Option[Set[Zone]]) : Boolean = (m1, m2) match {
+    case (_, None) => true
+    case (None, Some(_)) => false
+    case (Some(s1), Some(s2)) => s1.subsetOf(s2)
+  }
+
+  private def missingUnion(m1 : Option[Set[Zone]], m2: Option[Set[Zone]]) : Option[Set[Zone]] = (m1, m2) match {
+    case (Some(s1), Some(s2)) => Some(s1 ++ s2)
+    case _ => None
+  }
+
+  private def missingIntersection(m1 : Option[Set[Zone]], m2: Option[Set[Zone]]) : Option[Set[Zone]] = (m1, m2) match {
+    case (Some(s1), Some(s2)) => Some(s1 & s2)
+    case (Some(s1), None) => Some(s1)
+    case (None, _) => m2
+  }
+
+  private def missingM1(d: SpiderDiagram) : Option[Set[Zone]] = d match {
+    case d: PrimarySpiderDiagram => Some(d.getMissingZones.toSet)
+    case d: CompoundSpiderDiagram => d.getOperator match {
+      case Operator.Conjunction => missingUnion(missingM1(d.getOperand(0)), missingM1(d.getOperand(1)))
+      case Operator.Disjunction => missingIntersection(missingM1(d.getOperand(0)), missingM1(d.getOperand(1)))
+      case Operator.Negation => missingM2(d.getOperand(0))
+      case _ => None
+    }
+  }
+
+  private def missingM2(d: SpiderDiagram) : Option[Set[Zone]] = d match {
+    case d: PrimarySpiderDiagram => Some(d.getMissingZones.toSet)
+    case d: CompoundSpiderDiagram => d.getOperator match {
+      case Operator.Conjunction => missingUnion(missingM2(d.getOperand(0)), missingM2(d.getOperand(1)))
+      case Operator.Disjunction => missingIntersection(missingM2(d.getOperand(0)), missingM2(d.getOperand(1)))
+      case Operator.Negation => missingM1(d.getOperand(0))
+      case _ => None
+    }
+  }
+
 
   def shadingDiffMetric(d1 : SpiderDiagram, d2: SpiderDiagram) : Int = {
     addSh(d1,d2)+remSh(d1,d2)
@@ -190,12 +292,15 @@ object HeuristicUtils {
   }
 
   def computeVennForm(d : SpiderDiagram) : SpiderDiagram = d match {
+    case d: PrimarySpiderDiagram if d.hasImplicitPresentZones =>
+      SpiderDiagrams.createNormalisedPrimarySD(null, null, d.getShadedZones, d.getAllContours,
+        d.getMissingZones.filterNot(z => d.getShadedZones.contains(z)).toSet).asInstanceOf[SpiderDiagram]
     case d: PrimarySpiderDiagram => EulerDiagrams.createPrimaryEulerDiagram(d.getShadedZones, d.getPresentZones.toSet ++d.getShadedZones).asInstanceOf[SpiderDiagram]
     case d: CompoundSpiderDiagram => SpiderDiagrams.createCompoundSD(d.getOperator.getName, d.getOperands.map(computeVennForm).toSeq)
   }
 
   private def shadingM1(d: SpiderDiagram) : Set[Zone] = d match {
-    case d: PrimarySpiderDiagram => (d.getPresentZones & d.getShadedZones).toSet
+    case d: PrimarySpiderDiagram => d.getShadedZones.filter(z => d.isZonePresent(z)).toSet
     case d: CompoundSpiderDiagram => d.getOperator match {
       case Operator.Conjunction => shadingM1(d.getOperand(0)) & shadingM1(d.getOperand(1))
       case Operator.Disjunction => shadingM1(d.getOperand(0)) ++ shadingM1(d.getOperand(1))
@@ -205,7 +310,7 @@ object HeuristicUtils {
   }
 
   private def shadingM2(d: SpiderDiagram) : Set[Zone] = d match {
-    case d: PrimarySpiderDiagram => (d.getPresentZones & d.getShadedZones).toSet
+    case d: PrimarySpiderDiagram => d.getShadedZones.filter(z => d.isZonePresent(z)).toSet
     case d: CompoundSpiderDiagram => d.getOperator match {
       case Operator.Conjunction => shadingM2(d.getOperand(0)) & shadingM2(d.getOperand(1))
       case Operator.Disjunction => shadingM2(d.getOperand(0)) ++ shadingM2(d.getOperand(1))
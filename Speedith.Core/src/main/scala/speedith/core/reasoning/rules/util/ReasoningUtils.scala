@@ -23,7 +23,8 @@ object ReasoningUtils {
    *
    * Adds zones to the set of present zones in each subgoal. The added zones are taken from all
    * possible zones, without the shaded zones that are not in the set of currently present zones (i.e., that are
-   * are missing zones, in the typical definition of Spider Diagrams).
+   * are missing zones, in the typical definition of Spider Diagrams). The resulting present zones are
+   * not enumerated, see [[speedith.core.lang.PrimarySpiderDiagram#hasImplicitPresentZones]].
     *
     * @param goals The set of goals to be normalised
    * @return
@@ -34,20 +35,22 @@ object ReasoningUtils {
 
   def normalize (sd : SpiderDiagram): SpiderDiagram= sd match {
     case psd: PrimarySpiderDiagram =>
-      val allContours = psd.getAllContours.toSeq.asJava
-      val possibleZones: Set[Zone] = Zones.allZonesForContours(allContours: _*).toSet
-      SpiderDiagrams.createPrimarySD(psd.getSpiders, psd.getHabitats, psd.getShadedZones, possibleZones -- (psd.getShadedZones -- psd.getPresentZones))
+      // the present zones are all possible zones except the missing ones. They are kept implicitly,
+      // so that the number of zones does not grow exponentially with the number of contours
+      val missingZones: Set[Zone] = psd.getShadedZones.filterNot(z => psd.isZonePresent(z)).toSet
+      SpiderDiagrams.createNormalisedPrimarySD(psd.getSpiders, psd.getHabitats, psd.getShadedZones, psd.getAllContours, missingZones)
     case csd : CompoundSpiderDiagram =>
       SpiderDiagrams.createCompoundSD(csd.getOperator, new java.util.ArrayList[SpiderDiagram](csd.getOperands.map(o=>  normalize(o))), true)
   }
 
 
+  /**
+   * Splits each of the given zones by the new contours (see [[speedith.core.lang.BitZone#expand]]). The zones are
+   * split on bit masks, which share a single symbol table.
+   */
   def expand(zones: Set[Zone], newContours: util.Set[String]): Set[Zone] = {
-    zones flatMap (
-      z => newContours.subsets flatMap (
-        cs => new util.HashSet[Zone]() + new Zone(z.getInContours.toSet ++ cs, z.getOutContours.toSet ++ newContours.diff(cs))
-        )
-      )
+    val symbols = new ContourSymbols(newContours)
+    zones flatMap (z => BitZone.fromZone(symbols, z).expand(newContours).map(_.toZone))
   }
 
 
@@ -55,8 +58,7 @@ object ReasoningUtils {
     if (newContours.isEmpty) {
       Set(zone)
     }  else {
-      newContours.subsets.flatMap(cs => new util.HashSet[Zone]() +
-        new Zone(zone.getInContours.toSet ++ cs, zone.getOutContours.toSet ++ newContours.diff(cs))).toSet
+      BitZone.fromZone(new ContourSymbols(newContours), zone).expand(newContours).map(_.toZone).toSet
     }
   }
 
@@ -0,0 +1,155 @@
+package speedith.core.reasoning.util.unitary
+
+import java.lang.Long.bitCount
+import java.util
+
+import speedith.core.lang.{PrimarySpiderDiagram, Region, Zone}
+
+import scala.collection.JavaConversions._
+import scala.collection.mutable
+
+/**
+ * Computes [[CorrespondingRegions corresponding regions]] on bit masks of zones instead of expanding
+ * every zone of the destination diagram by the contours it lacks.
+ *
+ * Each contour of the two diagrams is assigned a bit. A zone is represented by the mask of its in-contours,
+ * the out-contours are implied by the contours of the diagram it belongs to. The zones of the source
+ * diagram covering a destination zone are then found by projecting the source zones onto the contours
+ * both diagrams share: a destination zone corresponds to the source region iff the whole cylinder
+ * extension of its projection (i.e., all source zones with the same projection) is covered, which is
+ * a matter of counting the covered zones per projection.
+ *
+ * The masks are only used for zones that mention exactly the contours of their diagram. In all other
+ * cases, [[correspondingRegion]] returns `None` and the caller has to fall back to the expansion.
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+class CorrespondingRegionMasks private(sourceDiagram: PrimarySpiderDiagram,
+                                       destinationDiagram: PrimarySpiderDiagram,
+                                       contours: Array[String]) {
+
+  private val index: Map[String, Int] = contours.zipWithIndex.toMap
+
+  private val sourceMask = maskOf(sourceDiagram.getAllContours)
+  private val destinationMask = maskOf(destinationDiagram.getAllContours)
+  private val commonMask = sourceMask & destinationMask
+  private val onlyInSourceMask = sourceMask & ~destinationMask
+  private val onlyInDestinationMask = destinationMask & ~sourceMask
+
+  /**
+   * Computes the zones of the destination diagram corresponding to the given region of the source
+   * diagram, before removing the empty zones (see [[CorrespondingRegions.correspondingRegion]]).
+   *
+   * @return the corresponding zones, or `None` if a zone of the region or a missing zone of one of the
+   *         diagrams does not mention exactly the contours of its diagram.
+   */
+  def correspondingRegion(regionInSourceDiagram: Region): Option[mutable.Buffer[Zone]] = {
+    if (onlyInSourceMask != 0 || onlyInDestinationMask == 0) {
+      // the contours of the destination are a subset of the source contours, or neither is a subset
+      // of the other. In both cases, a destination zone corresponds iff all source zones agreeing
+      // with it on the shared contours are either in the region or missing in the source diagram.
+      inMasksOf(regionInSourceDiagram.zones ++ missingZones(sourceDiagram), sourceMask).map { covered =>
+        val coveredPerProjection = mutable.HashMap.empty[Long, Int].withDefaultValue(0)
+        for (in <- covered) {
+          coveredPerProjection(in & commonMask) += 1
+        }
+        val cylinderSize = 1L << bitCount(onlyInSourceMask)
+        destinationZones(in => coveredPerProjection(in & commonMask) == cylinderSize)
+      }
+    } else {
+      // the source contours are a proper subset of the destination contours. A destination zone
+      // corresponds iff its projection onto the source contours is in the region, or it is missing
+      // in the destination diagram itself.
+      for {
+        region <- inMasksOf(regionInSourceDiagram.zones, sourceMask)
+        missing <- inMasksOf(missingZones(destinationDiagram), destinationMask)
+      } yield destinationZones(in => region.contains(in & sourceMask) || missing.contains(in))
+    }
+  }
+
+  private def missingZones(diagram: PrimarySpiderDiagram): Iterable[Zone] =
+    diagram.getShadedZones.filterNot(diagram.isZonePresent)
+
+  /**
+   * Enumerates the in-masks of all zones over the destination contours that satisfy the given predicate.
+   */
+  private def destinationZones(corresponds: Long => Boolean): mutable.Buffer[Zone] = {
+    val result = mutable.Buffer.empty[Zone]
+    var in = 0L
+    do {
+      if (corresponds(in)) {
+        result += toZone(in, destinationMask)
+      }
+      // the next subset of the destination contours
+      in = (in - destinationMask) & destinationMask
+    } while (in != 0)
+    result
+  }
+
+  /**
+   * The in-masks of the given zones, if they all mention exactly the given contours.
+   */
+  private def inMasksOf(zones: Iterable[Zone], contoursMask: Long): Option[mutable.HashSet[Long]] = {
+    val masks = mutable.HashSet.empty[Long]
+    for (zone <- zones) {
+      val in = maskOf(zone.getInContours)
+      val out = maskOf(zone.getOutContours)
+      if (in < 0 || out < 0 || (in & out) != 0 || (in | out) != contoursMask) {
+        return None
+      }
+      masks += in
+    }
+    Some(masks)
+  }
+
+  /**
+   * The mask of the given contours, or -1 if one of them is not a contour of either diagram.
+   */
+  private def maskOf(contourNames: util.Collection[String]): Long = {
+    var mask = 0L
+    for (contour <- contourNames) {
+      index.get(contour) match {
+        case Some(i) => mask |= 1L << i
+        case None => return -1L
+      }
+    }
+    mask
+  }
+
+  private def toZone(in: Long, contoursMask: Long): Zone = new Zone(namesOf(in), namesOf(contoursMask & ~in))
+
+  private def namesOf(mask: Long): util.List[String] = {
+    val names = new util.ArrayList[String](bitCount(mask))
+    for (i <- contours.indices if (mask & (1L << i)) != 0) {
+      names.add(contours(i))
+    }
+    names
+  }
+}
+
+object CorrespondingRegionMasks {
+
+  /**
+   * The maximal number of contours of the destination diagram, for which all zones are enumerated.
+   */
+  val MaxDestinationContours = 30
+
+  /**
+   * The maximal number of contours of both diagrams together, so that a zone fits into a single mask.
+   */
+  val MaxContours = 62
+
+  /**
+   * Creates the masks for the given pair of diagrams.
+   *
+   * @return the masks, or `None` if the diagrams have too many contours.
+   */
+  def apply(sourceDiagram: PrimarySpiderDiagram, destinationDiagram: PrimarySpiderDiagram): Option[CorrespondingRegionMasks] = {
+    val contours = (sourceDiagram.getAllContours.toSet[String] ++ destinationDiagram.getAllContours.toSet[String]).toArray.sorted
+    if (contours.length > MaxContours || destinationDiagram.getAllContours.size > MaxDestinationContours) {
+      None
+    } else {
+      Some(new CorrespondingRegionMasks(sourceDiagram, destinationDiagram, contours))
+    }
+  }
+}
@@ -1,15 +1,27 @@
 package speedith.core.reasoning.util.unitary
 
+import java.util
+
 import speedith.core.lang.Zones.allZonesForContours
-import speedith.core.lang.{PrimarySpiderDiagram, Region, Zone}
-import speedith.core.reasoning.rules.util.ReasoningUtils
+import speedith.core.lang.{BitZone, ContourSymbols, PrimarySpiderDiagram, Region, Zone}
 
 import scala.collection.JavaConversions._
 import scala.collection.mutable
 
 case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destinationDiagram: PrimarySpiderDiagram) {
 
-  val allPossibleZonesInDestination = allZonesForContours(destinationDiagram.getAllContours.toIterable.toSeq: _*)
+  lazy val allPossibleZonesInDestination = allZonesForContours(destinationDiagram.getAllContours.toIterable.toSeq: _*)
+
+  /**
+   * The symbol table of the bit zones used by the expansion, which contains the contours of both diagrams.
+   */
+  private lazy val symbols = {
+    val contours = new util.TreeSet[String](sourceDiagram.getAllContours)
+    contours.addAll(destinationDiagram.getAllContours)
+    new ContourSymbols(contours)
+  }
+
+  private lazy val allPossibleBitZonesInDestination = BitZone.allZonesForContours(symbols, destinationDiagram.getAllContours.toIterable.toSeq: _*)
 
   def areRegionsCorresponding(regionInSourceDiagram: Region, regionInDestinationDiagram: Region): Boolean = {
     assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram, sourceDiagram)
@@ -17,10 +29,27 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
     true
   }
 
+  private lazy val masks = CorrespondingRegionMasks(sourceDiagram, destinationDiagram)
+
   def correspondingRegion(regionInSourceDiagram: Region): Region = {
     assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram, sourceDiagram)
 
-    val rawCorrespondingRegion = if (destinationDiagram.getAllContours.subsetOf(sourceDiagram.getAllContours)) {
+    val rawCorrespondingRegion = masks.flatMap(_.correspondingRegion(regionInSourceDiagram)).getOrElse(expandedRegion(regionInSourceDiagram))
+    new Region(withoutEmptyZones(rawCorrespondingRegion))
+  }
+
+  /**
+   * Computes the corresponding region by expanding each zone of the destination diagram by the contours
+   * it lacks, without using [[CorrespondingRegionMasks]]. The result is the same as the one of
+   * [[correspondingRegion]], but takes exponentially more time in the number of contours.
+   */
+  def correspondingRegionByExpansion(regionInSourceDiagram: Region): Region = {
+    assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram, sourceDiagram)
+    new Region(withoutEmptyZones(expandedRegion(regionInSourceDiagram)))
+  }
+
+  private def expandedRegion(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
+    if (destinationDiagram.getAllContours.subsetOf(sourceDiagram.getAllContours)) {
       getRegionWhenDestinationContoursAreSubset(regionInSourceDiagram)
     } else if (sourceDiagram.getAllContours.subsetOf(destinationDiagram.getAllContours)) {
       getRegionWhenSourceContoursAreSubset(regionInSourceDiagram)
@@ -28,29 +57,25 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
       getRegionGeneral(regionInSourceDiagram)
 //      throw new UnsupportedOperationException("Cannot calculate corresponding regions for diagrams that have distinct contours.")
     }
-    new Region(withoutEmptyZones(rawCorrespondingRegion))
   }
 
 
   private def getRegionWhenSourceContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
     val contoursOnlyInDestination = destinationDiagram.getAllContours -- sourceDiagram.getAllContours
-    allPossibleZonesInDestination.filter {
+    val sourceZones = toBitZones(regionInSourceDiagram.zones ++ (destinationDiagram.getShadedZones diff destinationDiagram.getPresentZones))
+    allPossibleBitZonesInDestination.filter {
       destinationZone =>
-        ReasoningUtils.expand(destinationZone, contoursOnlyInDestination).forall(ex =>
-          (regionInSourceDiagram.zones ++ (destinationDiagram.getShadedZones diff destinationDiagram.getPresentZones)).exists {
-          sourceZone =>
-            sourceZone.getInContours.subsetOf(ex.getInContours) &&
-              sourceZone.getOutContours.subsetOf(ex.getOutContours)
-        }
+        destinationZone.expand(contoursOnlyInDestination).forall(ex =>
+          sourceZones.exists(sourceZone => ex.isRefinementOf(sourceZone))
         )
-    }
+    }.map(_.toZone)
   }
 
 
   private def withoutEmptyZones(rawCorrespondingRegion: mutable.Buffer[Zone]): mutable.Buffer[Zone] = {
     rawCorrespondingRegion.filterNot {
       destinationZone =>
-        (destinationDiagram.getShadedZones -- destinationDiagram.getPresentZones ).contains(destinationZone) &&
+        destinationDiagram.getShadedZones.contains(destinationZone) && !destinationDiagram.isZonePresent(destinationZone) &&
           !destinationDiagram.getHabitats.exists {
             case (spider, habitat) => habitat.zones.contains(destinationZone)
           }
@@ -59,35 +84,33 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
 
   private def getRegionWhenDestinationContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
     val contoursOnlyInSource = sourceDiagram.getAllContours -- destinationDiagram.getAllContours
-    allPossibleZonesInDestination.filter {
+    val sourceZones = toBitZones(regionInSourceDiagram.zones ++ (sourceDiagram.getShadedZones diff sourceDiagram.getPresentZones))
+    allPossibleBitZonesInDestination.filter {
       destinationZone =>
-        ReasoningUtils.expand(destinationZone, contoursOnlyInSource).forall( ex=>
-          (regionInSourceDiagram.zones ++ (sourceDiagram.getShadedZones diff sourceDiagram.getPresentZones)).exists {
-            sourceZone =>
-              ex.getInContours.subsetOf(sourceZone.getInContours) &&
-                ex.getOutContours.subsetOf(sourceZone.getOutContours)
-          })
-
-    }
+        destinationZone.expand(contoursOnlyInSource).forall( ex=>
+          sourceZones.exists(sourceZone => sourceZone.isRefinementOf(ex))
+        )
+    }.map(_.toZone)
   }
 
   private def getRegionGeneral(regionInSourceDiagram: Region) : mutable.Buffer[Zone] = {
     val contoursOnlyInSource = sourceDiagram.getAllContours -- destinationDiagram.getAllContours
     val contoursOnlyInTarget = destinationDiagram.getAllContours -- sourceDiagram.getAllContours
-    val sourceExpansion = ReasoningUtils.expand(regionInSourceDiagram.zones, contoursOnlyInTarget)
-    val sourceMissing = ReasoningUtils.expand((sourceDiagram.getShadedZones -- sourceDiagram.getPresentZones).toSet, contoursOnlyInTarget)
-    val targetMissing = ReasoningUtils.expand((destinationDiagram.getShadedZones -- destinationDiagram.getShadedZones).toSet, contoursOnlyInSource)
-    allPossibleZonesInDestination.filter( {
+    val sourceExpansion = expand(regionInSourceDiagram.zones, contoursOnlyInTarget)
+    val sourceMissing = expand(sourceDiagram.getShadedZones -- sourceDiagram.getPresentZones, contoursOnlyInTarget)
+    val targetMissing = expand(destinationDiagram.getShadedZones -- destinationDiagram.getShadedZones, contoursOnlyInSource)
+    val coveredZones = sourceExpansion ++ sourceMissing ++ targetMissing
+    allPossibleBitZonesInDestination.filter( {
       destinationZone =>
-        ReasoningUtils.expand(destinationZone, contoursOnlyInSource).forall( ex =>
-          (sourceExpansion ++ sourceMissing ++ targetMissing).exists {
-            sourceZone =>
-              ex.equals(sourceZone)
-          }
-        )
-    })
+        destinationZone.expand(contoursOnlyInSource).forall(coveredZones.contains)
+    }).map(_.toZone)
   }
 
+  private def toBitZones(zones: Iterable[Zone]): Iterable[BitZone] = zones.map(BitZone.fromZone(symbols, _))
+
+  private def expand(zones: Iterable[Zone], newContours: util.Set[String]): Set[BitZone] =
+    toBitZones(zones).flatMap(_.expand(newContours).toSeq).toSet
+
   private def assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram: Region, diagram: PrimarySpiderDiagram) {
     if (!regionInSourceDiagram.zones.forall(zone => zone.getAllContours == diagram.getAllContours)) {
       throw new IllegalArgumentException("The contours of the given region do not match the contours in the source diagram.")
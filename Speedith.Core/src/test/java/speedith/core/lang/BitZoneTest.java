@@ -0,0 +1,166 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BitZoneTest {
+
+    @Test
+    public void toZone_should_return_the_converted_zone() {
+        ContourSymbols symbols = new ContourSymbols();
+        Zone zone = new Zone(Arrays.asList("A", "C"), Arrays.asList("B"));
+        BitZone bitZone = BitZone.create(symbols, zone.getInContours(), zone.getOutContours());
+        assertEquals(zone, bitZone.toZone());
+        assertEquals(2, bitZone.getInContoursCount());
+        assertEquals(1, bitZone.getOutContoursCount());
+        assertTrue(bitZone.isInside("A"));
+        assertTrue(bitZone.isOutside("B"));
+        assertFalse(bitZone.isInside("D"));
+    }
+
+    @Test
+    public void equal_zones_should_have_equal_bit_zones() {
+        ContourSymbols symbols = new ContourSymbols();
+        BitZone z1 = BitZone.fromZone(symbols, new Zone(Arrays.asList("A"), Arrays.asList("B", "C")));
+        BitZone z2 = BitZone.fromZone(symbols, new Zone(Arrays.asList("A"), Arrays.asList("C", "B")));
+        BitZone z3 = BitZone.fromZone(symbols, new Zone(Arrays.asList("B"), Arrays.asList("A", "C")));
+        assertEquals(z1, z2);
+        assertEquals(z1.hashCode(), z2.hashCode());
+        assertEquals(0, z1.compareTo(z2));
+        assertNotEquals(z1, z3);
+        assertTrue(z1.compareTo(z3) != 0);
+        assertEquals(-Integer.signum(z1.compareTo(z3)), Integer.signum(z3.compareTo(z1)));
+    }
+
+    @Test
+    public void withContour_methods_should_match_zone_operations() {
+        ContourSymbols symbols = new ContourSymbols();
+        BitZone zone = BitZone.create(symbols, Arrays.asList("A"), Arrays.asList("B"));
+        assertEquals(new Zone(Arrays.asList("A", "C"), Arrays.asList("B")), zone.withInContour("C").toZone());
+        assertEquals(new Zone(Arrays.asList("B"), Arrays.<String>asList()), zone.withInContour("B").withoutContour("A").toZone());
+        assertEquals(new Zone(null, Arrays.asList("A", "B")), zone.withOutContour("A").toZone());
+        assertTrue(zone.hasSameContours(zone.withInContour("B")));
+        assertFalse(zone.hasSameContours(zone.withInContour("C")));
+        assertTrue(zone.withInContour("C").isInsideAllOf(zone));
+        assertTrue(zone.isValid());
+    }
+
+    @Test
+    public void allZonesForContours_should_equal_the_power_region() {
+        ContourSymbols symbols = new ContourSymbols();
+        ArrayList<Zone> actual = new ArrayList<>();
+        for (BitZone zone : BitZone.allZonesForContours(symbols, "D", "B", "A", "C")) {
+            actual.add(zone.toZone());
+        }
+        assertEquals(ZonesTest.powerRegion("D", "B", "A", "C"), actual);
+    }
+
+    @Test
+    public void expand_should_equal_the_expansion_of_the_contours_of_the_zone() {
+        ContourSymbols symbols = new ContourSymbols();
+        List<String> newContours = Arrays.asList("C", "A", "E");
+        List<Zone> zones = Arrays.asList(
+                new Zone(),
+                new Zone(Arrays.asList("B"), Arrays.asList("D")),
+                // zones that already mention some of the new contours keep them
+                new Zone(Arrays.asList("A", "B"), Arrays.asList("D")),
+                new Zone(Arrays.asList("B"), Arrays.asList("C", "E")));
+        for (Zone zone : zones) {
+            assertEquals(expansion(zone, newContours), toZones(BitZone.fromZone(symbols, zone).expand(newContours)));
+            assertEquals(expansion(zone, Arrays.<String>asList()), toZones(BitZone.fromZone(symbols, zone).expand(Arrays.<String>asList())));
+        }
+    }
+
+    @Test
+    public void equality_hashing_and_comparison_should_agree_with_zones() {
+        ContourSymbols symbols = new ContourSymbols();
+        List<Zone> zones = new ArrayList<>(Zones.allZonesForContours("A", "B", "C"));
+        zones.addAll(Zones.allZonesForContours("A", "C"));
+        zones.add(new Zone(Arrays.asList("A", "B"), Arrays.asList("A")));
+        for (Zone zone1 : zones) {
+            BitZone bitZone1 = BitZone.create(symbols, zone1.getInContours(), zone1.getOutContours());
+            for (Zone zone2 : zones) {
+                BitZone bitZone2 = BitZone.create(symbols, zone2.getInContours(), zone2.getOutContours());
+                assertEquals(zone1.equals(zone2), bitZone1.equals(bitZone2));
+                assertEquals(zone1.equals(zone2), bitZone1.compareTo(bitZone2) == 0);
+                assertEquals(-Integer.signum(bitZone1.compareTo(bitZone2)), Integer.signum(bitZone2.compareTo(bitZone1)));
+                if (zone1.equals(zone2)) {
+                    assertEquals(bitZone1.hashCode(), bitZone2.hashCode());
+                }
+                assertEquals(zone1.getInContours().containsAll(zone2.getInContours())
+                                && zone1.getOutContours().containsAll(zone2.getOutContours()),
+                        bitZone1.isRefinementOf(bitZone2));
+            }
+        }
+    }
+
+    @Test
+    public void zones_with_more_than_64_contours_should_use_the_fallback() {
+        ContourSymbols symbols = new ContourSymbols();
+        ArrayList<String> inContours = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inContours.add("C" + i);
+        }
+        BitZone big = BitZone.create(symbols, inContours, Arrays.asList("X"));
+        assertEquals(100, big.getInContoursCount());
+        assertTrue(big.isInside("C99"));
+        assertTrue(big.isOutside("X"));
+        assertEquals(new Zone(inContours, Arrays.asList("X")), big.toZone());
+        BitZone same = BitZone.create(symbols, inContours, Arrays.asList("X"));
+        assertEquals(big, same);
+        assertEquals(big.hashCode(), same.hashCode());
+        assertEquals(0, big.compareTo(same));
+
+        // removing the high contours turns the zone into a single word zone again
+        BitZone small = BitZone.create(symbols, Arrays.asList("C0"), null);
+        BitZone reduced = BitZone.create(symbols, Arrays.asList("C0", "C99"), null).withoutContour("C99");
+        assertEquals(small, reduced);
+        assertEquals(small.hashCode(), reduced.hashCode());
+        assertTrue(small.compareTo(big) != 0);
+    }
+
+    @Test
+    public void expand_should_use_the_fallback_for_more_than_64_contours() {
+        ContourSymbols symbols = new ContourSymbols();
+        ArrayList<String> inContours = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            inContours.add("C" + i);
+        }
+        Zone zone = new Zone(inContours, Arrays.asList("X"));
+        List<String> newContours = Arrays.asList("Y", "C3", "Z");
+        assertEquals(expansion(zone, newContours), toZones(BitZone.fromZone(symbols, zone).expand(newContours)));
+        ArrayList<BitZone> expanded = BitZone.fromZone(symbols, zone).expand(Arrays.asList("Y"));
+        assertTrue(expanded.get(0).isRefinementOf(BitZone.fromZone(symbols, zone)));
+    }
+
+    /**
+     * Splits the zone by the given contours on the sets of contour names.
+     */
+    private static HashSet<Zone> expansion(Zone zone, List<String> newContours) {
+        HashSet<Zone> expansion = new HashSet<>();
+        for (int combination = 0; combination < 1 << newContours.size(); combination++) {
+            TreeSet<String> inContours = new TreeSet<>(zone.getInContours());
+            TreeSet<String> outContours = new TreeSet<>(zone.getOutContours());
+            for (int j = 0; j < newContours.size(); j++) {
+                if ((combination & (1 << j)) == 0) {
+                    inContours.add(newContours.get(j));
+                } else {
+                    outContours.add(newContours.get(j));
+                }
+            }
+            expansion.add(new Zone(inContours, outContours));
+        }
+        return expansion;
+    }
+
+    private static HashSet<Zone> toZones(Collection<BitZone> bitZones) {
+        HashSet<Zone> zones = new HashSet<>();
+        for (BitZone bitZone : bitZones) {
+            zones.add(bitZone.toZone());
+        }
+        return zones;
+    }
+}
@@ -417,6 +417,33 @@ public class CompoundSpiderDiagramTest {
         assertTrue(sd.isSEquivalentTo(transformedSD));
     }
 
+    /**
+     * Test of transformAt method, of class CompoundSpiderDiagram.
+     */
+    @Test
+    public void testTransformAt() {
+        SpiderDiagram a = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        SpiderDiagram b = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("B"));
+        SpiderDiagram c = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("C"));
+        SpiderDiagram d = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("D"));
+        CompoundSpiderDiagram sd = SpiderDiagrams.createCompoundSD(Operator.Conjunction, a,
+                SpiderDiagrams.createCompoundSD(Operator.Disjunction, b, SpiderDiagrams.createCompoundSD(Operator.Implication, c, d)));
+        for (int i = 0; i < sd.getSubDiagramCount(); i++) {
+            ReplacingTransformer targeted = new ReplacingTransformer(i);
+            SpiderDiagram transformedSD = sd.transformAt(targeted, i);
+            assertEquals(1, targeted.calls);
+            assertEquals(sd.transform(new ReplacingTransformer(i)), transformedSD);
+            assertSame(SpiderDiagrams.createNullSD(), transformedSD.getSubDiagramAt(i));
+        }
+        // Only the ancestors of the target are rebuilt.
+        CompoundSpiderDiagram transformedSD = (CompoundSpiderDiagram) sd.transformAt(new ReplacingTransformer(5), 5);
+        assertSame(a, transformedSD.getOperand(0));
+        assertSame(b, transformedSD.getSubDiagramAt(3));
+        assertSame(d, transformedSD.getSubDiagramAt(6));
+        assertSame(sd, sd.transformAt(new ReplacingTransformer(sd.getSubDiagramCount()), sd.getSubDiagramCount()));
+        assertSame(sd, sd.transformAt(new IdTransformer(), 5));
+    }
+
     /**
      * Test of visit method, of class CompoundSpiderDiagram.
      */
@@ -517,6 +544,40 @@ public class CompoundSpiderDiagramTest {
     }
 
     //<editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+
+    /**
+     * Replaces the sub-diagram at the given index with the null spider
+     * diagram and counts how often it has been called.
+     */
+    private static class ReplacingTransformer extends IdTransformer {
+
+        private final int targetIndex;
+        private int calls;
+
+        ReplacingTransformer(int targetIndex) {
+            this.targetIndex = targetIndex;
+        }
+
+        @Override
+        public SpiderDiagram transform(PrimarySpiderDiagram psd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            return replace(psd, diagramIndex, parents, childIndices);
+        }
+
+        @Override
+        public SpiderDiagram transform(CompoundSpiderDiagram csd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            return replace(csd, diagramIndex, parents, childIndices);
+        }
+
+        private SpiderDiagram replace(SpiderDiagram sd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            ++calls;
+            checkChildIndices(parents, childIndices, sd);
+            if (diagramIndex == targetIndex) {
+                done = true;
+                return SpiderDiagrams.createNullSD();
+            }
+            return null;
+        }
+    }
     private void checkVisitSD(CompoundSpiderDiagram sd) {
         for (int i = 0; i < sd.getSubDiagramCount(); i++) {
             final int targetSD = i;
@@ -0,0 +1,132 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+import speedith.core.reasoning.Goals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class FingerprintsTest {
+
+    private static final Zone ZONE_A = new Zone(Arrays.asList("A"), Arrays.asList("B", "C"));
+    private static final Zone ZONE_AB = new Zone(Arrays.asList("A", "B"), Arrays.asList("C"));
+
+    @Test
+    public void zones_should_be_distinguished_by_their_in_and_out_contours() {
+        Zone aNotB = new Zone(Arrays.asList("A"), Arrays.asList("B"));
+        Zone bNotA = new Zone(Arrays.asList("B"), Arrays.asList("A"));
+        assertEquals(aNotB.hashCode(), bNotA.hashCode());
+        assertNotEquals(aNotB.getFingerprint(), bNotA.getFingerprint());
+        assertEquals(aNotB.getFingerprint(), new Zone(Arrays.asList("A"), Arrays.asList("B")).getFingerprint());
+    }
+
+    @Test
+    public void implicit_zone_sets_should_have_the_fingerprint_of_the_explicit_set() {
+        TreeSet<String> contours = new TreeSet<>(Arrays.asList("A", "B", "C"));
+        ImplicitZoneSet implicit = new ImplicitZoneSet(contours, Arrays.asList(ZONE_A, ZONE_AB));
+        assertEquals(Fingerprints.ofZones(new TreeSet<>(implicit)), Fingerprints.ofZones(implicit));
+        assertEquals(0, Fingerprints.ofZones(new ImplicitZoneSet(contours, Zones.allZonesForContours("A", "B", "C"))));
+    }
+
+    @Test
+    public void equal_primary_diagrams_should_have_equal_fingerprints() {
+        PrimarySpiderDiagram normalised = SpiderDiagrams.createNormalisedPrimarySD(null, null, Arrays.asList(ZONE_AB), Arrays.asList("A", "B", "C"), Arrays.asList(ZONE_A));
+        TreeSet<Zone> present = new TreeSet<>(Zones.allZonesForContours("A", "B", "C"));
+        present.remove(ZONE_A);
+        PrimarySpiderDiagram explicit = SpiderDiagrams.createPrimarySD(null, null, Arrays.asList(ZONE_AB), present);
+        assertEquals(explicit, normalised);
+        assertEquals(explicit.getFingerprint(), normalised.getFingerprint());
+    }
+
+    @Test
+    public void compound_diagrams_should_depend_on_the_order_of_their_operands() {
+        PrimarySpiderDiagram a = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        PrimarySpiderDiagram b = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("B"));
+        CompoundSpiderDiagram ab = SpiderDiagrams.createCompoundSD(Operator.Implication, a, b);
+        CompoundSpiderDiagram ba = SpiderDiagrams.createCompoundSD(Operator.Implication, b, a);
+        CompoundSpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Operator.Conjunction, a, b);
+        assertNotEquals(ab.getFingerprint(), ba.getFingerprint());
+        assertNotEquals(ab.getFingerprint(), conjunction.getFingerprint());
+        assertNotEquals(a.getFingerprint(), SpiderDiagrams.createNullSD().getFingerprint());
+        assertEquals(ab.getFingerprint(), Goals.createGoalsFrom(ba, ab).getGoalAt(1).getFingerprint());
+        assertNotEquals(Goals.createGoalsFrom(ab, ba).getFingerprint(), Goals.createGoalsFrom(ba, ab).getFingerprint());
+    }
+
+    @Test
+    public void fingerprints_should_be_stable_between_runs() {
+        PrimarySpiderDiagram a = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        assertEquals(0x087ca748de1f3a18L, a.getFingerprint());
+        assertEquals(0xe09503377135fc98L, SpiderDiagrams.createCompoundSD(Operator.Negation, a).getFingerprint());
+    }
+
+    @Test
+    public void names_with_equal_hash_codes_should_have_different_fingerprints() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(Fingerprints.of("Aa"), Fingerprints.of("BB"));
+        assertNotEquals(Fingerprints.of("AaBB"), Fingerprints.of("BBAa"));
+        PrimarySpiderDiagram aa = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("Aa"));
+        PrimarySpiderDiagram bb = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("BB"));
+        assertNotEquals(aa.getFingerprint(), bb.getFingerprint());
+    }
+
+    @Test
+    public void canonical_fingerprints_should_ignore_the_names_of_spiders() {
+        PrimarySpiderDiagram st = primaryWithSpiders("s", ZONE_A, "t", ZONE_AB);
+        PrimarySpiderDiagram ts = primaryWithSpiders("t", ZONE_A, "s", ZONE_AB);
+        PrimarySpiderDiagram xy = primaryWithSpiders("x", ZONE_AB, "y", ZONE_A);
+        assertNotEquals(st.getFingerprint(), ts.getFingerprint());
+        assertEquals(st.getCanonicalFingerprint(), ts.getCanonicalFingerprint());
+        assertEquals(st.getCanonicalFingerprint(), xy.getCanonicalFingerprint());
+        assertTrue(st.isSEquivalentTo(xy));
+        CompoundSpiderDiagram negatedSt = SpiderDiagrams.createCompoundSD(Operator.Negation, st);
+        CompoundSpiderDiagram negatedXy = SpiderDiagrams.createCompoundSD(Operator.Negation, xy);
+        assertEquals(negatedSt.getCanonicalFingerprint(), negatedXy.getCanonicalFingerprint());
+        assertTrue(negatedSt.isSEquivalentTo(negatedXy));
+        assertEquals(Goals.createGoalsFrom(st, negatedSt).getCanonicalFingerprint(), Goals.createGoalsFrom(xy, negatedXy).getCanonicalFingerprint());
+    }
+
+    @Test
+    public void canonical_fingerprints_should_distinguish_habitats_and_shading() {
+        PrimarySpiderDiagram st = primaryWithSpiders("s", ZONE_A, "t", ZONE_AB);
+        PrimarySpiderDiagram twoInA = primaryWithSpiders("s", ZONE_A, "t", ZONE_A);
+        PrimarySpiderDiagram shaded = SpiderDiagrams.createPrimarySD(st.getSpiders(), st.getHabitats(), Arrays.asList(ZONE_A), st.getPresentZones());
+        assertNotEquals(st.getCanonicalFingerprint(), twoInA.getCanonicalFingerprint());
+        assertNotEquals(st.getCanonicalFingerprint(), shaded.getCanonicalFingerprint());
+        assertFalse(st.isSEquivalentTo(twoInA));
+        assertFalse(st.isSEquivalentTo(shaded));
+        assertNotEquals(st.getCanonicalFingerprint(), SpiderDiagrams.createCompoundSD(Operator.Negation, st).getCanonicalFingerprint());
+    }
+
+    @Test
+    public void equivalence_fingerprints_should_agree_with_semantic_equivalence() {
+        PrimarySpiderDiagram st = primaryWithSpiders("s", ZONE_A, "t", ZONE_AB);
+        PrimarySpiderDiagram xy = primaryWithSpiders("x", ZONE_AB, "y", ZONE_A);
+        PrimarySpiderDiagram fewerPresentZones = SpiderDiagrams.createPrimarySD(xy.getSpiders(), xy.getHabitats(), xy.getShadedZones(), Arrays.asList(ZONE_A, ZONE_AB));
+        PrimarySpiderDiagram shaded = SpiderDiagrams.createPrimarySD(st.getSpiders(), st.getHabitats(), Arrays.asList(ZONE_A), st.getPresentZones());
+        CompoundSpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Operator.Conjunction, st, shaded);
+        CompoundSpiderDiagram equivalent = SpiderDiagrams.createCompoundSD(Operator.Conjunction, fewerPresentZones, shaded);
+        assertTrue(conjunction.isSEquivalentTo(equivalent));
+        assertEquals(conjunction.getEquivalenceFingerprint(), equivalent.getEquivalenceFingerprint());
+        assertNotEquals(conjunction.getCanonicalFingerprint(), equivalent.getCanonicalFingerprint());
+
+        CompoundSpiderDiagram swapped = SpiderDiagrams.createCompoundSD(Operator.Conjunction, shaded, st);
+        CompoundSpiderDiagram disjunction = SpiderDiagrams.createCompoundSD(Operator.Disjunction, st, shaded);
+        CompoundSpiderDiagram unshaded = SpiderDiagrams.createCompoundSD(Operator.Conjunction, st, st);
+        for (CompoundSpiderDiagram other : Arrays.asList(swapped, disjunction, unshaded)) {
+            assertNotEquals(conjunction.getEquivalenceFingerprint(), other.getEquivalenceFingerprint());
+            assertFalse(conjunction.isSEquivalentTo(other));
+        }
+        assertEquals(NullSpiderDiagram.getInstance().getFingerprint(), NullSpiderDiagram.getInstance().getEquivalenceFingerprint());
+    }
+
+    private static PrimarySpiderDiagram primaryWithSpiders(String spider1, Zone habitat1, String spider2, Zone habitat2) {
+        Map<String, Region> habitats = new HashMap<>();
+        habitats.put(spider1, new Region(habitat1));
+        habitats.put(spider2, new Region(habitat2));
+        return SpiderDiagrams.createPrimarySD(habitats, null, Zones.allZonesForContours("A", "B", "C"));
+    }
+}
@@ -0,0 +1,85 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ImplicitZoneSetTest {
+
+    private static final Zone ZONE_A = new Zone(Arrays.asList("A"), Arrays.asList("B", "C"));
+    private static final Zone ZONE_AB = new Zone(Arrays.asList("A", "B"), Arrays.asList("C"));
+
+    @Test
+    public void implicit_zone_set_should_equal_the_explicit_set() {
+        ImplicitZoneSet implicit = new ImplicitZoneSet(new TreeSet<>(Arrays.asList("A", "B", "C")), Arrays.asList(ZONE_A, ZONE_AB));
+        TreeSet<Zone> explicit = new TreeSet<>(Zones.allZonesForContours("A", "B", "C"));
+        explicit.remove(ZONE_A);
+        explicit.remove(ZONE_AB);
+
+        assertEquals(explicit, implicit);
+        assertEquals(implicit, explicit);
+        assertEquals(explicit.hashCode(), implicit.hashCode());
+        assertEquals(explicit.size(), implicit.size());
+        assertEquals(new ArrayList<>(explicit), new ArrayList<>(implicit));
+        assertEquals(explicit.first(), implicit.first());
+        assertEquals(explicit.last(), implicit.last());
+    }
+
+    @Test
+    public void contains_should_reject_missing_and_invalid_zones() {
+        ImplicitZoneSet implicit = new ImplicitZoneSet(new TreeSet<>(Arrays.asList("A", "B", "C")), Arrays.asList(ZONE_A));
+        assertTrue(implicit.contains(ZONE_AB));
+        assertTrue(implicit.contains(new Zone(null, Arrays.asList("A", "B", "C"))));
+        assertFalse(implicit.contains(ZONE_A));
+        assertFalse(implicit.contains(new Zone(Arrays.asList("A"), Arrays.asList("B"))));
+        assertFalse(implicit.contains("A"));
+    }
+
+    @Test
+    public void missing_zones_over_other_contours_should_be_ignored() {
+        ImplicitZoneSet implicit1 = new ImplicitZoneSet(new TreeSet<>(Arrays.asList("A", "B", "C")), Arrays.asList(ZONE_A, new Zone("A")));
+        ImplicitZoneSet implicit2 = new ImplicitZoneSet(new TreeSet<>(Arrays.asList("A", "B", "C")), Arrays.asList(ZONE_A));
+        assertEquals(implicit1, implicit2);
+        assertEquals(implicit1.hashCode(), implicit2.hashCode());
+        assertEquals(1, implicit1.getMissingZones().size());
+    }
+
+    @Test
+    public void size_should_not_overflow_for_many_contours() {
+        TreeSet<String> contours = new TreeSet<>();
+        for (int i = 0; i < 40; i++) {
+            contours.add("C" + i);
+        }
+        ImplicitZoneSet implicit = new ImplicitZoneSet(contours, null);
+        assertEquals(Integer.MAX_VALUE, implicit.size());
+        assertFalse(implicit.isEmpty());
+        assertTrue(implicit.contains(new Zone(contours, null)));
+    }
+
+    @Test
+    public void normalised_diagram_should_equal_the_explicit_diagram() {
+        List<Zone> shaded = Arrays.asList(ZONE_A, ZONE_AB);
+        TreeSet<Zone> present = new TreeSet<>(Zones.allZonesForContours("A", "B", "C"));
+        present.remove(ZONE_A);
+        PrimarySpiderDiagram normalised = SpiderDiagrams.createNormalisedPrimarySD(null, null, shaded, Arrays.asList("A", "B", "C"), Arrays.asList(ZONE_A));
+        PrimarySpiderDiagram explicit = new PrimarySpiderDiagram(null, null, shaded, present);
+
+        assertTrue(normalised.hasImplicitPresentZones());
+        assertTrue(normalised.isValid());
+        assertEquals(explicit, normalised);
+        assertEquals(explicit.hashCode(), normalised.hashCode());
+        assertEquals(new TreeSet<>(Arrays.asList("A", "B", "C")), normalised.getAllContours());
+        assertEquals(explicit.getMissingZones(), normalised.getMissingZones());
+        assertTrue(normalised.isZonePresent(ZONE_AB));
+        assertFalse(normalised.isZonePresent(ZONE_A));
+    }
+
+    @Test
+    public void normalised_diagram_without_outer_zone_should_be_invalid() {
+        Zone outerZone = new Zone(null, Arrays.asList("A", "B"));
+        PrimarySpiderDiagram normalised = SpiderDiagrams.createNormalisedPrimarySD(null, null, Arrays.asList(outerZone), Arrays.asList("A", "B"), Arrays.asList(outerZone));
+        assertFalse(normalised.isValid());
+    }
+}
@@ -0,0 +1,92 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class SpiderDiagramPoolTest {
+
+    private static PrimarySpiderDiagram newPrimary(String... contours) {
+        return new PrimarySpiderDiagram(null, null, null, new java.util.TreeSet<>(Zones.allZonesForContours(contours)));
+    }
+
+    private static CompoundSpiderDiagram newCompound(SpiderDiagram... operands) {
+        return new CompoundSpiderDiagram(Operator.Conjunction, new ArrayList<>(Arrays.asList(operands)));
+    }
+
+    @Test
+    public void intern_should_return_the_pooled_diagram() {
+        SpiderDiagramPool pool = new SpiderDiagramPool();
+        PrimarySpiderDiagram first = newPrimary("A", "B");
+        PrimarySpiderDiagram second = newPrimary("A", "B");
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.lookup(second));
+        assertEquals(1, pool.getMisses());
+        assertEquals(2, pool.getHits());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void never_mode_should_not_intern_diagrams() {
+        SpiderDiagramPool pool = new SpiderDiagramPool(SpiderDiagramPool.InternMode.NEVER);
+        PrimarySpiderDiagram second = newPrimary("A");
+        pool.intern(newPrimary("A"));
+        assertSame(second, pool.intern(second));
+        assertNull(pool.lookup(second));
+        assertEquals(0, pool.size());
+        assertEquals(2, pool.getBypassed());
+    }
+
+    @Test
+    public void compound_only_mode_should_intern_compound_diagrams_only() {
+        SpiderDiagramPool pool = new SpiderDiagramPool(SpiderDiagramPool.InternMode.COMPOUND_ONLY);
+        PrimarySpiderDiagram primary = newPrimary("A");
+        CompoundSpiderDiagram compound = newCompound(primary, primary);
+        assertSame(primary, pool.intern(primary));
+        assertNotSame(primary, pool.intern(newPrimary("A")));
+        assertSame(compound, pool.intern(compound));
+        assertSame(compound, pool.intern(newCompound(primary, primary)));
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.getBypassed());
+    }
+
+    @Test
+    public void concurrent_interning_should_yield_one_instance_per_diagram() throws Exception {
+        final SpiderDiagramPool pool = new SpiderDiagramPool();
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<SpiderDiagram>> results = new ArrayList<>();
+            final CountDownLatch start = new CountDownLatch(1);
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<SpiderDiagram>() {
+                    @Override
+                    public SpiderDiagram call() throws Exception {
+                        start.await();
+                        return pool.intern(newPrimary("A", "B", "C"));
+                    }
+                }));
+            }
+            start.countDown();
+            SpiderDiagram first = results.get(0).get();
+            for (Future<SpiderDiagram> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, pool.getMisses());
+            assertEquals(threads - 1, pool.getHits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void factory_methods_should_use_the_pool() {
+        assertSame(SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B")),
+                   SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B")));
+    }
+}
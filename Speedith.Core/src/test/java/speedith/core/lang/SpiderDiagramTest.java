@@ -3,6 +3,8 @@ package speedith.core.lang;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class SpiderDiagramTest {
 
@@ -35,4 +37,32 @@ public class SpiderDiagramTest {
         int indexOfParent = bigCompoundSpiderDiagram.getParentIndexOf(6);
         assertEquals(4, indexOfParent);
     }
+
+    @Test
+    public void getParentIndexOf_should_return_parent_not_found_when_there_is_no_subdiagram_at_the_index() throws Exception {
+        assertEquals(SpiderDiagram.PARENT_NOT_FOUND, compoundSpiderDiagram.getParentIndexOf(3));
+        assertEquals(SpiderDiagram.PARENT_NOT_FOUND, SpiderDiagrams.createNullSD().getParentIndexOf(1));
+    }
+
+    @Test
+    public void getSubDiagramAt_should_return_the_subdiagrams_in_preorder() throws Exception {
+        PrimarySpiderDiagram a = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        CompoundSpiderDiagram negation = SpiderDiagrams.createCompoundSD(Operator.Negation, a);
+        CompoundSpiderDiagram bigCompoundSpiderDiagram = SpiderDiagrams.createCompoundSD(Operator.Implication, compoundSpiderDiagram, negation);
+        assertSame(bigCompoundSpiderDiagram, bigCompoundSpiderDiagram.getSubDiagramAt(0));
+        assertSame(compoundSpiderDiagram, bigCompoundSpiderDiagram.getSubDiagramAt(1));
+        assertSame(negation, bigCompoundSpiderDiagram.getSubDiagramAt(4));
+        assertSame(a, bigCompoundSpiderDiagram.getSubDiagramAt(5));
+        assertNull(bigCompoundSpiderDiagram.getSubDiagramAt(6));
+        assertNull(bigCompoundSpiderDiagram.getSubDiagramAt(-1));
+    }
+
+    @Test
+    public void getSubDiagramIndex_should_return_the_first_index_of_an_equal_subdiagram() throws Exception {
+        CompoundSpiderDiagram bigCompoundSpiderDiagram = SpiderDiagrams.createCompoundSD(Operator.Conjunction, compoundSpiderDiagram, compoundSpiderDiagram);
+        assertEquals(0, bigCompoundSpiderDiagram.getSubDiagramIndex(bigCompoundSpiderDiagram));
+        assertEquals(1, bigCompoundSpiderDiagram.getSubDiagramIndex(compoundSpiderDiagram));
+        assertEquals(2, bigCompoundSpiderDiagram.getSubDiagramIndex(SpiderDiagrams.createNullSD()));
+        assertEquals(-1, bigCompoundSpiderDiagram.getSubDiagramIndex(SpiderDiagrams.createPrimarySD()));
+    }
 }
@@ -128,4 +128,35 @@ public class ZonesTest {
     public void isZoneOutsideContours_should_return_true_when_zone_is_no_contour() {
         assertTrue(Zones.isZoneOutsideContours(zoneAB_CD, "C", "D"));
     }
+
+    @Test
+    public void allZonesForContours_should_return_the_zones_in_the_order_of_the_power_region() {
+        String[] contours = {"D", "A", "C", "B", "E"};
+        for (int count = 0; count <= contours.length; count++) {
+            String[] prefix = Arrays.copyOf(contours, count);
+            assertEquals(powerRegion(prefix), Zones.allZonesForContours(prefix));
+        }
+    }
+
+    /**
+     * Creates all zones over the given contours by splitting every zone by one
+     * contour after the other.
+     */
+    static List<Zone> powerRegion(String... contours) {
+        ArrayList<Zone> powerRegion = new ArrayList<>();
+        powerRegion.add(new Zone());
+        for (String contour : contours) {
+            int oldZonesCount = powerRegion.size();
+            for (int i = 0; i < oldZonesCount; i++) {
+                Zone zone = powerRegion.get(i);
+                TreeSet<String> inContours = new TreeSet<>(zone.getInContours());
+                inContours.add(contour);
+                TreeSet<String> outContours = new TreeSet<>(zone.getOutContours());
+                outContours.add(contour);
+                powerRegion.set(i, new Zone(inContours, zone.getOutContours()));
+                powerRegion.add(new Zone(zone.getInContours(), outContours));
+            }
+        }
+        return powerRegion;
+    }
 }
@@ -0,0 +1,155 @@
+package speedith.core.reasoning;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class PersistentProofTraceTest {
+
+    private static Goals createGoals() {
+        SpiderDiagram sd1 = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+        SpiderDiagram sd2 = createCompoundSD(Operator.Implication, sd1, sd1);
+        return Goals.createGoalsFrom(sd1, sd2);
+    }
+
+    private static void applyTautology(Proof proof) throws Exception {
+        proof.applyRule(new ImplicationTautology(), new SubDiagramIndexArg(1, 0), RuleApplicationType.INTERACTIVE, null);
+    }
+
+    @Test
+    public void applyRule_should_behave_like_ProofTrace() throws Exception {
+        Goals goals = createGoals();
+        Proof expected = new ProofTrace(goals);
+        Proof actual = new PersistentProofTrace(goals);
+        applyTautology(expected);
+        applyTautology(actual);
+        assertEquals(expected.getGoals(), actual.getGoals());
+        assertEquals(expected.getGoalsCount(), actual.getGoalsCount());
+        assertEquals(expected.getInferenceApplicationCount(), actual.getInferenceApplicationCount());
+        assertEquals(expected.getInitialGoals(), actual.getInitialGoals());
+        assertEquals(expected.getLastGoals(), actual.getLastGoals());
+        assertEquals(1, actual.getLastGoals().getGoalsCount());
+    }
+
+    @Test
+    public void copies_should_not_affect_each_other() throws Exception {
+        PersistentProofTrace original = new PersistentProofTrace(createGoals());
+        PersistentProofTrace copy = new PersistentProofTrace(original);
+        assertEquals(original, copy);
+        assertEquals(original.hashCode(), copy.hashCode());
+        applyTautology(copy);
+        assertEquals(0, original.getInferenceApplicationCount());
+        assertEquals(1, copy.getInferenceApplicationCount());
+        assertNotEquals(original, copy);
+        assertTrue(copy.undoStep());
+        assertFalse(copy.undoStep());
+        assertEquals(original, copy);
+    }
+
+    @Test
+    public void goals_and_applications_should_be_unmodifiable_snapshots() throws Exception {
+        PersistentProofTrace proof = new PersistentProofTrace(createGoals());
+        applyTautology(proof);
+        List<Goals> goals = proof.getGoals();
+        List<InferenceApplication> applications = proof.getInferenceApplications();
+        proof.undoStep();
+        assertEquals(2, goals.size());
+        assertEquals(1, applications.size());
+        assertEquals(proof.getInitialGoals(), goals.get(0));
+        assertEquals(goals.get(1), goals.subList(1, 2).iterator().next());
+        assertTrue(applications.get(0).getInference() instanceof ImplicationTautology);
+        try {
+            goals.set(0, null);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            applications.get(1);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void hashCode_should_equal_the_one_of_ProofTrace() throws Exception {
+        Goals goals = createGoals();
+        assertEquals(new ProofTrace(goals).hashCode(), new PersistentProofTrace(goals).hashCode());
+        assertEquals(new ProofTrace().hashCode(), new PersistentProofTrace((Goals) null).hashCode());
+    }
+
+    @Test
+    public void equality_with_ProofTrace_should_be_symmetric() throws Exception {
+        Goals goals = createGoals();
+        Proof trace = new ProofTrace(goals);
+        Proof persistent = new PersistentProofTrace(goals);
+        assertEquals(trace, persistent);
+        assertEquals(persistent, trace);
+        applyTautology(persistent);
+        assertNotEquals(trace, persistent);
+        assertNotEquals(persistent, trace);
+        trace = new ProofTrace(persistent);
+        assertEquals(trace, persistent);
+        assertEquals(persistent, trace);
+        assertEquals(trace.hashCode(), persistent.hashCode());
+    }
+
+    @Test
+    public void random_access_should_agree_with_the_copied_proof() throws Exception {
+        List<Goals> goals = new ArrayList<>();
+        List<InferenceApplication> applications = new ArrayList<>();
+        goals.add(createGoals());
+        for (int i = 0; i < 20; i++) {
+            applications.add(new InferenceApplication(new ImplicationTautology(), new SubDiagramIndexArg(i, 0), RuleApplicationType.AUTOMATIC, null));
+            goals.add(Goals.createGoalsFrom(createPrimarySD(null, null, null, Zones.allZonesForContours("C" + i))));
+        }
+        applications.add(new InferenceApplication(new ImplicationTautology(), new SubDiagramIndexArg(0, 0), RuleApplicationType.AUTOMATIC, null));
+        goals.add(createGoals());
+        ProofTrace trace = new ProofTrace(goals, applications);
+        PersistentProofTrace proof = new PersistentProofTrace(trace);
+        // access the steps out of order, so that the index of the last step is used
+        for (int i = goals.size() - 1; i >= 0; i -= 3) {
+            assertEquals(goals.get(i), proof.getGoalsAt(i));
+        }
+        for (int i = 0; i < goals.size(); i++) {
+            assertEquals(goals.get(i), proof.getGoalsAt(i));
+        }
+        for (int i = 0; i < applications.size(); i++) {
+            assertSame(applications.get(i), proof.getInferenceApplicationAt(i));
+        }
+        assertEquals(trace, proof);
+        // steps added after the random access are seen as well
+        applyTautology(proof);
+        assertEquals(goals.size() + 1, proof.getGoalsCount());
+        assertEquals(goals.get(3), proof.getGoalsAt(3));
+        assertTrue(proof.undoStep());
+        assertEquals(goals.get(goals.size() - 1), proof.getGoalsAt(goals.size() - 1));
+    }
+
+    @Test
+    public void serialisation_should_produce_a_ProofTrace() throws Exception {
+        PersistentProofTrace proof = new PersistentProofTrace(createGoals());
+        applyTautology(proof);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(proof);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Proof read = (Proof) in.readObject();
+            assertTrue(read instanceof ProofTrace);
+            assertEquals(proof.getGoals(), read.getGoals());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.PersistentProofTrace;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.args.ContourArg;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.rules.IntroContour;
+import speedith.core.reasoning.rules.RemoveContour;
+import speedith.core.reasoning.rules.RemoveShadedZone;
+import speedith.core.reasoning.rules.RemoveShading;
+import speedith.core.reasoning.rules.TrivialImplicationTautology;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AppliedRulesTest {
+
+    private static final Zone ZONE_A = new Zone(Arrays.asList("A"), Arrays.asList("B"));
+    private static final Zone ZONE_B = new Zone(Arrays.asList("B"), Arrays.asList("A"));
+    private static final SpiderDiagram DIAGRAM_A = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final SpiderDiagram DIAGRAM_AB = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+
+    private static InferenceApplication application(speedith.core.reasoning.Inference<?, ?> rule, MultipleRuleArgs args) {
+        return new InferenceApplication(rule, args, RuleApplicationType.AUTOMATIC, "test");
+    }
+
+    @Test
+    public void repeated_applications_should_be_found() {
+        MultipleRuleArgs args = new MultipleRuleArgs(new ZoneArg(0, 1, ZONE_A));
+        AppliedRules applied = AppliedRules.EMPTY.extend(application(new RemoveShading(), args), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertTrue(applied.containsApplication(AppliedRules.Kind.REMOVE_SHADING, args));
+        assertFalse(applied.containsApplication(AppliedRules.Kind.REMOVE_SHADING, new MultipleRuleArgs(new ZoneArg(0, 2, ZONE_A))));
+        assertFalse(applied.containsApplication(AppliedRules.Kind.INTRO_SHADED_ZONE, args));
+        assertFalse(AppliedRules.EMPTY.containsApplication(AppliedRules.Kind.REMOVE_SHADING, args));
+    }
+
+    @Test
+    public void several_zones_should_be_covered_by_a_single_application() {
+        ZoneArg zoneA = new ZoneArg(0, 1, ZONE_A);
+        ZoneArg zoneB = new ZoneArg(0, 1, ZONE_B);
+        MultipleRuleArgs both = new MultipleRuleArgs(zoneA, zoneB);
+        AppliedRules separately = AppliedRules.EMPTY.extend(application(new RemoveShading(), new MultipleRuleArgs(zoneA)), Goals.createGoalsFrom(DIAGRAM_AB))
+                .extend(application(new RemoveShading(), new MultipleRuleArgs(zoneB)), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertTrue(separately.containsApplication(AppliedRules.Kind.REMOVE_SHADING, new MultipleRuleArgs(zoneA)));
+        assertTrue(separately.containsApplication(AppliedRules.Kind.REMOVE_SHADING, new MultipleRuleArgs(zoneB)));
+        assertFalse(separately.containsApplication(AppliedRules.Kind.REMOVE_SHADING, both));
+
+        AppliedRules together = AppliedRules.EMPTY.extend(application(new RemoveShading(), both), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertTrue(together.containsApplication(AppliedRules.Kind.REMOVE_SHADING, both));
+        assertTrue(together.containsApplication(AppliedRules.Kind.REMOVE_SHADING, new MultipleRuleArgs(zoneB, zoneA)));
+        assertTrue(together.containsApplication(AppliedRules.Kind.REMOVE_SHADING, new MultipleRuleArgs(zoneB)));
+        assertNotEquals(separately, together);
+    }
+
+    @Test
+    public void several_zones_should_be_reverted_by_a_single_application() {
+        ZoneArg zoneA = new ZoneArg(0, 0, ZONE_A);
+        ZoneArg zoneB = new ZoneArg(0, 0, ZONE_B);
+        MultipleRuleArgs both = new MultipleRuleArgs(zoneA, zoneB);
+        AppliedRules separately = AppliedRules.EMPTY.extend(application(new RemoveShadedZone(), new MultipleRuleArgs(zoneA)), Goals.createGoalsFrom(DIAGRAM_A))
+                .extend(application(new RemoveShadedZone(), new MultipleRuleArgs(zoneB)), Goals.createGoalsFrom(DIAGRAM_A));
+        assertTrue(separately.containsResult(AppliedRules.Kind.REMOVE_SHADED_ZONE, new MultipleRuleArgs(zoneB), DIAGRAM_A));
+        assertFalse(separately.containsResult(AppliedRules.Kind.REMOVE_SHADED_ZONE, both, DIAGRAM_A));
+
+        AppliedRules together = AppliedRules.EMPTY.extend(application(new RemoveShadedZone(), both), Goals.createGoalsFrom(DIAGRAM_A));
+        assertTrue(together.containsResult(AppliedRules.Kind.REMOVE_SHADED_ZONE, both, DIAGRAM_A));
+        assertFalse(together.containsResult(AppliedRules.Kind.REMOVE_SHADED_ZONE, both, DIAGRAM_AB));
+        assertTrue(together.containsResult(AppliedRules.Kind.REMOVE_SHADED_ZONE, new MultipleRuleArgs(zoneA), DIAGRAM_A));
+    }
+
+    @Test
+    public void contour_sets_should_be_compared_regardless_of_order() {
+        MultipleRuleArgs args = new MultipleRuleArgs(new ContourArg(0, 0, "A"), new ContourArg(0, 0, "B"));
+        AppliedRules applied = AppliedRules.EMPTY.extend(application(new IntroContour(), args), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertTrue(applied.containsApplication(AppliedRules.Kind.INTRO_CONTOUR, new MultipleRuleArgs(new ContourArg(0, 0, "B"), new ContourArg(0, 0, "A"))));
+        assertFalse(applied.containsApplication(AppliedRules.Kind.INTRO_CONTOUR, new MultipleRuleArgs(new ContourArg(0, 0, "A"))));
+    }
+
+    @Test
+    public void reverting_applications_should_be_found_by_their_result() {
+        MultipleRuleArgs args = new MultipleRuleArgs(new ContourArg(0, 0, "B"));
+        AppliedRules applied = AppliedRules.EMPTY.extend(application(new RemoveContour(), args), Goals.createGoalsFrom(DIAGRAM_A));
+        assertTrue(applied.containsResult(AppliedRules.Kind.REMOVE_CONTOUR, args, DIAGRAM_A));
+        assertFalse(applied.containsResult(AppliedRules.Kind.REMOVE_CONTOUR, args, DIAGRAM_AB));
+        assertFalse(applied.containsResult(AppliedRules.Kind.REMOVE_CONTOUR, new MultipleRuleArgs(new ContourArg(0, 0, "A")), DIAGRAM_A));
+        assertFalse(applied.containsResult(AppliedRules.Kind.INTRO_CONTOUR, args, DIAGRAM_A));
+    }
+
+    @Test
+    public void extending_an_index_should_not_change_it() {
+        MultipleRuleArgs first = new MultipleRuleArgs(new ZoneArg(0, 1, ZONE_A));
+        MultipleRuleArgs second = new MultipleRuleArgs(new ZoneArg(0, 2, ZONE_A));
+        AppliedRules parent = AppliedRules.EMPTY.extend(application(new RemoveShading(), first), Goals.createGoalsFrom(DIAGRAM_AB));
+        AppliedRules child = parent.extend(application(new RemoveShading(), second), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertTrue(child.containsApplication(AppliedRules.Kind.REMOVE_SHADING, first));
+        assertTrue(child.containsApplication(AppliedRules.Kind.REMOVE_SHADING, second));
+        assertFalse(parent.containsApplication(AppliedRules.Kind.REMOVE_SHADING, second));
+        assertEquals(1, parent.size());
+        assertEquals(2, child.size());
+    }
+
+    @Test
+    public void indices_of_the_same_applications_should_be_equal() {
+        MultipleRuleArgs first = new MultipleRuleArgs(new ZoneArg(0, 1, ZONE_A));
+        MultipleRuleArgs second = new MultipleRuleArgs(new ZoneArg(0, 2, ZONE_A));
+        AppliedRules firstThenSecond = AppliedRules.EMPTY.extend(application(new RemoveShading(), first), Goals.createGoalsFrom(DIAGRAM_AB))
+                .extend(application(new RemoveShading(), second), Goals.createGoalsFrom(DIAGRAM_AB));
+        AppliedRules secondThenFirst = AppliedRules.EMPTY.extend(application(new RemoveShading(), second), Goals.createGoalsFrom(DIAGRAM_AB))
+                .extend(application(new RemoveShading(), first), Goals.createGoalsFrom(DIAGRAM_AB));
+        assertEquals(firstThenSecond, secondThenFirst);
+        assertEquals(firstThenSecond.hashCode(), secondThenFirst.hashCode());
+        assertNotEquals(AppliedRules.EMPTY, firstThenSecond);
+    }
+
+    @Test
+    public void irrelevant_applications_should_not_extend_the_index() {
+        InferenceApplication tautology = new InferenceApplication(new TrivialImplicationTautology(), new SubgoalIndexArg(0), RuleApplicationType.AUTOMATIC, "test");
+        assertSame(AppliedRules.EMPTY, AppliedRules.EMPTY.extend(tautology, Goals.createGoalsFrom()));
+    }
+
+    @Test
+    public void persistent_proofs_should_share_their_index() {
+        PersistentProofTrace proof = new PersistentProofTrace(Goals.createGoalsFrom(DIAGRAM_A));
+        PersistentProofTrace copy = new PersistentProofTrace(proof);
+        assertSame(proof.getAppliedRules(), copy.getAppliedRules());
+        assertSame(AppliedRules.EMPTY, AppliedRules.of(proof));
+    }
+}
@@ -0,0 +1,80 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Reads goals from the example sets in the {@code examples} directory of the
+ * project, so that the provers can be compared on the same goals as the
+ * benchmarks. Tests using these goals are skipped if the directory cannot be
+ * found (e.g., when run outside of the project).
+ *
+ * @author Sven Linker [s.linker@brighton.ac.uk]
+ */
+final class ExampleGoals {
+
+    static final String EXAMPLES_PROPERTY = "speedith.examples";
+
+    private static final String SDT_EXTENSION = ".sdt";
+
+    private ExampleGoals() {
+    }
+
+    /**
+     * Reads the first {@code count} goals (ordered by their number) of the
+     * given example set.
+     */
+    static List<SpiderDiagram> read(String exampleSet, int count) throws IOException, ReadingException {
+        File directory = new File(getExamplesDirectory(), exampleSet);
+        assumeTrue(directory.isDirectory());
+        File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(SDT_EXTENSION);
+            }
+        });
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Integer.compare(number(a), number(b));
+            }
+        });
+        List<SpiderDiagram> goals = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, files.length); i++) {
+            String text = new String(Files.readAllBytes(files[i].toPath()), StandardCharsets.UTF_8);
+            goals.add(SpiderDiagramsReader.readSpiderDiagram(text));
+        }
+        return goals;
+    }
+
+    private static File getExamplesDirectory() {
+        String property = System.getProperty(EXAMPLES_PROPERTY);
+        if (property != null) {
+            return new File(property);
+        }
+        File examples = new File("examples");
+        return examples.isDirectory() ? examples : new File("../examples");
+    }
+
+    private static int number(File file) {
+        String name = file.getName();
+        try {
+            return Integer.parseInt(name.substring(0, name.length() - SDT_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zones;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HeuristicCacheTest {
+
+    @Test
+    public void get_should_return_put_values_and_count_hits_and_misses() {
+        HeuristicCache<String, Integer> cache = new HeuristicCache<>(10);
+        assertNull(cache.get("a"));
+        cache.put("a", 1);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void cache_should_evict_least_recently_used_values() {
+        HeuristicCache<String, Integer> cache = new HeuristicCache<>(2, 1);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void size_should_never_exceed_the_maximum_size() {
+        HeuristicCache<Integer, Integer> cache = new HeuristicCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 100 + 16);
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    public void diagram_keys_should_compare_diagrams_by_identity() {
+        SpiderDiagram d1 = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        SpiderDiagram d2 = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("B"));
+        assertEquals(new HeuristicCache.DiagramKey(d1, d2), new HeuristicCache.DiagramKey(d1, d2));
+        assertEquals(new HeuristicCache.DiagramKey(d1, d2).hashCode(), new HeuristicCache.DiagramKey(d1, d2).hashCode());
+        assertNotEquals(new HeuristicCache.DiagramKey(d1, d2), new HeuristicCache.DiagramKey(d2, d1));
+        assertNotEquals(new HeuristicCache.DiagramKey(d1), new HeuristicCache.DiagramKey(d1, d2));
+    }
+
+    @Test
+    public void diagram_keys_should_be_equal_for_equal_diagrams() {
+        SpiderDiagram d1 = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        SpiderDiagram d1Copy = SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+        assertEquals(new HeuristicCache.DiagramKey(d1), new HeuristicCache.DiagramKey(d1Copy));
+        assertNotEquals(new HeuristicCache.DiagramKey(d1), new HeuristicCache.DiagramKey(null));
+    }
+
+    @Test
+    public void concurrent_access_should_keep_the_cache_consistent() throws InterruptedException {
+        final HeuristicCache<Integer, Integer> cache = new HeuristicCache<>(64, 4);
+        final AtomicInteger wrongValues = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 10000; i++) {
+                        int key = i % 200;
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key * 2);
+                        } else if (value != key * 2) {
+                            wrongValues.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(0, wrongValues.get());
+        assertTrue(cache.size() <= 64);
+        assertEquals(40000, cache.getHits() + cache.getMisses());
+    }
+}
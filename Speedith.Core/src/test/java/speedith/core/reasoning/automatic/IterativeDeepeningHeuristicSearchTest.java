@@ -0,0 +1,140 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class IterativeDeepeningHeuristicSearchTest {
+
+    private static final PrimarySpiderDiagram VENN_A = createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final PrimarySpiderDiagram VENN_AB = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_AB_SHADED = createPrimarySD(null, null,
+            Collections.singletonList(new Zone(Arrays.asList("A"), Arrays.asList("B"))),
+            Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_BC = createPrimarySD(null, null, null, Zones.allZonesForContours("B", "C"));
+
+    private static final SpiderDiagram[] GOALS = {
+            createCompoundSD(Operator.Implication, VENN_AB, VENN_A),
+            createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_AB),
+            createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_A),
+            createCompoundSD(Operator.Implication, createCompoundSD(Operator.Conjunction, VENN_AB_SHADED, VENN_BC), VENN_A)
+    };
+
+    private static final SearchLimits LIMITS = SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS);
+
+    private static final int EXAMPLE_GOALS = 3;
+
+    @Test
+    public void iterative_deepening_heuristic_should_be_registered() {
+        assertTrue(AutomaticProvers.getAutomaticProver("iterative_deepening_heuristic") instanceof IterativeDeepeningHeuristicSearch);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_memory_ceilings_should_be_rejected() {
+        new IterativeDeepeningHeuristicSearch(Strategies.getStrategy("basic_strategy"), -1);
+    }
+
+    @Test
+    public void proofs_should_be_as_long_as_those_of_heuristic_search() throws AutomaticProofException {
+        // the pure length strategy never overestimates, so both provers find the shortest proofs
+        for (SpiderDiagram goal : GOALS) {
+            SearchResult expected = prove(new HeuristicSearch(), "pure_length_strategy", goal);
+            SearchResult actual = prove(new IterativeDeepeningHeuristicSearch(), "pure_length_strategy", goal);
+            assertTrue("Could not prove " + goal, expected.isProofFound());
+            assertTrue("Could not prove " + goal + " with iterative deepening", actual.isProofFound());
+            assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            assertTrue(actual.getProof().isFinished());
+            assertEquals(goal, actual.getProof().getInitialGoals().getGoalAt(0));
+        }
+    }
+
+    @Test
+    public void proofs_of_examples_should_be_as_long_as_those_of_heuristic_search() throws Exception {
+        for (SpiderDiagram goal : ExampleGoals.read("3_premises", EXAMPLE_GOALS)) {
+            SearchResult expected = prove(new HeuristicSearch(), "basic_strategy", goal);
+            SearchResult actual = prove(new IterativeDeepeningHeuristicSearch(), "basic_strategy", goal);
+            assertEquals(expected.isProofFound(), actual.isProofFound());
+            if (expected.isProofFound()) {
+                assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            }
+        }
+    }
+
+    @Test
+    public void thresholds_should_rise_monotonically() throws AutomaticProofException {
+        IterativeDeepeningHeuristicSearch prover = new IterativeDeepeningHeuristicSearch();
+        RecordingListener listener = record(prover);
+        SearchResult result = prove(prover, "pure_length_strategy", GOALS[3]);
+        assertTrue(result.isProofFound());
+
+        List<Integer> thresholds = new ArrayList<>();
+        for (SearchStatistics statistics : listener.statistics) {
+            int threshold = statistics.getBestF();
+            if (threshold != Integer.MAX_VALUE && (thresholds.isEmpty() || thresholds.get(thresholds.size() - 1) != threshold)) {
+                thresholds.add(threshold);
+            }
+        }
+        // the proof needs several steps, so there has to be more than one iteration
+        assertTrue(thresholds.toString(), thresholds.size() > 1);
+        for (int i = 1; i < thresholds.size(); i++) {
+            assertTrue(thresholds.toString(), thresholds.get(i - 1) < thresholds.get(i));
+        }
+    }
+
+    @Test
+    public void cached_states_should_not_exceed_the_ceiling() throws AutomaticProofException {
+        for (int ceiling : new int[]{0, 1, 3}) {
+            IterativeDeepeningHeuristicSearch prover = new IterativeDeepeningHeuristicSearch(Strategies.getStrategy("pure_length_strategy"), ceiling);
+            RecordingListener listener = record(prover);
+            SearchResult result = prove(prover, "pure_length_strategy", GOALS[3]);
+            assertTrue(result.isProofFound());
+            assertFalse(listener.statistics.isEmpty());
+            for (SearchStatistics statistics : listener.statistics) {
+                assertTrue(statistics.getDistinctStates() + " > " + ceiling, statistics.getDistinctStates() <= ceiling);
+            }
+        }
+    }
+
+    private static RecordingListener record(AutomaticProver prover) {
+        RecordingListener listener = new RecordingListener();
+        prover.addSearchListener(listener);
+        // report the statistics at (almost) every check of the monitor
+        prover.setProgressInterval(1, TimeUnit.NANOSECONDS);
+        return listener;
+    }
+
+    private static SearchResult prove(AutomaticProver prover, String strategy, SpiderDiagram goal) throws AutomaticProofException {
+        prover.setStrategy(Strategies.getStrategy(strategy));
+        return prover.generateProof(Goals.createGoalsFrom(goal), LIMITS);
+    }
+
+    private static final class RecordingListener implements SearchListener {
+
+        private final List<SearchStatistics> statistics = new ArrayList<>();
+
+        @Override
+        public void searchProgressed(SearchStatistics statistics) {
+            this.statistics.add(statistics);
+        }
+
+        @Override
+        public void searchFinished(SearchStatistics statistics) {
+            this.statistics.add(statistics);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class ParallelHeuristicSearchTest {
+
+    private static final PrimarySpiderDiagram VENN_A = createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final PrimarySpiderDiagram VENN_AB = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_AB_SHADED = createPrimarySD(null, null,
+            Collections.singletonList(new Zone(Arrays.asList("A"), Arrays.asList("B"))),
+            Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_BC = createPrimarySD(null, null, null, Zones.allZonesForContours("B", "C"));
+
+    private static final SearchLimits LIMITS = SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS);
+
+    private static final int EXAMPLE_GOALS = 3;
+
+    private static final int THREADS = 4;
+
+    @Test
+    public void parallel_heuristic_should_be_registered() {
+        assertTrue(AutomaticProvers.getAutomaticProver("parallel_heuristic") instanceof ParallelHeuristicSearch);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallel_heuristic_should_need_a_worker() {
+        new ParallelHeuristicSearch(Strategies.getStrategy("basic_strategy"), 0);
+    }
+
+    @Test
+    public void proofs_should_be_as_long_as_those_of_heuristic_search() throws AutomaticProofException {
+        SpiderDiagram[] goals = {
+                createCompoundSD(Operator.Implication, VENN_AB, VENN_A),
+                createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_AB),
+                createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_A),
+                createCompoundSD(Operator.Implication, createCompoundSD(Operator.Conjunction, VENN_AB_SHADED, VENN_BC), VENN_A)
+        };
+        // the pure length strategy never overestimates, so both provers find the shortest proofs
+        for (SpiderDiagram goal : goals) {
+            SearchResult expected = prove(new HeuristicSearch(), "pure_length_strategy", goal);
+            SearchResult actual = prove(new ParallelHeuristicSearch(Strategies.getStrategy("pure_length_strategy"), THREADS), "pure_length_strategy", goal);
+            assertTrue("Could not prove " + goal, expected.isProofFound());
+            assertTrue("Could not prove " + goal + " in parallel", actual.isProofFound());
+            assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            assertTrue(actual.getProof().isFinished());
+            assertEquals(goal, actual.getProof().getInitialGoals().getGoalAt(0));
+        }
+    }
+
+    @Test
+    public void proofs_of_examples_should_be_as_long_as_those_of_heuristic_search() throws Exception {
+        for (SpiderDiagram goal : ExampleGoals.read("3_premises", EXAMPLE_GOALS)) {
+            SearchResult expected = prove(new HeuristicSearch(), "basic_strategy", goal);
+            SearchResult actual = prove(new ParallelHeuristicSearch(Strategies.getStrategy("basic_strategy"), THREADS), "basic_strategy", goal);
+            assertEquals(expected.isProofFound(), actual.isProofFound());
+            if (expected.isProofFound()) {
+                assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            }
+        }
+    }
+
+    private static SearchResult prove(AutomaticProver prover, String strategy, SpiderDiagram goal) throws AutomaticProofException {
+        prover.setStrategy(Strategies.getStrategy(strategy));
+        return prover.generateProof(Goals.createGoalsFrom(goal), LIMITS);
+    }
+}
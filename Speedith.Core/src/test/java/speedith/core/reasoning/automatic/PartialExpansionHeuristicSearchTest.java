@@ -0,0 +1,74 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.automatic.strategies.Strategies;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class PartialExpansionHeuristicSearchTest {
+
+    private static final PrimarySpiderDiagram VENN_A = createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final PrimarySpiderDiagram VENN_AB = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_AB_SHADED = createPrimarySD(null, null,
+            Collections.singletonList(new Zone(Arrays.asList("A"), Arrays.asList("B"))),
+            Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_BC = createPrimarySD(null, null, null, Zones.allZonesForContours("B", "C"));
+
+    private static final int EXAMPLE_GOALS = 3;
+
+    private static final SearchLimits LIMITS = SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS);
+
+    @Test
+    public void partial_expansion_heuristic_should_be_registered() {
+        assertTrue(AutomaticProvers.getAutomaticProver("partial_expansion_heuristic") instanceof PartialExpansionHeuristicSearch);
+    }
+
+    @Test
+    public void proofs_should_be_as_long_as_those_of_heuristic_search() throws AutomaticProofException {
+        SpiderDiagram[] goals = {
+                createCompoundSD(Operator.Implication, VENN_AB, VENN_A),
+                createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_AB),
+                createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_A),
+                createCompoundSD(Operator.Implication, createCompoundSD(Operator.Conjunction, VENN_AB_SHADED, VENN_BC), VENN_A)
+        };
+        // without a heuristic, both provers search by the length of the proofs
+        for (SpiderDiagram goal : goals) {
+            SearchResult expected = prove(new HeuristicSearch(), "no_strategy", goal);
+            SearchResult actual = prove(new PartialExpansionHeuristicSearch(), "no_strategy", goal);
+            assertTrue("Could not prove " + goal, expected.isProofFound());
+            assertTrue("Could not prove " + goal + " with partial expansion", actual.isProofFound());
+            assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            assertTrue(actual.getProof().isFinished());
+            assertEquals(goal, actual.getProof().getInitialGoals().getGoalAt(0));
+        }
+    }
+
+    @Test
+    public void proofs_of_examples_should_be_as_long_as_those_of_heuristic_search() throws Exception {
+        for (SpiderDiagram goal : ExampleGoals.read("3_premises", EXAMPLE_GOALS)) {
+            SearchResult expected = prove(new HeuristicSearch(), "basic_strategy", goal);
+            SearchResult actual = prove(new PartialExpansionHeuristicSearch(), "basic_strategy", goal);
+            assertEquals(expected.isProofFound(), actual.isProofFound());
+            if (expected.isProofFound()) {
+                assertEquals(goal.toString(), expected.getProof().getInferenceApplicationCount(), actual.getProof().getInferenceApplicationCount());
+            }
+        }
+    }
+
+    private static SearchResult prove(AutomaticProver prover, String strategy, SpiderDiagram goal) throws AutomaticProofException {
+        prover.setStrategy(Strategies.getStrategy(strategy));
+        return prover.generateProof(Goals.createGoalsFrom(goal), LIMITS);
+    }
+}
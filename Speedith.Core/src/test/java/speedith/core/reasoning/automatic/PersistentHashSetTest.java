@@ -0,0 +1,97 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PersistentHashSetTest {
+
+    @Test
+    public void added_elements_should_be_contained() {
+        PersistentHashSet<Integer> set = PersistentHashSet.empty();
+        for (int i = 0; i < 5000; i++) {
+            set = set.plus(i * 7919);
+        }
+        assertEquals(5000, set.size());
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(set.contains(i * 7919));
+            assertFalse(set.contains(i * 7919 + 1));
+        }
+    }
+
+    @Test
+    public void adding_an_element_should_not_change_the_original_set() {
+        PersistentHashSet<String> parent = PersistentHashSet.<String>empty().plusAll(Arrays.asList("A", "B"));
+        PersistentHashSet<String> child = parent.plus("C");
+        PersistentHashSet<String> sibling = parent.plus("D");
+        assertTrue(child.contains("C"));
+        assertFalse(child.contains("D"));
+        assertTrue(sibling.contains("D"));
+        assertFalse(parent.contains("C"));
+        assertEquals(2, parent.size());
+        assertEquals(3, child.size());
+    }
+
+    @Test
+    public void adding_a_contained_element_should_return_the_same_set() {
+        PersistentHashSet<String> set = PersistentHashSet.<String>empty().plus("A");
+        assertSame(set, set.plus("A"));
+        assertSame(set, set.plus(new String("A")));
+    }
+
+    @Test
+    public void elements_with_equal_hash_codes_should_be_distinguished() {
+        PersistentHashSet<Colliding> set = PersistentHashSet.empty();
+        for (int i = 0; i < 10; i++) {
+            set = set.plus(new Colliding(i));
+        }
+        assertEquals(10, set.size());
+        assertTrue(set.contains(new Colliding(3)));
+        assertFalse(set.contains(new Colliding(10)));
+        assertSame(set, set.plus(new Colliding(5)));
+    }
+
+    @Test
+    public void sets_with_the_same_elements_should_be_equal() {
+        PersistentHashSet<Integer> ascending = PersistentHashSet.empty();
+        PersistentHashSet<Integer> descending = PersistentHashSet.empty();
+        for (int i = 0; i < 1000; i++) {
+            ascending = ascending.plus(i * 7919);
+            descending = descending.plus((999 - i) * 7919);
+        }
+        assertEquals(ascending, descending);
+        assertEquals(ascending.hashCode(), descending.hashCode());
+        assertNotEquals(ascending, descending.plus(1));
+        assertNotEquals(ascending.plus(2), descending.plus(1));
+        assertEquals(PersistentHashSet.empty(), PersistentHashSet.<String>empty());
+    }
+
+    @Test
+    public void sets_with_colliding_elements_should_be_compared_regardless_of_order() {
+        PersistentHashSet<Colliding> first = PersistentHashSet.<Colliding>empty().plus(new Colliding(1)).plus(new Colliding(2)).plus(new Colliding(3));
+        PersistentHashSet<Colliding> second = PersistentHashSet.<Colliding>empty().plus(new Colliding(3)).plus(new Colliding(1)).plus(new Colliding(2));
+        assertEquals(first, second);
+        assertNotEquals(first, PersistentHashSet.<Colliding>empty().plus(new Colliding(1)).plus(new Colliding(2)).plus(new Colliding(4)));
+    }
+
+    private static final class Colliding {
+
+        private final int value;
+
+        Colliding(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Colliding && ((Colliding) obj).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
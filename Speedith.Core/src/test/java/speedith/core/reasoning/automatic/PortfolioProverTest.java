@@ -0,0 +1,86 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class PortfolioProverTest {
+
+    private static final PrimarySpiderDiagram VENN_A = createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final PrimarySpiderDiagram VENN_AB_SHADED = createPrimarySD(null, null,
+            Collections.singletonList(new Zone(Arrays.asList("A"), Arrays.asList("B"))),
+            Zones.allZonesForContours("A", "B"));
+    private static final Goals GOALS = Goals.createGoalsFrom(createCompoundSD(Operator.Implication, VENN_AB_SHADED, VENN_A));
+
+    @Test
+    public void portfolio_prover_should_be_registered() {
+        AutomaticProver prover = AutomaticProvers.getAutomaticProver("portfolio");
+        assertTrue(prover instanceof PortfolioProver);
+        PortfolioProver portfolio = (PortfolioProver) prover;
+        assertTrue(portfolio.getConfigurations().contains(new PortfolioProver.Configuration("heuristic", "basic_strategy")));
+        assertTrue(portfolio.getConfigurations().contains(new PortfolioProver.Configuration("tactical_heuristic", "basic_strategy")));
+        assertNull(portfolio.getLastWinner());
+    }
+
+    @Test
+    public void configurations_should_create_independent_provers() throws AutomaticProofException {
+        PortfolioProver.Configuration configuration = new PortfolioProver.Configuration("heuristic", "lowclutter_strategy");
+        AutomaticProver first = configuration.createProver();
+        AutomaticProver second = configuration.createProver();
+        assertNotSame(first, second);
+        assertNotSame(AutomaticProvers.getAutomaticProver("heuristic"), first);
+        assertEquals("lowclutter_strategy", ((speedith.core.reasoning.automatic.strategies.StrategyProvider) first.getStrategy()).getStrategyName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown_provers_should_be_rejected() {
+        new PortfolioProver.Configuration("unknown", "basic_strategy");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nested_portfolios_should_be_rejected() {
+        new PortfolioProver.Configuration("portfolio", "basic_strategy");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void empty_portfolios_should_be_rejected() {
+        new PortfolioProver(Collections.<PortfolioProver.Configuration>emptyList(), 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void grace_period_should_be_kept() {
+        PortfolioProver portfolio = new PortfolioProver(Arrays.asList(new PortfolioProver.Configuration("heuristic", "no_strategy")), 2, TimeUnit.SECONDS);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), portfolio.getGracePeriodNanos());
+    }
+
+    @Test
+    public void race_should_return_the_proof_of_the_winner_and_combine_the_statistics() throws AutomaticProofException {
+        List<PortfolioProver.Configuration> configurations = Arrays.asList(
+                new PortfolioProver.Configuration("heuristic", "no_strategy"),
+                new PortfolioProver.Configuration("heuristic", "basic_strategy"));
+        PortfolioProver portfolio = new PortfolioProver(configurations, 0, TimeUnit.MILLISECONDS);
+        SearchResult result = portfolio.generateProof(GOALS, SearchLimits.NONE.withTimeout(30, TimeUnit.SECONDS));
+        assertTrue(result.isProofFound());
+        assertTrue(result.getProof().isFinished());
+        PortfolioProver.Configuration winner = portfolio.getLastWinner();
+        assertTrue(configurations.contains(winner));
+        // the searches are deterministic, so the winner finds the same proof on its own
+        SearchResult alone = winner.createProver().generateProof(GOALS, SearchLimits.NONE);
+        assertEquals(alone.getProof().getInferenceApplicationCount(), result.getProof().getInferenceApplicationCount());
+        assertTrue(result.getStatistics().getExpandedNodes() >= alone.getStatistics().getExpandedNodes());
+        assertTrue(result.getStatistics().getCreatedNodes() >= alone.getStatistics().getCreatedNodes());
+        assertTrue(result.getStatistics().getBestF() <= alone.getStatistics().getBestF());
+    }
+}
@@ -0,0 +1,130 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.reasoning.automatic.SearchStatistics.Outcome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SearchMonitorTest {
+
+    @Test
+    public void unlimited_search_should_not_stop() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE, Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        for (int i = 0; i < 1000; i++) {
+            monitor.nodeExpanded(i);
+            monitor.setFrontierSize(i * 10);
+        }
+        assertFalse(monitor.shouldStop());
+        assertNull(monitor.getStopReason());
+    }
+
+    @Test
+    public void search_should_stop_after_the_maximal_number_of_expansions() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE.withMaxExpandedNodes(2), Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        monitor.nodeExpanded(1);
+        assertFalse(monitor.shouldStop());
+        monitor.nodeExpanded(2);
+        assertTrue(monitor.shouldStop());
+        assertEquals(Outcome.EXPANSION_LIMIT, monitor.getStopReason());
+        // the first reason is kept
+        monitor.setFrontierSize(100);
+        assertTrue(monitor.shouldStop());
+        assertEquals(Outcome.EXPANSION_LIMIT, monitor.getStopReason());
+    }
+
+    @Test
+    public void search_should_stop_if_the_frontier_is_too_large() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE.withMaxFrontierSize(10), Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        monitor.setFrontierSize(10);
+        assertFalse(monitor.shouldStop());
+        monitor.setFrontierSize(11);
+        assertTrue(monitor.shouldStop());
+        assertEquals(Outcome.FRONTIER_LIMIT, monitor.getStopReason());
+    }
+
+    @Test
+    public void search_should_stop_after_the_timeout() throws InterruptedException {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE.withTimeout(1, TimeUnit.MILLISECONDS), Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        Thread.sleep(5);
+        assertTrue(monitor.shouldStop());
+        assertEquals(Outcome.TIMEOUT, monitor.getStopReason());
+    }
+
+    @Test
+    public void listeners_should_receive_progress_and_final_statistics() throws InterruptedException {
+        final List<SearchStatistics> progress = new ArrayList<>();
+        final List<SearchStatistics> finished = new ArrayList<>();
+        SearchListener listener = new SearchListener() {
+            @Override
+            public void searchProgressed(SearchStatistics statistics) {
+                progress.add(statistics);
+            }
+
+            @Override
+            public void searchFinished(SearchStatistics statistics) {
+                finished.add(statistics);
+            }
+        };
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE, Collections.singletonList(listener), 1);
+        monitor.nodeExpanded(3);
+        monitor.nodeCreated();
+        monitor.nodeCreated();
+        monitor.superfluousApplication();
+        Thread.sleep(1);
+        assertFalse(monitor.shouldStop());
+        assertEquals(1, progress.size());
+        assertEquals(Outcome.RUNNING, progress.get(0).getOutcome());
+
+        SearchStatistics statistics = monitor.finish(Outcome.SEARCH_EXHAUSTED);
+        assertEquals(Collections.singletonList(statistics), finished);
+        assertEquals(Outcome.SEARCH_EXHAUSTED, statistics.getOutcome());
+        assertEquals(1, statistics.getExpandedNodes());
+        assertEquals(2, statistics.getCreatedNodes());
+        assertEquals(1, statistics.getSuperfluousApplications());
+        assertEquals(3, statistics.getBestF());
+        assertEquals(2.0, statistics.getBranchingFactor(), 1e-9);
+    }
+
+    @Test
+    public void statistics_should_record_the_peak_frontier_size() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE, Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        monitor.setFrontierSize(5);
+        monitor.setFrontierSize(12);
+        monitor.setFrontierSize(3);
+        SearchStatistics statistics = monitor.snapshot(Outcome.RUNNING);
+        assertEquals(3, statistics.getFrontierSize());
+        assertEquals(12, statistics.getPeakFrontierSize());
+    }
+
+    @Test
+    public void statistics_should_record_the_lowest_expanded_value() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE, Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Integer.MAX_VALUE, monitor.snapshot(Outcome.RUNNING).getBestF());
+        monitor.nodeExpanded(5);
+        monitor.nodeExpanded(2);
+        monitor.nodeExpanded(7);
+        assertEquals(2, monitor.snapshot(Outcome.RUNNING).getBestF());
+    }
+
+    @Test
+    public void statistics_should_record_the_last_threshold() {
+        SearchMonitor monitor = new SearchMonitor("test", SearchLimits.NONE, Collections.<SearchListener>emptyList(), TimeUnit.SECONDS.toNanos(1));
+        monitor.thresholdReached(2);
+        monitor.nodeExpanded();
+        monitor.thresholdReached(4);
+        monitor.nodeExpanded();
+        SearchStatistics statistics = monitor.snapshot(Outcome.RUNNING);
+        assertEquals(4, statistics.getBestF());
+        assertEquals(2, statistics.getExpandedNodes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_limits_should_be_rejected() {
+        SearchLimits.NONE.withMaxExpandedNodes(-1);
+    }
+}
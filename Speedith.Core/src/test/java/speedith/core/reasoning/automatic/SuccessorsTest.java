@@ -0,0 +1,100 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.*;
+import speedith.core.reasoning.automatic.wrappers.RulePriorityComparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class SuccessorsTest {
+
+    private static final PossibleRuleApplication<? extends RuleArg> INTRODUCE_CONTOUR = new PossibleIntroduceContour(0, null, null, "A");
+    private static final PossibleRuleApplication<? extends RuleArg> REMOVE_CONTOUR = new PossibleRemoveContour(0, null, null, "A");
+    private static final PossibleRuleApplication<? extends RuleArg> REMOVE_SHADING = new PossibleRemoveShading(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> CONJUNCTION = new PossibleConjunction(0, null, null, null);
+
+    @Test
+    public void batches_should_be_ordered_by_priority() {
+        Successors successors = Successors.inBatches(
+                Arrays.asList(INTRODUCE_CONTOUR, REMOVE_CONTOUR, CONJUNCTION, REMOVE_SHADING).iterator(),
+                new RulePriorityComparator(), 4);
+        assertEquals(Arrays.asList(CONJUNCTION, REMOVE_SHADING, REMOVE_CONTOUR, INTRODUCE_CONTOUR), drain(successors));
+    }
+
+    @Test
+    public void batches_should_not_be_ordered_among_each_other() {
+        Successors successors = Successors.inBatches(
+                Arrays.asList(INTRODUCE_CONTOUR, REMOVE_CONTOUR, CONJUNCTION, REMOVE_SHADING).iterator(),
+                new RulePriorityComparator(), 2);
+        assertEquals(Arrays.asList(REMOVE_CONTOUR, INTRODUCE_CONTOUR, CONJUNCTION, REMOVE_SHADING), drain(successors));
+    }
+
+    @Test
+    public void equal_priorities_should_keep_their_order() {
+        PossibleRuleApplication<? extends RuleArg> otherRemoveContour = new PossibleRemoveContour(0, null, null, "B");
+        Successors successors = Successors.inBatches(
+                Arrays.asList(otherRemoveContour, CONJUNCTION, REMOVE_CONTOUR).iterator(),
+                new RulePriorityComparator(), 3);
+        assertEquals(Arrays.asList(CONJUNCTION, otherRemoveContour, REMOVE_CONTOUR), drain(successors));
+    }
+
+    @Test
+    public void candidates_should_be_taken_one_batch_at_a_time() {
+        CountingIterator candidates = new CountingIterator(Arrays.asList(INTRODUCE_CONTOUR, REMOVE_CONTOUR, CONJUNCTION, REMOVE_SHADING, REMOVE_CONTOUR));
+        Successors successors = Successors.inBatches(candidates, new RulePriorityComparator(), 2);
+        assertTrue(successors.hasNext());
+        assertEquals(0, candidates.taken);
+        successors.next();
+        assertEquals(2, candidates.taken);
+        successors.next();
+        assertEquals(2, candidates.taken);
+        successors.next();
+        assertEquals(4, candidates.taken);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void next_should_fail_without_candidates() {
+        Successors.inBatches(new ArrayList<PossibleRuleApplication<? extends RuleArg>>().iterator(), new RulePriorityComparator(), 2).next();
+    }
+
+    private static List<PossibleRuleApplication<? extends RuleArg>> drain(Successors successors) {
+        List<PossibleRuleApplication<? extends RuleArg>> result = new ArrayList<>();
+        while (successors.hasNext()) {
+            result.add(successors.next());
+        }
+        return result;
+    }
+
+    private static class CountingIterator implements Iterator<PossibleRuleApplication<? extends RuleArg>> {
+
+        private final Iterator<PossibleRuleApplication<? extends RuleArg>> delegate;
+        private int taken;
+
+        CountingIterator(List<PossibleRuleApplication<? extends RuleArg>> candidates) {
+            this.delegate = candidates.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public PossibleRuleApplication<? extends RuleArg> next() {
+            taken++;
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
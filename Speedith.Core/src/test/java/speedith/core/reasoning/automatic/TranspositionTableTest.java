@@ -0,0 +1,133 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Test;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Region;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.ZoneArg;
+import speedith.core.reasoning.rules.RemoveShading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class TranspositionTableTest {
+
+    private static final PrimarySpiderDiagram VENN_2_AB_DIAGRAM = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final PrimarySpiderDiagram VENN_3_ABC_DIAGRAM = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B", "C"));
+
+    @Test
+    public void offer_should_accept_unknown_states() {
+        TranspositionTable table = new TranspositionTable();
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 3));
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_3_ABC_DIAGRAM), 3));
+        assertEquals(2, table.size());
+        assertEquals(2, table.getMisses());
+        assertEquals(0, table.getHits());
+    }
+
+    @Test
+    public void offer_should_reject_dominated_states() {
+        TranspositionTable table = new TranspositionTable();
+        table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 3);
+        assertFalse(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 3));
+        assertFalse(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 4));
+        assertEquals(3, table.getBestCost(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM)));
+        assertEquals(2, table.getHits());
+        assertEquals(0, table.getReopened());
+    }
+
+    @Test
+    public void offer_should_reopen_states_reached_more_cheaply() {
+        TranspositionTable table = new TranspositionTable();
+        Goals goals = Goals.createGoalsFrom(VENN_2_AB_DIAGRAM);
+        table.offer(goals, 3);
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 1));
+        assertEquals(1, table.getBestCost(goals));
+        assertEquals(1, table.getReopened());
+        assertTrue(table.isDominated(goals, 3));
+        assertFalse(table.isDominated(goals, 1));
+    }
+
+    @Test
+    public void bounded_tables_should_not_record_states_beyond_their_capacity() {
+        TranspositionTable table = new TranspositionTable(false, 1);
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 3));
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_3_ABC_DIAGRAM), 3));
+        assertEquals(1, table.size());
+        // states that could not be recorded are never dominated
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_3_ABC_DIAGRAM), 3));
+        assertFalse(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 3));
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), 1));
+        assertEquals(1, table.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_capacities_should_be_rejected() {
+        new TranspositionTable(false, -1);
+    }
+
+    @Test
+    public void states_after_different_rules_should_be_distinguished() {
+        TranspositionTable table = new TranspositionTable();
+        AppliedRules applied = AppliedRules.EMPTY.extend(new InferenceApplication(new RemoveShading(),
+                new MultipleRuleArgs(new ZoneArg(0, 1, new Zone(Arrays.asList("A"), Arrays.asList("B")))), RuleApplicationType.AUTOMATIC, "test"),
+                Goals.createGoalsFrom(VENN_2_AB_DIAGRAM));
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), AppliedRules.EMPTY, 3));
+        assertTrue(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), applied, 3));
+        assertFalse(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), AppliedRules.EMPTY, 3));
+        assertFalse(table.offer(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM), applied, 4));
+        // states recorded with their applied rules are separate from plain states
+        assertFalse(table.contains(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void getBestCost_of_unknown_state_is_negative() {
+        TranspositionTable table = new TranspositionTable();
+        assertEquals(-1, table.getBestCost(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM)));
+        assertFalse(table.contains(Goals.createGoalsFrom(VENN_2_AB_DIAGRAM)));
+    }
+
+    @Test
+    public void equivalent_goals_should_be_identified_only_if_requested() {
+        Region habitat = new Region(new Zone(Arrays.asList("A"), Arrays.asList("B")));
+        Goals s = Goals.createGoalsFrom(createPrimarySD(Collections.singletonMap("s", habitat), null, Zones.allZonesForContours("A", "B")));
+        Goals t = Goals.createGoalsFrom(createPrimarySD(Collections.singletonMap("t", habitat), null, Zones.allZonesForContours("A", "B")));
+        TranspositionTable exact = new TranspositionTable();
+        exact.offer(s, 1);
+        assertFalse(exact.contains(t));
+        TranspositionTable canonical = new TranspositionTable(true);
+        canonical.offer(s, 1);
+        assertTrue(canonical.contains(t));
+        assertFalse(canonical.offer(t, 2));
+    }
+
+    @Test
+    public void goals_differing_in_a_missing_zone_should_not_be_identified() {
+        Zone shadedZone = new Zone(Arrays.asList("A"), Arrays.asList("B"));
+        Region habitat = new Region(new Zone(Arrays.asList("A", "B"), Collections.<String>emptyList()));
+        List<Zone> allZones = Zones.allZonesForContours("A", "B");
+        List<Zone> withoutShadedZone = new ArrayList<>(allZones);
+        withoutShadedZone.remove(shadedZone);
+        PrimarySpiderDiagram present = createPrimarySD(Collections.singletonMap("s", habitat), Collections.singletonList(shadedZone), allZones);
+        PrimarySpiderDiagram missing = createPrimarySD(Collections.singletonMap("t", habitat), Collections.singletonList(shadedZone), withoutShadedZone);
+        assertTrue(present.isSEquivalentTo(missing));
+        assertFalse(present.hasSameCanonicalForm(missing));
+        assertNotEquals(present.getCanonicalFingerprint(), missing.getCanonicalFingerprint());
+        TranspositionTable canonical = new TranspositionTable(true);
+        canonical.offer(Goals.createGoalsFrom(present), 1);
+        assertFalse(canonical.contains(Goals.createGoalsFrom(missing)));
+        assertTrue(canonical.offer(Goals.createGoalsFrom(missing), 2));
+        assertEquals(2, canonical.size());
+    }
+}
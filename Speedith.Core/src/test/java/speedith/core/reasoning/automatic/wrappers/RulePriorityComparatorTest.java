@@ -0,0 +1,58 @@
+package speedith.core.reasoning.automatic.wrappers;
+
+import org.junit.Test;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.automatic.rules.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RulePriorityComparatorTest {
+
+    private static final PossibleRuleApplication<? extends RuleArg> CONJUNCTION = new PossibleConjunction(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> COMBINING = new PossibleCombining(0, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> COPY_CONTOUR = new PossibleCopyContour(0, null, null, "A");
+    private static final PossibleRuleApplication<? extends RuleArg> COPY_SHADING = new PossibleCopyShading(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> REMOVE_SHADING = new PossibleRemoveShading(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> REMOVE_SHADED_ZONE = new PossibleRemoveShadedZone(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> REMOVE_CONTOUR = new PossibleRemoveContour(0, null, null, "A");
+    private static final PossibleRuleApplication<? extends RuleArg> INTRO_SHADED_ZONE = new PossibleIntroShadedZone(0, null, null, null);
+    private static final PossibleRuleApplication<? extends RuleArg> INTRODUCE_CONTOUR = new PossibleIntroduceContour(0, null, null, "A");
+
+    @Test
+    public void structural_rules_should_come_first() {
+        assertEquals(0, RulePriorityComparator.getPriority(CONJUNCTION));
+        assertEquals(0, RulePriorityComparator.getPriority(COMBINING));
+        assertEquals(1, RulePriorityComparator.getPriority(COPY_CONTOUR));
+        assertEquals(1, RulePriorityComparator.getPriority(COPY_SHADING));
+    }
+
+    @Test
+    public void introducing_rules_should_come_last() {
+        assertEquals(2, RulePriorityComparator.getPriority(REMOVE_SHADING));
+        assertEquals(2, RulePriorityComparator.getPriority(REMOVE_SHADED_ZONE));
+        assertEquals(3, RulePriorityComparator.getPriority(REMOVE_CONTOUR));
+        assertEquals(4, RulePriorityComparator.getPriority(INTRO_SHADED_ZONE));
+        assertEquals(5, RulePriorityComparator.getPriority(INTRODUCE_CONTOUR));
+    }
+
+    @Test
+    public void sorting_should_order_by_priority() {
+        List<PossibleRuleApplication<? extends RuleArg>> applications = new ArrayList<>(Arrays.asList(
+                INTRODUCE_CONTOUR, INTRO_SHADED_ZONE, REMOVE_CONTOUR, REMOVE_SHADED_ZONE, COPY_SHADING, CONJUNCTION));
+        Collections.sort(applications, new RulePriorityComparator());
+        assertEquals(Arrays.asList(CONJUNCTION, COPY_SHADING, REMOVE_SHADED_ZONE, REMOVE_CONTOUR, INTRO_SHADED_ZONE, INTRODUCE_CONTOUR), applications);
+    }
+
+    @Test
+    public void equal_priorities_should_compare_equal() {
+        RulePriorityComparator comparator = new RulePriorityComparator();
+        assertEquals(0, comparator.compare(REMOVE_SHADING, REMOVE_SHADED_ZONE));
+        assertTrue(comparator.compare(CONJUNCTION, INTRODUCE_CONTOUR) < 0);
+        assertTrue(comparator.compare(INTRODUCE_CONTOUR, REMOVE_CONTOUR) > 0);
+    }
+}
@@ -0,0 +1,36 @@
+package speedith.core.reasoning.automatic.wrappers;
+
+import org.junit.Test;
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.Operator;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Zones;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class SpiderDiagramOccurrenceTest {
+
+    private static final PrimarySpiderDiagram VENN_A = createPrimarySD(null, null, null, Zones.allZonesForContours("A"));
+    private static final PrimarySpiderDiagram VENN_AB = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+
+    @Test
+    public void occurrences_of_whole_compound_diagrams_should_be_shared() {
+        CompoundSpiderDiagram implication = createCompoundSD(Operator.Implication, VENN_AB, VENN_A);
+        SpiderDiagramOccurrence occurrence = SpiderDiagramOccurrence.wrapDiagram(implication, 0);
+        assertSame(occurrence, SpiderDiagramOccurrence.wrapDiagram(implication, 0));
+        assertSame(implication, occurrence.getDiagram());
+        assertEquals(0, occurrence.getOccurrenceIndex());
+        assertEquals(2, ((CompoundSpiderDiagramOccurrence) occurrence).getOperand(1).getOccurrenceIndex());
+    }
+
+    @Test
+    public void other_occurrences_should_be_created_anew() {
+        CompoundSpiderDiagram implication = createCompoundSD(Operator.Implication, VENN_AB, VENN_A);
+        SpiderDiagramOccurrence occurrence = SpiderDiagramOccurrence.wrapDiagram(implication, 1);
+        assertNotSame(occurrence, SpiderDiagramOccurrence.wrapDiagram(implication, 1));
+        assertEquals(occurrence, SpiderDiagramOccurrence.wrapDiagram(implication, 1));
+        assertNotSame(SpiderDiagramOccurrence.wrapDiagram(VENN_A, 0), SpiderDiagramOccurrence.wrapDiagram(VENN_A, 0));
+    }
+}
@@ -0,0 +1,275 @@
+package speedith.core.reasoning.io;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.*;
+
+public class BinaryProofFormatTest {
+
+    private static final Zone A = Zone.fromInContours("A").withOutContours("B");
+    private static final Zone B = Zone.fromInContours("B").withOutContours("A");
+    private static final Zone AB = Zone.fromInContours("A", "B");
+
+    private static PrimarySpiderDiagram primary(Zone... shaded) {
+        TreeMap<String, Region> habitats = new TreeMap<>();
+        habitats.put("s", new Region(A, AB));
+        return createPrimarySD(habitats, Arrays.asList(shaded), Zones.allZonesForContours("A", "B"));
+    }
+
+    private static Proof createProof() throws Exception {
+        SpiderDiagram premise = primary(AB);
+        SpiderDiagram conclusion = primary(AB, B);
+        Goals initial = Goals.createGoalsFrom(createCompoundSD(Operator.Implication, premise, conclusion));
+        Goals intermediate = Goals.createGoalsFrom(createCompoundSD(Operator.Implication, premise, premise));
+        ImplicationTautology tautology = new ImplicationTautology();
+        List<InferenceApplication> applications = Arrays.asList(
+                new InferenceApplication(tautology, new SpiderRegionArg(0, 2, "s", new Region(A, AB)), RuleApplicationType.INTERACTIVE, null),
+                new InferenceApplication(tautology, new SubDiagramIndexArg(0, 0), RuleApplicationType.AUTOMATIC, "heuristic"));
+        return new ProofTrace(Arrays.asList(initial, intermediate, Goals.createGoalsFrom(new ArrayList<SpiderDiagram>())), applications);
+    }
+
+    private static void assertSameApplication(InferenceApplication expected, InferenceApplication actual) {
+        assertEquals(expected.getInference().getProvider().getInferenceName(), actual.getInference().getProvider().getInferenceName());
+        assertEquals(describe(expected.getRuleArguments()), describe(actual.getRuleArguments()));
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getTypeSpecifier(), actual.getTypeSpecifier());
+    }
+
+    /**
+     * Most rule arguments do not implement equals, so they are compared by their contents.
+     */
+    private static String describe(RuleArg arg) {
+        if (arg == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(arg.getClass().getSimpleName()).append('(');
+        if (arg instanceof MultipleRuleArgs) {
+            for (RuleArg element : (MultipleRuleArgs) arg) {
+                sb.append(describe(element)).append(' ');
+            }
+        }
+        if (arg instanceof SubgoalIndexArg) {
+            sb.append(((SubgoalIndexArg) arg).getSubgoalIndex());
+        }
+        if (arg instanceof SubDiagramIndexArg) {
+            sb.append(' ').append(((SubDiagramIndexArg) arg).getSubDiagramIndex());
+        }
+        if (arg instanceof ContourArg) {
+            sb.append(' ').append(((ContourArg) arg).getContour());
+        }
+        if (arg instanceof SpiderArg) {
+            sb.append(' ').append(((SpiderArg) arg).getSpider());
+        }
+        if (arg instanceof SpiderRegionArg) {
+            sb.append(' ').append(((SpiderRegionArg) arg).getRegion());
+        }
+        if (arg instanceof SpiderZoneArg) {
+            sb.append(' ').append(((SpiderZoneArg) arg).getZone());
+        }
+        if (arg instanceof ZoneArg) {
+            sb.append(' ').append(((ZoneArg) arg).getZone());
+        }
+        return sb.append(')').toString();
+    }
+
+    @Test
+    public void proofs_should_survive_a_round_trip() throws Exception {
+        Proof proof = createProof();
+        Proof read = new BinaryProofReader(ByteBuffer.wrap(BinaryProofWriter.toByteArray(proof))).readProof();
+        assertEquals(proof.getGoals(), read.getGoals());
+        assertEquals(proof.getInferenceApplicationCount(), read.getInferenceApplicationCount());
+        for (int i = 0; i < proof.getInferenceApplicationCount(); i++) {
+            assertSameApplication(proof.getInferenceApplicationAt(i), read.getInferenceApplicationAt(i));
+        }
+        assertTrue(read.isFinished());
+    }
+
+    @Test
+    public void single_steps_should_be_readable() throws Exception {
+        Proof proof = createProof();
+        BinaryProofReader reader = new BinaryProofReader(ByteBuffer.wrap(BinaryProofWriter.toByteArray(proof)));
+        assertEquals(BinaryProofFormat.VERSION, reader.getVersion());
+        assertEquals(3, reader.getGoalsCount());
+        assertEquals(2, reader.getInferenceApplicationCount());
+        assertSameApplication(proof.getInferenceApplicationAt(1), reader.getInferenceApplicationAt(1));
+        assertEquals(proof.getGoalsAt(1), reader.getGoalsAt(1));
+        assertEquals(proof.getGoalsAt(0), reader.getGoalsAt(0));
+    }
+
+    @Test
+    public void fingerprints_of_goals_should_be_stored() throws Exception {
+        Proof proof = createProof();
+        BinaryProofReader reader = new BinaryProofReader(ByteBuffer.wrap(BinaryProofWriter.toByteArray(proof)));
+        for (int i = 0; i < proof.getGoalsCount(); i++) {
+            assertEquals(proof.getGoalsAt(i).getFingerprint(), reader.getGoalsFingerprintAt(i));
+        }
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void goals_not_matching_their_fingerprint_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // the first step starts with the fingerprint of the initial goals
+        int firstStep = buffer.getInt(buffer.getInt(24));
+        bytes[firstStep + 7] ^= 1;
+        new BinaryProofReader(ByteBuffer.wrap(bytes)).getGoalsAt(0);
+    }
+
+    @Test
+    public void rule_arguments_should_survive_a_round_trip() throws Exception {
+        Goals goals = Goals.createGoalsFrom(primary());
+        ImplicationTautology tautology = new ImplicationTautology();
+        List<RuleArg> args = Arrays.asList(null,
+                new SubgoalIndexArg(-1),
+                new ContourArg(0, 1, "A"),
+                new SpiderArg(1, 0, "s"),
+                new SpiderZoneArg(0, 3, "s", AB),
+                new ZoneArg(2, 1, B),
+                new MultipleRuleArgs(new ContourArg(0, 1, "A"), new ContourArg(0, 1, "B")));
+        List<InferenceApplication> applications = new ArrayList<>();
+        List<Goals> allGoals = new ArrayList<>();
+        allGoals.add(goals);
+        for (RuleArg arg : args) {
+            applications.add(new InferenceApplication(tautology, arg, RuleApplicationType.TACTIC, null));
+            allGoals.add(goals);
+        }
+        Proof read = new BinaryProofReader(ByteBuffer.wrap(BinaryProofWriter.toByteArray(new ProofTrace(allGoals, applications)))).readProof();
+        for (int i = 0; i < args.size(); i++) {
+            assertSameApplication(applications.get(i), read.getInferenceApplicationAt(i));
+        }
+    }
+
+    @Test
+    public void normalised_diagrams_should_survive_a_round_trip() throws Exception {
+        SpiderDiagram first = createNormalisedPrimarySD(null, null, Arrays.asList(AB), Arrays.asList("A", "B"), Arrays.asList(AB));
+        SpiderDiagram second = createNormalisedPrimarySD(null, null, Arrays.asList(AB, B), Arrays.asList("A", "B", "C"), Arrays.asList(AB));
+        List<Goals> goals = Arrays.asList(Goals.createGoalsFrom(first), Goals.createGoalsFrom(second));
+        List<InferenceApplication> applications = Collections.singletonList(
+                new InferenceApplication(new ImplicationTautology(), new SubDiagramIndexArg(0, 0), RuleApplicationType.AUTOMATIC, null));
+        Proof read = new BinaryProofReader(ByteBuffer.wrap(BinaryProofWriter.toByteArray(new ProofTrace(goals, applications)))).readProof();
+        assertEquals(goals, read.getGoals());
+        assertTrue(((PrimarySpiderDiagram) read.getGoalsAt(1).getGoalAt(0)).hasImplicitPresentZones());
+    }
+
+    /**
+     * Adds the zones that the binary format stores for the given diagram.
+     */
+    private static void collectZones(SpiderDiagram diagram, Set<Zone> zones) {
+        if (diagram instanceof CompoundSpiderDiagram) {
+            for (SpiderDiagram operand : ((CompoundSpiderDiagram) diagram).getOperands()) {
+                collectZones(operand, zones);
+            }
+        } else if (diagram instanceof PrimarySpiderDiagram) {
+            PrimarySpiderDiagram primary = (PrimarySpiderDiagram) diagram;
+            for (Region habitat : primary.getHabitats().values()) {
+                zones.addAll(habitat.sortedZones());
+            }
+            zones.addAll(primary.getShadedZones());
+            zones.addAll(primary.hasImplicitPresentZones() ? primary.getMissingZones() : primary.getPresentZones());
+        }
+    }
+
+    @Test
+    public void zone_table_should_only_contain_zones_of_written_diagrams() throws Exception {
+        Zone outside = Zone.fromOutContours("A", "B");
+        // the conclusion can be written as the difference to either premise
+        SpiderDiagram first = createPrimarySD(null, null, Arrays.asList(AB), Arrays.asList(outside, A, B, AB));
+        SpiderDiagram second = createPrimarySD(null, null, Arrays.asList(A, B), Arrays.asList(outside, A, B, AB));
+        SpiderDiagram third = createPrimarySD(null, null, Arrays.asList(A, AB), Arrays.asList(outside, A, B, AB));
+        List<Goals> goals = Arrays.asList(
+                Goals.createGoalsFrom(createCompoundSD(Operator.Conjunction, first, second)),
+                Goals.createGoalsFrom(createCompoundSD(Operator.Conjunction, third, second)));
+        List<InferenceApplication> applications = Collections.singletonList(
+                new InferenceApplication(new ImplicationTautology(), new SubDiagramIndexArg(0, 1), RuleApplicationType.AUTOMATIC, null));
+        byte[] bytes = BinaryProofWriter.toByteArray(new ProofTrace(goals, applications));
+
+        Set<Zone> zones = new HashSet<>();
+        for (Goals step : goals) {
+            collectZones(step.getGoalAt(0), zones);
+        }
+        int zonesOffset = ByteBuffer.wrap(bytes).getInt(16);
+        assertEquals(zones.size(), bytes[zonesOffset]);
+        Proof read = new BinaryProofReader(ByteBuffer.wrap(bytes)).readProof();
+        assertEquals(goals, read.getGoals());
+    }
+
+    @Test
+    public void binary_proofs_should_be_smaller_than_serialised_ones() throws Exception {
+        Proof proof = createProof();
+        ByteArrayOutputStream serialised = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialised)) {
+            out.writeObject(proof);
+        }
+        assertTrue(BinaryProofWriter.toByteArray(proof).length * 4 < serialised.size());
+    }
+
+    @Test
+    public void serialised_proofs_should_be_converted() throws Exception {
+        Proof proof = createProof();
+        File source = File.createTempFile("proof", ProofFiles.PROOF_EXTENSION);
+        File target = File.createTempFile("converted", ProofFiles.PROOF_EXTENSION);
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(source))) {
+                out.writeObject(proof);
+            }
+            assertEquals(proof.getGoals(), ProofFiles.read(source).getGoals());
+            assertTrue(ProofFiles.convert(source, target));
+            assertEquals(proof.getGoals(), ProofFiles.read(target).getGoals());
+            assertFalse(ProofFiles.convert(target, target));
+            assertEquals(proof.getGoals(), ProofFiles.read(target).getGoals());
+        } finally {
+            assertTrue(source.delete());
+            assertTrue(target.delete());
+        }
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void newer_versions_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        bytes[5] = (byte) (BinaryProofFormat.VERSION + 1);
+        new BinaryProofReader(ByteBuffer.wrap(bytes));
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void truncated_proofs_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        new BinaryProofReader(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3))).readProof();
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void excessive_goal_counts_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+        new BinaryProofReader(ByteBuffer.wrap(bytes));
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void excessive_string_counts_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        int stringsOffset = ByteBuffer.wrap(bytes).getInt(12);
+        // Integer.MAX_VALUE as a variable-length integer
+        byte[] count = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        System.arraycopy(count, 0, bytes, stringsOffset, count.length);
+        new BinaryProofReader(ByteBuffer.wrap(bytes));
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void negative_diagram_counts_should_be_rejected() throws Exception {
+        byte[] bytes = BinaryProofWriter.toByteArray(createProof());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(buffer.getInt(20), -1);
+        new BinaryProofReader(ByteBuffer.wrap(bytes));
+    }
+}
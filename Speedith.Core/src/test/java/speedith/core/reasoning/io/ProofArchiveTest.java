@@ -0,0 +1,101 @@
+package speedith.core.reasoning.io;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class ProofArchiveTest {
+
+    private static final SpiderDiagram SD = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final SpiderDiagram TAUTOLOGY = createCompoundSD(Operator.Implication, SD, SD);
+
+    private static Proof createProof(int subgoalIndex, SpiderDiagram... goals) throws Exception {
+        Proof proof = new ProofTrace(Goals.createGoalsFrom(goals));
+        proof.applyRule(new ImplicationTautology(), new SubDiagramIndexArg(subgoalIndex, 0), RuleApplicationType.INTERACTIVE, null);
+        return proof;
+    }
+
+    private static File createArchive(Proof... proofs) throws Exception {
+        File file = File.createTempFile("proofs", ProofArchive.ARCHIVE_EXTENSION);
+        file.deleteOnExit();
+        try (ProofArchiveWriter writer = new ProofArchiveWriter(file)) {
+            for (int i = 0; i < proofs.length; i++) {
+                writer.add("proof" + i, proofs[i]);
+            }
+            assertEquals(proofs.length, writer.size());
+        }
+        return file;
+    }
+
+    @Test
+    public void archived_proofs_should_equal_the_added_ones() throws Exception {
+        Proof unfinished = createProof(1, SD, TAUTOLOGY);
+        Proof finished = createProof(0, TAUTOLOGY);
+        ProofArchive archive = new ProofArchive(createArchive(unfinished, finished));
+        assertEquals(2, archive.size());
+        assertEquals("proof1", archive.getName(1));
+
+        ArchivedProof proof = archive.get(0);
+        assertEquals("proof0", proof.getName());
+        assertEquals(unfinished.getGoals(), proof.getGoals());
+        assertEquals(unfinished.getInferenceApplicationCount(), proof.getInferenceApplicationCount());
+        assertEquals(unfinished.getInferenceApplicationAt(0).getType(), proof.getInferenceApplicationAt(0).getType());
+        assertFalse(proof.isFinished());
+        assertSame(proof, proof.createFlattenedProof());
+        assertEquals(unfinished.getGoals(), proof.toProof().getGoals());
+
+        proof = archive.get(1);
+        assertEquals(finished.getGoals(), proof.getGoals());
+        assertTrue(proof.isFinished());
+    }
+
+    @Test
+    public void clutter_scores_should_be_stored() throws Exception {
+        Proof proof = createProof(0, TAUTOLOGY);
+        ArchivedProof archived = new ProofArchive(createArchive(proof)).get(0);
+        assertEquals(2, archived.getGoalsCount());
+        assertEquals(ProofAnalyser.clutterScore(proof.getGoalsAt(0)), archived.getClutterScoreAt(0));
+        assertEquals(-1, archived.getClutterScoreAt(1));
+    }
+
+    @Test
+    public void fingerprints_of_goals_should_be_stored() throws Exception {
+        Proof proof = createProof(0, TAUTOLOGY);
+        ArchivedProof archived = new ProofArchive(createArchive(proof)).get(0);
+        assertEquals(proof.getGoalsAt(0).getFingerprint(), archived.getGoalsFingerprintAt(0));
+        assertEquals(proof.getGoalsAt(1).getFingerprint(), archived.getGoalsFingerprintAt(1));
+    }
+
+    @Test
+    public void archived_proofs_should_be_serialised_as_copies() throws Exception {
+        Proof proof = createProof(1, SD, TAUTOLOGY);
+        ArchivedProof archived = new ProofArchive(createArchive(proof)).get(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(archived);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Proof read = (Proof) in.readObject();
+            assertTrue(read instanceof ProofTrace);
+            assertEquals(proof.getGoals(), read.getGoals());
+        }
+    }
+
+    @Test(expected = ProofFormatException.class)
+    public void proof_files_should_be_rejected() throws Exception {
+        File file = File.createTempFile("proof", ProofFiles.PROOF_EXTENSION);
+        file.deleteOnExit();
+        ProofFiles.write(createProof(0, TAUTOLOGY), file);
+        new ProofArchive(file);
+    }
+}
@@ -0,0 +1,121 @@
+package speedith.core.reasoning.metrics;
+
+import org.junit.Test;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zones;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.CopyContours;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.SpiderDiagrams.createCompoundSD;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+public class MetricsTest {
+
+    private static final SpiderDiagram SD = createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B"));
+    private static final Goals GOALS = Goals.createGoalsFrom(createCompoundSD(Operator.Implication, SD, SD));
+    private static final Goals NO_GOALS = Goals.createGoalsFrom(new ArrayList<SpiderDiagram>());
+
+    private static InferenceApplication application(Inference<?, ?> inference, RuleApplicationType type, String typeSpecifier) {
+        return new InferenceApplication(inference, new SubDiagramIndexArg(0, 0), type, typeSpecifier);
+    }
+
+    private static Proof createProof(InferenceApplication... applications) {
+        List<Goals> goals = new ArrayList<>();
+        for (int i = 0; i < applications.length; i++) {
+            goals.add(GOALS);
+        }
+        goals.add(NO_GOALS);
+        return new ProofTrace(goals, Arrays.asList(applications));
+    }
+
+    @Test
+    public void interactions_should_count_proof_method_invocations() {
+        ImplicationTautology rule = new ImplicationTautology();
+        Proof proof = createProof(
+                application(rule, RuleApplicationType.INTERACTIVE, null),
+                application(rule, RuleApplicationType.AUTOMATIC, "a"),
+                application(rule, RuleApplicationType.AUTOMATIC, "a"),
+                application(rule, RuleApplicationType.AUTOMATIC, "b"),
+                application(rule, RuleApplicationType.TACTIC, null),
+                application(rule, RuleApplicationType.TACTIC, null),
+                application(new CopyContours(), RuleApplicationType.INTERACTIVE, null));
+        MetricResults results = Metrics.compute(proof);
+        assertEquals(7, (int) results.get(StandardMetrics.LENGTH));
+        assertEquals(3, (int) results.get(StandardMetrics.NUMBER_OF_PROOF_METHOD_INVOCATIONS));
+        assertEquals(5, (int) results.get(StandardMetrics.NUMBER_OF_INTERACTIONS));
+        assertEquals(5 / 7.0, results.get(StandardMetrics.AVERAGE_INTERACTIONS), 1e-9);
+        assertEquals(3, (int) results.get(StandardMetrics.NUMBER_OF_AUTOMATIC_RULE_APPLICATIONS));
+        assertEquals(1, (int) results.get(StandardMetrics.COMPLEX_RULE_COUNT));
+        assertEquals(1 / 7.0, results.get(StandardMetrics.AVERAGE_NUMBER_OF_COMPLEX_RULES), 1e-9);
+    }
+
+    @Test
+    public void clutter_metrics_should_skip_empty_goals() {
+        ImplicationTautology rule = new ImplicationTautology();
+        Proof proof = createProof(application(rule, RuleApplicationType.INTERACTIVE, null), application(rule, RuleApplicationType.INTERACTIVE, null));
+        int clutter = ProofAnalyser.clutterScore(GOALS);
+        MetricResults results = Metrics.compute(proof);
+        assertEquals(clutter, (int) results.get(StandardMetrics.MAXIMUM_CLUTTER));
+        assertEquals(clutter, results.get(StandardMetrics.AVERAGE_CLUTTER), 1e-9);
+        assertEquals(0, (int) results.get(StandardMetrics.MAXIMAL_CLUTTER_VELOCITY));
+    }
+
+    @Test
+    public void long_proofs_should_not_overflow_the_stack() {
+        ImplicationTautology rule = new ImplicationTautology();
+        InferenceApplication[] applications = new InferenceApplication[200000];
+        for (int i = 0; i < applications.length; i++) {
+            applications[i] = application(rule, RuleApplicationType.AUTOMATIC, i % 2 == 0 ? "a" : "b");
+        }
+        Proof proof = createProof(applications);
+        assertEquals(applications.length - 1, (int) Metrics.compute(proof, StandardMetrics.NUMBER_OF_PROOF_METHOD_INVOCATIONS));
+    }
+
+    @Test
+    public void registered_metrics_should_be_computed() {
+        ProofMetric<Integer> emptySteps = new ProofMetric<Integer>() {
+            @Override
+            public String getName() {
+                return "test_empty_steps";
+            }
+
+            @Override
+            public MetricAccumulator<Integer> createAccumulator() {
+                return new MetricAccumulator<Integer>() {
+                    private int count;
+
+                    @Override
+                    public void visit(ProofStep step) {
+                        if (step.isEmpty()) {
+                            count++;
+                        }
+                    }
+
+                    @Override
+                    public Integer getResult() {
+                        return count;
+                    }
+                };
+            }
+        };
+        Metrics.registerMetric(emptySteps);
+        assertSame(emptySteps, Metrics.getMetric("test_empty_steps"));
+        assertTrue(Metrics.getKnownMetrics().contains(StandardMetrics.LENGTH));
+        Proof proof = createProof(application(new ImplicationTautology(), RuleApplicationType.INTERACTIVE, null));
+        assertEquals(1, (int) Metrics.compute(proof).get(emptySteps));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void results_should_only_contain_computed_metrics() {
+        Proof proof = createProof(application(new ImplicationTautology(), RuleApplicationType.INTERACTIVE, null));
+        Metrics.compute(proof, Arrays.<ProofMetric<?>>asList(StandardMetrics.LENGTH)).get(StandardMetrics.MAXIMUM_CLUTTER);
+    }
+}
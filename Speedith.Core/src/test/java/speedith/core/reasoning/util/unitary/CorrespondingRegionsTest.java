@@ -5,8 +5,12 @@ import speedith.core.lang.EulerDiagrams;
 import speedith.core.lang.PrimarySpiderDiagram;
 import speedith.core.lang.Region;
 import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static java.util.Arrays.asList;
@@ -93,4 +97,58 @@ public class CorrespondingRegionsTest {
     assertThat(createdRegion, equalTo(expectedRegion));
   }
 
+  @Test
+  public void correspondingRegion_should_equal_the_expansion_when_the_destination_contours_are_a_subset() {
+    assertCorrespondingRegionsEqualExpansion(new String[]{"A", "B", "C", "D"}, new String[]{"B", "D"});
+  }
+
+  @Test
+  public void correspondingRegion_should_equal_the_expansion_when_the_source_contours_are_a_subset() {
+    assertCorrespondingRegionsEqualExpansion(new String[]{"A", "C"}, new String[]{"A", "B", "C", "D"});
+  }
+
+  @Test
+  public void correspondingRegion_should_equal_the_expansion_when_the_contours_are_equal() {
+    assertCorrespondingRegionsEqualExpansion(new String[]{"A", "B", "C"}, new String[]{"A", "B", "C"});
+  }
+
+  @Test
+  public void correspondingRegion_should_equal_the_expansion_when_the_contours_overlap() {
+    assertCorrespondingRegionsEqualExpansion(new String[]{"A", "B", "C"}, new String[]{"B", "C", "D", "E"});
+    assertCorrespondingRegionsEqualExpansion(new String[]{"A", "B"}, new String[]{"C", "D"});
+  }
+
+  private static void assertCorrespondingRegionsEqualExpansion(String[] sourceContours, String[] destinationContours) {
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      PrimarySpiderDiagram source = randomDiagram(random, sourceContours);
+      PrimarySpiderDiagram destination = randomDiagram(random, destinationContours);
+      Region region = new Region(randomZones(random, Zones.allZonesForContours(sourceContours)));
+      CorrespondingRegions correspondingRegions = new CorrespondingRegions(source, destination);
+      assertThat(
+              correspondingRegions.correspondingRegion(region),
+              equalTo(correspondingRegions.correspondingRegionByExpansion(region))
+      );
+    }
+  }
+
+  private static PrimarySpiderDiagram randomDiagram(Random random, String[] contours) {
+    List<Zone> allZones = Zones.allZonesForContours(contours);
+    List<Zone> presentZones = randomZones(random, allZones);
+    if (presentZones.isEmpty()) {
+      // the diagram has to mention all contours
+      presentZones.add(allZones.get(0));
+    }
+    return createPrimarySD(null, null, randomZones(random, allZones), presentZones);
+  }
+
+  private static List<Zone> randomZones(Random random, List<Zone> zones) {
+    List<Zone> result = new ArrayList<>();
+    for (Zone zone : zones) {
+      if (random.nextBoolean()) {
+        result.add(zone);
+      }
+    }
+    return result;
+  }
 }
@@ -229,6 +229,11 @@ public class ProofPanel extends javax.swing.JPanel implements Proof, AutomaticPr
         }
         Goals normalised = ReasoningUtils.normalize(initialGoals);
         Proof tempProof = prover.generateProof(normalised);
+        replaceWithAutomaticProof(normalised, tempProof);
+        return proof;
+    }
+
+    private void replaceWithAutomaticProof(Goals normalised, Proof tempProof) {
         if (!(tempProof == null)) {
             newProof(normalised);
             for (InferenceApplication appl : tempProof.getInferenceApplications()) {
@@ -239,7 +244,6 @@ public class ProofPanel extends javax.swing.JPanel implements Proof, AutomaticPr
                 }
             }
         }
-        return proof;
     }
 
     @Override
@@ -259,6 +263,29 @@ public class ProofPanel extends javax.swing.JPanel implements Proof, AutomaticPr
         return this.proof;
     }
 
+    @Override
+    public SearchResult generateProof(Goals initialGoals, SearchLimits limits) throws AutomaticProofException {
+        if (initialGoals == null) {
+            throw  new AutomaticProofException("No subgoal to prove");
+        }
+        Goals normalised = ReasoningUtils.normalize(initialGoals);
+        SearchResult result = prover.generateProof(normalised, limits);
+        replaceWithAutomaticProof(normalised, result.getProof());
+        return new SearchResult(result.getProof() == null ? null : proof, result.getStatistics());
+    }
+
+    @Override
+    public SearchResult extendProof(Proof newProof, SearchLimits limits) throws AutomaticProofException {
+        if (proof == null || proof.getLastGoals() == null) {
+            throw new AutomaticProofException("No subgoal to prove");
+        }
+        SearchResult result = prover.extendProof(newProof, limits);
+        if (result.getProof() != null) {
+            extendProof(result.getProof());
+        }
+        return new SearchResult(result.getProof() == null ? null : proof, result.getStatistics());
+    }
+
     public Proof extendByOneStep(Proof newProof) throws AutomaticProofException {
         if (proof == null || proof.getLastGoals() == null) {
             throw new AutomaticProofException("No subgoal to prove");
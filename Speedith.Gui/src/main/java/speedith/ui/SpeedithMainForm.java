@@ -41,6 +41,7 @@ import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SpiderRegionArg;
 import speedith.core.reasoning.automatic.*;
+import speedith.core.reasoning.io.ProofFiles;
 import speedith.core.reasoning.rules.AddFeet;
 import speedith.core.reasoning.rules.SplitSpiders;
 import speedith.core.reasoning.rules.util.AutomaticUtils;
@@ -825,11 +826,8 @@ public class SpeedithMainForm extends javax.swing.JFrame {
           return;
         }
       }
-      try (
-              FileOutputStream fileStream = new FileOutputStream(file);
-              ObjectOutputStream objectStream = new ObjectOutputStream(fileStream)) {
-        objectStream.writeObject(proofPanel1.getProof());
-        objectStream.flush();
+      try {
+        ProofFiles.write(proofPanel1.getProof(), file);
       } catch (IOException ioe) {
         JOptionPane.showMessageDialog(this, "An error occurred while accessing the file:\n" + ioe.getLocalizedMessage());
       }
@@ -841,15 +839,10 @@ public class SpeedithMainForm extends javax.swing.JFrame {
     if (returnVal == JFileChooser.APPROVE_OPTION) {
       File file = proofFileChooser.getSelectedFile();
       Proof inputProof = null;
-      try (
-        FileInputStream inputStream = new FileInputStream(file);
-        ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-        inputProof = (Proof) objectInputStream.readObject();
-
+      try {
+        inputProof = ProofFiles.read(file);
       } catch (IOException ioe) {
         JOptionPane.showMessageDialog(this, "An error occurred while accessing the file:\n" + ioe.getLocalizedMessage());
-      }  catch (ClassNotFoundException e) {
-        e.printStackTrace();
       }
       proofPanel1.replaceCurrentProof(inputProof);
       this.setTitle("Speedith"+": " + file.getName());